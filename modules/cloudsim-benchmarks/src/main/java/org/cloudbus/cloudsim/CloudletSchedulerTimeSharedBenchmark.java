@@ -0,0 +1,115 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link CloudletSchedulerTimeShared#updateVmProcessing(double, List)}, the method
+ * called for each VM whenever its datacenter updates the processing of its cloudlets. The
+ * cloudlets are long enough not to finish during an iteration, so each update advances all of
+ * them and estimates their finish times, or only advances the work clock with completion
+ * tracking. Such a steady-state update allocates nothing, which running the benchmark with
+ * {@code -prof gc} shows as a {@code gc.alloc.rate.norm} of 0 B/op.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CloudletSchedulerTimeSharedBenchmark {
+
+	/** The number of PEs of the VM. */
+	private static final int PES = 4;
+
+	/** The MIPS of each PE of the VM. */
+	private static final double MIPS = 1000;
+
+	/** The number of cloudlets running in the VM. */
+	@Param({ "10", "100", "1000", "10000" })
+	public int cloudlets;
+
+	/** Whether the scheduler tracks the completion of the cloudlets. */
+	@Param({ "false", "true" })
+	public boolean completionTracking;
+
+	/** The scheduler. */
+	private CloudletSchedulerTimeShared scheduler;
+
+	/** The MIPS share of the VM. */
+	private List<Double> mipsShare;
+
+	/** The current time. */
+	private double time;
+
+	/**
+	 * Submits the cloudlets to a new scheduler.
+	 */
+	@Setup(Level.Iteration)
+	public void setUp() {
+		Log.disable();
+		CloudSim.init(1, Calendar.getInstance(), false);
+
+		mipsShare = new ArrayList<Double>();
+		for (int i = 0; i < PES; i++) {
+			mipsShare.add(MIPS);
+		}
+
+		time = 0;
+		scheduler = new CloudletSchedulerTimeShared(completionTracking);
+		scheduler.updateVmProcessing(time, mipsShare);
+		UtilizationModel utilizationModel = new UtilizationModelFull();
+		for (int i = 0; i < cloudlets; i++) {
+			// Long enough to run for a year of simulated time on the full VM
+			Cloudlet cloudlet = new Cloudlet(
+					i,
+					(long) (MIPS * PES * 365 * 24 * 3600),
+					1 + i % 2,
+					300,
+					300,
+					utilizationModel,
+					utilizationModel,
+					utilizationModel);
+			cloudlet.setResourceParameter(0, 0);
+			scheduler.cloudletSubmit(cloudlet);
+		}
+	}
+
+	/**
+	 * Updates the processing of the cloudlets after a second of simulated time.
+	 *
+	 * @return the estimated time of the next event
+	 */
+	@Benchmark
+	public double updateVmProcessing() {
+		time += 1;
+		return scheduler.updateVmProcessing(time, mipsShare);
+	}
+
+}
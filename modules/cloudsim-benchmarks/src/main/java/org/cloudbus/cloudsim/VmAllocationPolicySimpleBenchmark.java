@@ -0,0 +1,124 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link VmAllocationPolicySimple#allocateHostForVm(Vm)}. The hosts are half full
+ * with VMs of different sizes, and each operation places a new VM and then releases it, so that
+ * the state of the datacenter is the same for all the operations.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class VmAllocationPolicySimpleBenchmark {
+
+	/** The number of PEs of each host. */
+	private static final int HOST_PES = 8;
+
+	/** The MIPS of each PE. */
+	private static final int MIPS = 1000;
+
+	/** The number of hosts. */
+	@Param({ "1000", "10000", "100000" })
+	public int hosts;
+
+	/** The allocation policy. */
+	private VmAllocationPolicySimple policy;
+
+	/** The VM placed by the benchmark. */
+	private Vm vm;
+
+	/**
+	 * Creates the hosts and fills half of their PEs.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		Log.disable();
+		CloudSim.init(1, Calendar.getInstance(), false);
+
+		List<Host> hostList = new ArrayList<Host>();
+		for (int i = 0; i < hosts; i++) {
+			List<Pe> peList = new ArrayList<Pe>();
+			for (int j = 0; j < HOST_PES; j++) {
+				peList.add(new Pe(j, new PeProvisionerSimple(MIPS)));
+			}
+			hostList.add(new Host(
+					i,
+					new RamProvisionerSimple(HOST_PES * 2048),
+					new BwProvisionerSimple(HOST_PES * 1000),
+					1000000,
+					peList,
+					new VmSchedulerTimeShared(peList)));
+		}
+		policy = new VmAllocationPolicySimple(hostList);
+
+		int vmId = 0;
+		int usedPes = 0;
+		while (usedPes < hosts * HOST_PES / 2) {
+			Vm existing = createVm(vmId, 1 + vmId % 4);
+			if (!policy.allocateHostForVm(existing)) {
+				throw new IllegalStateException("The datacenter cannot be filled");
+			}
+			usedPes += existing.getNumberOfPes();
+			vmId++;
+		}
+		vm = createVm(vmId, 2);
+	}
+
+	/**
+	 * Creates a VM.
+	 *
+	 * @param id the id
+	 * @param pes the number of PEs
+	 * @return the VM
+	 */
+	private static Vm createVm(int id, int pes) {
+		return new Vm(id, 0, MIPS, pes, pes * 1024, pes * 500, 10000, "Xen", new CloudletSchedulerTimeShared());
+	}
+
+	/**
+	 * Places a VM and releases it.
+	 *
+	 * @return whether the VM was placed
+	 */
+	@Benchmark
+	public boolean allocateHostForVm() {
+		boolean result = policy.allocateHostForVm(vm);
+		policy.deallocateHostForVm(vm);
+		return result;
+	}
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicy;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.examples.power.Helper;
+import org.cloudbus.cloudsim.examples.power.random.RandomHelper;
+import org.cloudbus.cloudsim.power.PowerDatacenter;
+import org.cloudbus.cloudsim.power.PowerHost;
+
+/**
+ * The scenario of the power examples with the random workload, scaled to a given number of hosts
+ * and VMs. The scenario is created in the simulation of the calling thread, and is then either
+ * simulated to the end or up to a given time, after which the state of its datacenter can be
+ * inspected.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public class RandomPowerScenario {
+
+	/** The VMs. */
+	private final List<Vm> vmList;
+
+	/** The datacenter. */
+	private final PowerDatacenter datacenter;
+
+	/** The vm allocation policy. */
+	private final VmAllocationPolicy vmAllocationPolicy;
+
+	/**
+	 * Creates the scenario in a new simulation.
+	 *
+	 * @param hosts the number of hosts
+	 * @param vms the number of VMs, each running one cloudlet
+	 * @param policy the policy, written as <tt>allocation[:selection[:parameter]]</tt> as in the
+	 *            names of the power examples, e.g. <tt>lr:mmt:1.2</tt>
+	 * @throws Exception if the datacenter cannot be created
+	 */
+	public RandomPowerScenario(int hosts, int vms, String policy) throws Exception {
+		CloudSim.init(1, Calendar.getInstance(), false);
+
+		DatacenterBroker broker = Helper.createBroker();
+		List<Cloudlet> cloudletList = RandomHelper.createCloudletList(broker.getId(), vms);
+		vmList = Helper.createVmList(broker.getId(), vms);
+		List<PowerHost> hostList = Helper.createHostList(hosts);
+
+		String[] names = Arrays.copyOf(policy.split(":"), 3);
+		vmAllocationPolicy = Helper.getVmAllocationPolicy(
+				names[0],
+				names[1] == null ? "" : names[1],
+				names[2] == null ? "" : names[2],
+				hostList);
+		datacenter = (PowerDatacenter) Helper.createDatacenter(
+				"Datacenter",
+				PowerDatacenter.class,
+				hostList,
+				vmAllocationPolicy);
+		datacenter.setDisableMigrations(false);
+
+		broker.submitVmList(vmList);
+		broker.submitCloudletList(cloudletList);
+	}
+
+	/**
+	 * Simulates the scenario up to a given time.
+	 *
+	 * @param limit the simulated time at which the simulation stops
+	 * @return the time of the last event
+	 */
+	public double run(double limit) {
+		CloudSim.terminateSimulation(limit);
+		double lastClock = CloudSim.startSimulation();
+		CloudSim.stopSimulation();
+		return lastClock;
+	}
+
+	/**
+	 * Gets the datacenter.
+	 *
+	 * @return the datacenter
+	 */
+	public PowerDatacenter getDatacenter() {
+		return datacenter;
+	}
+
+	/**
+	 * Gets the vm allocation policy.
+	 *
+	 * @return the vm allocation policy
+	 */
+	public VmAllocationPolicy getVmAllocationPolicy() {
+		return vmAllocationPolicy;
+	}
+
+	/**
+	 * Gets the VMs.
+	 *
+	 * @return the VMs
+	 */
+	public List<Vm> getVmList() {
+		return vmList;
+	}
+
+}
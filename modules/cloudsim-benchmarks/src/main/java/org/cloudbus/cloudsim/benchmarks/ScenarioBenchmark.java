@@ -0,0 +1,194 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.Datacenter;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.Storage;
+import org.cloudbus.cloudsim.UtilizationModel;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.examples.power.Constants;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end benchmarks of whole simulations, from the creation of the entities to the end of the
+ * simulation. The simple scenario is the one of CloudSimExample6 scaled to a given number of VMs:
+ * a broker runs four cloudlets on each time-shared VM of a datacenter. The power scenario is the
+ * one of the power examples with the random workload, simulated for a day with a given policy.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ScenarioBenchmark {
+
+	/**
+	 * The size of the simple scenario.
+	 */
+	@State(Scope.Thread)
+	public static class SimpleScenario {
+
+		/** The number of VMs. */
+		@Param({ "20", "200", "2000" })
+		public int vms;
+
+		/**
+		 * Disables the output of the simulation.
+		 */
+		@Setup
+		public void setUp() {
+			Log.disable();
+		}
+
+	}
+
+	/**
+	 * Simulates the simple scenario.
+	 *
+	 * @param scenario the size of the scenario
+	 * @return the time of the last event
+	 * @throws Exception if the datacenter cannot be created
+	 */
+	@Benchmark
+	public double simple(SimpleScenario scenario) throws Exception {
+		CloudSim.init(1, Calendar.getInstance(), false);
+
+		// Two VMs per host
+		List<Host> hostList = new ArrayList<Host>();
+		for (int i = 0; i < (scenario.vms + 1) / 2; i++) {
+			List<Pe> peList = new ArrayList<Pe>();
+			peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+			peList.add(new Pe(1, new PeProvisionerSimple(1000)));
+			hostList.add(new Host(
+					i,
+					new RamProvisionerSimple(2048),
+					new BwProvisionerSimple(10000),
+					1000000,
+					peList,
+					new VmSchedulerTimeShared(peList)));
+		}
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+				"x86",
+				"Linux",
+				"Xen",
+				hostList,
+				10.0,
+				3.0,
+				0.05,
+				0.1,
+				0.1);
+		new Datacenter(
+				"Datacenter_0",
+				characteristics,
+				new VmAllocationPolicySimple(hostList),
+				new LinkedList<Storage>(),
+				0);
+
+		DatacenterBroker broker = new DatacenterBroker("Broker");
+		List<Vm> vmList = new ArrayList<Vm>();
+		for (int i = 0; i < scenario.vms; i++) {
+			vmList.add(new Vm(i, broker.getId(), 1000, 1, 512, 1000, 10000, "Xen", new CloudletSchedulerTimeShared()));
+		}
+		List<Cloudlet> cloudletList = new ArrayList<Cloudlet>();
+		UtilizationModel utilizationModel = new UtilizationModelFull();
+		for (int i = 0; i < 4 * scenario.vms; i++) {
+			Cloudlet cloudlet = new Cloudlet(
+					i,
+					10000 * (1 + i % 4),
+					1,
+					300,
+					300,
+					utilizationModel,
+					utilizationModel,
+					utilizationModel);
+			cloudlet.setUserId(broker.getId());
+			cloudletList.add(cloudlet);
+		}
+		broker.submitVmList(vmList);
+		broker.submitCloudletList(cloudletList);
+
+		double lastClock = CloudSim.startSimulation();
+		CloudSim.stopSimulation();
+		return lastClock;
+	}
+
+	/**
+	 * The size and policy of the power scenario.
+	 */
+	@State(Scope.Thread)
+	public static class PowerScenario {
+
+		/** The policy, written as in the names of the power examples. */
+		@Param({ "dvfs", "thr:mmt:0.8", "lr:mmt:1.2" })
+		public String policy;
+
+		/** The number of hosts, and of VMs. */
+		@Param({ "50", "800" })
+		public int hosts;
+
+		/**
+		 * Disables the output of the simulation.
+		 */
+		@Setup
+		public void setUp() {
+			Log.disable();
+		}
+
+	}
+
+	/**
+	 * Simulates a day of the power scenario.
+	 *
+	 * @param scenario the size and policy of the scenario
+	 * @return the energy consumed by the datacenter
+	 * @throws Exception if the datacenter cannot be created
+	 */
+	@Benchmark
+	public double power(PowerScenario scenario) throws Exception {
+		RandomPowerScenario randomPowerScenario = new RandomPowerScenario(
+				scenario.hosts,
+				scenario.hosts,
+				scenario.policy);
+		randomPowerScenario.run(Constants.SIMULATION_LIMIT);
+		return randomPowerScenario.getDatacenter().getPower();
+	}
+
+}
@@ -0,0 +1,261 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+import org.cloudbus.cloudsim.core.predicates.PredicateAny;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the event queues of the simulation kernel. The future queue is measured with the
+ * classic hold model, in which each operation removes the first event and schedules a new one at a
+ * random distance in the future, so that the size of the queue stays constant; and with the ticks
+ * of {@link Simulation#runClockTick()}, which remove all the events at the same time at once. The
+ * deferred queue is measured with events that are added to and then taken from the inboxes of a
+ * set of entities.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventQueueBenchmark {
+
+	/** The number of precomputed random values, a power of two. */
+	private static final int RANDOM_VALUES = 1 << 12;
+
+	/** The tag of the events. */
+	private static final int TAG = 1;
+
+	/**
+	 * A future queue filled with events.
+	 */
+	@State(Scope.Thread)
+	public static class FutureQueueState {
+
+		/** The implementation of the queue. */
+		@Param({ "TreeSet", "BinaryHeap", "Calendar" })
+		public String queue;
+
+		/** The number of events in the queue. */
+		@Param({ "100", "10000", "1000000" })
+		public int size;
+
+		/** The future queue. */
+		private FutureQueue futureQueue;
+
+		/** The exponentially distributed delays of the new events. */
+		private final double[] delays = new double[RANDOM_VALUES];
+
+		/** The integer delays of the new events, to make events at the same time. */
+		private final double[] tickDelays = new double[RANDOM_VALUES];
+
+		/** The index of the next random value. */
+		private int next;
+
+		/** The buffer of the events removed at the same time. */
+		private final List<SimEvent> buffer = new ArrayList<SimEvent>();
+
+		/**
+		 * Fills the queue.
+		 */
+		@Setup(Level.Trial)
+		public void setUp() {
+			Random random = new Random(1);
+			for (int i = 0; i < RANDOM_VALUES; i++) {
+				delays[i] = -Math.log(1 - random.nextDouble());
+				tickDelays[i] = 1 + random.nextInt(100);
+			}
+
+			if (queue.equals("TreeSet")) {
+				futureQueue = new FutureQueueTreeSet();
+			} else if (queue.equals("BinaryHeap")) {
+				futureQueue = new FutureQueueBinaryHeap();
+			} else if (queue.equals("Calendar")) {
+				futureQueue = new FutureQueueCalendar();
+			} else {
+				throw new IllegalArgumentException("Unknown future queue: " + queue);
+			}
+			for (int i = 0; i < size; i++) {
+				futureQueue.addEvent(new SimEvent(SimEvent.SEND, Math.floor(delays[i % RANDOM_VALUES]
+						* size), i % 100, i % 100, TAG, null));
+			}
+		}
+
+		/**
+		 * Gets the next random delay.
+		 *
+		 * @param values the random values
+		 * @return the delay
+		 */
+		private double nextDelay(double[] values) {
+			next = (next + 1) & (RANDOM_VALUES - 1);
+			return values[next];
+		}
+
+	}
+
+	/**
+	 * Removes the first event of the future queue and schedules a new one.
+	 *
+	 * @param state the future queue
+	 * @return the removed event
+	 */
+	@Benchmark
+	public SimEvent futureQueueHold(FutureQueueState state) {
+		SimEvent first = state.futureQueue.poll();
+		state.futureQueue.addEvent(new SimEvent(
+				SimEvent.SEND,
+				first.eventTime() + state.nextDelay(state.delays),
+				first.getSource(),
+				first.getDestination(),
+				TAG,
+				null));
+		return first;
+	}
+
+	/**
+	 * Removes all the events at the time of the first event of the future queue, and schedules a
+	 * new event for each of them at an integer distance in the future.
+	 *
+	 * @param state the future queue
+	 * @return the number of removed events
+	 */
+	@Benchmark
+	public int futureQueueTick(FutureQueueState state) {
+		List<SimEvent> buffer = state.buffer;
+		buffer.clear();
+		int count = state.futureQueue.pollAllAt(state.futureQueue.peek().eventTime(), buffer);
+		for (int i = 0; i < count; i++) {
+			SimEvent event = buffer.get(i);
+			state.futureQueue.addEvent(new SimEvent(
+					SimEvent.SEND,
+					Math.floor(event.eventTime()) + state.nextDelay(state.tickDelays),
+					event.getSource(),
+					event.getDestination(),
+					TAG,
+					null));
+		}
+		return count;
+	}
+
+	/**
+	 * A deferred queue with events waiting in the inboxes of a set of entities.
+	 */
+	@State(Scope.Thread)
+	public static class DeferredQueueState {
+
+		/** The number of entities. */
+		@Param({ "10", "1000" })
+		public int entities;
+
+		/** The number of events waiting in the inbox of each entity. */
+		@Param({ "1", "100" })
+		public int eventsPerEntity;
+
+		/** The deferred queue. */
+		private DeferredQueue deferredQueue;
+
+		/** The destinations of the new events. */
+		private final int[] destinations = new int[RANDOM_VALUES];
+
+		/** The index of the next destination. */
+		private int next;
+
+		/** The time of the next event. */
+		private double time;
+
+		/**
+		 * Fills the queue. The events have tags other than the one of the benchmarked events, so
+		 * that they are skipped by the predicates that select a tag.
+		 */
+		@Setup(Level.Trial)
+		public void setUp() {
+			Random random = new Random(1);
+			for (int i = 0; i < RANDOM_VALUES; i++) {
+				destinations[i] = random.nextInt(entities);
+			}
+
+			deferredQueue = new DeferredQueue();
+			for (int i = 0; i < eventsPerEntity; i++) {
+				for (int entity = 0; entity < entities; entity++) {
+					deferredQueue.addEvent(new SimEvent(SimEvent.SEND, time, entity, entity, TAG + 1 + i % 10, null));
+				}
+				time++;
+			}
+		}
+
+		/**
+		 * Adds a new event for the next entity.
+		 *
+		 * @return the destination of the event
+		 */
+		private int addEvent() {
+			next = (next + 1) & (RANDOM_VALUES - 1);
+			int destination = destinations[next];
+			deferredQueue.addEvent(new SimEvent(SimEvent.SEND, time++, destination, destination, TAG, null));
+			return destination;
+		}
+
+	}
+
+	/** The predicate that selects the benchmarked events. */
+	private static final Predicate TAG_PREDICATE = new PredicateType(TAG);
+
+	/** The predicate that selects any event. */
+	private static final Predicate ANY_PREDICATE = new PredicateAny();
+
+	/**
+	 * Adds an event for an entity, and takes it back from the inbox of the entity by its tag, as
+	 * {@link SimEntity#waitForEvent(Predicate)} does.
+	 *
+	 * @param state the deferred queue
+	 * @return the removed event
+	 */
+	@Benchmark
+	public SimEvent deferredQueueSelect(DeferredQueueState state) {
+		int destination = state.addEvent();
+		return state.deferredQueue.findFirst(destination, TAG_PREDICATE, true);
+	}
+
+	/**
+	 * Adds an event for an entity, and counts the events waiting for the entity with any tag, as
+	 * {@link SimEntity#numEventsWaiting()} does.
+	 *
+	 * @param state the deferred queue
+	 * @return the number of waiting events
+	 */
+	@Benchmark
+	public int deferredQueueCount(DeferredQueueState state) {
+		int destination = state.addEvent();
+		int count = state.deferredQueue.count(destination, ANY_PREDICATE);
+		state.deferredQueue.findFirst(destination, TAG_PREDICATE, true);
+		return count;
+	}
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.benchmarks.RandomPowerScenario;
+import org.cloudbus.cloudsim.examples.power.Constants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link PowerVmAllocationPolicyMigrationAbstract#optimizeAllocation(List)}, the
+ * periodic consolidation of the dynamic VM allocation policies. The random workload of the power
+ * examples is simulated for a number of scheduling intervals, so that the hosts have a utilization
+ * history, and the allocation of the VMs at that time is then optimized again and again. The
+ * optimization restores the allocation it started from, so each operation does the same work.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PowerVmAllocationPolicyMigrationBenchmark {
+
+	/** The number of scheduling intervals simulated before the benchmark. */
+	private static final int INTERVALS = 24;
+
+	/** The policy, written as in the names of the power examples. */
+	@Param({ "thr:mmt:0.8", "iqr:mc:1.5", "lr:mmt:1.2" })
+	public String policy;
+
+	/** The number of hosts, and of VMs. */
+	@Param({ "50", "800" })
+	public int hosts;
+
+	/** The allocation policy. */
+	private PowerVmAllocationPolicyMigrationAbstract vmAllocationPolicy;
+
+	/** The scenario. */
+	private RandomPowerScenario scenario;
+
+	/**
+	 * Simulates the scenario for a number of scheduling intervals.
+	 *
+	 * @throws Exception if the scenario cannot be created
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		Log.disable();
+		scenario = new RandomPowerScenario(hosts, hosts, policy);
+		scenario.run(INTERVALS * Constants.SCHEDULING_INTERVAL + 0.1);
+		vmAllocationPolicy = (PowerVmAllocationPolicyMigrationAbstract) scenario.getVmAllocationPolicy();
+	}
+
+	/**
+	 * Discards the execution times recorded by the policy during the iteration.
+	 */
+	@TearDown(Level.Iteration)
+	public void tearDown() {
+		vmAllocationPolicy.getExecutionTimeHistoryHostSelection().clear();
+		vmAllocationPolicy.getExecutionTimeHistoryVmSelection().clear();
+		vmAllocationPolicy.getExecutionTimeHistoryVmReallocation().clear();
+		vmAllocationPolicy.getExecutionTimeHistoryTotal().clear();
+	}
+
+	/**
+	 * Optimizes the allocation of the VMs.
+	 *
+	 * @return the migrations
+	 */
+	@Benchmark
+	public List<Map<String, Object>> optimizeAllocation() {
+		return vmAllocationPolicy.optimizeAllocation(scenario.getVmList());
+	}
+
+}
@@ -0,0 +1,28 @@
+package org.cloudbus.cloudsim.examples;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerShortestPredictedJobFirst;
+
+/**
+ * A shortest-predicted-job-first scheduler for the transcoding VMs. It starts the waiting
+ * transcoding cloudlets in the order of their predicted lengths, which are set when the
+ * cloudlets are created, instead of their actual lengths.
+ */
+public class TranscodingCloudletScheduler extends CloudletSchedulerShortestPredictedJobFirst {
+
+    /**
+     * Gets the predicted length of a transcoding cloudlet, or the actual length of any other
+     * cloudlet.
+     *
+     * @param cloudlet the cloudlet
+     * @return the predicted length
+     */
+    @Override
+    protected double getPredictedLength(Cloudlet cloudlet) {
+        if (cloudlet instanceof TranscodingCloudlet) {
+            return ((TranscodingCloudlet) cloudlet).getPredictedCloudletLength();
+        }
+        return super.getPredictedLength(cloudlet);
+    }
+
+}
@@ -11,6 +11,7 @@ import java.io.BufferedWriter;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -23,6 +24,8 @@ import org.cloudbus.cloudsim.core.CloudSimTags;
 import org.cloudbus.cloudsim.core.SimEntity;
 import org.cloudbus.cloudsim.core.SimEvent;
 import org.cloudbus.cloudsim.lists.CloudletList;
+import org.cloudbus.cloudsim.lists.IndexedCloudletList;
+import org.cloudbus.cloudsim.lists.IndexedVmList;
 import org.cloudbus.cloudsim.lists.VmList;
 import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
@@ -140,9 +143,9 @@ public class TranscodingDatacenterBroker extends SimEntity {
     public TranscodingDatacenterBroker(String name) throws Exception {
         super(name);
 
-        setVmList(new ArrayList<Vm>());
-        setVmsCreatedList(new ArrayList<Vm>());
-        setCloudletList(new ArrayList<Cloudlet>());
+        setVmList(new IndexedVmList<Vm>());
+        setVmsCreatedList(new IndexedVmList<Vm>());
+        setCloudletList(new IndexedCloudletList<Cloudlet>());
         setCloudletSubmittedList(new ArrayList<Cloudlet>());
         setCloudletReceivedList(new ArrayList<Cloudlet>());
 
@@ -254,6 +257,9 @@ public class TranscodingDatacenterBroker extends SimEntity {
             case CloudSimTags.VM_CREATE_ACK:
                 processVmCreate(ev);
                 break;
+            case CloudSimTags.VM_CREATE_BATCH_ACK:
+                processVmCreateBatch(ev);
+                break;
             case CloudSimTags.VM_DESTROY_ACK:
                 processVmDestroy(ev);
                 break;
@@ -321,10 +327,34 @@ public class TranscodingDatacenterBroker extends SimEntity {
      */
     protected void processVmCreate(SimEvent ev) {
         int[] data = (int[]) ev.getData();
-        int datacenterId = data[0];
-        int vmId = data[1];
-        int result = data[2];
+        processVmCreate(data[0], data[1], data[2]);
+    }
+
+    /**
+     * Process the ack received due to a request for the creation of a list of VMs, which holds
+     * the id of the datacenter followed by the id and the result of the creation of each VM.
+     *
+     * @param ev a SimEvent object
+     * @pre ev != null
+     * @post $none
+     */
+    protected void processVmCreateBatch(SimEvent ev) {
+        int[] data = (int[]) ev.getData();
+        for (int i = 1; i < data.length; i += 2) {
+            processVmCreate(data[0], data[i], data[i + 1]);
+        }
+    }
 
+    /**
+     * Process the result of the creation of a VM.
+     *
+     * @param datacenterId the id of the datacenter
+     * @param vmId the id of the VM
+     * @param result {@link CloudSimTags#TRUE} if the VM has been created
+     * @pre $none
+     * @post $none
+     */
+    protected void processVmCreate(int datacenterId, int vmId, int result) {
         if (result == CloudSimTags.TRUE) {
             getVmsToDatacentersMap().put(vmId, datacenterId);
             getVmsCreatedList().add(VmList.getById(getVmList(), vmId));
@@ -452,16 +482,20 @@ public class TranscodingDatacenterBroker extends SimEntity {
                         }
                     }
 
-                    // create more new vms if needed
+                    // create more new vms if needed, in a single request
+                    List<Vm> batch = new ArrayList<Vm>();
                     for (Vm vm : createVM(getId(), vmsToRequest, vmId)) {
                         if (!getVmsToDatacentersMap().containsKey(vm.getId())) {
                             Log.printLine(CloudSim.clock() + ": " + getName() + ": Trying to Create VM #" + vm.getId()
                                     + " in " + datacenterName);
-                            sendNow(datacenterId, CloudSimTags.VM_CREATE_ACK, vm);
+                            batch.add(vm);
                             getVmList().add(vm);
                             requestedVms++;
                         }
                     }
+                    if (!batch.isEmpty()) {
+                        sendNow(datacenterId, CloudSimTags.VM_CREATE_BATCH, batch);
+                    }
                     vmsToRequest = 0;
                 } else {
 
@@ -527,6 +561,7 @@ public class TranscodingDatacenterBroker extends SimEntity {
         }
 
         int vmIndex = getBestVmIndex();
+        Map<Integer, List<Cloudlet>> batches = new LinkedHashMap<Integer, List<Cloudlet>>();
         for (Cloudlet cld : getCloudletList()) {
             TranscodingCloudlet cloudlet = (TranscodingCloudlet) cld; //here type casting required or returns as type of parent class
             Vm vm;
@@ -548,7 +583,13 @@ public class TranscodingDatacenterBroker extends SimEntity {
             cloudlet.setPredictedWaitingLength(getVmsToJobLoadMap().get(vm.getId()));
 
             //cloudlet.transcodingRate = cloudlet.streamPlayRate;
-            sendNow(getVmsToDatacentersMap().get(vm.getId()), CloudSimTags.CLOUDLET_SUBMIT, cloudlet);
+            int datacenterId = getVmsToDatacentersMap().get(vm.getId());
+            List<Cloudlet> batch = batches.get(datacenterId);
+            if (batch == null) {
+                batch = new ArrayList<Cloudlet>();
+                batches.put(datacenterId, batch);
+            }
+            batch.add(cloudlet);
             cloudletsSubmitted++;
 
             //increase the job count and load of each vm
@@ -561,6 +602,11 @@ public class TranscodingDatacenterBroker extends SimEntity {
             getCloudletSubmittedList().add(cloudlet);
         }
 
+        // send the cloudlets of each datacenter in a single submission
+        for (Map.Entry<Integer, List<Cloudlet>> batch : batches.entrySet()) {
+            sendNow(batch.getKey(), CloudSimTags.CLOUDLET_SUBMIT_BATCH, batch.getValue());
+        }
+
         // remove submitted cloudlets from waiting list
         for (Cloudlet cloudlet : getCloudletSubmittedList()) {
             getCloudletList().remove(cloudlet);
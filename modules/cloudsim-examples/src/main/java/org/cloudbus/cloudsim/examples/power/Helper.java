@@ -7,6 +7,7 @@ import java.io.IOException;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -33,9 +34,21 @@ import org.cloudbus.cloudsim.power.PowerHost;
 import org.cloudbus.cloudsim.power.PowerHostUtilizationHistory;
 import org.cloudbus.cloudsim.power.PowerVm;
 import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationAbstract;
+import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationInterQuartileRange;
+import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationLocalRegression;
+import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationLocalRegressionRobust;
+import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationMedianAbsoluteDeviation;
+import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationStaticThreshold;
+import org.cloudbus.cloudsim.power.PowerVmAllocationPolicySimple;
+import org.cloudbus.cloudsim.power.PowerVmSelectionPolicy;
+import org.cloudbus.cloudsim.power.PowerVmSelectionPolicyMaximumCorrelation;
+import org.cloudbus.cloudsim.power.PowerVmSelectionPolicyMinimumMigrationTime;
+import org.cloudbus.cloudsim.power.PowerVmSelectionPolicyMinimumUtilization;
+import org.cloudbus.cloudsim.power.PowerVmSelectionPolicyRandomSelection;
 import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.cloudbus.cloudsim.util.ExecutionTimeMeasurer;
 import org.cloudbus.cloudsim.util.MathUtil;
 
 /**
@@ -234,54 +247,47 @@ public class Helper {
 	}
 
 	/**
-	 * Prints the results.
+	 * Gets the results of a simulation: the number of hosts and VMs, the simulation time, the energy
+	 * consumption, the number of migrations, the SLA metrics, the times before host shutdowns and
+	 * VM migrations, and the execution times of the VM allocation policy if it migrates VMs.
 	 * 
 	 * @param datacenter the datacenter
+	 * @param vms the vms
 	 * @param lastClock the last clock
-	 * @param experimentName the experiment name
-	 * @param outputInCsv the output in csv
-	 * @param outputFolder the output folder
+	 * @return the results by name, in the order of the columns of the CSV output
 	 */
-	public static void printResults(
-			PowerDatacenter datacenter,
-			List<Vm> vms,
-			double lastClock,
-			String experimentName,
-			boolean outputInCsv,
-			String outputFolder) {
-		Log.enable();
+	public static Map<String, Double> getResults(PowerDatacenter datacenter, List<Vm> vms, double lastClock) {
 		List<Host> hosts = datacenter.getHostList();
+		Map<String, Double> results = new LinkedHashMap<String, Double>();
 
-		int numberOfHosts = hosts.size();
-		int numberOfVms = vms.size();
-
-		double totalSimulationTime = lastClock;
-		double energy = datacenter.getPower() / (3600 * 1000);
-		int numberOfMigrations = datacenter.getMigrationCount();
+		results.put("number_of_hosts", (double) hosts.size());
+		results.put("number_of_vms", (double) vms.size());
+		results.put("total_simulation_time", lastClock);
+		results.put("energy", datacenter.getPower() / (3600 * 1000));
+		results.put("number_of_migrations", (double) datacenter.getMigrationCount());
 
 		Map<String, Double> slaMetrics = getSlaMetrics(vms);
 
-		double slaOverall = slaMetrics.get("overall");
-		double slaAverage = slaMetrics.get("average");
 		double slaDegradationDueToMigration = slaMetrics.get("underallocated_migration");
-		// double slaTimePerVmWithMigration = slaMetrics.get("sla_time_per_vm_with_migration");
-		// double slaTimePerVmWithoutMigration =
-		// slaMetrics.get("sla_time_per_vm_without_migration");
-		// double slaTimePerHost = getSlaTimePerHost(hosts);
 		double slaTimePerActiveHost = getSlaTimePerActiveHost(hosts);
 
-		double sla = slaTimePerActiveHost * slaDegradationDueToMigration;
+		results.put("sla", slaTimePerActiveHost * slaDegradationDueToMigration);
+		results.put("sla_time_per_active_host", slaTimePerActiveHost);
+		results.put("sla_degradation_due_to_migration", slaDegradationDueToMigration);
+		results.put("sla_overall", slaMetrics.get("overall"));
+		results.put("sla_average", slaMetrics.get("average"));
 
 		List<Double> timeBeforeHostShutdown = getTimesBeforeHostShutdown(hosts);
 
-		int numberOfHostShutdowns = timeBeforeHostShutdown.size();
-
 		double meanTimeBeforeHostShutdown = Double.NaN;
 		double stDevTimeBeforeHostShutdown = Double.NaN;
 		if (!timeBeforeHostShutdown.isEmpty()) {
 			meanTimeBeforeHostShutdown = MathUtil.mean(timeBeforeHostShutdown);
 			stDevTimeBeforeHostShutdown = MathUtil.stDev(timeBeforeHostShutdown);
 		}
+		results.put("number_of_host_shutdowns", (double) timeBeforeHostShutdown.size());
+		results.put("mean_time_before_host_shutdown", meanTimeBeforeHostShutdown);
+		results.put("stdev_time_before_host_shutdown", stDevTimeBeforeHostShutdown);
 
 		List<Double> timeBeforeVmMigration = getTimesBeforeVmMigration(vms);
 		double meanTimeBeforeVmMigration = Double.NaN;
@@ -290,6 +296,75 @@ public class Helper {
 			meanTimeBeforeVmMigration = MathUtil.mean(timeBeforeVmMigration);
 			stDevTimeBeforeVmMigration = MathUtil.stDev(timeBeforeVmMigration);
 		}
+		results.put("mean_time_before_vm_migration", meanTimeBeforeVmMigration);
+		results.put("stdev_time_before_vm_migration", stDevTimeBeforeVmMigration);
+
+		if (datacenter.getVmAllocationPolicy() instanceof PowerVmAllocationPolicyMigrationAbstract) {
+			PowerVmAllocationPolicyMigrationAbstract vmAllocationPolicy = (PowerVmAllocationPolicyMigrationAbstract) datacenter
+					.getVmAllocationPolicy();
+
+			results.put("execution_time_vm_selection_mean", MathUtil.mean(vmAllocationPolicy
+					.getExecutionTimeHistoryVmSelection()));
+			results.put("execution_time_vm_selection_stdev", MathUtil.stDev(vmAllocationPolicy
+					.getExecutionTimeHistoryVmSelection()));
+			results.put("execution_time_host_selection_mean", MathUtil.mean(vmAllocationPolicy
+					.getExecutionTimeHistoryHostSelection()));
+			results.put("execution_time_host_selection_stdev", MathUtil.stDev(vmAllocationPolicy
+					.getExecutionTimeHistoryHostSelection()));
+			results.put("execution_time_vm_reallocation_mean", MathUtil.mean(vmAllocationPolicy
+					.getExecutionTimeHistoryVmReallocation()));
+			results.put("execution_time_vm_reallocation_stdev", MathUtil.stDev(vmAllocationPolicy
+					.getExecutionTimeHistoryVmReallocation()));
+			results.put("execution_time_total_mean", MathUtil.mean(vmAllocationPolicy
+					.getExecutionTimeHistoryTotal()));
+			results.put("execution_time_total_stdev", MathUtil.stDev(vmAllocationPolicy
+					.getExecutionTimeHistoryTotal()));
+		}
+
+		return results;
+	}
+
+	/**
+	 * Prints the results.
+	 * 
+	 * @param datacenter the datacenter
+	 * @param lastClock the last clock
+	 * @param experimentName the experiment name
+	 * @param outputInCsv the output in csv
+	 * @param outputFolder the output folder
+	 */
+	public static void printResults(
+			PowerDatacenter datacenter,
+			List<Vm> vms,
+			double lastClock,
+			String experimentName,
+			boolean outputInCsv,
+			String outputFolder) {
+		Log.enable();
+		List<Host> hosts = datacenter.getHostList();
+		Map<String, Double> results = getResults(datacenter, vms, lastClock);
+
+		int numberOfHosts = results.get("number_of_hosts").intValue();
+		int numberOfVms = results.get("number_of_vms").intValue();
+
+		double totalSimulationTime = results.get("total_simulation_time");
+		double energy = results.get("energy");
+		int numberOfMigrations = results.get("number_of_migrations").intValue();
+
+		double slaOverall = results.get("sla_overall");
+		double slaAverage = results.get("sla_average");
+		double slaDegradationDueToMigration = results.get("sla_degradation_due_to_migration");
+		double slaTimePerActiveHost = results.get("sla_time_per_active_host");
+
+		double sla = results.get("sla");
+
+		int numberOfHostShutdowns = results.get("number_of_host_shutdowns").intValue();
+
+		double meanTimeBeforeHostShutdown = results.get("mean_time_before_host_shutdown");
+		double stDevTimeBeforeHostShutdown = results.get("stdev_time_before_host_shutdown");
+
+		double meanTimeBeforeVmMigration = results.get("mean_time_before_vm_migration");
+		double stDevTimeBeforeVmMigration = results.get("stdev_time_before_vm_migration");
 
 		if (outputInCsv) {
 			File folder = new File(outputFolder);
@@ -312,6 +387,10 @@ public class Helper {
 			if (!folder4.exists()) {
 				folder4.mkdir();
 			}
+			File folder5 = new File(outputFolder + "/execution_times");
+			if (!folder5.exists()) {
+				folder5.mkdir();
+			}
 
 			StringBuilder data = new StringBuilder();
 			String delimeter = ",";
@@ -341,22 +420,14 @@ public class Helper {
 				PowerVmAllocationPolicyMigrationAbstract vmAllocationPolicy = (PowerVmAllocationPolicyMigrationAbstract) datacenter
 						.getVmAllocationPolicy();
 
-				double executionTimeVmSelectionMean = MathUtil.mean(vmAllocationPolicy
-						.getExecutionTimeHistoryVmSelection());
-				double executionTimeVmSelectionStDev = MathUtil.stDev(vmAllocationPolicy
-						.getExecutionTimeHistoryVmSelection());
-				double executionTimeHostSelectionMean = MathUtil.mean(vmAllocationPolicy
-						.getExecutionTimeHistoryHostSelection());
-				double executionTimeHostSelectionStDev = MathUtil.stDev(vmAllocationPolicy
-						.getExecutionTimeHistoryHostSelection());
-				double executionTimeVmReallocationMean = MathUtil.mean(vmAllocationPolicy
-						.getExecutionTimeHistoryVmReallocation());
-				double executionTimeVmReallocationStDev = MathUtil.stDev(vmAllocationPolicy
-						.getExecutionTimeHistoryVmReallocation());
-				double executionTimeTotalMean = MathUtil.mean(vmAllocationPolicy
-						.getExecutionTimeHistoryTotal());
-				double executionTimeTotalStDev = MathUtil.stDev(vmAllocationPolicy
-						.getExecutionTimeHistoryTotal());
+				double executionTimeVmSelectionMean = results.get("execution_time_vm_selection_mean");
+				double executionTimeVmSelectionStDev = results.get("execution_time_vm_selection_stdev");
+				double executionTimeHostSelectionMean = results.get("execution_time_host_selection_mean");
+				double executionTimeHostSelectionStDev = results.get("execution_time_host_selection_stdev");
+				double executionTimeVmReallocationMean = results.get("execution_time_vm_reallocation_mean");
+				double executionTimeVmReallocationStDev = results.get("execution_time_vm_reallocation_stdev");
+				double executionTimeTotalMean = results.get("execution_time_total_mean");
+				double executionTimeTotalStDev = results.get("execution_time_total_stdev");
 
 				data.append(String.format("%.5f", executionTimeVmSelectionMean) + delimeter);
 				data.append(String.format("%.5f", executionTimeVmSelectionStDev) + delimeter);
@@ -373,11 +444,21 @@ public class Helper {
 
 			data.append("\n");
 
+			List<Double> timeBeforeHostShutdown = getTimesBeforeHostShutdown(hosts);
+			List<Double> timeBeforeVmMigration = getTimesBeforeVmMigration(vms);
+
 			writeDataRow(data.toString(), outputFolder + "/stats/" + experimentName + "_stats.csv");
 			writeDataColumn(timeBeforeHostShutdown, outputFolder + "/time_before_host_shutdown/"
 					+ experimentName + "_time_before_host_shutdown.csv");
 			writeDataColumn(timeBeforeVmMigration, outputFolder + "/time_before_vm_migration/"
 					+ experimentName + "_time_before_vm_migration.csv");
+			try {
+				ExecutionTimeMeasurer.writeCsv(outputFolder + "/execution_times/" + experimentName
+						+ "_execution_times.csv");
+			} catch (IOException e) {
+				e.printStackTrace();
+				System.exit(0);
+			}
 
 		} else {
 			Log.setDisabled(false);
@@ -415,25 +496,14 @@ public class Helper {
 					stDevTimeBeforeVmMigration));
 
 			if (datacenter.getVmAllocationPolicy() instanceof PowerVmAllocationPolicyMigrationAbstract) {
-				PowerVmAllocationPolicyMigrationAbstract vmAllocationPolicy = (PowerVmAllocationPolicyMigrationAbstract) datacenter
-						.getVmAllocationPolicy();
-
-				double executionTimeVmSelectionMean = MathUtil.mean(vmAllocationPolicy
-						.getExecutionTimeHistoryVmSelection());
-				double executionTimeVmSelectionStDev = MathUtil.stDev(vmAllocationPolicy
-						.getExecutionTimeHistoryVmSelection());
-				double executionTimeHostSelectionMean = MathUtil.mean(vmAllocationPolicy
-						.getExecutionTimeHistoryHostSelection());
-				double executionTimeHostSelectionStDev = MathUtil.stDev(vmAllocationPolicy
-						.getExecutionTimeHistoryHostSelection());
-				double executionTimeVmReallocationMean = MathUtil.mean(vmAllocationPolicy
-						.getExecutionTimeHistoryVmReallocation());
-				double executionTimeVmReallocationStDev = MathUtil.stDev(vmAllocationPolicy
-						.getExecutionTimeHistoryVmReallocation());
-				double executionTimeTotalMean = MathUtil.mean(vmAllocationPolicy
-						.getExecutionTimeHistoryTotal());
-				double executionTimeTotalStDev = MathUtil.stDev(vmAllocationPolicy
-						.getExecutionTimeHistoryTotal());
+				double executionTimeVmSelectionMean = results.get("execution_time_vm_selection_mean");
+				double executionTimeVmSelectionStDev = results.get("execution_time_vm_selection_stdev");
+				double executionTimeHostSelectionMean = results.get("execution_time_host_selection_mean");
+				double executionTimeHostSelectionStDev = results.get("execution_time_host_selection_stdev");
+				double executionTimeVmReallocationMean = results.get("execution_time_vm_reallocation_mean");
+				double executionTimeVmReallocationStDev = results.get("execution_time_vm_reallocation_stdev");
+				double executionTimeTotalMean = results.get("execution_time_total_mean");
+				double executionTimeTotalStDev = results.get("execution_time_total_stdev");
 
 				Log.printLine(String.format(
 						"Execution time - VM selection mean: %.5f sec",
@@ -484,6 +554,129 @@ public class Helper {
 		return csvName.toString();
 	}
 
+	/**
+	 * Gets the experiment name.
+	 * 
+	 * @param args the args
+	 * @return the experiment name
+	 */
+	public static String getExperimentName(String... args) {
+		StringBuilder experimentName = new StringBuilder();
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].isEmpty()) {
+				continue;
+			}
+			if (i != 0) {
+				experimentName.append("_");
+			}
+			experimentName.append(args[i]);
+		}
+		return experimentName.toString();
+	}
+
+	/**
+	 * Gets the vm allocation policy.
+	 * 
+	 * @param vmAllocationPolicyName the vm allocation policy name
+	 * @param vmSelectionPolicyName the vm selection policy name
+	 * @param parameterName the parameter name
+	 * @param hostList the host list
+	 * @return the vm allocation policy
+	 */
+	public static VmAllocationPolicy getVmAllocationPolicy(
+			String vmAllocationPolicyName,
+			String vmSelectionPolicyName,
+			String parameterName,
+			List<PowerHost> hostList) {
+		VmAllocationPolicy vmAllocationPolicy = null;
+		PowerVmSelectionPolicy vmSelectionPolicy = null;
+		if (!vmSelectionPolicyName.isEmpty()) {
+			vmSelectionPolicy = getVmSelectionPolicy(vmSelectionPolicyName);
+		}
+		double parameter = 0;
+		if (!parameterName.isEmpty()) {
+			parameter = Double.valueOf(parameterName);
+		}
+		if (vmAllocationPolicyName.equals("iqr")) {
+			PowerVmAllocationPolicyMigrationAbstract fallbackVmSelectionPolicy = new PowerVmAllocationPolicyMigrationStaticThreshold(
+					hostList,
+					vmSelectionPolicy,
+					0.7);
+			vmAllocationPolicy = new PowerVmAllocationPolicyMigrationInterQuartileRange(
+					hostList,
+					vmSelectionPolicy,
+					parameter,
+					fallbackVmSelectionPolicy);
+		} else if (vmAllocationPolicyName.equals("mad")) {
+			PowerVmAllocationPolicyMigrationAbstract fallbackVmSelectionPolicy = new PowerVmAllocationPolicyMigrationStaticThreshold(
+					hostList,
+					vmSelectionPolicy,
+					0.7);
+			vmAllocationPolicy = new PowerVmAllocationPolicyMigrationMedianAbsoluteDeviation(
+					hostList,
+					vmSelectionPolicy,
+					parameter,
+					fallbackVmSelectionPolicy);
+		} else if (vmAllocationPolicyName.equals("lr")) {
+			PowerVmAllocationPolicyMigrationAbstract fallbackVmSelectionPolicy = new PowerVmAllocationPolicyMigrationStaticThreshold(
+					hostList,
+					vmSelectionPolicy,
+					0.7);
+			vmAllocationPolicy = new PowerVmAllocationPolicyMigrationLocalRegression(
+					hostList,
+					vmSelectionPolicy,
+					parameter,
+					Constants.SCHEDULING_INTERVAL,
+					fallbackVmSelectionPolicy);
+		} else if (vmAllocationPolicyName.equals("lrr")) {
+			PowerVmAllocationPolicyMigrationAbstract fallbackVmSelectionPolicy = new PowerVmAllocationPolicyMigrationStaticThreshold(
+					hostList,
+					vmSelectionPolicy,
+					0.7);
+			vmAllocationPolicy = new PowerVmAllocationPolicyMigrationLocalRegressionRobust(
+					hostList,
+					vmSelectionPolicy,
+					parameter,
+					Constants.SCHEDULING_INTERVAL,
+					fallbackVmSelectionPolicy);
+		} else if (vmAllocationPolicyName.equals("thr")) {
+			vmAllocationPolicy = new PowerVmAllocationPolicyMigrationStaticThreshold(
+					hostList,
+					vmSelectionPolicy,
+					parameter);
+		} else if (vmAllocationPolicyName.equals("dvfs")) {
+			vmAllocationPolicy = new PowerVmAllocationPolicySimple(hostList);
+		} else {
+			System.out.println("Unknown VM allocation policy: " + vmAllocationPolicyName);
+			System.exit(0);
+		}
+		return vmAllocationPolicy;
+	}
+
+	/**
+	 * Gets the vm selection policy.
+	 * 
+	 * @param vmSelectionPolicyName the vm selection policy name
+	 * @return the vm selection policy
+	 */
+	public static PowerVmSelectionPolicy getVmSelectionPolicy(String vmSelectionPolicyName) {
+		PowerVmSelectionPolicy vmSelectionPolicy = null;
+		if (vmSelectionPolicyName.equals("mc")) {
+			vmSelectionPolicy = new PowerVmSelectionPolicyMaximumCorrelation(
+					new PowerVmSelectionPolicyMinimumMigrationTime());
+		} else if (vmSelectionPolicyName.equals("mmt")) {
+			vmSelectionPolicy = new PowerVmSelectionPolicyMinimumMigrationTime();
+		} else if (vmSelectionPolicyName.equals("mu")) {
+			vmSelectionPolicy = new PowerVmSelectionPolicyMinimumUtilization();
+		} else if (vmSelectionPolicyName.equals("rs")) {
+			vmSelectionPolicy = new PowerVmSelectionPolicyRandomSelection();
+		} else {
+			System.out.println("Unknown VM selection policy: " + vmSelectionPolicyName);
+			System.exit(0);
+		}
+		return vmSelectionPolicy;
+	}
+
 	/**
 	 * Gets the sla time per active host.
 	 * 
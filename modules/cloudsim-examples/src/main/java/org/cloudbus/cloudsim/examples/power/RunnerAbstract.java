@@ -14,18 +14,7 @@ import org.cloudbus.cloudsim.VmAllocationPolicy;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.power.PowerDatacenter;
 import org.cloudbus.cloudsim.power.PowerHost;
-import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationAbstract;
-import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationInterQuartileRange;
-import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationLocalRegression;
-import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationLocalRegressionRobust;
-import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationMedianAbsoluteDeviation;
-import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationStaticThreshold;
-import org.cloudbus.cloudsim.power.PowerVmAllocationPolicySimple;
 import org.cloudbus.cloudsim.power.PowerVmSelectionPolicy;
-import org.cloudbus.cloudsim.power.PowerVmSelectionPolicyMaximumCorrelation;
-import org.cloudbus.cloudsim.power.PowerVmSelectionPolicyMinimumMigrationTime;
-import org.cloudbus.cloudsim.power.PowerVmSelectionPolicyMinimumUtilization;
-import org.cloudbus.cloudsim.power.PowerVmSelectionPolicyRandomSelection;
 
 /**
  * The Class RunnerAbstract.
@@ -43,19 +32,19 @@ import org.cloudbus.cloudsim.power.PowerVmSelectionPolicyRandomSelection;
 public abstract class RunnerAbstract {
 
 	/** The enable output. */
-	private static boolean enableOutput;
+	private boolean enableOutput;
 
 	/** The broker. */
-	protected static DatacenterBroker broker;
+	protected DatacenterBroker broker;
 
 	/** The cloudlet list. */
-	protected static List<Cloudlet> cloudletList;
+	protected List<Cloudlet> cloudletList;
 
 	/** The vm list. */
-	protected static List<Vm> vmList;
+	protected List<Vm> vmList;
 
 	/** The host list. */
-	protected static List<PowerHost> hostList;
+	protected List<PowerHost> hostList;
 
 	/**
 	 * Run.
@@ -201,21 +190,11 @@ public abstract class RunnerAbstract {
 	 * @return the experiment name
 	 */
 	protected String getExperimentName(String... args) {
-		StringBuilder experimentName = new StringBuilder();
-		for (int i = 0; i < args.length; i++) {
-			if (args[i].isEmpty()) {
-				continue;
-			}
-			if (i != 0) {
-				experimentName.append("_");
-			}
-			experimentName.append(args[i]);
-		}
-		return experimentName.toString();
+		return Helper.getExperimentName(args);
 	}
 
 	/**
-	 * Gets the vm allocation policy.
+	 * Gets the vm allocation policy for the hosts of this runner.
 	 * 
 	 * @param vmAllocationPolicyName the vm allocation policy name
 	 * @param vmSelectionPolicyName the vm selection policy name
@@ -226,69 +205,7 @@ public abstract class RunnerAbstract {
 			String vmAllocationPolicyName,
 			String vmSelectionPolicyName,
 			String parameterName) {
-		VmAllocationPolicy vmAllocationPolicy = null;
-		PowerVmSelectionPolicy vmSelectionPolicy = null;
-		if (!vmSelectionPolicyName.isEmpty()) {
-			vmSelectionPolicy = getVmSelectionPolicy(vmSelectionPolicyName);
-		}
-		double parameter = 0;
-		if (!parameterName.isEmpty()) {
-			parameter = Double.valueOf(parameterName);
-		}
-		if (vmAllocationPolicyName.equals("iqr")) {
-			PowerVmAllocationPolicyMigrationAbstract fallbackVmSelectionPolicy = new PowerVmAllocationPolicyMigrationStaticThreshold(
-					hostList,
-					vmSelectionPolicy,
-					0.7);
-			vmAllocationPolicy = new PowerVmAllocationPolicyMigrationInterQuartileRange(
-					hostList,
-					vmSelectionPolicy,
-					parameter,
-					fallbackVmSelectionPolicy);
-		} else if (vmAllocationPolicyName.equals("mad")) {
-			PowerVmAllocationPolicyMigrationAbstract fallbackVmSelectionPolicy = new PowerVmAllocationPolicyMigrationStaticThreshold(
-					hostList,
-					vmSelectionPolicy,
-					0.7);
-			vmAllocationPolicy = new PowerVmAllocationPolicyMigrationMedianAbsoluteDeviation(
-					hostList,
-					vmSelectionPolicy,
-					parameter,
-					fallbackVmSelectionPolicy);
-		} else if (vmAllocationPolicyName.equals("lr")) {
-			PowerVmAllocationPolicyMigrationAbstract fallbackVmSelectionPolicy = new PowerVmAllocationPolicyMigrationStaticThreshold(
-					hostList,
-					vmSelectionPolicy,
-					0.7);
-			vmAllocationPolicy = new PowerVmAllocationPolicyMigrationLocalRegression(
-					hostList,
-					vmSelectionPolicy,
-					parameter,
-					Constants.SCHEDULING_INTERVAL,
-					fallbackVmSelectionPolicy);
-		} else if (vmAllocationPolicyName.equals("lrr")) {
-			PowerVmAllocationPolicyMigrationAbstract fallbackVmSelectionPolicy = new PowerVmAllocationPolicyMigrationStaticThreshold(
-					hostList,
-					vmSelectionPolicy,
-					0.7);
-			vmAllocationPolicy = new PowerVmAllocationPolicyMigrationLocalRegressionRobust(
-					hostList,
-					vmSelectionPolicy,
-					parameter,
-					Constants.SCHEDULING_INTERVAL,
-					fallbackVmSelectionPolicy);
-		} else if (vmAllocationPolicyName.equals("thr")) {
-			vmAllocationPolicy = new PowerVmAllocationPolicyMigrationStaticThreshold(
-					hostList,
-					vmSelectionPolicy,
-					parameter);
-		} else if (vmAllocationPolicyName.equals("dvfs")) {
-			vmAllocationPolicy = new PowerVmAllocationPolicySimple(hostList);
-		} else {
-			System.out.println("Unknown VM allocation policy: " + vmAllocationPolicyName);
-			System.exit(0);
-		}
-		return vmAllocationPolicy;
+		return Helper.getVmAllocationPolicy(vmAllocationPolicyName, vmSelectionPolicyName, parameterName, hostList);
 	}
 
 	/**
@@ -298,21 +215,7 @@ public abstract class RunnerAbstract {
 	 * @return the vm selection policy
 	 */
 	protected PowerVmSelectionPolicy getVmSelectionPolicy(String vmSelectionPolicyName) {
-		PowerVmSelectionPolicy vmSelectionPolicy = null;
-		if (vmSelectionPolicyName.equals("mc")) {
-			vmSelectionPolicy = new PowerVmSelectionPolicyMaximumCorrelation(
-					new PowerVmSelectionPolicyMinimumMigrationTime());
-		} else if (vmSelectionPolicyName.equals("mmt")) {
-			vmSelectionPolicy = new PowerVmSelectionPolicyMinimumMigrationTime();
-		} else if (vmSelectionPolicyName.equals("mu")) {
-			vmSelectionPolicy = new PowerVmSelectionPolicyMinimumUtilization();
-		} else if (vmSelectionPolicyName.equals("rs")) {
-			vmSelectionPolicy = new PowerVmSelectionPolicyRandomSelection();
-		} else {
-			System.out.println("Unknown VM selection policy: " + vmSelectionPolicyName);
-			System.exit(0);
-		}
-		return vmSelectionPolicy;
+		return Helper.getVmSelectionPolicy(vmSelectionPolicyName);
 	}
 
 	/**
@@ -321,7 +224,7 @@ public abstract class RunnerAbstract {
 	 * @param enableOutput the new enable output
 	 */
 	public void setEnableOutput(boolean enableOutput) {
-		RunnerAbstract.enableOutput = enableOutput;
+		this.enableOutput = enableOutput;
 	}
 
 	/**
@@ -37,37 +37,69 @@ public class PlanetLabHelper {
 	 */
 	public static List<Cloudlet> createCloudletListPlanetLab(int brokerId, String inputFolderName)
 			throws FileNotFoundException {
+		return createCloudletListPlanetLab(brokerId, loadWorkload(inputFolderName));
+	}
+
+	/**
+	 * Creates the cloudlet list planet lab from a workload that has already been loaded. The
+	 * utilization models are only read by the cloudlets, so a workload can be shared by several
+	 * simulations.
+	 * 
+	 * @param brokerId the broker id
+	 * @param workload the CPU utilization models of the cloudlets
+	 * @return the list
+	 * @see #loadWorkload(String)
+	 */
+	public static List<Cloudlet> createCloudletListPlanetLab(int brokerId, List<UtilizationModel> workload) {
 		List<Cloudlet> list = new ArrayList<Cloudlet>();
 
 		long fileSize = 300;
 		long outputSize = 300;
 		UtilizationModel utilizationModelNull = new UtilizationModelNull();
 
+		for (int i = 0; i < workload.size(); i++) {
+			Cloudlet cloudlet = new Cloudlet(
+					i,
+					Constants.CLOUDLET_LENGTH,
+					Constants.CLOUDLET_PES,
+					fileSize,
+					outputSize,
+					workload.get(i),
+					utilizationModelNull,
+					utilizationModelNull);
+			cloudlet.setUserId(brokerId);
+			cloudlet.setVmId(i);
+			list.add(cloudlet);
+		}
+
+		return list;
+	}
+
+	/**
+	 * Loads a PlanetLab workload: one CPU utilization model per file of the input folder.
+	 * 
+	 * @param inputFolderName the input folder name
+	 * @return the utilization models
+	 * @throws FileNotFoundException the file not found exception
+	 */
+	public static List<UtilizationModel> loadWorkload(String inputFolderName) throws FileNotFoundException {
+		List<UtilizationModel> workload = new ArrayList<UtilizationModel>();
+
 		File inputFolder = new File(inputFolderName);
 		File[] files = inputFolder.listFiles();
 
 		for (int i = 0; i < files.length; i++) {
-			Cloudlet cloudlet = null;
 			try {
-				cloudlet = new Cloudlet(
-						i,
-						Constants.CLOUDLET_LENGTH,
-						Constants.CLOUDLET_PES,
-						fileSize,
-						outputSize,
-						new UtilizationModelPlanetLabInMemory(
-								files[i].getAbsolutePath(),
-								Constants.SCHEDULING_INTERVAL), utilizationModelNull, utilizationModelNull);
+				workload.add(new UtilizationModelPlanetLabInMemory(
+						files[i].getAbsolutePath(),
+						Constants.SCHEDULING_INTERVAL));
 			} catch (Exception e) {
 				e.printStackTrace();
 				System.exit(0);
 			}
-			cloudlet.setUserId(brokerId);
-			cloudlet.setVmId(i);
-			list.add(cloudlet);
 		}
 
-		return list;
+		return workload;
 	}
 
 }
@@ -0,0 +1,337 @@
+package org.cloudbus.cloudsim.examples.power.planetlab;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.UtilizationModel;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicy;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.examples.power.Constants;
+import org.cloudbus.cloudsim.examples.power.Helper;
+import org.cloudbus.cloudsim.power.PowerDatacenter;
+import org.cloudbus.cloudsim.power.PowerHost;
+import org.cloudbus.cloudsim.util.ExecutionTimeMeasurer;
+
+/**
+ * A runner of parameter sweeps over the PlanetLab workload. A sweep is the grid of all the
+ * combinations of a set of workloads (the days of the PlanetLab data) and a set of policies (a VM
+ * allocation policy with its VM selection policy and safety parameter). The cells of the grid are
+ * independent simulations, which are run in parallel on a pool of threads. Each workload is loaded
+ * once and shared by all the cells that simulate it. The results of the cells, as computed by
+ * {@link Helper#getResults(PowerDatacenter, List, double)}, are collected into one CSV table with a
+ * row per cell.
+ *
+ * The sweep can be run from the console with the following parameters: the input folder, the
+ * output CSV file, the comma-separated workloads (or <tt>all</tt> for all the subfolders of the
+ * input folder), the comma-separated policies written as
+ * <tt>allocation[:selection[:parameter]]</tt>, e.g. <tt>lr:mmt:1.2,thr:mu:0.8,dvfs</tt>, and
+ * optionally the number of threads, which defaults to the number of available processors. The
+ * execution times of the policies, measured by {@link ExecutionTimeMeasurer} over all the cells,
+ * are written next to the results, in a file with the <tt>_execution_times.csv</tt> suffix.
+ *
+ * If you are using any algorithms, policies or workload included in the power package please cite
+ * the following paper:
+ *
+ * Anton Beloglazov, and Rajkumar Buyya, "Optimal Online Deterministic Algorithms and Adaptive
+ * Heuristics for Energy and Performance Efficient Dynamic Consolidation of Virtual Machines in
+ * Cloud Data Centers", Concurrency and Computation: Practice and Experience (CCPE), Volume 24,
+ * Issue 13, Pages: 1397-1420, John Wiley & Sons, Ltd, New York, USA, 2012
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public class PlanetLabSweepRunner {
+
+	/** The columns that identify a cell in the results. */
+	private static final String[] CELL_COLUMNS = { "workload", "vm_allocation_policy",
+			"vm_selection_policy", "parameter" };
+
+	/** The input folder. */
+	private final String inputFolder;
+
+	/** The workloads. */
+	private final List<String> workloads;
+
+	/** The policies, as (allocation, selection, parameter) triples. */
+	private final List<String[]> policies;
+
+	/** The cells of the sweep, in the order of the grid. */
+	private final List<Cell> cells = new ArrayList<Cell>();
+
+	/** The results of the cells, in the order of the grid. */
+	private final List<Map<String, Double>> results = new ArrayList<Map<String, Double>>();
+
+	/**
+	 * Instantiates a new parameter sweep.
+	 *
+	 * @param inputFolder the folder with the PlanetLab workloads
+	 * @param workloads the workloads, i.e. the names of subfolders of the input folder
+	 * @param policies the policies, as (allocation, selection, parameter) triples in which the
+	 *            selection policy and the parameter may be empty
+	 */
+	public PlanetLabSweepRunner(String inputFolder, List<String> workloads, List<String[]> policies) {
+		this.inputFolder = inputFolder;
+		this.workloads = workloads;
+		this.policies = policies;
+	}
+
+	/**
+	 * Runs all the cells of the sweep.
+	 *
+	 * @param threads the number of threads
+	 * @throws InterruptedException if the thread is interrupted while waiting for the cells
+	 * @throws ExecutionException if a cell fails
+	 */
+	public void run(int threads) throws InterruptedException, ExecutionException {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			// The workloads are submitted first, so a cell never waits for a queued workload
+			List<Future<List<UtilizationModel>>> loadedWorkloads = new ArrayList<Future<List<UtilizationModel>>>();
+			for (final String workload : workloads) {
+				loadedWorkloads.add(executor.submit(new Callable<List<UtilizationModel>>() {
+
+					@Override
+					public List<UtilizationModel> call() throws Exception {
+						return PlanetLabHelper.loadWorkload(inputFolder + "/" + workload);
+					}
+
+				}));
+			}
+
+			cells.clear();
+			results.clear();
+			List<Future<Map<String, Double>>> cellResults = new ArrayList<Future<Map<String, Double>>>();
+			for (int i = 0; i < workloads.size(); i++) {
+				for (String[] policy : policies) {
+					Cell cell = new Cell(workloads.get(i), loadedWorkloads.get(i), policy[0], policy[1], policy[2]);
+					cells.add(cell);
+					cellResults.add(executor.submit(cell));
+				}
+			}
+
+			for (int i = 0; i < cellResults.size(); i++) {
+				results.add(cellResults.get(i).get());
+				System.out.println("Finished " + cells.get(i).getName() + " (" + (i + 1) + "/"
+						+ cellResults.size() + ")");
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Gets the results of the cells, in the order of the grid: for each workload, the results of
+	 * each policy.
+	 *
+	 * @return the results
+	 */
+	public List<Map<String, Double>> getResults() {
+		return results;
+	}
+
+	/**
+	 * Writes the results of the cells to a CSV file, with a header and a row per cell. A cell whose
+	 * policy does not provide a metric, such as the execution times of a policy without migrations,
+	 * has an empty value for it.
+	 *
+	 * @param outputPath the path of the CSV file
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public void writeCsv(String outputPath) throws IOException {
+		Set<String> metrics = new LinkedHashSet<String>();
+		for (Map<String, Double> cellResults : results) {
+			metrics.addAll(cellResults.keySet());
+		}
+
+		String delimeter = ",";
+		StringBuilder data = new StringBuilder();
+		for (String column : CELL_COLUMNS) {
+			data.append(column + delimeter);
+		}
+		for (String metric : metrics) {
+			data.append(metric + delimeter);
+		}
+		data.setLength(data.length() - 1);
+		data.append("\n");
+
+		for (int i = 0; i < results.size(); i++) {
+			Cell cell = cells.get(i);
+			data.append(cell.workload + delimeter);
+			data.append(cell.vmAllocationPolicy + delimeter);
+			data.append(cell.vmSelectionPolicy + delimeter);
+			data.append(cell.parameter);
+			for (String metric : metrics) {
+				data.append(delimeter);
+				Double value = results.get(i).get(metric);
+				if (value != null) {
+					data.append(value);
+				}
+			}
+			data.append("\n");
+		}
+
+		BufferedWriter writer = new BufferedWriter(new FileWriter(outputPath));
+		try {
+			writer.write(data.toString());
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * The main method.
+	 *
+	 * @param args the input folder, the output CSV file, the workloads, the policies and optionally
+	 *            the number of threads
+	 * @throws Exception the exception
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length < 4) {
+			System.out.println("Usage: PlanetLabSweepRunner <input folder> <output csv> "
+					+ "<workload,...|all> <allocation[:selection[:parameter]],...> [threads]");
+			return;
+		}
+		String inputFolder = args[0];
+		String outputPath = args[1];
+
+		List<String> workloads = new ArrayList<String>();
+		if (args[2].equals("all")) {
+			String[] names = new File(inputFolder).list();
+			Arrays.sort(names);
+			for (String name : names) {
+				if (new File(inputFolder, name).isDirectory()) {
+					workloads.add(name);
+				}
+			}
+		} else {
+			workloads.addAll(Arrays.asList(args[2].split(",")));
+		}
+
+		List<String[]> policies = new ArrayList<String[]>();
+		for (String policy : args[3].split(",")) {
+			String[] parts = Arrays.copyOf(policy.split(":"), 3);
+			for (int i = 0; i < parts.length; i++) {
+				if (parts[i] == null) {
+					parts[i] = "";
+				}
+			}
+			policies.add(parts);
+		}
+
+		int threads = Runtime.getRuntime().availableProcessors();
+		if (args.length >= 5) {
+			threads = Integer.parseInt(args[4]);
+		}
+
+		Log.disable();
+		PlanetLabSweepRunner sweep = new PlanetLabSweepRunner(inputFolder, workloads, policies);
+		sweep.run(threads);
+		sweep.writeCsv(outputPath);
+		ExecutionTimeMeasurer.writeCsv(outputPath.replaceFirst("\\.csv$", "") + "_execution_times.csv");
+	}
+
+	/**
+	 * A cell of the sweep: the simulation of one workload with one policy. Each cell runs in its
+	 * own simulation, so the cells can run in parallel.
+	 */
+	private static class Cell implements Callable<Map<String, Double>> {
+
+		/** The workload name. */
+		private final String workload;
+
+		/** The loaded workload, shared with the other cells of the same workload. */
+		private final Future<List<UtilizationModel>> loadedWorkload;
+
+		/** The vm allocation policy. */
+		private final String vmAllocationPolicy;
+
+		/** The vm selection policy. */
+		private final String vmSelectionPolicy;
+
+		/** The parameter. */
+		private final String parameter;
+
+		/**
+		 * Instantiates a new cell.
+		 *
+		 * @param workload the workload name
+		 * @param loadedWorkload the loaded workload
+		 * @param vmAllocationPolicy the vm allocation policy
+		 * @param vmSelectionPolicy the vm selection policy
+		 * @param parameter the parameter
+		 */
+		public Cell(
+				String workload,
+				Future<List<UtilizationModel>> loadedWorkload,
+				String vmAllocationPolicy,
+				String vmSelectionPolicy,
+				String parameter) {
+			this.workload = workload;
+			this.loadedWorkload = loadedWorkload;
+			this.vmAllocationPolicy = vmAllocationPolicy;
+			this.vmSelectionPolicy = vmSelectionPolicy;
+			this.parameter = parameter;
+		}
+
+		/**
+		 * Gets the name of the cell.
+		 *
+		 * @return the experiment name
+		 */
+		public String getName() {
+			return Helper.getExperimentName(workload, vmAllocationPolicy, vmSelectionPolicy, parameter);
+		}
+
+		@Override
+		public Map<String, Double> call() throws Exception {
+			CloudSim.init(1, Calendar.getInstance(), false);
+
+			DatacenterBroker broker = Helper.createBroker();
+			List<Cloudlet> cloudletList = PlanetLabHelper.createCloudletListPlanetLab(
+					broker.getId(),
+					loadedWorkload.get());
+			List<Vm> vmList = Helper.createVmList(broker.getId(), cloudletList.size());
+			List<PowerHost> hostList = Helper.createHostList(PlanetLabConstants.NUMBER_OF_HOSTS);
+
+			VmAllocationPolicy policy = Helper.getVmAllocationPolicy(
+					vmAllocationPolicy,
+					vmSelectionPolicy,
+					parameter,
+					hostList);
+			PowerDatacenter datacenter = (PowerDatacenter) Helper.createDatacenter(
+					"Datacenter",
+					PowerDatacenter.class,
+					hostList,
+					policy);
+			datacenter.setDisableMigrations(false);
+
+			broker.submitVmList(vmList);
+			broker.submitCloudletList(cloudletList);
+
+			CloudSim.terminateSimulation(Constants.SIMULATION_LIMIT);
+			double lastClock = CloudSim.startSimulation();
+			CloudSim.stopSimulation();
+
+			return Helper.getResults(datacenter, vmList, lastClock);
+		}
+
+	}
+
+}
@@ -0,0 +1,264 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+
+/**
+ * CloudletCompletionTracker tracks the completion of the cloudlets executed by a cloudlet
+ * scheduler in which all the running cloudlets progress at the same rate per PE, such as
+ * {@link CloudletSchedulerTimeShared} and {@link CloudletSchedulerSpaceShared}. Instead of updating
+ * the progress of every cloudlet on each update of the scheduler, the tracker keeps a virtual work
+ * clock, i.e. the MI executed by each PE since the tracker was created, which advances with the
+ * capacity of the scheduler. Each cloudlet is kept in a min-heap keyed by the value of the work
+ * clock at which it finishes, so an update only touches the cloudlets that have finished, and the
+ * next finish time is found at the top of the heap. Each entry knows its position in the heap, so a
+ * cloudlet that is paused, canceled or migrated leaves the heap in logarithmic time too. The
+ * progress of a cloudlet is brought up to date when it leaves the tracker.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public class CloudletCompletionTracker {
+
+	/** The MI executed by each PE since the tracker was created. */
+	private double work;
+
+	/** The serial number of the next entry, to finish cloudlets in the order they were added. */
+	private long serial;
+
+	/** The entries of the cloudlets, as a binary min-heap ordered by finish work. */
+	private final List<Entry> heap = new ArrayList<Entry>();
+
+	/** The entries of the cloudlets, indexed by cloudlet. */
+	private final Map<ResCloudlet, Entry> entries = new HashMap<ResCloudlet, Entry>();
+
+	/**
+	 * Starts tracking a running cloudlet, from its current progress.
+	 *
+	 * @param rcl the cloudlet
+	 */
+	public void add(ResCloudlet rcl) {
+		Entry entry = new Entry(rcl, work, work + (double) rcl.getRemainingCloudletLength() / rcl.getNumberOfPes(), serial++);
+		entry.position = heap.size();
+		heap.add(entry);
+		siftUp(entry.position);
+		entries.put(rcl, entry);
+	}
+
+	/**
+	 * Stops tracking a cloudlet, bringing its progress up to date.
+	 *
+	 * @param rcl the cloudlet
+	 * @return true if the cloudlet was tracked
+	 */
+	public boolean remove(ResCloudlet rcl) {
+		Entry entry = entries.remove(rcl);
+		if (entry == null) {
+			return false;
+		}
+		removeAt(entry.position);
+		entry.updateProgress(work);
+		return true;
+	}
+
+	/**
+	 * Advances the work clock, i.e. executes the given MI on each PE of the running cloudlets.
+	 *
+	 * @param workPerPe the MI executed by each PE
+	 */
+	public void advance(double workPerPe) {
+		work += workPerPe;
+	}
+
+	/**
+	 * Stops tracking the cloudlets that have finished, i.e. whose remaining length is under 1 MI,
+	 * bringing their progress up to date, and appends them to a list in the order of their finish
+	 * work.
+	 *
+	 * @param finished the list to which the finished cloudlets are appended
+	 * @return the number of finished cloudlets
+	 */
+	public int pollFinished(List<ResCloudlet> finished) {
+		int count = 0;
+		while (!heap.isEmpty()) {
+			Entry entry = heap.get(0);
+			if ((entry.finishWork - work) * entry.rcl.getNumberOfPes() >= 1) {
+				break;
+			}
+			removeAt(0);
+			entries.remove(entry.rcl);
+			entry.updateProgress(work);
+			finished.add(entry.rcl);
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Gets the time at which the first of the tracked cloudlets finishes, if the capacity of each
+	 * PE stays the same. As the estimated finish times of the schedulers, the time is at least
+	 * {@link CloudSim#getMinTimeBetweenEvents()} after the current time.
+	 *
+	 * @param currentTime the current time
+	 * @param capacity the MIPS of each PE
+	 * @return the next finish time, or {@link Double#MAX_VALUE} if no cloudlet is tracked
+	 */
+	public double getNextFinishTime(double currentTime, double capacity) {
+		if (heap.isEmpty()) {
+			return Double.MAX_VALUE;
+		}
+		double nextFinishTime = currentTime + (heap.get(0).finishWork - work) / capacity;
+		if (nextFinishTime - currentTime < CloudSim.getMinTimeBetweenEvents()) {
+			nextFinishTime = currentTime + CloudSim.getMinTimeBetweenEvents();
+		}
+		return nextFinishTime;
+	}
+
+	/**
+	 * Gets the number of tracked cloudlets.
+	 *
+	 * @return the number of tracked cloudlets
+	 */
+	public int size() {
+		return heap.size();
+	}
+
+	/**
+	 * Removes the entry at a given position of the heap, moving the last entry in its place.
+	 *
+	 * @param position the position
+	 */
+	private void removeAt(int position) {
+		Entry last = heap.remove(heap.size() - 1);
+		if (position == heap.size()) {
+			return;
+		}
+		place(last, position);
+		siftDown(position);
+		siftUp(last.position);
+	}
+
+	/**
+	 * Moves an entry up the heap until its parent finishes before it.
+	 *
+	 * @param position the position of the entry
+	 */
+	private void siftUp(int position) {
+		Entry entry = heap.get(position);
+		while (position > 0) {
+			int parent = (position - 1) / 2;
+			if (heap.get(parent).compareTo(entry) <= 0) {
+				break;
+			}
+			place(heap.get(parent), position);
+			position = parent;
+		}
+		place(entry, position);
+	}
+
+	/**
+	 * Moves an entry down the heap until its children finish after it.
+	 *
+	 * @param position the position of the entry
+	 */
+	private void siftDown(int position) {
+		Entry entry = heap.get(position);
+		int size = heap.size();
+		while (2 * position + 1 < size) {
+			int child = 2 * position + 1;
+			if (child + 1 < size && heap.get(child + 1).compareTo(heap.get(child)) < 0) {
+				child++;
+			}
+			if (entry.compareTo(heap.get(child)) <= 0) {
+				break;
+			}
+			place(heap.get(child), position);
+			position = child;
+		}
+		place(entry, position);
+	}
+
+	/**
+	 * Puts an entry at a given position of the heap.
+	 *
+	 * @param entry the entry
+	 * @param position the position
+	 */
+	private void place(Entry entry, int position) {
+		heap.set(position, entry);
+		entry.position = position;
+	}
+
+	/**
+	 * The tracking state of a cloudlet.
+	 */
+	private static class Entry implements Comparable<Entry> {
+
+		/** The cloudlet. */
+		private final ResCloudlet rcl;
+
+		/** The work at which the progress of the cloudlet was last updated. */
+		private double progressWork;
+
+		/** The work at which the cloudlet finishes. */
+		private final double finishWork;
+
+		/** The serial number. */
+		private final long serial;
+
+		/** The position of the entry in the heap. */
+		private int position;
+
+		/**
+		 * Instantiates a new entry.
+		 *
+		 * @param rcl the cloudlet
+		 * @param progressWork the current work
+		 * @param finishWork the work at which the cloudlet finishes
+		 * @param serial the serial number
+		 */
+		public Entry(ResCloudlet rcl, double progressWork, double finishWork, long serial) {
+			this.rcl = rcl;
+			this.progressWork = progressWork;
+			this.finishWork = finishWork;
+			this.serial = serial;
+		}
+
+		/**
+		 * Updates the progress of the cloudlet with the work done since the last update.
+		 *
+		 * @param work the current work
+		 */
+		public void updateProgress(double work) {
+			rcl.updateCloudletFinishedSoFar((long) ((work - progressWork) * rcl.getNumberOfPes() * Consts.MILLION));
+			progressWork = work;
+		}
+
+		@Override
+		public int compareTo(Entry entry) {
+			if (finishWork < entry.finishWork) {
+				return -1;
+			} else if (finishWork > entry.finishWork) {
+				return 1;
+			} else if (serial < entry.serial) {
+				return -1;
+			} else if (serial > entry.serial) {
+				return 1;
+			}
+			return 0;
+		}
+
+	}
+
+}
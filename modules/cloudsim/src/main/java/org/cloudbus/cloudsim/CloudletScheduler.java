@@ -8,9 +8,10 @@
 
 package org.cloudbus.cloudsim;
 
-import java.util.ArrayList;
 import java.util.List;
 
+import org.cloudbus.cloudsim.lists.ResCloudletIndexedList;
+
 
 /**
  * CloudletScheduler is an abstract class that represents the policy of scheduling performed by a
@@ -29,6 +30,18 @@ public abstract class CloudletScheduler {
 	/** The current mips share. */
 	private List<Double> currentMipsShare;
 
+	/** The MIPS of each PE of the current mips share, in an array reused from share to share. */
+	private double[] currentMipsShareArray = new double[0];
+
+	/** The number of PEs of the current mips share. */
+	private int currentMipsShareSize;
+
+	/** The total MIPS of the current mips share. */
+	private double currentMipsShareTotal;
+
+	/** The number of PEs of the current mips share with MIPS above 0. */
+	private int currentMipsShareActivePes;
+
 	/** The cloudlet waiting list. */
 	protected List<? extends ResCloudlet> cloudletWaitingList;
 
@@ -46,18 +59,19 @@ public abstract class CloudletScheduler {
 
 	/**
 	 * Creates a new CloudletScheduler object. This method must be invoked before starting the
-	 * actual simulation.
+	 * actual simulation. The lists of cloudlets are {@link ResCloudletIndexedList}s, so that the
+	 * cloudlets can be found by id and removed in constant time.
 	 * 
 	 * @pre $none
 	 * @post $none
 	 */
 	public CloudletScheduler() {
 		setPreviousTime(0.0);
-		cloudletWaitingList = new ArrayList<ResCloudlet>();
-		cloudletExecList = new ArrayList<ResCloudlet>();
-		cloudletPausedList = new ArrayList<ResCloudlet>();
-		cloudletFinishedList = new ArrayList<ResCloudlet>();
-		cloudletFailedList = new ArrayList<ResCloudlet>();
+		cloudletWaitingList = new ResCloudletIndexedList<ResCloudlet>();
+		cloudletExecList = new ResCloudletIndexedList<ResCloudlet>();
+		cloudletPausedList = new ResCloudletIndexedList<ResCloudlet>();
+		cloudletFinishedList = new ResCloudletIndexedList<ResCloudlet>();
+		cloudletFailedList = new ResCloudletIndexedList<ResCloudlet>();
 	}
 
 	/**
@@ -187,9 +201,11 @@ public abstract class CloudletScheduler {
 	public abstract double getTotalUtilizationOfCpu(double time);
 
 	/**
-	 * Gets the current requested mips.
+	 * Gets the current requested mips. The returned list may be immutable and shared between calls,
+	 * as the ones returned by {@link CloudletSchedulerTimeShared} and
+	 * {@link CloudletSchedulerSpaceShared} are, so callers that need to modify it have to copy it.
 	 * 
-	 * @return the current mips
+	 * @return the current mips, which must not be modified
 	 */
 	public abstract List<Double> getCurrentRequestedMips();
 
@@ -253,12 +269,31 @@ public abstract class CloudletScheduler {
 	}
 
 	/**
-	 * Sets the current mips share.
+	 * Sets the current mips share. The MIPS of the share are read at once into primitive fields,
+	 * so that the schedulers can use them on each update without boxing or allocating; the share
+	 * must therefore not be modified once set.
 	 * 
 	 * @param currentMipsShare the new current mips share
 	 */
 	protected void setCurrentMipsShare(List<Double> currentMipsShare) {
 		this.currentMipsShare = currentMipsShare;
+		int size = currentMipsShare == null ? 0 : currentMipsShare.size();
+		if (currentMipsShareArray.length < size) {
+			currentMipsShareArray = new double[size];
+		}
+		double total = 0;
+		int activePes = 0;
+		for (int i = 0; i < size; i++) {
+			double mips = currentMipsShare.get(i);
+			currentMipsShareArray[i] = mips;
+			total += mips;
+			if (mips > 0) {
+				activePes++;
+			}
+		}
+		currentMipsShareSize = size;
+		currentMipsShareTotal = total;
+		currentMipsShareActivePes = activePes;
 	}
 
 	/**
@@ -270,6 +305,46 @@ public abstract class CloudletScheduler {
 		return currentMipsShare;
 	}
 
+	/**
+	 * Gets the number of PEs of the current mips share.
+	 * 
+	 * @return the number of PEs
+	 */
+	protected int getCurrentMipsShareSize() {
+		return currentMipsShareSize;
+	}
+
+	/**
+	 * Gets the MIPS of a PE of the current mips share.
+	 * 
+	 * @param pe the index of the PE in the share
+	 * @return the MIPS of the PE
+	 */
+	protected double getCurrentMipsShare(int pe) {
+		if (pe >= currentMipsShareSize) {
+			throw new IndexOutOfBoundsException("PE: " + pe + ", Size: " + currentMipsShareSize);
+		}
+		return currentMipsShareArray[pe];
+	}
+
+	/**
+	 * Gets the total MIPS of the current mips share.
+	 * 
+	 * @return the total MIPS
+	 */
+	protected double getCurrentMipsShareTotal() {
+		return currentMipsShareTotal;
+	}
+
+	/**
+	 * Gets the number of PEs of the current mips share with MIPS above 0.
+	 * 
+	 * @return the number of active PEs
+	 */
+	protected int getCurrentMipsShareActivePes() {
+		return currentMipsShareActivePes;
+	}
+
 	/**
 	 * Gets the cloudlet waiting list.
 	 * 
@@ -9,6 +9,7 @@ package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -72,14 +73,17 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 
 		double timeSpan = currentTime - getPreviousTime();
 		double nextEvent = Double.MAX_VALUE;
-		List<ResCloudlet> cloudletsToFinish = new ArrayList<ResCloudlet>();
 
-		for (ResCloudlet rcl : getCloudletExecList()) {
+		Iterator<ResCloudlet> it = getCloudletExecList().iterator();
+		while (it.hasNext()) {
+			ResCloudlet rcl = it.next();
 			rcl.updateCloudletFinishedSoFar((long) (timeSpan
 					* getTotalCurrentAllocatedMipsForCloudlet(rcl, getPreviousTime()) * Consts.MILLION));
 
 			if (rcl.getRemainingCloudletLength() == 0) { // finished: remove from the list
-				cloudletsToFinish.add(rcl);
+				it.remove();
+				execCloudletRemoved(rcl);
+				cloudletFinish(rcl);
 				continue;
 			} else { // not finish: estimate the finish time
 				double estimatedFinishTime = getEstimatedFinishTime(rcl, currentTime);
@@ -92,11 +96,6 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 			}
 		}
 
-		for (ResCloudlet rgl : cloudletsToFinish) {
-			getCloudletExecList().remove(rgl);
-			cloudletFinish(rgl);
-		}
-
 		setPreviousTime(currentTime);
 
 		if (getCloudletExecList().isEmpty()) {
@@ -138,6 +137,7 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 		}
 
 		getCloudletExecList().add(rcl);
+		execCloudletAdded(rcl);
 		return getEstimatedFinishTime(rcl, getPreviousTime());
 	}
 
@@ -216,7 +216,12 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 	@Override
 	public double getTotalCurrentAvailableMipsForCloudlet(ResCloudlet rcl, List<Double> mipsShare) {
 		double totalCurrentMips = 0.0;
-		if (mipsShare != null) {
+		if (mipsShare == getCurrentMipsShare()) {
+			int neededPEs = Math.min(Math.max(rcl.getNumberOfPes(), 1), getCurrentMipsShareSize());
+			for (int i = 0; i < neededPEs; i++) {
+				totalCurrentMips += getCurrentMipsShare(i);
+			}
+		} else if (mipsShare != null) {
 			int neededPEs = rcl.getNumberOfPes();
 			for (double mips : mipsShare) {
 				totalCurrentMips += mips;
@@ -278,8 +283,8 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 	 */
 	public int getTotalCurrentMips() {
 		int totalCurrentMips = 0;
-		for (double mips : getCurrentMipsShare()) {
-			totalCurrentMips += mips;
+		for (int i = 0; i < getCurrentMipsShareSize(); i++) {
+			totalCurrentMips += getCurrentMipsShare(i);
 		}
 		return totalCurrentMips;
 	}
@@ -0,0 +1,225 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.cloudbus.cloudsim.lists.ResCloudletList;
+
+/**
+ * CloudletSchedulerEasyBackfilling is a space-shared scheduler that starts the waiting cloudlets
+ * in the order of their submission, with EASY backfilling. When the first waiting cloudlet does
+ * not fit in the free PEs, it gets a reservation at the earliest time enough PEs are estimated to
+ * be free for it, and the cloudlets behind it are backfilled, i.e. started in the free PEs, if they
+ * are estimated to finish before the reservation, or if they only use PEs that the first cloudlet
+ * leaves free at that time. Among the cloudlets that can be backfilled, the shortest ones start
+ * first.
+ * <p>
+ * The waiting cloudlets are indexed by number of PEs and estimated length in a
+ * {@link ResCloudletBackfillIndex}, so that starting one takes O(log n) time whatever the number
+ * of waiting cloudlets, for a given number of PEs of the VM. The estimated length of a cloudlet is
+ * given by {@link #getEstimatedLength(Cloudlet)}, which is the actual length by default; a cloudlet
+ * longer than estimated only delays the first waiting cloudlet.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public class CloudletSchedulerEasyBackfilling extends CloudletSchedulerSpaceShared {
+
+	/** The waiting cloudlets, indexed by number of PEs and estimated length. */
+	private final ResCloudletBackfillIndex backfillIndex = new ResCloudletBackfillIndex();
+
+	/** Orders the running cloudlets by estimated remaining length. */
+	private final Comparator<ResCloudlet> remainingLengthComparator = new Comparator<ResCloudlet>() {
+
+		@Override
+		public int compare(ResCloudlet rcl1, ResCloudlet rcl2) {
+			return Double.compare(getEstimatedRemainingLength(rcl1), getEstimatedRemainingLength(rcl2));
+		}
+
+	};
+
+	/**
+	 * Creates a new CloudletSchedulerEasyBackfilling object. This method must be invoked before
+	 * starting the actual simulation.
+	 *
+	 * @pre $none
+	 * @post $none
+	 */
+	public CloudletSchedulerEasyBackfilling() {
+		super();
+	}
+
+	/**
+	 * Gets the estimated length of a cloudlet, i.e. the MI it is expected to execute on each PE,
+	 * such as the length derived from the run time requested by the user of a job.
+	 *
+	 * @param cloudlet the cloudlet
+	 * @return the estimated length
+	 */
+	protected double getEstimatedLength(Cloudlet cloudlet) {
+		return cloudlet.getCloudletLength();
+	}
+
+	/**
+	 * Gets the estimated remaining length of a running cloudlet, i.e. the MI it is expected to
+	 * execute on each PE before it finishes.
+	 *
+	 * @param rcl the cloudlet
+	 * @return the estimated remaining length
+	 */
+	protected double getEstimatedRemainingLength(ResCloudlet rcl) {
+		double executedLength = rcl.getCloudletLength()
+				- (double) rcl.getRemainingCloudletLength() / rcl.getNumberOfPes();
+		return Math.max(getEstimatedLength(rcl.getCloudlet()) - executedLength, 0);
+	}
+
+	/**
+	 * Starts the waiting cloudlets in the order of their submission as long as they fit in the
+	 * free PEs, then backfills the cloudlets behind the first one that does not fit.
+	 *
+	 * @param finished the number of cloudlets that finished
+	 */
+	@Override
+	protected void admitWaitingCloudlets(int finished) {
+		int peId = 0;
+		while (!getCloudletWaitingList().isEmpty()) {
+			ResCloudlet head = getCloudletWaitingList().get(0);
+			if ((currentCpus - usedPes) < head.getNumberOfPes()) {
+				backfill(head, peId);
+				return;
+			}
+			getCloudletWaitingList().remove(head);
+			backfillIndex.remove(head);
+			startWaitingCloudlet(head, peId++);
+		}
+	}
+
+	/**
+	 * Backfills the waiting cloudlets behind the first one, which does not fit in the free PEs.
+	 *
+	 * @param head the first waiting cloudlet
+	 * @param peId the id of the PE on which the first backfilled cloudlet is set to run
+	 */
+	private void backfill(ResCloudlet head, int peId) {
+		// reserve PEs for the first cloudlet when enough of the running ones are estimated to
+		// finish; a cloudlet that needs more PEs than the VM has gets no reservation
+		double shadowLength = Double.MAX_VALUE;
+		int extraPes = Integer.MAX_VALUE;
+		if (head.getNumberOfPes() <= currentCpus) {
+			List<ResCloudlet> running = new ArrayList<ResCloudlet>(getCloudletExecList());
+			Collections.sort(running, remainingLengthComparator);
+			int freePes = currentCpus - usedPes;
+			for (ResCloudlet rcl : running) {
+				freePes += rcl.getNumberOfPes();
+				if (freePes >= head.getNumberOfPes()) {
+					shadowLength = getEstimatedRemainingLength(rcl);
+					extraPes = freePes - head.getNumberOfPes();
+					break;
+				}
+			}
+		}
+
+		while (true) {
+			int freePes = currentCpus - usedPes;
+			ResCloudlet rcl = backfillIndex.findBackfill(freePes, shadowLength, Math.min(extraPes, freePes));
+			if (rcl == null) {
+				break;
+			}
+			// a cloudlet that runs beyond the reservation uses PEs left free by the first one
+			if (getEstimatedLength(rcl.getCloudlet()) > shadowLength) {
+				extraPes -= rcl.getNumberOfPes();
+			}
+			getCloudletWaitingList().remove(rcl);
+			backfillIndex.remove(rcl);
+			startWaitingCloudlet(rcl, peId++);
+		}
+	}
+
+	/**
+	 * Indexes a cloudlet that has just been added to the waiting list.
+	 *
+	 * @param cloudletId the id of the cloudlet
+	 */
+	private void indexWaitingCloudlet(int cloudletId) {
+		ResCloudlet rcl = ResCloudletList.getById(getCloudletWaitingList(), cloudletId);
+		if (rcl != null && !backfillIndex.contains(rcl)) {
+			backfillIndex.add(rcl, getEstimatedLength(rcl.getCloudlet()));
+		}
+	}
+
+	/**
+	 * Drops from the index a cloudlet that may have left the waiting list.
+	 *
+	 * @param rcl the cloudlet, or null
+	 */
+	private void unindexWaitingCloudlet(ResCloudlet rcl) {
+		if (rcl != null && !getCloudletWaitingList().contains(rcl)) {
+			backfillIndex.remove(rcl);
+		}
+	}
+
+	/**
+	 * Receives a cloudlet to be executed in the VM managed by this scheduler. If other cloudlets
+	 * are waiting, the cloudlet waits behind them unless it can be backfilled.
+	 *
+	 * @param cloudlet the submited cloudlet
+	 * @param fileTransferTime time required to move the required files from the SAN to the VM
+	 * @return expected finish time of this cloudlet, or 0 if it is in the waiting queue
+	 * @pre gl != null
+	 * @post $none
+	 */
+	@Override
+	public double cloudletSubmit(Cloudlet cloudlet, double fileTransferTime) {
+		if (getCloudletWaitingList().isEmpty()) {
+			double estimatedFinishTime = super.cloudletSubmit(cloudlet, fileTransferTime);
+			indexWaitingCloudlet(cloudlet.getCloudletId());
+			return estimatedFinishTime;
+		}
+
+		ResCloudlet rcl = new ResCloudlet(cloudlet);
+		rcl.setCloudletStatus(Cloudlet.QUEUED);
+		getCloudletWaitingList().add(rcl);
+		backfillIndex.add(rcl, getEstimatedLength(cloudlet));
+		admitWaitingCloudlets(0);
+		if (rcl.getCloudletStatus() != Cloudlet.INEXEC) {
+			return 0.0;
+		}
+
+		// calculate the expected time for cloudlet completion
+		double capacity = getCurrentMipsShareTotal() / currentCpus;
+		return cloudlet.getCloudletLength() / capacity;
+	}
+
+	@Override
+	public double cloudletResume(int cloudletId) {
+		double estimatedFinishTime = super.cloudletResume(cloudletId);
+		indexWaitingCloudlet(cloudletId);
+		return estimatedFinishTime;
+	}
+
+	@Override
+	public Cloudlet cloudletCancel(int cloudletId) {
+		ResCloudlet rcl = ResCloudletList.getById(getCloudletWaitingList(), cloudletId);
+		Cloudlet cloudlet = super.cloudletCancel(cloudletId);
+		unindexWaitingCloudlet(rcl);
+		return cloudlet;
+	}
+
+	@Override
+	public boolean cloudletPause(int cloudletId) {
+		ResCloudlet rcl = ResCloudletList.getById(getCloudletWaitingList(), cloudletId);
+		boolean paused = super.cloudletPause(cloudletId);
+		unindexWaitingCloudlet(rcl);
+		return paused;
+	}
+
+}
@@ -0,0 +1,274 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.Iterator;
+import java.util.List;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.lists.ResCloudletList;
+
+/**
+ * CloudletSchedulerPriorityTimeShared is a time-shared scheduler that shares the MIPS of the VM
+ * among the running cloudlets in proportion to their weights, i.e. weighted processor sharing. The
+ * weight of a cloudlet is given by {@link #getWeight(Cloudlet)}, which is its class type, or 1 if
+ * none is set. Each PE of a cloudlet gets the MIPS of the VM times the weight of the cloudlet over
+ * the sum of the weights of all the PEs in use, but no more than the MIPS of a PE of the VM; the
+ * MIPS that a cloudlet cannot use beyond that are not given to the others. With equal weights, the
+ * cloudlets progress as with {@link CloudletSchedulerTimeShared}.
+ * <p>
+ * The number of cloudlets running at once can be limited, in which case the other cloudlets wait
+ * in a heap ordered by weight, the heaviest first, so that starting one takes O(log n) time
+ * whatever the number of waiting cloudlets.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public class CloudletSchedulerPriorityTimeShared extends CloudletSchedulerTimeShared {
+
+	/** The maximum number of cloudlets running at once. */
+	private final int maxRunningCloudlets;
+
+	/** The waiting cloudlets, ordered by weight. */
+	private final ResCloudletPriorityQueue waitingQueue = new ResCloudletPriorityQueue();
+
+	/** The sum of the weights of the PEs used by the running cloudlets. */
+	private double weightInUse;
+
+	/**
+	 * Creates a new CloudletSchedulerPriorityTimeShared object that runs all its cloudlets at once.
+	 * This method must be invoked before starting the actual simulation.
+	 *
+	 * @pre $none
+	 * @post $none
+	 */
+	public CloudletSchedulerPriorityTimeShared() {
+		this(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Creates a new CloudletSchedulerPriorityTimeShared object that runs at most a given number of
+	 * cloudlets at once. This method must be invoked before starting the actual simulation.
+	 *
+	 * @param maxRunningCloudlets the maximum number of cloudlets running at once
+	 * @throws IllegalArgumentException if the maximum number of cloudlets is not positive
+	 * @pre maxRunningCloudlets > 0
+	 * @post $none
+	 */
+	public CloudletSchedulerPriorityTimeShared(int maxRunningCloudlets) {
+		super();
+		if (maxRunningCloudlets <= 0) {
+			throw new IllegalArgumentException("The maximum number of running cloudlets must be positive");
+		}
+		this.maxRunningCloudlets = maxRunningCloudlets;
+	}
+
+	/**
+	 * Gets the weight of a cloudlet. The weight of a cloudlet must not change while it runs, as the
+	 * sum of the weights in use is updated as the cloudlets start and stop.
+	 *
+	 * @param cloudlet the cloudlet
+	 * @return the weight, greater than 0
+	 */
+	protected double getWeight(Cloudlet cloudlet) {
+		return cloudlet.getClassType() > 0 ? cloudlet.getClassType() : 1;
+	}
+
+	/**
+	 * Gets the sum of the weights of the PEs used by the running cloudlets.
+	 *
+	 * @return the weight in use
+	 */
+	protected double getWeightInUse() {
+		return weightInUse;
+	}
+
+	@Override
+	protected void execCloudletAdded(ResCloudlet rcl) {
+		super.execCloudletAdded(rcl);
+		weightInUse += getWeight(rcl.getCloudlet()) * rcl.getNumberOfPes();
+	}
+
+	@Override
+	protected void execCloudletRemoved(ResCloudlet rcl) {
+		super.execCloudletRemoved(rcl);
+		if (pesInUse == 0) {
+			// no rounding errors are left behind once no cloudlet runs
+			weightInUse = 0;
+		} else {
+			weightInUse -= getWeight(rcl.getCloudlet()) * rcl.getNumberOfPes();
+		}
+	}
+
+	/**
+	 * Gets the capacity of a running cloudlet, i.e. the MIPS available to each of its PEs.
+	 *
+	 * @param rcl the cloudlet
+	 * @param weightInUse the sum of the weights of the PEs in use
+	 * @return the capacity
+	 */
+	protected double getCapacity(ResCloudlet rcl, double weightInUse) {
+		double totalMips = getCurrentMipsShareTotal();
+		double capacity = totalMips * getWeight(rcl.getCloudlet()) / weightInUse;
+		return Math.min(capacity, totalMips / getCurrentMipsShareActivePes());
+	}
+
+	@Override
+	public double updateVmProcessing(double currentTime, List<Double> mipsShare) {
+		setCurrentMipsShare(mipsShare);
+		double timeSpan = currentTime - getPreviousTime();
+
+		if (getCloudletExecList().isEmpty() && getCloudletWaitingList().isEmpty()) {
+			setPreviousTime(currentTime);
+			return 0.0;
+		}
+
+		// update the progress of the cloudlets and finish the finished ones
+		double weightInUse = getWeightInUse();
+		Iterator<ResCloudlet> it = getCloudletExecList().iterator();
+		while (it.hasNext()) {
+			ResCloudlet rcl = it.next();
+			rcl.updateCloudletFinishedSoFar((long) (getCapacity(rcl, weightInUse) * timeSpan
+					* rcl.getNumberOfPes() * Consts.MILLION));
+			if (rcl.getRemainingCloudletLength() == 0) {
+				it.remove();
+				execCloudletRemoved(rcl);
+				cloudletFinish(rcl);
+			}
+		}
+
+		// start the heaviest waiting cloudlets
+		while (getCloudletExecList().size() < maxRunningCloudlets) {
+			ResCloudlet rcl = pollWaitingCloudlet();
+			if (rcl == null) {
+				break;
+			}
+			rcl.setCloudletStatus(Cloudlet.INEXEC);
+			for (int i = 0; i < rcl.getNumberOfPes(); i++) {
+				rcl.setMachineAndPeId(0, i);
+			}
+			getCloudletExecList().add(rcl);
+			execCloudletAdded(rcl);
+		}
+
+		// estimate finish time of cloudlets
+		double nextEvent = Double.MAX_VALUE;
+		weightInUse = getWeightInUse();
+		for (ResCloudlet rcl : getCloudletExecList()) {
+			double estimatedFinishTime = currentTime
+					+ (rcl.getRemainingCloudletLength() / (getCapacity(rcl, weightInUse) * rcl.getNumberOfPes()));
+			if (estimatedFinishTime - currentTime < CloudSim.getMinTimeBetweenEvents()) {
+				estimatedFinishTime = currentTime + CloudSim.getMinTimeBetweenEvents();
+			}
+			if (estimatedFinishTime < nextEvent) {
+				nextEvent = estimatedFinishTime;
+			}
+		}
+
+		setPreviousTime(currentTime);
+		return nextEvent;
+	}
+
+	/**
+	 * Removes the heaviest cloudlet from the waiting list.
+	 *
+	 * @return the cloudlet, or null if no cloudlet is waiting
+	 */
+	private ResCloudlet pollWaitingCloudlet() {
+		ResCloudlet rcl = waitingQueue.poll();
+		if (rcl != null) {
+			getCloudletWaitingList().remove(rcl);
+		}
+		return rcl;
+	}
+
+	/**
+	 * Adds a cloudlet to the waiting list.
+	 *
+	 * @param rcl the cloudlet
+	 */
+	private void addWaitingCloudlet(ResCloudlet rcl) {
+		rcl.setCloudletStatus(Cloudlet.QUEUED);
+		getCloudletWaitingList().add(rcl);
+		waitingQueue.add(rcl, -getWeight(rcl.getCloudlet()));
+	}
+
+	/**
+	 * Receives a cloudlet to be executed in the VM managed by this scheduler. If the maximum number
+	 * of cloudlets are running, the cloudlet waits.
+	 *
+	 * @param cloudlet the submited cloudlet
+	 * @param fileTransferTime time required to move the required files from the SAN to the VM
+	 * @return expected finish time of this cloudlet, or 0 if it is waiting
+	 * @pre gl != null
+	 * @post $none
+	 */
+	@Override
+	public double cloudletSubmit(Cloudlet cloudlet, double fileTransferTime) {
+		if (getCloudletExecList().size() >= maxRunningCloudlets) {
+			addWaitingCloudlet(new ResCloudlet(cloudlet));
+			return 0.0;
+		}
+		super.cloudletSubmit(cloudlet, fileTransferTime);
+		ResCloudlet rcl = ResCloudletList.getById(getCloudletExecList(), cloudlet.getCloudletId());
+		return cloudlet.getCloudletLength() / getCapacity(rcl, getWeightInUse());
+	}
+
+	@Override
+	public double cloudletResume(int cloudletId) {
+		if (getCloudletExecList().size() >= maxRunningCloudlets) {
+			ResCloudlet rcl = ResCloudletList.getById(getCloudletPausedList(), cloudletId);
+			if (rcl != null) {
+				getCloudletPausedList().remove(rcl);
+				addWaitingCloudlet(rcl);
+			}
+			return 0.0;
+		}
+		return super.cloudletResume(cloudletId);
+	}
+
+	@Override
+	public Cloudlet cloudletCancel(int cloudletId) {
+		ResCloudlet rcl = ResCloudletList.getById(getCloudletWaitingList(), cloudletId);
+		if (rcl != null) {
+			rcl.setCloudletStatus(Cloudlet.CANCELED);
+			getCloudletWaitingList().remove(rcl);
+			waitingQueue.remove(rcl);
+			return rcl.getCloudlet();
+		}
+		return super.cloudletCancel(cloudletId);
+	}
+
+	@Override
+	public boolean cloudletPause(int cloudletId) {
+		ResCloudlet rcl = ResCloudletList.getById(getCloudletWaitingList(), cloudletId);
+		if (rcl != null) {
+			rcl.setCloudletStatus(Cloudlet.PAUSED);
+			getCloudletWaitingList().remove(rcl);
+			waitingQueue.remove(rcl);
+			getCloudletPausedList().add(rcl);
+			return true;
+		}
+		return super.cloudletPause(cloudletId);
+	}
+
+	@Override
+	public int getCloudletStatus(int cloudletId) {
+		ResCloudlet rcl = ResCloudletList.getById(getCloudletWaitingList(), cloudletId);
+		if (rcl != null) {
+			return rcl.getCloudletStatus();
+		}
+		return super.getCloudletStatus(cloudletId);
+	}
+
+	@Override
+	public double getTotalCurrentAvailableMipsForCloudlet(ResCloudlet rcl, List<Double> mipsShare) {
+		return getCapacity(rcl, getWeightInUse());
+	}
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import org.cloudbus.cloudsim.lists.ResCloudletList;
+
+/**
+ * CloudletSchedulerShortestPredictedJobFirst is a space-shared scheduler that starts the waiting
+ * cloudlets in the order of their predicted lengths, shortest first, instead of the order of their
+ * submission. The waiting cloudlets are kept in a heap, so that starting one takes O(log n) time
+ * whatever the number of waiting cloudlets. The first waiting cloudlet is only started when enough
+ * PEs are free for it: the cloudlets behind it wait as well, so a wide cloudlet is not starved by
+ * narrower ones.
+ * <p>
+ * The predicted length of a cloudlet is given by {@link #getPredictedLength(Cloudlet)}, which is
+ * the actual length by default, making the scheduler shortest job first. Subclasses override it
+ * to use the length predicted by the application, such as the predicted length of the cloudlets of
+ * the transcoding example.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public class CloudletSchedulerShortestPredictedJobFirst extends CloudletSchedulerSpaceShared {
+
+	/** The waiting cloudlets, ordered by predicted length. */
+	private final ResCloudletPriorityQueue waitingQueue = new ResCloudletPriorityQueue();
+
+	/**
+	 * Creates a new CloudletSchedulerShortestPredictedJobFirst object. This method must be invoked
+	 * before starting the actual simulation.
+	 *
+	 * @pre $none
+	 * @post $none
+	 */
+	public CloudletSchedulerShortestPredictedJobFirst() {
+		super();
+	}
+
+	/**
+	 * Gets the predicted length of a cloudlet, i.e. the MI it is expected to execute on each PE.
+	 *
+	 * @param cloudlet the cloudlet
+	 * @return the predicted length
+	 */
+	protected double getPredictedLength(Cloudlet cloudlet) {
+		return cloudlet.getCloudletLength();
+	}
+
+	/**
+	 * Starts the waiting cloudlets with the shortest predicted lengths, as long as the first of
+	 * them fits in the free PEs.
+	 *
+	 * @param finished the number of cloudlets that finished
+	 */
+	@Override
+	protected void admitWaitingCloudlets(int finished) {
+		int peId = 0;
+		ResCloudlet rcl = peekWaitingCloudlet();
+		while (rcl != null && (currentCpus - usedPes) >= rcl.getNumberOfPes()) {
+			waitingQueue.poll();
+			getCloudletWaitingList().remove(rcl);
+			startWaitingCloudlet(rcl, peId++);
+			rcl = peekWaitingCloudlet();
+		}
+	}
+
+	/**
+	 * Gets the waiting cloudlet with the shortest predicted length, dropping from the queue the
+	 * cloudlets that have left the waiting list, e.g. because they were paused or canceled.
+	 *
+	 * @return the cloudlet, or null if no cloudlet is waiting
+	 */
+	private ResCloudlet peekWaitingCloudlet() {
+		ResCloudlet rcl = waitingQueue.peek();
+		while (rcl != null && !getCloudletWaitingList().contains(rcl)) {
+			waitingQueue.poll();
+			rcl = waitingQueue.peek();
+		}
+		return rcl;
+	}
+
+	/**
+	 * Queues a cloudlet that has just been added to the waiting list.
+	 *
+	 * @param cloudletId the id of the cloudlet
+	 */
+	private void queueWaitingCloudlet(int cloudletId) {
+		ResCloudlet rcl = ResCloudletList.getById(getCloudletWaitingList(), cloudletId);
+		if (rcl != null && !waitingQueue.contains(rcl)) {
+			waitingQueue.add(rcl, getPredictedLength(rcl.getCloudlet()));
+		}
+	}
+
+	@Override
+	public double cloudletSubmit(Cloudlet cloudlet, double fileTransferTime) {
+		double estimatedFinishTime = super.cloudletSubmit(cloudlet, fileTransferTime);
+		queueWaitingCloudlet(cloudlet.getCloudletId());
+		return estimatedFinishTime;
+	}
+
+	@Override
+	public double cloudletResume(int cloudletId) {
+		double estimatedFinishTime = super.cloudletResume(cloudletId);
+		queueWaitingCloudlet(cloudletId);
+		return estimatedFinishTime;
+	}
+
+}
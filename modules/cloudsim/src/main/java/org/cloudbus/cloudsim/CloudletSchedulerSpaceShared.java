@@ -9,9 +9,12 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.lists.ResCloudletList;
 
 /**
  * CloudletSchedulerSpaceShared implements a policy of scheduling performed by a virtual machine. It
@@ -32,6 +35,18 @@ public class CloudletSchedulerSpaceShared extends CloudletScheduler {
 	/** The used PEs. */
 	protected int usedPes;
 
+	/** The tracker of the cloudlets in the exec list, or null if completion tracking is off. */
+	private final CloudletCompletionTracker completionTracker;
+
+	/** The cloudlets found finished by the tracker, in a list reused from update to update. */
+	private final List<ResCloudlet> finishedCloudlets = new ArrayList<ResCloudlet>();
+
+	/** The current requested mips, i.e. a copy of the current mips share. */
+	private List<Double> currentRequestedMips;
+
+	/** The mips share of which the current requested mips are a copy. */
+	private List<Double> currentRequestedMipsShare;
+
 	/**
 	 * Creates a new CloudletSchedulerSpaceShared object. This method must be invoked before
 	 * starting the actual simulation.
@@ -40,9 +55,29 @@ public class CloudletSchedulerSpaceShared extends CloudletScheduler {
 	 * @post $none
 	 */
 	public CloudletSchedulerSpaceShared() {
+		this(false);
+	}
+
+	/**
+	 * Creates a new CloudletSchedulerSpaceShared object, with or without completion tracking. With
+	 * completion tracking, the progress of the running cloudlets is not updated one by one on each
+	 * update of the processing: the scheduler keeps them in a {@link CloudletCompletionTracker},
+	 * so that an update only touches the cloudlets that finish. The progress of a running cloudlet
+	 * is then brought up to date only when it leaves the exec list.
+	 * 
+	 * @param completionTracking true to track the completion of the cloudlets
+	 * @pre $none
+	 * @post $none
+	 */
+	public CloudletSchedulerSpaceShared(boolean completionTracking) {
 		super();
 		usedPes = 0;
 		currentCpus = 0;
+		if (completionTracking) {
+			completionTracker = new CloudletCompletionTracker();
+		} else {
+			completionTracker = null;
+		}
 	}
 
 	/**
@@ -59,22 +94,10 @@ public class CloudletSchedulerSpaceShared extends CloudletScheduler {
 	public double updateVmProcessing(double currentTime, List<Double> mipsShare) {
 		setCurrentMipsShare(mipsShare);
 		double timeSpam = currentTime - getPreviousTime(); // time since last update
-		double capacity = 0.0;
-		int cpus = 0;
 
-		for (Double mips : mipsShare) { // count the CPUs available to the VMM
-			capacity += mips;
-			if (mips > 0) {
-				cpus++;
-			}
-		}
-		currentCpus = cpus;
-		capacity /= cpus; // average capacity of each cpu
-
-		// each machine in the exec list has the same amount of cpu
-		for (ResCloudlet rcl : getCloudletExecList()) {
-			rcl.updateCloudletFinishedSoFar((long) (capacity * timeSpam * rcl.getNumberOfPes() * Consts.MILLION));
-		}
+		// count the CPUs available to the VMM
+		currentCpus = getCurrentMipsShareActivePes();
+		double capacity = getCurrentMipsShareTotal() / currentCpus; // average capacity of each cpu
 
 		// no more cloudlets in this scheduler
 		if (getCloudletExecList().size() == 0 && getCloudletWaitingList().size() == 0) {
@@ -82,40 +105,43 @@ public class CloudletSchedulerSpaceShared extends CloudletScheduler {
 			return 0.0;
 		}
 
-		// update each cloudlet
+		// each machine in the exec list has the same amount of cpu: update the progress of the
+		// cloudlets and finish the finished ones, removing them from the exec list in place
 		int finished = 0;
-		List<ResCloudlet> toRemove = new ArrayList<ResCloudlet>();
-		for (ResCloudlet rcl : getCloudletExecList()) {
-			// finished anyway, rounding issue...
-			if (rcl.getRemainingCloudletLength() == 0) {
-				toRemove.add(rcl);
-				cloudletFinish(rcl);
-				finished++;
+		if (completionTracker != null) {
+			completionTracker.advance(capacity * timeSpam);
+			finished = completionTracker.pollFinished(finishedCloudlets);
+			if (finished > 0) {
+				for (int i = 0; i < finished; i++) {
+					cloudletFinish(finishedCloudlets.get(i));
+				}
+				getCloudletExecList().removeAll(finishedCloudlets);
+				finishedCloudlets.clear();
+			}
+		} else {
+			Iterator<ResCloudlet> it = getCloudletExecList().iterator();
+			while (it.hasNext()) {
+				ResCloudlet rcl = it.next();
+				rcl.updateCloudletFinishedSoFar((long) (capacity * timeSpam * rcl.getNumberOfPes() * Consts.MILLION));
+				// finished anyway, rounding issue...
+				if (rcl.getRemainingCloudletLength() == 0) {
+					it.remove();
+					cloudletFinish(rcl);
+					finished++;
+				}
 			}
 		}
-		getCloudletExecList().removeAll(toRemove);
 
 		// for each finished cloudlet, add a new one from the waiting list
 		if (!getCloudletWaitingList().isEmpty()) {
-			for (int i = 0; i < finished; i++) {
-				toRemove.clear();
-				for (ResCloudlet rcl : getCloudletWaitingList()) {
-					if ((currentCpus - usedPes) >= rcl.getNumberOfPes()) {
-						rcl.setCloudletStatus(Cloudlet.INEXEC);
-						for (int k = 0; k < rcl.getNumberOfPes(); k++) {
-							rcl.setMachineAndPeId(0, i);
-						}
-						getCloudletExecList().add(rcl);
-						usedPes += rcl.getNumberOfPes();
-						toRemove.add(rcl);
-						break;
-					}
-				}
-				getCloudletWaitingList().removeAll(toRemove);
-			}
+			admitWaitingCloudlets(finished);
 		}
 
 		// estimate finish time of cloudlets in the execution queue
+		if (completionTracker != null) {
+			setPreviousTime(currentTime);
+			return completionTracker.getNextFinishTime(currentTime, capacity);
+		}
 		double nextEvent = Double.MAX_VALUE;
 		for (ResCloudlet rcl : getCloudletExecList()) {
 			double remainingLength = rcl.getRemainingCloudletLength();
@@ -131,6 +157,44 @@ public class CloudletSchedulerSpaceShared extends CloudletScheduler {
 		return nextEvent;
 	}
 
+	/**
+	 * Moves cloudlets from the waiting list to the exec list after some cloudlets finished. For
+	 * each finished cloudlet, the first waiting cloudlet that fits in the free PEs is started.
+	 * 
+	 * @param finished the number of cloudlets that finished
+	 */
+	protected void admitWaitingCloudlets(int finished) {
+		for (int i = 0; i < finished; i++) {
+			Iterator<ResCloudlet> it = getCloudletWaitingList().iterator();
+			while (it.hasNext()) {
+				ResCloudlet rcl = it.next();
+				if ((currentCpus - usedPes) >= rcl.getNumberOfPes()) {
+					it.remove();
+					startWaitingCloudlet(rcl, i);
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Starts the execution of a cloudlet that the caller has removed from the waiting list.
+	 * 
+	 * @param rcl the cloudlet
+	 * @param peId the id of the PE on which the cloudlet is set to run
+	 */
+	protected void startWaitingCloudlet(ResCloudlet rcl, int peId) {
+		rcl.setCloudletStatus(Cloudlet.INEXEC);
+		for (int k = 0; k < rcl.getNumberOfPes(); k++) {
+			rcl.setMachineAndPeId(0, peId);
+		}
+		getCloudletExecList().add(rcl);
+		usedPes += rcl.getNumberOfPes();
+		if (completionTracker != null) {
+			completionTracker.add(rcl);
+		}
+	}
+
 	/**
 	 * Cancels execution of a cloudlet.
 	 * 
@@ -142,41 +206,40 @@ public class CloudletSchedulerSpaceShared extends CloudletScheduler {
 	@Override
 	public Cloudlet cloudletCancel(int cloudletId) {
 		// First, looks in the finished queue
-		for (ResCloudlet rcl : getCloudletFinishedList()) {
-			if (rcl.getCloudletId() == cloudletId) {
-				getCloudletFinishedList().remove(rcl);
-				return rcl.getCloudlet();
-			}
+		ResCloudlet rcl = ResCloudletList.getById(getCloudletFinishedList(), cloudletId);
+		if (rcl != null) {
+			getCloudletFinishedList().remove(rcl);
+			return rcl.getCloudlet();
 		}
 
 		// Then searches in the exec list
-		for (ResCloudlet rcl : getCloudletExecList()) {
-			if (rcl.getCloudletId() == cloudletId) {
-				getCloudletExecList().remove(rcl);
-				if (rcl.getRemainingCloudletLength() == 0) {
-					cloudletFinish(rcl);
-				} else {
-					rcl.setCloudletStatus(Cloudlet.CANCELED);
-				}
-				return rcl.getCloudlet();
+		rcl = ResCloudletList.getById(getCloudletExecList(), cloudletId);
+		if (rcl != null) {
+			getCloudletExecList().remove(rcl);
+			if (completionTracker != null) {
+				completionTracker.remove(rcl);
 			}
+			if (rcl.getRemainingCloudletLength() == 0) {
+				cloudletFinish(rcl);
+			} else {
+				rcl.setCloudletStatus(Cloudlet.CANCELED);
+			}
+			return rcl.getCloudlet();
 		}
 
 		// Now, looks in the paused queue
-		for (ResCloudlet rcl : getCloudletPausedList()) {
-			if (rcl.getCloudletId() == cloudletId) {
-				getCloudletPausedList().remove(rcl);
-				return rcl.getCloudlet();
-			}
+		rcl = ResCloudletList.getById(getCloudletPausedList(), cloudletId);
+		if (rcl != null) {
+			getCloudletPausedList().remove(rcl);
+			return rcl.getCloudlet();
 		}
 
 		// Finally, looks in the waiting list
-		for (ResCloudlet rcl : getCloudletWaitingList()) {
-			if (rcl.getCloudletId() == cloudletId) {
-				rcl.setCloudletStatus(Cloudlet.CANCELED);
-				getCloudletWaitingList().remove(rcl);
-				return rcl.getCloudlet();
-			}
+		rcl = ResCloudletList.getById(getCloudletWaitingList(), cloudletId);
+		if (rcl != null) {
+			rcl.setCloudletStatus(Cloudlet.CANCELED);
+			getCloudletWaitingList().remove(rcl);
+			return rcl.getCloudlet();
 		}
 
 		return null;
@@ -193,21 +256,14 @@ public class CloudletSchedulerSpaceShared extends CloudletScheduler {
 	 */
 	@Override
 	public boolean cloudletPause(int cloudletId) {
-		boolean found = false;
-		int position = 0;
-
 		// first, looks for the cloudlet in the exec list
-		for (ResCloudlet rcl : getCloudletExecList()) {
-			if (rcl.getCloudletId() == cloudletId) {
-				found = true;
-				break;
-			}
-			position++;
-		}
-
-		if (found) {
+		ResCloudlet rgl = ResCloudletList.getById(getCloudletExecList(), cloudletId);
+		if (rgl != null) {
 			// moves to the paused list
-			ResCloudlet rgl = getCloudletExecList().remove(position);
+			getCloudletExecList().remove(rgl);
+			if (completionTracker != null) {
+				completionTracker.remove(rgl);
+			}
 			if (rgl.getRemainingCloudletLength() == 0) {
 				cloudletFinish(rgl);
 			} else {
@@ -219,19 +275,10 @@ public class CloudletSchedulerSpaceShared extends CloudletScheduler {
 		}
 
 		// now, look for the cloudlet in the waiting list
-		position = 0;
-		found = false;
-		for (ResCloudlet rcl : getCloudletWaitingList()) {
-			if (rcl.getCloudletId() == cloudletId) {
-				found = true;
-				break;
-			}
-			position++;
-		}
-
-		if (found) {
+		rgl = ResCloudletList.getById(getCloudletWaitingList(), cloudletId);
+		if (rgl != null) {
 			// moves to the paused list
-			ResCloudlet rgl = getCloudletWaitingList().remove(position);
+			getCloudletWaitingList().remove(rgl);
 			if (rgl.getRemainingCloudletLength() == 0) {
 				cloudletFinish(rgl);
 			} else {
@@ -270,20 +317,10 @@ public class CloudletSchedulerSpaceShared extends CloudletScheduler {
 	 */
 	@Override
 	public double cloudletResume(int cloudletId) {
-		boolean found = false;
-		int position = 0;
-
 		// look for the cloudlet in the paused list
-		for (ResCloudlet rcl : getCloudletPausedList()) {
-			if (rcl.getCloudletId() == cloudletId) {
-				found = true;
-				break;
-			}
-			position++;
-		}
-
-		if (found) {
-			ResCloudlet rcl = getCloudletPausedList().remove(position);
+		ResCloudlet rcl = ResCloudletList.getById(getCloudletPausedList(), cloudletId);
+		if (rcl != null) {
+			getCloudletPausedList().remove(rcl);
 
 			// it can go to the exec list
 			if ((currentCpus - usedPes) >= rcl.getNumberOfPes()) {
@@ -298,18 +335,13 @@ public class CloudletSchedulerSpaceShared extends CloudletScheduler {
 
 				getCloudletExecList().add(rcl);
 				usedPes += rcl.getNumberOfPes();
+				if (completionTracker != null) {
+					completionTracker.add(rcl);
+				}
 
 				// calculate the expected time for cloudlet completion
-				double capacity = 0.0;
-				int cpus = 0;
-				for (Double mips : getCurrentMipsShare()) {
-					capacity += mips;
-					if (mips > 0) {
-						cpus++;
-					}
-				}
-				currentCpus = cpus;
-				capacity /= cpus;
+				currentCpus = getCurrentMipsShareActivePes();
+				double capacity = getCurrentMipsShareTotal() / currentCpus;
 
 				long remainingLength = rcl.getRemainingCloudletLength();
 				double estimatedFinishTime = CloudSim.clock()
@@ -346,8 +378,9 @@ public class CloudletSchedulerSpaceShared extends CloudletScheduler {
 	@Override
 	public double cloudletSubmit(Cloudlet cloudlet, double fileTransferTime) {
 		// it can go to the exec list
+		ResCloudlet rcl;
 		if ((currentCpus - usedPes) >= cloudlet.getNumberOfPes()) {
-			ResCloudlet rcl = new ResCloudlet(cloudlet);
+			rcl = new ResCloudlet(cloudlet);
 			rcl.setCloudletStatus(Cloudlet.INEXEC);
 			for (int i = 0; i < cloudlet.getNumberOfPes(); i++) {
 				rcl.setMachineAndPeId(0, i);
@@ -355,24 +388,15 @@ public class CloudletSchedulerSpaceShared extends CloudletScheduler {
 			getCloudletExecList().add(rcl);
 			usedPes += cloudlet.getNumberOfPes();
 		} else {// no enough free PEs: go to the waiting queue
-			ResCloudlet rcl = new ResCloudlet(cloudlet);
+			rcl = new ResCloudlet(cloudlet);
 			rcl.setCloudletStatus(Cloudlet.QUEUED);
 			getCloudletWaitingList().add(rcl);
 			return 0.0;
 		}
 
 		// calculate the expected time for cloudlet completion
-		double capacity = 0.0;
-		int cpus = 0;
-		for (Double mips : getCurrentMipsShare()) {
-			capacity += mips;
-			if (mips > 0) {
-				cpus++;
-			}
-		}
-
-		currentCpus = cpus;
-		capacity /= cpus;
+		currentCpus = getCurrentMipsShareActivePes();
+		double capacity = getCurrentMipsShareTotal() / currentCpus;
 
 		// use the current capacity to estimate the extra amount of
 		// time to file transferring. It must be added to the cloudlet length
@@ -380,6 +404,9 @@ public class CloudletSchedulerSpaceShared extends CloudletScheduler {
 		long length = cloudlet.getCloudletLength();
 		length += extraSize;
 		cloudlet.setCloudletLength(length);
+		if (completionTracker != null) {
+			completionTracker.add(rcl);
+		}
 		return cloudlet.getCloudletLength() / capacity;
 	}
 
@@ -402,24 +429,16 @@ public class CloudletSchedulerSpaceShared extends CloudletScheduler {
 	 */
 	@Override
 	public int getCloudletStatus(int cloudletId) {
-		for (ResCloudlet rcl : getCloudletExecList()) {
-			if (rcl.getCloudletId() == cloudletId) {
-				return rcl.getCloudletStatus();
-			}
+		ResCloudlet rcl = ResCloudletList.getById(getCloudletExecList(), cloudletId);
+		if (rcl == null) {
+			rcl = ResCloudletList.getById(getCloudletPausedList(), cloudletId);
 		}
-
-		for (ResCloudlet rcl : getCloudletPausedList()) {
-			if (rcl.getCloudletId() == cloudletId) {
-				return rcl.getCloudletStatus();
-			}
+		if (rcl == null) {
+			rcl = ResCloudletList.getById(getCloudletWaitingList(), cloudletId);
 		}
-
-		for (ResCloudlet rcl : getCloudletWaitingList()) {
-			if (rcl.getCloudletId() == cloudletId) {
-				return rcl.getCloudletStatus();
-			}
+		if (rcl != null) {
+			return rcl.getCloudletStatus();
 		}
-
 		return -1;
 	}
 
@@ -487,6 +506,9 @@ public class CloudletSchedulerSpaceShared extends CloudletScheduler {
 	@Override
 	public Cloudlet migrateCloudlet() {
 		ResCloudlet rcl = getCloudletExecList().remove(0);
+		if (completionTracker != null) {
+			completionTracker.remove(rcl);
+		}
 		rcl.finalizeCloudlet();
 		Cloudlet cl = rcl.getCloudlet();
 		usedPes -= cl.getNumberOfPes();
@@ -499,13 +521,18 @@ public class CloudletSchedulerSpaceShared extends CloudletScheduler {
 	 */
 	@Override
 	public List<Double> getCurrentRequestedMips() {
-		List<Double> mipsShare = new ArrayList<Double>();
-		if (getCurrentMipsShare() != null) {
-			for (Double mips : getCurrentMipsShare()) {
-				mipsShare.add(mips);
+		// the copy of the current mips share is only made again when the share changes
+		if (currentRequestedMips == null || currentRequestedMipsShare != getCurrentMipsShare()) {
+			List<Double> mipsShare = new ArrayList<Double>();
+			if (getCurrentMipsShare() != null) {
+				for (Double mips : getCurrentMipsShare()) {
+					mipsShare.add(mips);
+				}
 			}
+			currentRequestedMips = Collections.unmodifiableList(mipsShare);
+			currentRequestedMipsShare = getCurrentMipsShare();
 		}
-		return mipsShare;
+		return currentRequestedMips;
 	}
 
 	/*
@@ -553,6 +580,15 @@ public class CloudletSchedulerSpaceShared extends CloudletScheduler {
 		return 0.0;
 	}
 
+	/**
+	 * Checks whether the completion of the cloudlets is tracked.
+	 * 
+	 * @return true if the completion of the cloudlets is tracked
+	 */
+	public boolean isCompletionTracking() {
+		return completionTracker != null;
+	}
+
 	@Override
 	public double getCurrentRequestedUtilizationOfRam() {
 		// TODO Auto-generated method stub
@@ -8,9 +8,13 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.lists.ResCloudletIndexedList;
+import org.cloudbus.cloudsim.lists.ResCloudletList;
 
 /**
  * CloudletSchedulerTimeShared implements a policy of scheduling performed by a virtual machine.
@@ -25,6 +29,15 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 	/** The current cp us. */
 	protected int currentCPUs;
 
+	/** The number of PEs used by the cloudlets in the exec list. */
+	protected int pesInUse;
+
+	/** The tracker of the cloudlets in the exec list, or null if completion tracking is off. */
+	private final CloudletCompletionTracker completionTracker;
+
+	/** The cloudlets found finished by the tracker, in a list reused from update to update. */
+	private final List<ResCloudlet> finishedCloudlets = new ArrayList<ResCloudlet>();
+
 	/**
 	 * Creates a new CloudletSchedulerTimeShared object. This method must be invoked before starting
 	 * the actual simulation.
@@ -33,8 +46,31 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 	 * @post $none
 	 */
 	public CloudletSchedulerTimeShared() {
+		this(false);
+	}
+
+	/**
+	 * Creates a new CloudletSchedulerTimeShared object, with or without completion tracking. With
+	 * completion tracking, the progress of the running cloudlets is not updated one by one on each
+	 * update of the processing: the scheduler keeps them in a {@link CloudletCompletionTracker},
+	 * so that an update only touches the cloudlets that finish. The progress of a running cloudlet
+	 * is then brought up to date only when it leaves the exec list. Along with the analytic mode of
+	 * the {@link Datacenter}, this makes the processing of the cloudlets event-driven: their
+	 * progress is integrated in closed form between the arrivals and departures of cloudlets.
+	 * 
+	 * @param completionTracking true to track the completion of the cloudlets
+	 * @pre $none
+	 * @post $none
+	 */
+	public CloudletSchedulerTimeShared(boolean completionTracking) {
 		super();
 		currentCPUs = 0;
+		pesInUse = 0;
+		if (completionTracking) {
+			completionTracker = new CloudletCompletionTracker();
+		} else {
+			completionTracker = null;
+		}
 	}
 
 	/**
@@ -52,36 +88,65 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 		setCurrentMipsShare(mipsShare);
 		double timeSpam = currentTime - getPreviousTime();
 
-		for (ResCloudlet rcl : getCloudletExecList()) {
-			rcl.updateCloudletFinishedSoFar((long) (getCapacity(mipsShare) * timeSpam * rcl.getNumberOfPes() * Consts.MILLION));
-		}
-
-		if (getCloudletExecList().size() == 0) {
+		if (getCloudletExecList().isEmpty()) {
 			setPreviousTime(currentTime);
 			return 0.0;
 		}
 
-		// check finished cloudlets
+		// update the progress of the cloudlets and finish the finished ones, removing them from
+		// the exec list in place
+		double capacity = getCapacity(mipsShare);
 		double nextEvent = Double.MAX_VALUE;
-		List<ResCloudlet> toRemove = new ArrayList<ResCloudlet>();
-		for (ResCloudlet rcl : getCloudletExecList()) {
-			long remainingLength = rcl.getRemainingCloudletLength();
-			if (remainingLength == 0) {// finished: remove from the list
-				toRemove.add(rcl);
-				cloudletFinish(rcl);
-				continue;
+		boolean finished = false;
+		if (completionTracker != null) {
+			completionTracker.advance(capacity * timeSpam);
+			completionTracker.pollFinished(finishedCloudlets);
+			if (!finishedCloudlets.isEmpty()) {
+				for (int i = 0; i < finishedCloudlets.size(); i++) {
+					ResCloudlet rcl = finishedCloudlets.get(i);
+					execCloudletRemoved(rcl);
+					cloudletFinish(rcl);
+				}
+				getCloudletExecList().removeAll(finishedCloudlets);
+				finishedCloudlets.clear();
+			}
+		} else {
+			Iterator<ResCloudlet> it = getCloudletExecListIterator();
+			while (it.hasNext()) {
+				ResCloudlet rcl = it.next();
+				rcl.updateCloudletFinishedSoFar((long) (capacity * timeSpam * rcl.getNumberOfPes() * Consts.MILLION));
+				if (rcl.getRemainingCloudletLength() == 0) {// finished: remove from the list
+					it.remove();
+					execCloudletRemoved(rcl);
+					cloudletFinish(rcl);
+					finished = true;
+				} else if (!finished) {
+					// the capacity stays the same unless a cloudlet finishes, in which case the
+					// finish times are estimated again below
+					double estimatedFinishTime = estimateFinishTime(rcl, currentTime, capacity);
+					if (estimatedFinishTime < nextEvent) {
+						nextEvent = estimatedFinishTime;
+					}
+				}
+			}
+			if (!finished) {
+				setPreviousTime(currentTime);
+				return nextEvent;
 			}
 		}
-		getCloudletExecList().removeAll(toRemove);
 
 		// estimate finish time of cloudlets
+		nextEvent = Double.MAX_VALUE;
+		capacity = 0;
+		if (!getCloudletExecList().isEmpty()) {
+			capacity = getCapacity(mipsShare);
+		}
+		if (completionTracker != null) {
+			setPreviousTime(currentTime);
+			return completionTracker.getNextFinishTime(currentTime, capacity);
+		}
 		for (ResCloudlet rcl : getCloudletExecList()) {
-			double estimatedFinishTime = currentTime
-					+ (rcl.getRemainingCloudletLength() / (getCapacity(mipsShare) * rcl.getNumberOfPes()));
-			if (estimatedFinishTime - currentTime < CloudSim.getMinTimeBetweenEvents()) {
-				estimatedFinishTime = currentTime + CloudSim.getMinTimeBetweenEvents();
-			}
-
+			double estimatedFinishTime = estimateFinishTime(rcl, currentTime, capacity);
 			if (estimatedFinishTime < nextEvent) {
 				nextEvent = estimatedFinishTime;
 			}
@@ -92,7 +157,43 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 	}
 
 	/**
-	 * Gets the capacity.
+	 * Gets an iterator over the exec list for the update of the processing. The iterator of a
+	 * {@link ResCloudletIndexedList} is reused from update to update, so that the steady-state
+	 * update does not allocate.
+	 * 
+	 * @return the iterator
+	 */
+	private Iterator<ResCloudlet> getCloudletExecListIterator() {
+		List<ResCloudlet> execList = getCloudletExecList();
+		if (execList instanceof ResCloudletIndexedList) {
+			return ((ResCloudletIndexedList<ResCloudlet>) execList).reusableIterator();
+		}
+		return execList.iterator();
+	}
+
+	/**
+	 * Estimates the finish time of a running cloudlet, no sooner than the minimum time between
+	 * events from now.
+	 * 
+	 * @param rcl the cloudlet
+	 * @param currentTime the current simulation time
+	 * @param capacity the MIPS available to each PE of the cloudlet
+	 * @return the estimated finish time
+	 */
+	private double estimateFinishTime(ResCloudlet rcl, double currentTime, double capacity) {
+		double estimatedFinishTime = currentTime
+				+ (rcl.getRemainingCloudletLength() / (capacity * rcl.getNumberOfPes()));
+		if (estimatedFinishTime - currentTime < CloudSim.getMinTimeBetweenEvents()) {
+			estimatedFinishTime = currentTime + CloudSim.getMinTimeBetweenEvents();
+		}
+		return estimatedFinishTime;
+	}
+
+	/**
+	 * Gets the capacity, i.e. the MIPS available to each PE used by the cloudlets. The number of
+	 * PEs in use is kept up to date as cloudlets enter and leave the exec list, so the cost does
+	 * not depend on the number of cloudlets, and the totals of the current mips share are read
+	 * when it is set.
 	 * 
 	 * @param mipsShare the mips share
 	 * @return the capacity
@@ -100,19 +201,20 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 	protected double getCapacity(List<Double> mipsShare) {
 		double capacity = 0.0;
 		int cpus = 0;
-		for (Double mips : mipsShare) {
-			capacity += mips;
-			if (mips > 0.0) {
-				cpus++;
+		if (mipsShare == getCurrentMipsShare()) {
+			capacity = getCurrentMipsShareTotal();
+			cpus = getCurrentMipsShareActivePes();
+		} else {
+			for (int i = 0; i < mipsShare.size(); i++) {
+				double mips = mipsShare.get(i);
+				capacity += mips;
+				if (mips > 0.0) {
+					cpus++;
+				}
 			}
 		}
 		currentCPUs = cpus;
 
-		int pesInUse = 0;
-		for (ResCloudlet rcl : getCloudletExecList()) {
-			pesInUse += rcl.getNumberOfPes();
-		}
-
 		if (pesInUse > currentCPUs) {
 			capacity /= pesInUse;
 		} else {
@@ -121,6 +223,26 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 		return capacity;
 	}
 
+	/**
+	 * Accounts for a cloudlet added to the exec list, i.e. counts its PEs as in use. Subclasses
+	 * that keep other totals over the running cloudlets update them here as well.
+	 * 
+	 * @param rcl the cloudlet
+	 */
+	protected void execCloudletAdded(ResCloudlet rcl) {
+		pesInUse += rcl.getNumberOfPes();
+	}
+
+	/**
+	 * Accounts for a cloudlet removed from the exec list, i.e. no longer counts its PEs as in use.
+	 * 
+	 * @param rcl the cloudlet
+	 * @see #execCloudletAdded(ResCloudlet)
+	 */
+	protected void execCloudletRemoved(ResCloudlet rcl) {
+		pesInUse -= rcl.getNumberOfPes();
+	}
+
 	/**
 	 * Cancels execution of a cloudlet.
 	 * 
@@ -131,35 +253,21 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 	 */
 	@Override
 	public Cloudlet cloudletCancel(int cloudletId) {
-		boolean found = false;
-		int position = 0;
-
 		// First, looks in the finished queue
-		found = false;
-		for (ResCloudlet rcl : getCloudletFinishedList()) {
-			if (rcl.getCloudletId() == cloudletId) {
-				found = true;
-				break;
-			}
-			position++;
-		}
-
-		if (found) {
-			return getCloudletFinishedList().remove(position).getCloudlet();
+		ResCloudlet rcl = ResCloudletList.getById(getCloudletFinishedList(), cloudletId);
+		if (rcl != null) {
+			getCloudletFinishedList().remove(rcl);
+			return rcl.getCloudlet();
 		}
 
 		// Then searches in the exec list
-		position=0;
-		for (ResCloudlet rcl : getCloudletExecList()) {
-			if (rcl.getCloudletId() == cloudletId) {
-				found = true;
-				break;
+		rcl = ResCloudletList.getById(getCloudletExecList(), cloudletId);
+		if (rcl != null) {
+			getCloudletExecList().remove(rcl);
+			execCloudletRemoved(rcl);
+			if (completionTracker != null) {
+				completionTracker.remove(rcl);
 			}
-			position++;
-		}
-
-		if (found) {
-			ResCloudlet rcl = getCloudletExecList().remove(position);
 			if (rcl.getRemainingCloudletLength() == 0) {
 				cloudletFinish(rcl);
 			} else {
@@ -169,19 +277,11 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 		}
 
 		// Now, looks in the paused queue
-		found = false;
-		position=0;
-		for (ResCloudlet rcl : getCloudletPausedList()) {
-			if (rcl.getCloudletId() == cloudletId) {
-				found = true;
-				rcl.setCloudletStatus(Cloudlet.CANCELED);
-				break;
-			}
-			position++;
-		}
-
-		if (found) {
-			return getCloudletPausedList().remove(position).getCloudlet();
+		rcl = ResCloudletList.getById(getCloudletPausedList(), cloudletId);
+		if (rcl != null) {
+			rcl.setCloudletStatus(Cloudlet.CANCELED);
+			getCloudletPausedList().remove(rcl);
+			return rcl.getCloudlet();
 		}
 
 		return null;
@@ -197,20 +297,14 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 	 */
 	@Override
 	public boolean cloudletPause(int cloudletId) {
-		boolean found = false;
-		int position = 0;
-
-		for (ResCloudlet rcl : getCloudletExecList()) {
-			if (rcl.getCloudletId() == cloudletId) {
-				found = true;
-				break;
-			}
-			position++;
-		}
-
-		if (found) {
+		ResCloudlet rcl = ResCloudletList.getById(getCloudletExecList(), cloudletId);
+		if (rcl != null) {
 			// remove cloudlet from the exec list and put it in the paused list
-			ResCloudlet rcl = getCloudletExecList().remove(position);
+			getCloudletExecList().remove(rcl);
+			execCloudletRemoved(rcl);
+			if (completionTracker != null) {
+				completionTracker.remove(rcl);
+			}
 			if (rcl.getRemainingCloudletLength() == 0) {
 				cloudletFinish(rcl);
 			} else {
@@ -246,22 +340,16 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 	 */
 	@Override
 	public double cloudletResume(int cloudletId) {
-		boolean found = false;
-		int position = 0;
-
 		// look for the cloudlet in the paused list
-		for (ResCloudlet rcl : getCloudletPausedList()) {
-			if (rcl.getCloudletId() == cloudletId) {
-				found = true;
-				break;
-			}
-			position++;
-		}
-
-		if (found) {
-			ResCloudlet rgl = getCloudletPausedList().remove(position);
+		ResCloudlet rgl = ResCloudletList.getById(getCloudletPausedList(), cloudletId);
+		if (rgl != null) {
+			getCloudletPausedList().remove(rgl);
 			rgl.setCloudletStatus(Cloudlet.INEXEC);
 			getCloudletExecList().add(rgl);
+			execCloudletAdded(rgl);
+			if (completionTracker != null) {
+				completionTracker.add(rgl);
+			}
 
 			// calculate the expected time for cloudlet completion
 			// first: how many PEs do we have?
@@ -294,12 +382,16 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 		}
 
 		getCloudletExecList().add(rcl);
+		execCloudletAdded(rcl);
 
 		// use the current capacity to estimate the extra amount of
 		// time to file transferring. It must be added to the cloudlet length
 		double extraSize = getCapacity(getCurrentMipsShare()) * fileTransferTime;
 		long length = (long) (cloudlet.getCloudletLength() + extraSize);
 		cloudlet.setCloudletLength(length);
+		if (completionTracker != null) {
+			completionTracker.add(rcl);
+		}
 
 		return cloudlet.getCloudletLength() / getCapacity(getCurrentMipsShare());
 	}
@@ -323,15 +415,12 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 	 */
 	@Override
 	public int getCloudletStatus(int cloudletId) {
-		for (ResCloudlet rcl : getCloudletExecList()) {
-			if (rcl.getCloudletId() == cloudletId) {
-				return rcl.getCloudletStatus();
-			}
+		ResCloudlet rcl = ResCloudletList.getById(getCloudletExecList(), cloudletId);
+		if (rcl == null) {
+			rcl = ResCloudletList.getById(getCloudletPausedList(), cloudletId);
 		}
-		for (ResCloudlet rcl : getCloudletPausedList()) {
-			if (rcl.getCloudletId() == cloudletId) {
-				return rcl.getCloudletStatus();
-			}
+		if (rcl != null) {
+			return rcl.getCloudletStatus();
 		}
 		return -1;
 	}
@@ -400,6 +489,10 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 	@Override
 	public Cloudlet migrateCloudlet() {
 		ResCloudlet rgl = getCloudletExecList().remove(0);
+		execCloudletRemoved(rgl);
+		if (completionTracker != null) {
+			completionTracker.remove(rgl);
+		}
 		rgl.finalizeCloudlet();
 		return rgl.getCloudlet();
 	}
@@ -411,8 +504,7 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 	 */
 	@Override
 	public List<Double> getCurrentRequestedMips() {
-		List<Double> mipsShare = new ArrayList<Double>();
-		return mipsShare;
+		return Collections.emptyList();
 	}
 
 	/*
@@ -446,6 +538,15 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 		return 0.0;
 	}
 
+	/**
+	 * Checks whether the completion of the cloudlets is tracked.
+	 * 
+	 * @return true if the completion of the cloudlets is tracked
+	 */
+	public boolean isCompletionTracking() {
+		return completionTracker != null;
+	}
+
 	@Override
 	public double getCurrentRequestedUtilizationOfRam() {
 		double ram = 0;
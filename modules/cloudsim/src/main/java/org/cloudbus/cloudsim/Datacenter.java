@@ -10,6 +10,7 @@ package org.cloudbus.cloudsim;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -17,6 +18,8 @@ import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.CloudSimTags;
 import org.cloudbus.cloudsim.core.SimEntity;
 import org.cloudbus.cloudsim.core.SimEvent;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+import org.cloudbus.cloudsim.lists.IndexedVmList;
 
 /**
  * Datacenter class is a CloudResource whose hostList are virtualized. It deals with processing of
@@ -24,6 +27,30 @@ import org.cloudbus.cloudsim.core.SimEvent;
  * though an AllocPolicy will be instantiated (in the init() method of the superclass, it will not
  * be used, as processing of cloudlets are handled by the CloudletScheduler and processing of
  * VirtualMachines are handled by the VmAllocationPolicy.
+ * <p>
+ * In analytic mode, the processing of the cloudlets is only updated at the instants at which
+ * cloudlets arrive or leave, instead of at the projected finish time of each submitted cloudlet and
+ * at least {@link CloudSim#getMinTimeBetweenEvents()} apart: a single processing event is kept
+ * pending, at the next departure of a cloudlet. This suits cloudlet schedulers whose progress is
+ * linear between arrivals and departures, such as {@link CloudletSchedulerTimeShared} and
+ * {@link CloudletSchedulerSpaceShared}, best with completion tracking, which integrates the
+ * progress of the cloudlets in closed form. It does not suit schedulers whose progress follows the
+ * utilization of the cloudlets over time, nor datacenters that update the processing at each
+ * scheduling interval or on their own events, such as the power and network datacenters, which
+ * reject it.
+ * <p>
+ * With host tracking, the processing of the cloudlets is only updated on the hosts whose state has
+ * changed since their last update, or whose next projected event is due, and only these hosts are
+ * checked for finished cloudlets, as tracked by a {@link HostProcessingTracker}. This suits large
+ * datacenters in which each event only concerns a few hosts. It does not suit hosts that change
+ * state on their own, such as the network hosts, nor datacenters that update the hosts by
+ * themselves, such as the power datacenters.
+ * <p>
+ * With a host update parallelism above 1, the processing of the hosts is updated on several
+ * threads by a {@link HostUpdateExecutor}, with the same results and log as when updating them one
+ * after the other. This suits datacenters with many hosts, each running many cloudlets. It does
+ * not suit hosts that change the state of other hosts or send events, such as the network hosts,
+ * which the network datacenters reject. It does not apply with host tracking, which updates the few hosts concerned by each event one by one.
  * 
  * @author Rodrigo N. Calheiros
  * @author Anton Beloglazov
@@ -52,6 +79,24 @@ public class Datacenter extends SimEntity {
 	/** The scheduling interval. */
 	private double schedulingInterval;
 
+	/** Whether the processing of the cloudlets is updated in analytic mode. */
+	private boolean analyticProcessing;
+
+	/** The time of the pending processing event in analytic mode, or Double.MAX_VALUE if none. */
+	private double analyticEventTime = Double.MAX_VALUE;
+
+	/**
+	 * The smallest delay of the processing events requested while a list of cloudlets is submitted,
+	 * or NaN outside of such a submission.
+	 */
+	private double batchEventDelay = Double.NaN;
+
+	/** The tracker of the hosts that need an update, or null if host tracking is off. */
+	private HostProcessingTracker hostTracker;
+
+	/** The executor updating the hosts in parallel, or null if they are updated one by one. */
+	private HostUpdateExecutor hostUpdateExecutor;
+
 	/**
 	 * Allocates a new PowerDatacenter object.
 	 * 
@@ -84,7 +129,7 @@ public class Datacenter extends SimEntity {
 		setVmAllocationPolicy(vmAllocationPolicy);
 		setLastProcessTime(0.0);
 		setStorageList(storageList);
-		setVmList(new ArrayList<Vm>());
+		setVmList(new IndexedVmList<Vm>());
 		setSchedulingInterval(schedulingInterval);
 
 		for (Host host : getCharacteristics().getHostList()) {
@@ -158,6 +203,11 @@ public class Datacenter extends SimEntity {
 				processCloudletSubmit(ev, true);
 				break;
 
+			// A list of new Cloudlets arrives
+			case CloudSimTags.CLOUDLET_SUBMIT_BATCH:
+				processCloudletSubmitBatch(ev, false);
+				break;
+
 			// Cancels a previously submitted Cloudlet
 			case CloudSimTags.CLOUDLET_CANCEL:
 				processCloudlet(ev, CloudSimTags.CLOUDLET_CANCEL);
@@ -213,6 +263,10 @@ public class Datacenter extends SimEntity {
 				processVmCreate(ev, true);
 				break;
 
+			case CloudSimTags.VM_CREATE_BATCH:
+				processVmCreateBatch(ev);
+				break;
+
 			case CloudSimTags.VM_DESTROY:
 				processVmDestroy(ev, false);
 				break;
@@ -246,7 +300,12 @@ public class Datacenter extends SimEntity {
 				break;
 
 			case CloudSimTags.VM_DATACENTER_EVENT:
-				updateCloudletProcessing();
+				if (isAnalyticProcessing()) {
+					analyticEventTime = Double.MAX_VALUE;
+					updateCloudletProcessingAnalytically();
+				} else {
+					updateCloudletProcessing();
+				}
 				checkCloudletCompletion();
 				break;
 
@@ -444,16 +503,86 @@ public class Datacenter extends SimEntity {
 		}
 
 		if (result) {
-			getVmList().add(vm);
+			startVm(vm);
+		}
+
+	}
+
+	/**
+	 * Process the event for an User/Broker who wants to create a list of VMs in this Datacenter at
+	 * once. Each owner of the VMs is sent a single acknowledgement holding the id of this Datacenter
+	 * followed by the id and the result of each of its VMs, in the order of the list.
+	 * <p>
+	 * A policy that places a batch as a whole (see {@link VmAllocationPolicy#isBatchPlacedAsWhole()})
+	 * allocates the list at once, and the VMs are started afterwards. Any other policy is asked for
+	 * a host for each VM in turn, and each VM is started before the next one is placed, as if it had
+	 * been requested alone: until then the VM requests all of its MIPS, which the power-aware
+	 * policies account for.
+	 * 
+	 * @param ev a Sim_event object holding the list of VMs
+	 * @pre ev != null
+	 * @post $none
+	 */
+	protected void processVmCreateBatch(SimEvent ev) {
+		@SuppressWarnings("unchecked")
+		List<Vm> vmList = (List<Vm>) ev.getData();
+
+		List<Boolean> results;
+		if (getVmAllocationPolicy().isBatchPlacedAsWhole()) {
+			results = getVmAllocationPolicy().allocateHostsForVms(vmList);
+			for (int i = 0; i < vmList.size(); i++) {
+				if (results.get(i)) {
+					startVm(vmList.get(i));
+				}
+			}
+		} else {
+			results = new ArrayList<Boolean>(vmList.size());
+			for (Vm vm : vmList) {
+				boolean result = getVmAllocationPolicy().allocateHostForVm(vm);
+				if (result) {
+					startVm(vm);
+				}
+				results.add(result);
+			}
+		}
 
-			if (vm.isBeingInstantiated()) {
-				vm.setBeingInstantiated(false);
+		Map<Integer, List<Integer>> acks = new LinkedHashMap<Integer, List<Integer>>();
+		for (int i = 0; i < vmList.size(); i++) {
+			Vm vm = vmList.get(i);
+			List<Integer> ack = acks.get(vm.getUserId());
+			if (ack == null) {
+				ack = new ArrayList<Integer>();
+				acks.put(vm.getUserId(), ack);
 			}
+			ack.add(vm.getId());
+			ack.add(results.get(i) ? CloudSimTags.TRUE : CloudSimTags.FALSE);
+		}
+		for (Map.Entry<Integer, List<Integer>> ack : acks.entrySet()) {
+			int[] data = new int[ack.getValue().size() + 1];
+			data[0] = getId();
+			for (int i = 0; i < ack.getValue().size(); i++) {
+				data[i + 1] = ack.getValue().get(i);
+			}
+			send(ack.getKey(), CloudSim.getMinTimeBetweenEvents(), CloudSimTags.VM_CREATE_BATCH_ACK, data);
+		}
+	}
 
-			vm.updateVmProcessing(CloudSim.clock(), getVmAllocationPolicy().getHost(vm).getVmScheduler()
-					.getAllocatedMipsForVm(vm));
+	/**
+	 * Starts a VM that has just been allocated a host: adds it to the VM list of this Datacenter
+	 * and brings its processing up to date.
+	 * 
+	 * @param vm the VM
+	 */
+	protected void startVm(Vm vm) {
+		getVmList().add(vm);
+		touchHost(getVmAllocationPolicy().getHost(vm));
+
+		if (vm.isBeingInstantiated()) {
+			vm.setBeingInstantiated(false);
 		}
 
+		vm.updateVmProcessing(CloudSim.clock(), getVmAllocationPolicy().getHost(vm).getVmScheduler()
+				.getAllocatedMipsForVm(vm));
 	}
 
 	/**
@@ -468,6 +597,7 @@ public class Datacenter extends SimEntity {
 	 */
 	protected void processVmDestroy(SimEvent ev, boolean ack) {
 		Vm vm = (Vm) ev.getData();
+		touchHost(getVmAllocationPolicy().getHost(vm));
 		getVmAllocationPolicy().deallocateHostForVm(vm);
 
 		if (ack) {
@@ -502,6 +632,8 @@ public class Datacenter extends SimEntity {
 		Vm vm = (Vm) migrate.get("vm");
 		Host host = (Host) migrate.get("host");
 
+		touchHost(getVmAllocationPolicy().getHost(vm));
+		touchHost(host);
 		getVmAllocationPolicy().deallocateHostForVm(vm);
 		host.removeMigratingInVm(vm);
 		boolean result = getVmAllocationPolicy().allocateHostForVm(vm, host);
@@ -617,13 +749,16 @@ public class Datacenter extends SimEntity {
 		int destId = array[4];
 
 		// get the cloudlet
-		Cloudlet cl = getVmAllocationPolicy().getHost(vmId, userId).getVm(vmId,userId)
-				.getCloudletScheduler().cloudletCancel(cloudletId);
+		Host host = getVmAllocationPolicy().getHost(vmId, userId);
+		touchHost(host);
+		Cloudlet cl = host.getVm(vmId,userId).getCloudletScheduler().cloudletCancel(cloudletId);
 
 		boolean failed = false;
 		if (cl == null) {// cloudlet doesn't exist
 			failed = true;
 		} else {
+			scheduleAnalyticUpdate();
+
 			// has the cloudlet already finished?
 			if (cl.getCloudletStatus() == Cloudlet.SUCCESS) {// if yes, send it back to user
 				int[] data = new int[3];
@@ -639,10 +774,12 @@ public class Datacenter extends SimEntity {
 
 			// the cloudlet will migrate from one vm to another does the destination VM exist?
 			if (destId == getId()) {
-				Vm vm = getVmAllocationPolicy().getHost(vmDestId, userId).getVm(vmDestId,userId);
+				Host destHost = getVmAllocationPolicy().getHost(vmDestId, userId);
+				Vm vm = destHost.getVm(vmDestId,userId);
 				if (vm == null) {
 					failed = true;
 				} else {
+					touchHost(destHost);
 					// time to transfer the files
 					double fileTransferTime = predictFileTransferTime(cl.getRequiredFiles());
 					vm.getCloudletScheduler().cloudletSubmit(cl, fileTransferTime);
@@ -681,7 +818,65 @@ public class Datacenter extends SimEntity {
 		try {
 			// gets the Cloudlet object
 			Cloudlet cl = (Cloudlet) ev.getData();
+			if (!submitCloudlet(cl, ack)) {
+				return;
+			}
+		} catch (ClassCastException c) {
+			Log.printLine(getName() + ".processCloudletSubmit(): " + "ClassCastException error.");
+			c.printStackTrace();
+		}
+
+		checkCloudletCompletion();
+	}
+
+	/**
+	 * Processes the submission of a list of Cloudlets. The processing of the cloudlets is brought
+	 * up to date and checked for completion once for the whole list, rather than once per
+	 * Cloudlet, while each Cloudlet is submitted to its VM in the order of the list. Only the
+	 * earliest of the processing events requested by the Cloudlets is scheduled, once the whole list
+	 * is submitted: the update it triggers schedules the next one.
+	 * 
+	 * @param ev a SimEvent object holding the list of Cloudlets
+	 * @param ack an acknowledgement
+	 * @pre ev != null
+	 * @post $none
+	 */
+	protected void processCloudletSubmitBatch(SimEvent ev, boolean ack) {
+		updateCloudletProcessing();
 
+		try {
+			@SuppressWarnings("unchecked")
+			List<Cloudlet> cloudletList = (List<Cloudlet>) ev.getData();
+			batchEventDelay = Double.MAX_VALUE;
+			for (Cloudlet cl : cloudletList) {
+				submitCloudlet(cl, ack);
+			}
+		} catch (ClassCastException c) {
+			Log.printLine(getName() + ".processCloudletSubmitBatch(): " + "ClassCastException error.");
+			c.printStackTrace();
+		}
+
+		double delay = batchEventDelay;
+		batchEventDelay = Double.NaN;
+		if (delay < Double.MAX_VALUE) {
+			send(getId(), delay, CloudSimTags.VM_DATACENTER_EVENT);
+		}
+
+		checkCloudletCompletion();
+	}
+
+	/**
+	 * Submits a Cloudlet to its VM, once the processing of the cloudlets is up to date.
+	 * 
+	 * @param cl the Cloudlet
+	 * @param ack an acknowledgement
+	 * @return false if the Cloudlet had already finished and is sent back to its owner, true
+	 *         otherwise
+	 * @pre cl != null
+	 * @post $none
+	 */
+	protected boolean submitCloudlet(Cloudlet cl, boolean ack) {
+		try {
 			// checks whether this Cloudlet has finished or not
 			if (cl.isFinished()) {
 				String name = CloudSim.getEntityName(cl.getUserId());
@@ -708,7 +903,7 @@ public class Datacenter extends SimEntity {
 
 				sendNow(cl.getUserId(), CloudSimTags.CLOUDLET_RETURN, cl);
 
-				return;
+				return false;
 			}
 
 			// process this Cloudlet to this CloudResource
@@ -722,14 +917,17 @@ public class Datacenter extends SimEntity {
 			double fileTransferTime = predictFileTransferTime(cl.getRequiredFiles());
 
 			Host host = getVmAllocationPolicy().getHost(vmId, userId);
+			touchHost(host);
 			Vm vm = host.getVm(vmId, userId);
 			CloudletScheduler scheduler = vm.getCloudletScheduler();
 			double estimatedFinishTime = scheduler.cloudletSubmit(cl, fileTransferTime);
 
 			// if this cloudlet is in the exec queue
-			if (estimatedFinishTime > 0.0 && !Double.isInfinite(estimatedFinishTime)) {
+			if (isAnalyticProcessing()) {
+				scheduleAnalyticUpdate();
+			} else if (estimatedFinishTime > 0.0 && !Double.isInfinite(estimatedFinishTime)) {
 				estimatedFinishTime += fileTransferTime;
-				send(getId(), estimatedFinishTime, CloudSimTags.VM_DATACENTER_EVENT);
+				scheduleSubmissionEvent(estimatedFinishTime);
 			}
 
 			if (ack) {
@@ -750,7 +948,7 @@ public class Datacenter extends SimEntity {
 			e.printStackTrace();
 		}
 
-		checkCloudletCompletion();
+		return true;
 	}
 
 	/**
@@ -788,13 +986,20 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void processCloudletResume(int cloudletId, int userId, int vmId, boolean ack) {
-		double eventTime = getVmAllocationPolicy().getHost(vmId, userId).getVm(vmId,userId)
-				.getCloudletScheduler().cloudletResume(cloudletId);
+		if (isAnalyticProcessing()) {
+			updateCloudletProcessing();
+		}
+
+		Host host = getVmAllocationPolicy().getHost(vmId, userId);
+		touchHost(host);
+		double eventTime = host.getVm(vmId,userId).getCloudletScheduler().cloudletResume(cloudletId);
 
 		boolean status = false;
 		if (eventTime > 0.0) { // if this cloudlet is in the exec queue
 			status = true;
-			if (eventTime > CloudSim.clock()) {
+			if (isAnalyticProcessing()) {
+				scheduleAnalyticUpdate();
+			} else if (eventTime > CloudSim.clock()) {
 				schedule(getId(), eventTime, CloudSimTags.VM_DATACENTER_EVENT);
 			}
 		}
@@ -823,8 +1028,16 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void processCloudletPause(int cloudletId, int userId, int vmId, boolean ack) {
-		boolean status = getVmAllocationPolicy().getHost(vmId, userId).getVm(vmId,userId)
-				.getCloudletScheduler().cloudletPause(cloudletId);
+		if (isAnalyticProcessing()) {
+			updateCloudletProcessing();
+		}
+
+		Host host = getVmAllocationPolicy().getHost(vmId, userId);
+		touchHost(host);
+		boolean status = host.getVm(vmId,userId).getCloudletScheduler().cloudletPause(cloudletId);
+		if (status) {
+			scheduleAnalyticUpdate();
+		}
 
 		if (ack) {
 			int[] data = new int[3];
@@ -849,8 +1062,16 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void processCloudletCancel(int cloudletId, int userId, int vmId) {
-		Cloudlet cl = getVmAllocationPolicy().getHost(vmId, userId).getVm(vmId,userId)
-				.getCloudletScheduler().cloudletCancel(cloudletId);
+		if (isAnalyticProcessing()) {
+			updateCloudletProcessing();
+		}
+
+		Host host = getVmAllocationPolicy().getHost(vmId, userId);
+		touchHost(host);
+		Cloudlet cl = host.getVm(vmId,userId).getCloudletScheduler().cloudletCancel(cloudletId);
+		if (cl != null) {
+			scheduleAnalyticUpdate();
+		}
 		sendNow(userId, CloudSimTags.CLOUDLET_CANCEL, cl);
 	}
 
@@ -863,22 +1084,21 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void updateCloudletProcessing() {
+		if (isAnalyticProcessing()) {
+			// the progress of the cloudlets only needs to be brought up to date once per instant,
+			// the next departure being found by the update requested with scheduleAnalyticUpdate()
+			if (CloudSim.clock() > getLastProcessTime()) {
+				updateHostsProcessing(CloudSim.clock());
+				setLastProcessTime(CloudSim.clock());
+			}
+			return;
+		}
+
 		// if some time passed since last processing
 		// R: for term is to allow loop at simulation start. Otherwise, one initial
 		// simulation step is skipped and schedulers are not properly initialized
 		if (CloudSim.clock() < 0.111 || CloudSim.clock() > getLastProcessTime() + CloudSim.getMinTimeBetweenEvents()) {
-			List<? extends Host> list = getVmAllocationPolicy().getHostList();
-			double smallerTime = Double.MAX_VALUE;
-			// for each host...
-			for (int i = 0; i < list.size(); i++) {
-				Host host = list.get(i);
-				// inform VMs to update processing
-				double time = host.updateVmsProcessing(CloudSim.clock());
-				// what time do we expect that the next cloudlet will finish?
-				if (time < smallerTime) {
-					smallerTime = time;
-				}
-			}
+			double smallerTime = updateHostsProcessing(CloudSim.clock());
 			// gurantees a minimal interval before scheduling the event
 			if (smallerTime < CloudSim.clock() + CloudSim.getMinTimeBetweenEvents() + 0.01) {
 				smallerTime = CloudSim.clock() + CloudSim.getMinTimeBetweenEvents() + 0.01;
@@ -890,6 +1110,120 @@ public class Datacenter extends SimEntity {
 		}
 	}
 
+	/**
+	 * Updates processing of each cloudlet in analytic mode, and keeps a single processing event
+	 * pending, at the next departure of a cloudlet. Unlike {@link #updateCloudletProcessing()}, this
+	 * updates the hosts even if they were already updated at the current time, as cloudlets may have
+	 * arrived or left since then.
+	 * 
+	 * @pre $none
+	 * @post $none
+	 */
+	protected void updateCloudletProcessingAnalytically() {
+		double currentTime = CloudSim.clock();
+		double nextDepartureTime = updateHostsProcessing(currentTime);
+		setLastProcessTime(currentTime);
+
+		if (nextDepartureTime <= currentTime) {
+			nextDepartureTime = currentTime + CloudSim.getMinTimeBetweenEvents();
+		}
+		scheduleAnalyticEvent(nextDepartureTime);
+	}
+
+	/**
+	 * Updates the processing of the hosts: all of them, or only the ones that need it if the hosts
+	 * are tracked.
+	 * 
+	 * @param currentTime the current time
+	 * @return the time of the next event expected among all the hosts, or Double.MAX_VALUE if none
+	 */
+	protected double updateHostsProcessing(double currentTime) {
+		if (hostTracker != null) {
+			return hostTracker.update(currentTime);
+		}
+
+		List<? extends Host> list = getVmAllocationPolicy().getHostList();
+		if (hostUpdateExecutor != null) {
+			return hostUpdateExecutor.updateVmsProcessing(list, currentTime);
+		}
+
+		double smallerTime = Double.MAX_VALUE;
+		// for each host...
+		for (int i = 0; i < list.size(); i++) {
+			Host host = list.get(i);
+			// inform VMs to update processing
+			double time = host.updateVmsProcessing(currentTime);
+			// what time do we expect that the next cloudlet will finish?
+			if (time < smallerTime) {
+				smallerTime = time;
+			}
+		}
+		return smallerTime;
+	}
+
+	/**
+	 * Brings the processing of a host up to date before its state changes, if the hosts are
+	 * tracked, and marks it for an update on the next update of the processing.
+	 * 
+	 * @param host the host, ignored if null
+	 */
+	protected void touchHost(Host host) {
+		if (hostTracker != null) {
+			hostTracker.touch(host, CloudSim.clock());
+		}
+	}
+
+	/**
+	 * Schedules an update of the processing of the cloudlets after a given delay, as requested by a
+	 * submitted cloudlet. While a list of cloudlets is submitted, only the smallest delay is kept,
+	 * and the event is sent once the whole list is submitted.
+	 * 
+	 * @param delay the delay of the update
+	 * @pre delay >= 0
+	 * @post $none
+	 */
+	protected void scheduleSubmissionEvent(double delay) {
+		if (Double.isNaN(batchEventDelay)) {
+			send(getId(), delay, CloudSimTags.VM_DATACENTER_EVENT);
+		} else {
+			batchEventDelay = Math.min(batchEventDelay, delay);
+		}
+	}
+
+	/**
+	 * Requests, in analytic mode, an update of the processing of the cloudlets at the current time,
+	 * as a cloudlet has arrived or left, which changes the next departure. The update takes place
+	 * once all the events already sent for this time have been processed, so that the cloudlets
+	 * arriving together only lead to one update.
+	 * 
+	 * @pre $none
+	 * @post $none
+	 */
+	protected void scheduleAnalyticUpdate() {
+		if (isAnalyticProcessing() && CloudSim.clock() < analyticEventTime) {
+			scheduleAnalyticEvent(CloudSim.clock());
+		}
+	}
+
+	/**
+	 * Makes the pending processing event of the analytic mode take place at a given time, canceling
+	 * the one that was pending.
+	 * 
+	 * @param time the time of the event, or Double.MAX_VALUE for no event
+	 */
+	private void scheduleAnalyticEvent(double time) {
+		if (time == analyticEventTime) {
+			return;
+		}
+		if (analyticEventTime != Double.MAX_VALUE) {
+			CloudSim.cancelAll(getId(), new PredicateType(CloudSimTags.VM_DATACENTER_EVENT));
+		}
+		analyticEventTime = time;
+		if (time != Double.MAX_VALUE) {
+			schedule(getId(), time - CloudSim.clock(), CloudSimTags.VM_DATACENTER_EVENT);
+		}
+	}
+
 	/**
 	 * Verifies if some cloudlet inside this PowerDatacenter already finished. If yes, send it to
 	 * the User/Broker
@@ -899,6 +1233,9 @@ public class Datacenter extends SimEntity {
 	 */
 	protected void checkCloudletCompletion() {
 		List<? extends Host> list = getVmAllocationPolicy().getHostList();
+		if (hostTracker != null) {
+			list = hostTracker.pollHostsToCheck();
+		}
 		for (int i = 0; i < list.size(); i++) {
 			Host host = list.get(i);
 			for (Vm vm : host.getVmList()) {
@@ -1016,6 +1353,7 @@ public class Datacenter extends SimEntity {
 	@Override
 	public void shutdownEntity() {
 		Log.printConcatLine(getName(), " is shutting down...");
+		setHostUpdateParallelism(1);
 	}
 
 	/*
@@ -1176,4 +1514,93 @@ public class Datacenter extends SimEntity {
 		this.schedulingInterval = schedulingInterval;
 	}
 
+	/**
+	 * Checks whether the processing of the cloudlets is updated in analytic mode.
+	 * 
+	 * @return true if the processing is updated in analytic mode
+	 */
+	public boolean isAnalyticProcessing() {
+		return analyticProcessing;
+	}
+
+	/**
+	 * Sets whether the processing of the cloudlets is updated in analytic mode, i.e. only when
+	 * cloudlets arrive or leave. This method must be invoked before starting the simulation. The
+	 * analytic mode is not supported by the power and network datacenters, which schedule their own
+	 * processing events.
+	 * 
+	 * @param analyticProcessing true to update the processing in analytic mode
+	 * @throws IllegalStateException if the datacenter does not support the analytic mode
+	 */
+	public void setAnalyticProcessing(boolean analyticProcessing) {
+		this.analyticProcessing = analyticProcessing;
+	}
+
+	/**
+	 * Checks whether the hosts that need an update are tracked.
+	 * 
+	 * @return true if the hosts are tracked
+	 */
+	public boolean isHostTracking() {
+		return hostTracker != null;
+	}
+
+	/**
+	 * Sets whether the hosts that need an update are tracked, so that the processing of the
+	 * cloudlets is only updated on these hosts. This method must be invoked before starting the
+	 * simulation. Host tracking is not supported by the power and network datacenters, which change
+	 * their hosts outside of the tracked paths.
+	 * 
+	 * @param hostTracking true to track the hosts
+	 * @throws IllegalStateException if the datacenter does not support host tracking
+	 */
+	public void setHostTracking(boolean hostTracking) {
+		if (!hostTracking) {
+			hostTracker = null;
+		} else if (hostTracker == null) {
+			hostTracker = new HostProcessingTracker(getVmAllocationPolicy().getHostList());
+		}
+	}
+
+	/**
+	 * Gets the number of threads updating the processing of the hosts.
+	 * 
+	 * @return the number of threads, 1 if the hosts are updated one by one
+	 */
+	public int getHostUpdateParallelism() {
+		return hostUpdateExecutor == null ? 1 : hostUpdateExecutor.getParallelism();
+	}
+
+	/**
+	 * Sets the number of threads updating the processing of the hosts. The threads are shut down
+	 * along with the datacenter at the end of the simulation. This method must be invoked before
+	 * starting the simulation. A parallelism above 1 is not supported by the network datacenters,
+	 * whose hosts send events while they are updated.
+	 * 
+	 * @param parallelism the number of threads, 1 to update the hosts one by one
+	 * @throws IllegalStateException if the datacenter does not support updating its hosts in
+	 *             parallel
+	 */
+	public void setHostUpdateParallelism(int parallelism) {
+		if (hostUpdateExecutor != null) {
+			if (hostUpdateExecutor.getParallelism() == parallelism) {
+				return;
+			}
+			hostUpdateExecutor.shutdown();
+			hostUpdateExecutor = null;
+		}
+		if (parallelism > 1) {
+			hostUpdateExecutor = new HostUpdateExecutor(parallelism);
+		}
+	}
+
+	/**
+	 * Gets the executor updating the processing of the hosts in parallel.
+	 * 
+	 * @return the executor, or null if the hosts are updated one by one
+	 */
+	protected HostUpdateExecutor getHostUpdateExecutor() {
+		return hostUpdateExecutor;
+	}
+
 }
@@ -10,6 +10,7 @@ package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -19,6 +20,8 @@ import org.cloudbus.cloudsim.core.CloudSimTags;
 import org.cloudbus.cloudsim.core.SimEntity;
 import org.cloudbus.cloudsim.core.SimEvent;
 import org.cloudbus.cloudsim.lists.CloudletList;
+import org.cloudbus.cloudsim.lists.IndexedCloudletList;
+import org.cloudbus.cloudsim.lists.IndexedVmList;
 import org.cloudbus.cloudsim.lists.VmList;
 
 /**
@@ -70,6 +73,12 @@ public class DatacenterBroker extends SimEntity {
 	/** The datacenter characteristics list. */
 	protected Map<Integer, DatacenterCharacteristics> datacenterCharacteristicsList;
 
+	/** Whether the VMs are sent to a datacenter in a single creation request. */
+	private boolean vmCreationBatched = true;
+
+	/** Whether the cloudlets are sent to a datacenter in a single submission. */
+	private boolean cloudletSubmissionBatched = true;
+
 	/**
 	 * Created a new DatacenterBroker object.
 	 * 
@@ -82,9 +91,9 @@ public class DatacenterBroker extends SimEntity {
 	public DatacenterBroker(String name) throws Exception {
 		super(name);
 
-		setVmList(new ArrayList<Vm>());
-		setVmsCreatedList(new ArrayList<Vm>());
-		setCloudletList(new ArrayList<Cloudlet>());
+		setVmList(new IndexedVmList<Vm>());
+		setVmsCreatedList(new IndexedVmList<Vm>());
+		setCloudletList(new IndexedCloudletList<Cloudlet>());
 		setCloudletSubmittedList(new ArrayList<Cloudlet>());
 		setCloudletReceivedList(new ArrayList<Cloudlet>());
 
@@ -157,6 +166,10 @@ public class DatacenterBroker extends SimEntity {
 			case CloudSimTags.VM_CREATE_ACK:
 				processVmCreate(ev);
 				break;
+			// Batch VM Creation answer
+			case CloudSimTags.VM_CREATE_BATCH_ACK:
+				processVmCreateBatch(ev);
+				break;
 			// A finished cloudlet returned
 			case CloudSimTags.CLOUDLET_RETURN:
 				processCloudletReturn(ev);
@@ -217,10 +230,34 @@ public class DatacenterBroker extends SimEntity {
 	 */
 	protected void processVmCreate(SimEvent ev) {
 		int[] data = (int[]) ev.getData();
-		int datacenterId = data[0];
-		int vmId = data[1];
-		int result = data[2];
+		processVmCreate(data[0], data[1], data[2]);
+	}
 
+	/**
+	 * Process the ack received due to a request for the creation of a list of VMs, which holds the
+	 * id of the datacenter followed by the id and the result of the creation of each VM.
+	 * 
+	 * @param ev a SimEvent object
+	 * @pre ev != null
+	 * @post $none
+	 */
+	protected void processVmCreateBatch(SimEvent ev) {
+		int[] data = (int[]) ev.getData();
+		for (int i = 1; i < data.length; i += 2) {
+			processVmCreate(data[0], data[i], data[i + 1]);
+		}
+	}
+
+	/**
+	 * Process the result of the creation of a VM.
+	 * 
+	 * @param datacenterId the id of the datacenter
+	 * @param vmId the id of the VM
+	 * @param result {@link CloudSimTags#TRUE} if the VM has been created
+	 * @pre $none
+	 * @post $none
+	 */
+	protected void processVmCreate(int datacenterId, int vmId, int result) {
 		if (result == CloudSimTags.TRUE) {
 			getVmsToDatacentersMap().put(vmId, datacenterId);
 			getVmsCreatedList().add(VmList.getById(getVmList(), vmId));
@@ -316,14 +353,22 @@ public class DatacenterBroker extends SimEntity {
 		// send as much vms as possible for this datacenter before trying the next one
 		int requestedVms = 0;
 		String datacenterName = CloudSim.getEntityName(datacenterId);
+		List<Vm> batch = new ArrayList<Vm>();
 		for (Vm vm : getVmList()) {
 			if (!getVmsToDatacentersMap().containsKey(vm.getId())) {
 				Log.printLine(CloudSim.clock() + ": " + getName() + ": Trying to Create VM #" + vm.getId()
 						+ " in " + datacenterName);
-				sendNow(datacenterId, CloudSimTags.VM_CREATE_ACK, vm);
+				if (isVmCreationBatched()) {
+					batch.add(vm);
+				} else {
+					sendNow(datacenterId, CloudSimTags.VM_CREATE_ACK, vm);
+				}
 				requestedVms++;
 			}
 		}
+		if (!batch.isEmpty()) {
+			sendNow(datacenterId, CloudSimTags.VM_CREATE_BATCH, batch);
+		}
 
 		getDatacenterRequestedIdsList().add(datacenterId);
 
@@ -331,6 +376,45 @@ public class DatacenterBroker extends SimEntity {
 		setVmsAcks(0);
 	}
 
+	/**
+	 * Checks whether the VMs are sent to a datacenter in a single creation request, so that the
+	 * datacenter places them as a whole and answers with a single ack, rather than in a request
+	 * per VM.
+	 * 
+	 * @return true if the VM creation requests are batched
+	 */
+	public boolean isVmCreationBatched() {
+		return vmCreationBatched;
+	}
+
+	/**
+	 * Sets whether the VMs are sent to a datacenter in a single creation request.
+	 * 
+	 * @param vmCreationBatched true to batch the VM creation requests
+	 */
+	public void setVmCreationBatched(boolean vmCreationBatched) {
+		this.vmCreationBatched = vmCreationBatched;
+	}
+
+	/**
+	 * Checks whether the cloudlets are sent to a datacenter in a single submission, so that the
+	 * datacenter brings its processing up to date once for all of them, rather than one by one.
+	 * 
+	 * @return true if the cloudlet submissions are batched
+	 */
+	public boolean isCloudletSubmissionBatched() {
+		return cloudletSubmissionBatched;
+	}
+
+	/**
+	 * Sets whether the cloudlets are sent to a datacenter in a single submission.
+	 * 
+	 * @param cloudletSubmissionBatched true to batch the cloudlet submissions
+	 */
+	public void setCloudletSubmissionBatched(boolean cloudletSubmissionBatched) {
+		this.cloudletSubmissionBatched = cloudletSubmissionBatched;
+	}
+
 	/**
 	 * Submit cloudlets to the created VMs.
 	 * 
@@ -340,6 +424,7 @@ public class DatacenterBroker extends SimEntity {
 	protected void submitCloudlets() {
 		int vmIndex = 0;
 		List<Cloudlet> successfullySubmitted = new ArrayList<Cloudlet>();
+		Map<Integer, List<Cloudlet>> batches = new LinkedHashMap<Integer, List<Cloudlet>>();
 		for (Cloudlet cloudlet : getCloudletList()) {
 			Vm vm;
 			// if user didn't bind this cloudlet and it has not been executed yet
@@ -362,13 +447,27 @@ public class DatacenterBroker extends SimEntity {
 			}
 			
 			cloudlet.setVmId(vm.getId());
-			sendNow(getVmsToDatacentersMap().get(vm.getId()), CloudSimTags.CLOUDLET_SUBMIT, cloudlet);
+			int datacenterId = getVmsToDatacentersMap().get(vm.getId());
+			if (isCloudletSubmissionBatched()) {
+				List<Cloudlet> batch = batches.get(datacenterId);
+				if (batch == null) {
+					batch = new ArrayList<Cloudlet>();
+					batches.put(datacenterId, batch);
+				}
+				batch.add(cloudlet);
+			} else {
+				sendNow(datacenterId, CloudSimTags.CLOUDLET_SUBMIT, cloudlet);
+			}
 			cloudletsSubmitted++;
 			vmIndex = (vmIndex + 1) % getVmsCreatedList().size();
 			getCloudletSubmittedList().add(cloudlet);
 			successfullySubmitted.add(cloudlet);
 		}
 
+		for (Map.Entry<Integer, List<Cloudlet>> batch : batches.entrySet()) {
+			sendNow(batch.getKey(), CloudSimTags.CLOUDLET_SUBMIT_BATCH, batch.getValue());
+		}
+
 		// remove submitted cloudlets from waiting list
 		getCloudletList().removeAll(successfullySubmitted);
 	}
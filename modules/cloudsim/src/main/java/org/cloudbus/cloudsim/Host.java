@@ -7,11 +7,12 @@
 
 package org.cloudbus.cloudsim;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.lists.IndexedVmList;
 import org.cloudbus.cloudsim.lists.PeList;
+import org.cloudbus.cloudsim.lists.VmList;
 import org.cloudbus.cloudsim.provisioners.BwProvisioner;
 import org.cloudbus.cloudsim.provisioners.RamProvisioner;
 
@@ -42,7 +43,7 @@ public class Host {
 	private VmScheduler vmScheduler;
 
 	/** The vm list. */
-	private final List<? extends Vm> vmList = new ArrayList<Vm>();
+	private final List<? extends Vm> vmList = new IndexedVmList<Vm>();
 
 	/** The pe list. */
 	private List<? extends Pe> peList;
@@ -51,7 +52,7 @@ public class Host {
 	private boolean failed;
 
 	/** The vms migrating in. */
-	private final List<Vm> vmsMigratingIn = new ArrayList<Vm>();
+	private final List<Vm> vmsMigratingIn = new IndexedVmList<Vm>();
 
 	/** The datacenter where the host is placed. */
 	private Datacenter datacenter;
@@ -132,7 +133,7 @@ public class Host {
 				System.exit(0);
 			}
 
-			getVmScheduler().getVmsMigratingIn().add(vm.getUid());
+			getVmScheduler().getVmKeysMigratingIn().add(vm.getKey());
 			if (!getVmScheduler().allocatePesForVm(vm, vm.getCurrentRequestedMips())) {
 				Log.printLine("[VmScheduler.addMigratingInVm] Allocation of VM #" + vm.getId() + " to Host #"
 						+ getId() + " failed by MIPS");
@@ -157,7 +158,7 @@ public class Host {
 		vmDeallocate(vm);
 		getVmsMigratingIn().remove(vm);
 		getVmList().remove(vm);
-		getVmScheduler().getVmsMigratingIn().remove(vm.getUid());
+		getVmScheduler().getVmKeysMigratingIn().remove(vm.getKey());
 		vm.setInMigration(false);
 	}
 
@@ -169,8 +170,8 @@ public class Host {
 			if (!getVmList().contains(vm)) {
 				getVmList().add(vm);
 			}
-			if (!getVmScheduler().getVmsMigratingIn().contains(vm.getUid())) {
-				getVmScheduler().getVmsMigratingIn().add(vm.getUid());
+			if (!getVmScheduler().getVmKeysMigratingIn().contains(vm.getKey())) {
+				getVmScheduler().getVmKeysMigratingIn().add(vm.getKey());
 			}
 			getRamProvisioner().allocateRamForVm(vm, vm.getCurrentRequestedRam());
 			getBwProvisioner().allocateBwForVm(vm, vm.getCurrentRequestedBw());
@@ -295,12 +296,7 @@ public class Host {
 	 * @post $none
 	 */
 	public Vm getVm(int vmId, int userId) {
-		for (Vm vm : getVmList()) {
-			if (vm.getId() == vmId && vm.getUserId() == userId) {
-				return vm;
-			}
-		}
-		return null;
+		return VmList.getByIdAndUserId(this.<Vm> getVmList(), vmId, userId);
 	}
 
 	/**
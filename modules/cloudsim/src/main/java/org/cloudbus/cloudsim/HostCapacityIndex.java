@@ -0,0 +1,408 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HostCapacityIndex indexes the available capacity of a list of hosts in MIPS, RAM and BW, so
+ * that a host for a VM is found without going through the whole list. The capacities are
+ * normalized by the greatest total capacity of a host in each dimension, so they weigh the same
+ * in the objectives of the placement policies.
+ * <p>
+ * The index is a segment tree over the host list, each node of which holds the minimum and the
+ * maximum available capacity in each dimension among the hosts under it. A search skips the nodes
+ * that have no host with enough capacity in each dimension, and, when looking for the best host
+ * according to an {@link Objective}, the nodes that cannot hold a better host than the best one
+ * found so far. It thus visits O(log n) nodes when the capacities of the hosts are spread, and
+ * updating the capacity of a host takes O(log n) time.
+ * <p>
+ * The capacity of a host is only read when the host is updated in the index: it must be updated
+ * whenever a VM is created on or destroyed from the host. The hosts found by a search are checked
+ * with {@link Host#isSuitableForVm(Vm)}, so a stale capacity may only hide a host, never place a
+ * VM on a host that cannot run it.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public class HostCapacityIndex {
+
+	/** The number of dimensions of the capacities: MIPS, RAM and BW. */
+	public static final int DIMENSIONS = 3;
+
+	/** The hosts. */
+	private final List<? extends Host> hostList;
+
+	/** The index of each host in the host list. */
+	private final Map<Host, Integer> hostIndices = new IdentityHashMap<Host, Integer>();
+
+	/** The capacity normalizing each dimension. */
+	private final double[] capacities = new double[DIMENSIONS];
+
+	/** The number of leaves of the tree, the smallest power of 2 not below the number of hosts. */
+	private final int leaves;
+
+	/** The minimum available capacities under each node, DIMENSIONS per node. */
+	private final double[] minAvailable;
+
+	/** The maximum available capacities under each node, DIMENSIONS per node. */
+	private final double[] maxAvailable;
+
+	/** The minimum capacities of the node being searched. */
+	private final double[] nodeMin = new double[DIMENSIONS];
+
+	/** The maximum capacities of the node being searched. */
+	private final double[] nodeMax = new double[DIMENSIONS];
+
+	/** The score of the best host found by the current search. */
+	private double bestScore;
+
+	/** The index of the best host found by the current search, or -1 if none. */
+	private int bestIndex;
+
+	/**
+	 * Creates an index of the available capacities of a list of hosts.
+	 *
+	 * @param hostList the hosts
+	 */
+	public HostCapacityIndex(List<? extends Host> hostList) {
+		this.hostList = hostList;
+		for (int i = 0; i < hostList.size(); i++) {
+			Host host = hostList.get(i);
+			hostIndices.put(host, i);
+			capacities[0] = Math.max(capacities[0], host.getTotalMips());
+			capacities[1] = Math.max(capacities[1], host.getRam());
+			capacities[2] = Math.max(capacities[2], host.getBw());
+		}
+		for (int d = 0; d < DIMENSIONS; d++) {
+			if (capacities[d] <= 0) {
+				capacities[d] = 1;
+			}
+		}
+
+		int size = 1;
+		while (size < hostList.size()) {
+			size <<= 1;
+		}
+		leaves = size;
+		minAvailable = new double[2 * leaves * DIMENSIONS];
+		maxAvailable = new double[2 * leaves * DIMENSIONS];
+		Arrays.fill(minAvailable, Double.POSITIVE_INFINITY);
+		Arrays.fill(maxAvailable, Double.NEGATIVE_INFINITY);
+
+		for (int i = 0; i < hostList.size(); i++) {
+			setLeaf(i, hostList.get(i));
+		}
+		for (int node = leaves - 1; node > 0; node--) {
+			updateNode(node);
+		}
+	}
+
+	/**
+	 * Gets the hosts indexed.
+	 *
+	 * @return the host list
+	 */
+	public List<? extends Host> getHostList() {
+		return hostList;
+	}
+
+	/**
+	 * Gets the index of a host in the host list.
+	 *
+	 * @param host the host
+	 * @return the index, or -1 if the host is not indexed
+	 */
+	public int getHostIndex(Host host) {
+		Integer index = hostIndices.get(host);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * Reads the available capacity of a host again.
+	 *
+	 * @param host the host, ignored if not indexed
+	 */
+	public void update(Host host) {
+		int index = getHostIndex(host);
+		if (index >= 0) {
+			setLeaf(index, host);
+			updateAncestors(leaves + index);
+		}
+	}
+
+	/**
+	 * Hides a host from the searches until it is updated, e.g. after it failed to create a VM.
+	 *
+	 * @param host the host, ignored if not indexed
+	 */
+	public void exclude(Host host) {
+		int index = getHostIndex(host);
+		if (index >= 0) {
+			int offset = (leaves + index) * DIMENSIONS;
+			for (int d = 0; d < DIMENSIONS; d++) {
+				minAvailable[offset + d] = Double.POSITIVE_INFINITY;
+				maxAvailable[offset + d] = Double.NEGATIVE_INFINITY;
+			}
+			updateAncestors(leaves + index);
+		}
+	}
+
+	/**
+	 * Gets the normalized capacity requested by a VM in each dimension.
+	 *
+	 * @param vm the VM
+	 * @return the requested capacities
+	 */
+	public double[] getDemand(Vm vm) {
+		double[] demand = new double[DIMENSIONS];
+		demand[0] = vm.getCurrentRequestedTotalMips() / capacities[0];
+		demand[1] = vm.getCurrentRequestedRam() / capacities[1];
+		demand[2] = vm.getCurrentRequestedBw() / capacities[2];
+		return demand;
+	}
+
+	/**
+	 * Finds the first host of the list suitable for a VM.
+	 *
+	 * @param vm the VM
+	 * @return the host, or null if none is suitable
+	 */
+	public Host findFirst(Vm vm) {
+		int index = findFirst(1, getDemand(vm), vm);
+		return index < 0 ? null : hostList.get(index);
+	}
+
+	/**
+	 * Finds the host suitable for a VM with the lowest score according to an objective, the first
+	 * of the list on ties.
+	 *
+	 * @param vm the VM
+	 * @param objective the objective
+	 * @return the host, or null if none is suitable
+	 */
+	public Host findBest(Vm vm, Objective objective) {
+		bestScore = Double.POSITIVE_INFINITY;
+		bestIndex = -1;
+		double[] demand = getDemand(vm);
+		if (fits(1, demand)) {
+			findBest(1, demand, vm, objective);
+		}
+		return bestIndex < 0 ? null : hostList.get(bestIndex);
+	}
+
+	/**
+	 * Finds the first host suitable for a VM under a node.
+	 *
+	 * @param node the node
+	 * @param demand the requested capacities
+	 * @param vm the VM
+	 * @return the index of the host, or -1 if none is suitable
+	 */
+	private int findFirst(int node, double[] demand, Vm vm) {
+		if (!fits(node, demand)) {
+			return -1;
+		}
+		if (node >= leaves) {
+			int index = node - leaves;
+			return hostList.get(index).isSuitableForVm(vm) ? index : -1;
+		}
+		int index = findFirst(2 * node, demand, vm);
+		return index >= 0 ? index : findFirst(2 * node + 1, demand, vm);
+	}
+
+	/**
+	 * Finds the best host suitable for a VM under a node, if better than the best one found so far.
+	 *
+	 * @param node the node
+	 * @param demand the requested capacities
+	 * @param vm the VM
+	 * @param objective the objective
+	 */
+	private void findBest(int node, double[] demand, Vm vm, Objective objective) {
+		if (node >= leaves) {
+			int index = node - leaves;
+			loadNode(node);
+			double score = objective.getScore(nodeMax, demand);
+			if ((score < bestScore || (score == bestScore && index < bestIndex))
+					&& hostList.get(index).isSuitableForVm(vm)) {
+				bestScore = score;
+				bestIndex = index;
+			}
+			return;
+		}
+
+		// search the child that may hold the better host first
+		int left = 2 * node;
+		int right = left + 1;
+		double leftBound = getBound(left, demand, objective);
+		double rightBound = getBound(right, demand, objective);
+		if (rightBound < leftBound) {
+			searchIfBetter(right, rightBound, demand, vm, objective);
+			searchIfBetter(left, leftBound, demand, vm, objective);
+		} else {
+			searchIfBetter(left, leftBound, demand, vm, objective);
+			searchIfBetter(right, rightBound, demand, vm, objective);
+		}
+	}
+
+	/**
+	 * Searches a node if it may hold a better host than the best one found so far.
+	 *
+	 * @param node the node
+	 * @param bound the lower bound of the scores under the node
+	 * @param demand the requested capacities
+	 * @param vm the VM
+	 * @param objective the objective
+	 */
+	private void searchIfBetter(int node, double bound, double[] demand, Vm vm, Objective objective) {
+		if (bound == Double.POSITIVE_INFINITY) {
+			return;
+		}
+		if (bestIndex >= 0 && (bound > bestScore || (bound == bestScore && getFirstLeaf(node) > bestIndex))) {
+			return;
+		}
+		findBest(node, demand, vm, objective);
+	}
+
+	/**
+	 * Gets the lower bound of the scores of the hosts under a node.
+	 *
+	 * @param node the node
+	 * @param demand the requested capacities
+	 * @param objective the objective
+	 * @return the bound, or positive infinity if no host under the node has enough capacity
+	 */
+	private double getBound(int node, double[] demand, Objective objective) {
+		if (!fits(node, demand)) {
+			return Double.POSITIVE_INFINITY;
+		}
+		loadNode(node);
+		return objective.getLowerBound(nodeMin, nodeMax, demand);
+	}
+
+	/**
+	 * Checks whether the maximum capacities under a node cover the requested capacities.
+	 *
+	 * @param node the node
+	 * @param demand the requested capacities
+	 * @return true if a host under the node may have enough capacity
+	 */
+	private boolean fits(int node, double[] demand) {
+		int offset = node * DIMENSIONS;
+		for (int d = 0; d < DIMENSIONS; d++) {
+			if (maxAvailable[offset + d] < demand[d]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Copies the capacities of a node to the node being searched, clamping the minimum capacities
+	 * to the maximum ones.
+	 *
+	 * @param node the node
+	 */
+	private void loadNode(int node) {
+		int offset = node * DIMENSIONS;
+		for (int d = 0; d < DIMENSIONS; d++) {
+			nodeMin[d] = Math.min(minAvailable[offset + d], maxAvailable[offset + d]);
+			nodeMax[d] = maxAvailable[offset + d];
+		}
+	}
+
+	/**
+	 * Gets the index of the first host under a node.
+	 *
+	 * @param node the node
+	 * @return the index
+	 */
+	private int getFirstLeaf(int node) {
+		while (node < leaves) {
+			node <<= 1;
+		}
+		return node - leaves;
+	}
+
+	/**
+	 * Sets the capacities of the leaf of a host.
+	 *
+	 * @param index the index of the host
+	 * @param host the host
+	 */
+	private void setLeaf(int index, Host host) {
+		int offset = (leaves + index) * DIMENSIONS;
+		double[] available = new double[] {
+				host.getAvailableMips() / capacities[0],
+				host.getRamProvisioner().getAvailableRam() / capacities[1],
+				host.getBwProvisioner().getAvailableBw() / capacities[2] };
+		for (int d = 0; d < DIMENSIONS; d++) {
+			minAvailable[offset + d] = available[d];
+			maxAvailable[offset + d] = available[d];
+		}
+	}
+
+	/**
+	 * Updates the capacities of the ancestors of a node.
+	 *
+	 * @param node the node
+	 */
+	private void updateAncestors(int node) {
+		for (node >>>= 1; node > 0; node >>>= 1) {
+			updateNode(node);
+		}
+	}
+
+	/**
+	 * Updates the capacities of a node from its children.
+	 *
+	 * @param node the node
+	 */
+	private void updateNode(int node) {
+		int offset = node * DIMENSIONS;
+		int left = 2 * node * DIMENSIONS;
+		int right = left + DIMENSIONS;
+		for (int d = 0; d < DIMENSIONS; d++) {
+			minAvailable[offset + d] = Math.min(minAvailable[left + d], minAvailable[right + d]);
+			maxAvailable[offset + d] = Math.max(maxAvailable[left + d], maxAvailable[right + d]);
+		}
+	}
+
+	/**
+	 * An objective of the placement of a VM, scoring the hosts by their available capacities: the
+	 * lower the score, the better the host.
+	 */
+	public interface Objective {
+
+		/**
+		 * Gets the score of a host.
+		 *
+		 * @param available the normalized available capacities of the host
+		 * @param demand the normalized capacities requested by the VM, not above the available ones
+		 * @return the score
+		 */
+		double getScore(double[] available, double[] demand);
+
+		/**
+		 * Gets a lower bound of the scores of the hosts whose available capacities lie between
+		 * given minimum and maximum capacities, and cover the requested capacities.
+		 *
+		 * @param minAvailable the minimum available capacities
+		 * @param maxAvailable the maximum available capacities
+		 * @param demand the normalized capacities requested by the VM
+		 * @return the lower bound
+		 */
+		double getLowerBound(double[] minAvailable, double[] maxAvailable, double[] demand);
+
+	}
+
+}
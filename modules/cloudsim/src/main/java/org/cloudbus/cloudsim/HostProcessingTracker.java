@@ -0,0 +1,216 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * HostProcessingTracker tracks which hosts of a datacenter need their processing updated, so that
+ * an update of the processing of the datacenter only touches those hosts instead of all of them.
+ * A host needs an update when its state has changed since its last update, e.g. because a cloudlet
+ * was submitted to one of its VMs, in which case it is marked dirty, or when the next event it
+ * projected, such as the finish of a cloudlet, is due. The projected next event times of the hosts
+ * are kept in a min-heap, so the due hosts and the next event time of the datacenter are found at
+ * the top of the heap. The tracker also records which hosts were updated since the datacenter last
+ * checked for finished cloudlets, so that the check only touches those hosts as well.
+ * <p>
+ * A host must only change state through its datacenter, which marks it dirty: the hosts that
+ * change state on their own, such as the network hosts exchanging packets on each update, are not
+ * supported.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public class HostProcessingTracker {
+
+	/** The hosts. */
+	private final List<? extends Host> hostList;
+
+	/** The indices of the hosts in the host list. */
+	private final Map<Host, Integer> hostIndices = new IdentityHashMap<Host, Integer>();
+
+	/** The time of the last update of each host. */
+	private final double[] updateTimes;
+
+	/** The projected next event time of each host, or Double.MAX_VALUE if none. */
+	private final double[] eventTimes;
+
+	/** The next event times of the hosts, some of which may be outdated. */
+	private final PriorityQueue<HostEvent> eventQueue = new PriorityQueue<HostEvent>();
+
+	/** The hosts to update on the next update, by index. */
+	private final BitSet dirtyHosts = new BitSet();
+
+	/** The hosts updated since the last check for finished cloudlets, by index. */
+	private final BitSet updatedHosts = new BitSet();
+
+	/** The hosts to check for finished cloudlets, in a list reused from check to check. */
+	private final List<Host> hostsToCheck = new ArrayList<Host>();
+
+	/**
+	 * Creates a new tracker of the hosts of a list, all of which need an update.
+	 *
+	 * @param hostList the hosts
+	 */
+	public HostProcessingTracker(List<? extends Host> hostList) {
+		this.hostList = hostList;
+		for (int i = 0; i < hostList.size(); i++) {
+			hostIndices.put(hostList.get(i), i);
+		}
+		updateTimes = new double[hostList.size()];
+		Arrays.fill(updateTimes, -1);
+		eventTimes = new double[hostList.size()];
+		Arrays.fill(eventTimes, Double.MAX_VALUE);
+		dirtyHosts.set(0, hostList.size());
+	}
+
+	/**
+	 * Gets the list of hosts tracked.
+	 *
+	 * @return the host list
+	 */
+	public List<? extends Host> getHostList() {
+		return hostList;
+	}
+
+	/**
+	 * Brings the processing of a host up to date, if it was not updated at the current time yet,
+	 * and marks it dirty. A host must be touched before its state changes, so that the progress of
+	 * its cloudlets up to now is accounted for with its former state, and its next event is
+	 * projected again on the next update.
+	 *
+	 * @param host the host, ignored if null or not tracked
+	 * @param currentTime the current time
+	 */
+	public void touch(Host host, double currentTime) {
+		if (host == null) {
+			return;
+		}
+		Integer index = hostIndices.get(host);
+		if (index == null) {
+			return;
+		}
+		if (updateTimes[index] < currentTime) {
+			updateHost(index, currentTime);
+		}
+		dirtyHosts.set(index);
+	}
+
+	/**
+	 * Updates the processing of the dirty hosts and of the hosts whose next event is due.
+	 *
+	 * @param currentTime the current time
+	 * @return the next event time among all the hosts, or Double.MAX_VALUE if none
+	 */
+	public double update(double currentTime) {
+		HostEvent event = eventQueue.peek();
+		while (event != null && event.time <= currentTime) {
+			eventQueue.poll();
+			if (eventTimes[event.index] == event.time) {
+				eventTimes[event.index] = Double.MAX_VALUE;
+				dirtyHosts.set(event.index);
+			}
+			event = eventQueue.peek();
+		}
+
+		for (int i = dirtyHosts.nextSetBit(0); i >= 0; i = dirtyHosts.nextSetBit(i + 1)) {
+			updateHost(i, currentTime);
+		}
+		dirtyHosts.clear();
+
+		return getNextEventTime();
+	}
+
+	/**
+	 * Gets the next event time among all the hosts, dropping the outdated times from the heap.
+	 *
+	 * @return the next event time, or Double.MAX_VALUE if none
+	 */
+	public double getNextEventTime() {
+		HostEvent event = eventQueue.peek();
+		while (event != null && eventTimes[event.index] != event.time) {
+			eventQueue.poll();
+			event = eventQueue.peek();
+		}
+		return event == null ? Double.MAX_VALUE : event.time;
+	}
+
+	/**
+	 * Gets the hosts updated since the last call, in the order of the host list. The returned list
+	 * is reused by the next call.
+	 *
+	 * @return the hosts to check for finished cloudlets
+	 */
+	public List<Host> pollHostsToCheck() {
+		hostsToCheck.clear();
+		for (int i = updatedHosts.nextSetBit(0); i >= 0; i = updatedHosts.nextSetBit(i + 1)) {
+			hostsToCheck.add(hostList.get(i));
+		}
+		updatedHosts.clear();
+		return hostsToCheck;
+	}
+
+	/**
+	 * Updates the processing of a host and records its next event time.
+	 *
+	 * @param index the index of the host
+	 * @param currentTime the current time
+	 */
+	private void updateHost(int index, double currentTime) {
+		double time = hostList.get(index).updateVmsProcessing(currentTime);
+		updateTimes[index] = currentTime;
+		updatedHosts.set(index);
+		if (time != eventTimes[index]) {
+			eventTimes[index] = time;
+			if (time != Double.MAX_VALUE) {
+				eventQueue.add(new HostEvent(index, time));
+			}
+		}
+	}
+
+	/**
+	 * A projected next event of a host.
+	 */
+	private static class HostEvent implements Comparable<HostEvent> {
+
+		/** The index of the host. */
+		private final int index;
+
+		/** The time of the event. */
+		private final double time;
+
+		/**
+		 * Instantiates a new host event.
+		 *
+		 * @param index the index of the host
+		 * @param time the time of the event
+		 */
+		public HostEvent(int index, double time) {
+			this.index = index;
+			this.time = time;
+		}
+
+		@Override
+		public int compareTo(HostEvent event) {
+			if (time < event.time) {
+				return -1;
+			} else if (time > event.time) {
+				return 1;
+			}
+			return index < event.index ? -1 : (index > event.index ? 1 : 0);
+		}
+
+	}
+
+}
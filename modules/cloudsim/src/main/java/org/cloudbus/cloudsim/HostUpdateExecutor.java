@@ -0,0 +1,255 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.Simulation;
+
+/**
+ * HostUpdateExecutor runs a task on each host of a list on several threads, such as the update of
+ * the processing of the hosts of a datacenter, which are independent of each other. The messages
+ * logged by the task for each host are buffered and printed after all the hosts are done, in the
+ * order of the host list, so the log and the results are the same as when running the task on the
+ * hosts one after the other.
+ * <p>
+ * The hosts that take part in a VM migration, i.e. that have a VM migrating in or a VM in migration,
+ * share that VM, so the task runs on them afterwards on the calling thread, in the order of the
+ * host list. The task must otherwise only change the state of its host and of the VMs and cloudlets
+ * on it: in particular, the utilization models shared by cloudlets running on different hosts must
+ * be thread-safe.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public class HostUpdateExecutor {
+
+	/** The number of ranges of hosts per thread, so that the threads share the load evenly. */
+	private static final int RANGES_PER_THREAD = 4;
+
+	/** The number of threads. */
+	private final int parallelism;
+
+	/** The executor running the tasks. */
+	private final ExecutorService executor;
+
+	/**
+	 * Creates a new executor running tasks on a given number of threads. The threads are daemon
+	 * threads, so the executor does not keep the JVM alive even if it is not shut down.
+	 *
+	 * @param parallelism the number of threads
+	 * @throws IllegalArgumentException if the number of threads is not positive
+	 */
+	public HostUpdateExecutor(int parallelism) {
+		if (parallelism <= 0) {
+			throw new IllegalArgumentException("The number of threads must be positive");
+		}
+		this.parallelism = parallelism;
+		executor = Executors.newFixedThreadPool(parallelism, new ThreadFactory() {
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "HostUpdateExecutor");
+				thread.setDaemon(true);
+				return thread;
+			}
+
+		});
+	}
+
+	/**
+	 * Gets the number of threads.
+	 *
+	 * @return the number of threads
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Updates the processing of the VMs of each host of a list.
+	 *
+	 * @param hostList the hosts
+	 * @param currentTime the current time
+	 * @return the earliest next event time of the hosts, or Double.MAX_VALUE if none
+	 * @see Host#updateVmsProcessing(double)
+	 */
+	public double updateVmsProcessing(final List<? extends Host> hostList, final double currentTime) {
+		final double[] times = new double[hostList.size()];
+		execute(hostList, new HostTask() {
+
+			@Override
+			public void run(int index) {
+				times[index] = hostList.get(index).updateVmsProcessing(currentTime);
+			}
+
+		});
+
+		double smallerTime = Double.MAX_VALUE;
+		for (double time : times) {
+			if (time < smallerTime) {
+				smallerTime = time;
+			}
+		}
+		return smallerTime;
+	}
+
+	/**
+	 * Runs a task on each host of a list, then prints the messages it logged in the order of the
+	 * host list. If the task fails on a host, the exception is thrown again once the task is done
+	 * with the other hosts.
+	 *
+	 * @param hostList the hosts
+	 * @param task the task
+	 */
+	public void execute(List<? extends Host> hostList, final HostTask task) {
+		int size = hostList.size();
+		final boolean buffered = !Log.isDisabled();
+		final ByteArrayOutputStream[] outputs = buffered ? new ByteArrayOutputStream[size] : null;
+		final Simulation simulation = CloudSim.getSimulation();
+
+		final boolean[] independent = new boolean[size];
+		for (int i = 0; i < size; i++) {
+			independent[i] = isIndependent(hostList.get(i));
+		}
+
+		int ranges = Math.min(size, parallelism * RANGES_PER_THREAD);
+		List<Callable<Void>> calls = new ArrayList<Callable<Void>>(ranges);
+		for (int range = 0; range < ranges; range++) {
+			final int from = (int) ((long) size * range / ranges);
+			final int to = (int) ((long) size * (range + 1) / ranges);
+			calls.add(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+					CloudSim.setSimulation(simulation);
+					for (int i = from; i < to; i++) {
+						if (independent[i]) {
+							run(task, i, outputs);
+						}
+					}
+					return null;
+				}
+
+			});
+		}
+
+		List<Future<Void>> futures;
+		try {
+			futures = executor.invokeAll(calls);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while updating the hosts", e);
+		}
+
+		// the tasks on the hosts in migration run in order once the hosts before them are done
+		int range = 0;
+		Throwable failure = null;
+		for (int i = 0; i < size && failure == null; i++) {
+			if (i == (int) ((long) size * range / ranges)) {
+				try {
+					futures.get(range++).get();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException("Interrupted while updating the hosts", e);
+				} catch (ExecutionException e) {
+					failure = e.getCause();
+					break;
+				}
+			}
+			if (!independent[i]) {
+				try {
+					run(task, i, outputs);
+				} catch (RuntimeException e) {
+					failure = e;
+				}
+			}
+			if (buffered && outputs[i] != null) {
+				Log.print(outputs[i].toString());
+			}
+		}
+
+		if (failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		} else if (failure instanceof Error) {
+			throw (Error) failure;
+		} else if (failure != null) {
+			throw new IllegalStateException(failure);
+		}
+	}
+
+	/**
+	 * Shuts the threads down. The executor must not be used afterwards.
+	 */
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	/**
+	 * Runs a task on a host, buffering the messages it logs if the outputs are given.
+	 *
+	 * @param task the task
+	 * @param index the index of the host
+	 * @param outputs the outputs of the hosts, or null if the log is disabled
+	 */
+	private static void run(HostTask task, int index, ByteArrayOutputStream[] outputs) {
+		if (outputs == null) {
+			task.run(index);
+			return;
+		}
+		outputs[index] = new ByteArrayOutputStream();
+		Log.setThreadOutput(outputs[index]);
+		try {
+			task.run(index);
+		} finally {
+			Log.setThreadOutput(null);
+		}
+	}
+
+	/**
+	 * Checks if a host shares no VM with other hosts, i.e. if it takes no part in a VM migration.
+	 *
+	 * @param host the host
+	 * @return true, if the host is independent of the other hosts
+	 */
+	protected boolean isIndependent(Host host) {
+		if (!host.getVmsMigratingIn().isEmpty()) {
+			return false;
+		}
+		for (Vm vm : host.getVmList()) {
+			if (vm.isInMigration()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * A task run on each host of a list.
+	 */
+	public interface HostTask {
+
+		/**
+		 * Runs the task on a host.
+		 *
+		 * @param index the index of the host in the list
+		 */
+		void run(int index);
+
+	}
+
+}
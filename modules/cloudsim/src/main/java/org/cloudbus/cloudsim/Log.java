@@ -26,11 +26,21 @@ public class Log {
 	/** The output. */
 	private static OutputStream output;
 
+	/** The output of each thread that has its own, overriding the output for that thread. */
+	private static final ThreadLocal<OutputStream> threadOutput = new ThreadLocal<OutputStream>();
+
 	/** The disable output flag. */
 	private static boolean disabled;
 	
-	/** Buffer to avoid creating new string builder upon every print. */
-	private static StringBuilder buffer = new StringBuilder();		    
+	/** Buffer to avoid creating new string builder upon every print, one per thread. */
+	private static final ThreadLocal<StringBuilder> buffer = new ThreadLocal<StringBuilder>() {
+
+		@Override
+		protected StringBuilder initialValue() {
+			return new StringBuilder();
+		}
+
+	};
 
 	/**
 	 * Prints the message.
@@ -40,7 +50,11 @@ public class Log {
 	public static void print(String message) {
 		if (!isDisabled()) {
 			try {
-				getOutput().write(message.getBytes());
+				OutputStream out = threadOutput.get();
+				if (out == null) {
+					out = getOutput();
+				}
+				out.write(message.getBytes());
 			} catch (IOException e) {
 				e.printStackTrace();
 			}
@@ -86,6 +100,7 @@ public class Log {
 	 */
 	public static void printConcat(Object... messages) {
 		if (!isDisabled()) {
+			StringBuilder buffer = Log.buffer.get();
 			buffer.setLength(0); // Clear the buffer		    
 			for(int i = 0 ; i < messages.length ; i ++) {
 				buffer.append(String.valueOf(messages[i]));
@@ -101,6 +116,7 @@ public class Log {
 	 */
 	public static void printConcatLine(Object... messages) {
 		if (!isDisabled()) {
+			StringBuilder buffer = Log.buffer.get();
 			buffer.setLength(0); // Clear the buffer		    
 			for(int i = 0 ; i < messages.length ; i ++) {
 				buffer.append(String.valueOf(messages[i]));
@@ -157,6 +173,21 @@ public class Log {
 		output = _output;
 	}
 
+	/**
+	 * Sets the output of the current thread, which overrides the output for the messages printed by
+	 * that thread, e.g. to buffer the messages of a task run in parallel with others and print them
+	 * after it in a deterministic order.
+	 * 
+	 * @param _output the output of the current thread, or null to use the output again
+	 */
+	public static void setThreadOutput(OutputStream _output) {
+		if (_output == null) {
+			threadOutput.remove();
+		} else {
+			threadOutput.set(_output);
+		}
+	}
+
 	/**
 	 * Gets the output.
 	 * 
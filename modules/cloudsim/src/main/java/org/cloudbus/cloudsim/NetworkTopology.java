@@ -13,6 +13,8 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.Simulation;
 import org.cloudbus.cloudsim.network.DelayMatrix_Float;
 import org.cloudbus.cloudsim.network.GraphReaderBrite;
 import org.cloudbus.cloudsim.network.TopologicalGraph;
@@ -29,6 +31,9 @@ import org.cloudbus.cloudsim.network.TopologicalNode;
  * Nevertheless, each CloudSim entity must be mapped to one (and only one) BRITE node to allow
  * proper work of the network simulation. Each BRITE node can be mapped to only one entity at a
  * time.
+ * <p>
+ * Each simulation has its own network topology, which the static methods of this class reach
+ * through the simulation bound to the calling thread.
  * 
  * @author Rodrigo N. Calheiros
  * @author Anton Beloglazov
@@ -36,17 +41,33 @@ import org.cloudbus.cloudsim.network.TopologicalNode;
  */
 public class NetworkTopology {
 
-	protected static int nextIdx = 0;
+	protected int nextIdx = 0;
+
+	private boolean networkEnabled = false;
 
-	private static boolean networkEnabled = false;
+	protected DelayMatrix_Float delayMatrix = null;
 
-	protected static DelayMatrix_Float delayMatrix = null;
+	protected double[][] bwMatrix = null;
 
-	protected static double[][] bwMatrix = null;
+	protected TopologicalGraph graph = null;
 
-	protected static TopologicalGraph graph = null;
+	protected Map<Integer, Integer> map = null;
 
-	protected static Map<Integer, Integer> map = null;
+	/**
+	 * Gets the network topology of the simulation bound to the calling thread, creating an empty
+	 * one if needed.
+	 * 
+	 * @return the network topology
+	 */
+	protected static NetworkTopology getInstance() {
+		Simulation simulation = CloudSim.getSimulation();
+		NetworkTopology topology = simulation.getAttachment(NetworkTopology.class);
+		if (topology == null) {
+			topology = new NetworkTopology();
+			simulation.setAttachment(NetworkTopology.class, topology);
+		}
+		return topology;
+	}
 
 	/**
 	 * Creates the network topology if file exists and if file can be succesfully parsed. File is
@@ -63,9 +84,10 @@ public class NetworkTopology {
 		GraphReaderBrite reader = new GraphReaderBrite();
 
 		try {
-			graph = reader.readGraphFile(fileName);
-			map = new HashMap<Integer, Integer>();
-			generateMatrices();
+			NetworkTopology topology = getInstance();
+			topology.graph = reader.readGraphFile(fileName);
+			topology.map = new HashMap<Integer, Integer>();
+			topology.generateMatrices();
 		} catch (IOException e) {
 			// problem with the file. Does not simulate network
 			Log.printLine("Problem in processing BRITE file. Network simulation is disabled. Error: "
@@ -77,7 +99,7 @@ public class NetworkTopology {
 	/**
 	 * Generates the matrices used internally to set latency and bandwidth between elements
 	 */
-	private static void generateMatrices() {
+	private void generateMatrices() {
 		// creates the delay matrix
 		delayMatrix = new DelayMatrix_Float(graph, false);
 
@@ -99,7 +121,18 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static void addLink(int srcId, int destId, double bw, double lat) {
+		getInstance().addTopologicalLink(srcId, destId, bw, lat);
+	}
 
+	/**
+	 * Adds a new link in this network topology
+	 * 
+	 * @param srcId ID of the link's source
+	 * @param destId ID of the link's destination
+	 * @param bw Link's bandwidth
+	 * @param lat link's latency
+	 */
+	private void addTopologicalLink(int srcId, int destId, double bw, double lat) {
 		if (graph == null) {
 			graph = new TopologicalGraph();
 		}
@@ -171,7 +204,9 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static void mapNode(int cloudSimEntityID, int briteID) {
-		if (networkEnabled) {
+		NetworkTopology topology = getInstance();
+		Map<Integer, Integer> map = topology.map;
+		if (topology.networkEnabled) {
 			try {
 				// this CloudSim entity was already mapped?
 				if (!map.containsKey(cloudSimEntityID)) {
@@ -199,9 +234,10 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static void unmapNode(int cloudSimEntityID) {
-		if (networkEnabled) {
+		NetworkTopology topology = getInstance();
+		if (topology.networkEnabled) {
 			try {
-				map.remove(cloudSimEntityID);
+				topology.map.remove(cloudSimEntityID);
 			} catch (Exception e) {
 				Log.printConcatLine("Error in network unmapping. CloudSim node: ", cloudSimEntityID);
 			}
@@ -219,10 +255,12 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static double getDelay(int srcID, int destID) {
-		if (networkEnabled) {
+		NetworkTopology topology = getInstance();
+		if (topology.networkEnabled) {
 			try {
 				// add the network latency
-				double delay = delayMatrix.getDelay(map.get(srcID), map.get(destID));
+				double delay = topology.delayMatrix.getDelay(topology.map.get(srcID),
+						topology.map.get(destID));
 
 				return delay;
 			} catch (Exception e) {
@@ -242,7 +280,7 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static boolean isNetworkEnabled() {
-		return networkEnabled;
+		return getInstance().networkEnabled;
 	}
 
 }
@@ -0,0 +1,165 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * ResCloudletBackfillIndex indexes waiting cloudlets by number of PEs and by estimated length, to
+ * find the cloudlets that can be backfilled by a space-shared scheduler. The cloudlets with the
+ * same number of PEs are kept in a tree ordered by estimated length, so that adding and removing a
+ * cloudlet take O(log n) time, and finding a cloudlet to backfill takes O(p log n) time, p being
+ * the number of distinct numbers of PEs of the cloudlets, which is bounded by the number of PEs of
+ * the VM.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public class ResCloudletBackfillIndex {
+
+	/** The entries, indexed by number of PEs and ordered by estimated length. */
+	private final TreeMap<Integer, TreeSet<Entry>> entriesByPes = new TreeMap<Integer, TreeSet<Entry>>();
+
+	/** The entries, indexed by cloudlet. */
+	private final Map<ResCloudlet, Entry> entries = new IdentityHashMap<ResCloudlet, Entry>();
+
+	/** The serial number of the next entry. */
+	private long serial;
+
+	/**
+	 * Adds a cloudlet to the index. A cloudlet already in the index is moved to its new place.
+	 *
+	 * @param rcl the cloudlet
+	 * @param length the estimated length of the cloudlet, i.e. the MI it executes on each PE
+	 */
+	public void add(ResCloudlet rcl, double length) {
+		remove(rcl);
+		Entry entry = new Entry(rcl, length, serial++);
+		TreeSet<Entry> bucket = entriesByPes.get(rcl.getNumberOfPes());
+		if (bucket == null) {
+			bucket = new TreeSet<Entry>();
+			entriesByPes.put(rcl.getNumberOfPes(), bucket);
+		}
+		bucket.add(entry);
+		entries.put(rcl, entry);
+	}
+
+	/**
+	 * Removes a cloudlet from the index.
+	 *
+	 * @param rcl the cloudlet
+	 * @return true if the cloudlet was in the index
+	 */
+	public boolean remove(ResCloudlet rcl) {
+		Entry entry = entries.remove(rcl);
+		if (entry == null) {
+			return false;
+		}
+		TreeSet<Entry> bucket = entriesByPes.get(rcl.getNumberOfPes());
+		bucket.remove(entry);
+		if (bucket.isEmpty()) {
+			entriesByPes.remove(rcl.getNumberOfPes());
+		}
+		return true;
+	}
+
+	/**
+	 * Checks whether a cloudlet is in the index.
+	 *
+	 * @param rcl the cloudlet
+	 * @return true if the cloudlet is in the index
+	 */
+	public boolean contains(ResCloudlet rcl) {
+		return entries.containsKey(rcl);
+	}
+
+	/**
+	 * Finds the shortest cloudlet that can be backfilled, i.e. that needs at most a given number
+	 * of PEs and either is not longer than a given length or needs at most a smaller number of
+	 * PEs. Cloudlets with the same estimated length are found in the order they were added.
+	 *
+	 * @param maxPes the maximum number of PEs of the cloudlet
+	 * @param maxLength the maximum estimated length of a cloudlet with more than maxPesAnyLength
+	 *            PEs
+	 * @param maxPesAnyLength the maximum number of PEs of a cloudlet of any length
+	 * @return the cloudlet, or null if no cloudlet can be backfilled
+	 */
+	public ResCloudlet findBackfill(int maxPes, double maxLength, int maxPesAnyLength) {
+		Entry best = null;
+		for (Map.Entry<Integer, TreeSet<Entry>> bucket : entriesByPes.headMap(maxPes, true).entrySet()) {
+			Entry entry = bucket.getValue().first();
+			if (bucket.getKey() > maxPesAnyLength && entry.length > maxLength) {
+				continue;
+			}
+			if (best == null || entry.compareTo(best) < 0) {
+				best = entry;
+			}
+		}
+		return best == null ? null : best.rcl;
+	}
+
+	/**
+	 * Gets the number of cloudlets in the index.
+	 *
+	 * @return the number of cloudlets
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Checks whether the index is empty.
+	 *
+	 * @return true if the index is empty
+	 */
+	public boolean isEmpty() {
+		return entries.isEmpty();
+	}
+
+	/**
+	 * An entry of the index.
+	 */
+	private static class Entry implements Comparable<Entry> {
+
+		/** The cloudlet. */
+		private final ResCloudlet rcl;
+
+		/** The estimated length. */
+		private final double length;
+
+		/** The serial number. */
+		private final long serial;
+
+		/**
+		 * Instantiates a new entry.
+		 *
+		 * @param rcl the cloudlet
+		 * @param length the estimated length
+		 * @param serial the serial number
+		 */
+		public Entry(ResCloudlet rcl, double length, long serial) {
+			this.rcl = rcl;
+			this.length = length;
+			this.serial = serial;
+		}
+
+		@Override
+		public int compareTo(Entry entry) {
+			int result = Double.compare(length, entry.length);
+			if (result == 0) {
+				result = serial < entry.serial ? -1 : (serial > entry.serial ? 1 : 0);
+			}
+			return result;
+		}
+
+	}
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * ResCloudletPriorityQueue is a binary heap of cloudlets ordered by a key, used for the waiting
+ * queues of the priority-based cloudlet schedulers. The cloudlet with the lowest key comes first,
+ * and cloudlets with the same key come in the order they were added. Adding, polling and removing
+ * a cloudlet take O(log n) time: a removed cloudlet is only marked as such, and is dropped from the
+ * heap when it reaches the top.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public class ResCloudletPriorityQueue {
+
+	/** The entries, some of which may be removed. */
+	private final PriorityQueue<Entry> heap = new PriorityQueue<Entry>();
+
+	/** The entries of the cloudlets in the queue. */
+	private final Map<ResCloudlet, Entry> entries = new IdentityHashMap<ResCloudlet, Entry>();
+
+	/** The serial number of the next entry. */
+	private long serial;
+
+	/**
+	 * Adds a cloudlet to the queue. A cloudlet already in the queue is moved to its new place.
+	 *
+	 * @param rcl the cloudlet
+	 * @param key the key of the cloudlet
+	 */
+	public void add(ResCloudlet rcl, double key) {
+		Entry entry = new Entry(rcl, key, serial++);
+		entries.put(rcl, entry);
+		heap.add(entry);
+	}
+
+	/**
+	 * Removes a cloudlet from the queue.
+	 *
+	 * @param rcl the cloudlet
+	 * @return true if the cloudlet was in the queue
+	 */
+	public boolean remove(ResCloudlet rcl) {
+		return entries.remove(rcl) != null;
+	}
+
+	/**
+	 * Checks whether a cloudlet is in the queue.
+	 *
+	 * @param rcl the cloudlet
+	 * @return true if the cloudlet is in the queue
+	 */
+	public boolean contains(ResCloudlet rcl) {
+		return entries.containsKey(rcl);
+	}
+
+	/**
+	 * Gets the first cloudlet of the queue, without removing it.
+	 *
+	 * @return the first cloudlet, or null if the queue is empty
+	 */
+	public ResCloudlet peek() {
+		Entry entry = heap.peek();
+		while (entry != null && entries.get(entry.rcl) != entry) {
+			heap.poll();
+			entry = heap.peek();
+		}
+		return entry == null ? null : entry.rcl;
+	}
+
+	/**
+	 * Removes the first cloudlet of the queue.
+	 *
+	 * @return the first cloudlet, or null if the queue is empty
+	 */
+	public ResCloudlet poll() {
+		ResCloudlet rcl = peek();
+		if (rcl != null) {
+			heap.poll();
+			entries.remove(rcl);
+		}
+		return rcl;
+	}
+
+	/**
+	 * Gets the number of cloudlets in the queue.
+	 *
+	 * @return the number of cloudlets
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Checks whether the queue is empty.
+	 *
+	 * @return true if the queue is empty
+	 */
+	public boolean isEmpty() {
+		return entries.isEmpty();
+	}
+
+	/**
+	 * An entry of the heap.
+	 */
+	private static class Entry implements Comparable<Entry> {
+
+		/** The cloudlet. */
+		private final ResCloudlet rcl;
+
+		/** The key. */
+		private final double key;
+
+		/** The serial number. */
+		private final long serial;
+
+		/**
+		 * Instantiates a new entry.
+		 *
+		 * @param rcl the cloudlet
+		 * @param key the key
+		 * @param serial the serial number
+		 */
+		public Entry(ResCloudlet rcl, double key, long serial) {
+			this.rcl = rcl;
+			this.key = key;
+			this.serial = serial;
+		}
+
+		@Override
+		public int compareTo(Entry entry) {
+			int result = Double.compare(key, entry.key);
+			if (result == 0) {
+				result = serial < entry.serial ? -1 : (serial > entry.serial ? 1 : 0);
+			}
+			return result;
+		}
+
+	}
+
+}
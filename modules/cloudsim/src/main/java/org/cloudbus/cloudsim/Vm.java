@@ -262,6 +262,61 @@ public class Vm {
 		return userId + "-" + vmId;
 	}
 
+	/**
+	 * Generate the unique string identificator of the VM with a given key.
+	 *
+	 * @param key the key of the VM
+	 * @return string uid
+	 * @see #getKey(int, int)
+	 */
+	public static String getUid(long key) {
+		return getUid((int) (key >>> 32), (int) key);
+	}
+
+	/**
+	 * Gets the unique key of the VM, which identifies the VM as its uid, but without building a
+	 * string.
+	 *
+	 * @return the key
+	 */
+	public long getKey() {
+		return getKey(getUserId(), getId());
+	}
+
+	/**
+	 * Generate the unique key of the VM: the user id in the high 32 bits, and the VM id in the low
+	 * 32 bits.
+	 *
+	 * @param userId the user id
+	 * @param vmId the vm id
+	 * @return the key
+	 */
+	public static long getKey(int userId, int vmId) {
+		return ((long) userId << 32) | (vmId & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Generate the unique key of the VM with a given uid.
+	 *
+	 * @param uid the uid of the VM, as built by {@link #getUid(int, int)}
+	 * @return the key
+	 * @throws IllegalArgumentException if the uid is not made of a user id and a VM id
+	 */
+	public static long getKey(String uid) {
+		// the user id may be negative, so the separator is searched for after its first character
+		int separator = uid.indexOf('-', 1);
+		if (separator < 0) {
+			throw new IllegalArgumentException("Invalid VM uid: " + uid);
+		}
+		try {
+			return getKey(
+					Integer.parseInt(uid.substring(0, separator)),
+					Integer.parseInt(uid.substring(separator + 1)));
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid VM uid: " + uid, e);
+		}
+	}
+
 	/**
 	 * Gets the id.
 	 * 
@@ -8,6 +8,7 @@
 
 package org.cloudbus.cloudsim;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -57,6 +58,36 @@ public abstract class VmAllocationPolicy {
 	 */
 	public abstract boolean allocateHostForVm(Vm vm, Host host);
 
+	/**
+	 * Allocates hosts for a list of VMs at once. By default, the VMs are allocated one by one in
+	 * the order of the list; the policies that place a batch of VMs better as a whole, e.g. by
+	 * placing the largest VMs first, override it.
+	 * 
+	 * @param vmList the VMs
+	 * @return whether each VM could be allocated a host, in the order of the list
+	 * @pre vmList != null
+	 * @post $result.size() == vmList.size()
+	 */
+	public List<Boolean> allocateHostsForVms(List<? extends Vm> vmList) {
+		List<Boolean> results = new ArrayList<Boolean>(vmList.size());
+		for (Vm vm : vmList) {
+			results.add(allocateHostForVm(vm));
+		}
+		return results;
+	}
+
+	/**
+	 * Checks whether the policy places a batch of VMs as a whole, in which case a datacenter
+	 * creating a batch allocates all its VMs with {@link #allocateHostsForVms(List)} before
+	 * starting them. Otherwise the datacenter allocates a host for each VM in turn, and starts each
+	 * VM before the next one is placed, as if it had been requested alone.
+	 * 
+	 * @return true if the policy places a batch of VMs as a whole; false by default
+	 */
+	public boolean isBatchPlacedAsWhole() {
+		return false;
+	}
+
 	/**
 	 * Optimize allocation of the VMs according to current utilization.
 	 * 
@@ -0,0 +1,63 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.List;
+
+import org.cloudbus.cloudsim.HostCapacityIndex.Objective;
+
+/**
+ * VmAllocationPolicyBestFit places each VM on the host that it leaves with the least residual
+ * capacity, i.e. with the lowest sum of the normalized MIPS, RAM and BW left available after
+ * placing it.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public class VmAllocationPolicyBestFit extends VmAllocationPolicyBinPacking {
+
+	/** The residual capacity left by a VM on a host. */
+	private static final Objective RESIDUAL_CAPACITY = new Objective() {
+
+		@Override
+		public double getScore(double[] available, double[] demand) {
+			double residual = 0;
+			for (int d = 0; d < demand.length; d++) {
+				residual += available[d] - demand[d];
+			}
+			return residual;
+		}
+
+		@Override
+		public double getLowerBound(double[] minAvailable, double[] maxAvailable, double[] demand) {
+			double residual = 0;
+			for (int d = 0; d < demand.length; d++) {
+				residual += Math.max(minAvailable[d], demand[d]) - demand[d];
+			}
+			return residual;
+		}
+
+	};
+
+	/**
+	 * Creates a new VmAllocationPolicyBestFit object.
+	 *
+	 * @param list the hosts
+	 * @pre $none
+	 * @post $none
+	 */
+	public VmAllocationPolicyBestFit(List<? extends Host> list) {
+		super(list);
+	}
+
+	@Override
+	public Host findHostForVm(Vm vm) {
+		return getHostIndex().findBest(vm, RESIDUAL_CAPACITY);
+	}
+
+}
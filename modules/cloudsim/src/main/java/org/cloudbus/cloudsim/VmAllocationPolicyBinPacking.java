@@ -0,0 +1,189 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.util.LongHashMap;
+
+/**
+ * VmAllocationPolicyBinPacking is the base of the VM allocation policies that pack the VMs into
+ * the hosts as bins with three dimensions: MIPS, RAM and BW. The available capacities of the hosts
+ * are kept in a {@link HostCapacityIndex}, which subclasses search for the host of a VM in
+ * {@link #findHostForVm(Vm)}. If the host found fails to create the VM, it is left out of the
+ * search until another host is found or none is left.
+ * <p>
+ * A batch of VMs is placed in decreasing order of size, the size of a VM being the sum of its
+ * requested capacities normalized as in the index, so the largest VMs are placed while the hosts
+ * have the most room, as with First-Fit-Decreasing.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public abstract class VmAllocationPolicyBinPacking extends VmAllocationPolicy {
+
+	/** The vm table, indexed by VM key. */
+	private final LongHashMap<Host> vmTable = new LongHashMap<Host>();
+
+	/** The index of the available capacities of the hosts. */
+	private final HostCapacityIndex hostIndex;
+
+	/**
+	 * Creates a new VmAllocationPolicyBinPacking object.
+	 *
+	 * @param list the hosts
+	 * @pre $none
+	 * @post $none
+	 */
+	public VmAllocationPolicyBinPacking(List<? extends Host> list) {
+		super(list);
+		hostIndex = new HostCapacityIndex(list);
+	}
+
+	/**
+	 * Finds a host suitable for a VM.
+	 *
+	 * @param vm the VM
+	 * @return the host, or null if none is suitable
+	 */
+	public abstract Host findHostForVm(Vm vm);
+
+	@Override
+	public boolean allocateHostForVm(Vm vm) {
+		if (getVmTableByKey().containsKey(vm.getKey())) { // if this vm was already created
+			return false;
+		}
+
+		boolean result = false;
+		List<Host> triedHosts = new ArrayList<Host>();
+		Host host = findHostForVm(vm);
+		while (host != null) {
+			if (allocateHostForVm(vm, host)) {
+				result = true;
+				break;
+			}
+			getHostIndex().exclude(host);
+			triedHosts.add(host);
+			host = findHostForVm(vm);
+		}
+
+		for (Host triedHost : triedHosts) {
+			getHostIndex().update(triedHost);
+		}
+		if (!result) {
+			Log.formatLine("%.2f: No suitable host found for VM #" + vm.getId(), CloudSim.clock());
+		}
+		return result;
+	}
+
+	@Override
+	public boolean allocateHostForVm(Vm vm, Host host) {
+		if (host.vmCreate(vm)) { // if vm has been succesfully created in the host
+			getVmTableByKey().put(vm.getKey(), host);
+			getHostIndex().update(host);
+			Log.formatLine(
+					"%.2f: VM #" + vm.getId() + " has been allocated to the host #" + host.getId(),
+					CloudSim.clock());
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Allocates hosts for a list of VMs, the largest VMs first.
+	 *
+	 * @param vmList the VMs
+	 * @return whether each VM could be allocated a host, in the order of the list
+	 */
+	@Override
+	public List<Boolean> allocateHostsForVms(List<? extends Vm> vmList) {
+		final double[] sizes = new double[vmList.size()];
+		List<Integer> order = new ArrayList<Integer>(vmList.size());
+		for (int i = 0; i < vmList.size(); i++) {
+			for (double demand : getHostIndex().getDemand(vmList.get(i))) {
+				sizes[i] += demand;
+			}
+			order.add(i);
+		}
+		// the sort is stable, so VMs of the same size keep the order of the list
+		Collections.sort(order, new Comparator<Integer>() {
+
+			@Override
+			public int compare(Integer i, Integer j) {
+				return Double.compare(sizes[j], sizes[i]);
+			}
+
+		});
+
+		Boolean[] results = new Boolean[vmList.size()];
+		for (int i : order) {
+			results[i] = allocateHostForVm(vmList.get(i));
+		}
+		return Arrays.asList(results);
+	}
+
+	/**
+	 * Checks whether the policy places a batch of VMs as a whole, which it does from the
+	 * capacities it tracks itself.
+	 *
+	 * @return true
+	 */
+	@Override
+	public boolean isBatchPlacedAsWhole() {
+		return true;
+	}
+
+	@Override
+	public void deallocateHostForVm(Vm vm) {
+		Host host = getVmTableByKey().remove(vm.getKey());
+		if (host != null) {
+			host.vmDestroy(vm);
+			getHostIndex().update(host);
+		}
+	}
+
+	@Override
+	public Host getHost(Vm vm) {
+		return getVmTableByKey().get(vm.getKey());
+	}
+
+	@Override
+	public Host getHost(int vmId, int userId) {
+		return getVmTableByKey().get(Vm.getKey(userId, vmId));
+	}
+
+	@Override
+	public List<Map<String, Object>> optimizeAllocation(List<? extends Vm> vmList) {
+		return null;
+	}
+
+	/**
+	 * Gets the vm table, indexed by VM key.
+	 *
+	 * @return the vm table
+	 */
+	public LongHashMap<Host> getVmTableByKey() {
+		return vmTable;
+	}
+
+	/**
+	 * Gets the index of the available capacities of the hosts.
+	 *
+	 * @return the host index
+	 */
+	protected HostCapacityIndex getHostIndex() {
+		return hostIndex;
+	}
+
+}
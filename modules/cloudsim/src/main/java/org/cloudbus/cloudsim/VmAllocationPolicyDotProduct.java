@@ -0,0 +1,60 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.List;
+
+import org.cloudbus.cloudsim.HostCapacityIndex.Objective;
+
+/**
+ * VmAllocationPolicyDotProduct places each VM on the host whose normalized available MIPS, RAM and
+ * BW have the greatest dot product with those requested by the VM, i.e. the host whose free
+ * capacity is the most aligned with the needs of the VM, as in the dot-product heuristic for
+ * vector bin packing.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public class VmAllocationPolicyDotProduct extends VmAllocationPolicyBinPacking {
+
+	/** The dot product of the capacities, negated so that the lowest score is the best. */
+	private static final Objective DOT_PRODUCT = new Objective() {
+
+		@Override
+		public double getScore(double[] available, double[] demand) {
+			double product = 0;
+			for (int d = 0; d < demand.length; d++) {
+				product += available[d] * demand[d];
+			}
+			return -product;
+		}
+
+		@Override
+		public double getLowerBound(double[] minAvailable, double[] maxAvailable, double[] demand) {
+			return getScore(maxAvailable, demand);
+		}
+
+	};
+
+	/**
+	 * Creates a new VmAllocationPolicyDotProduct object.
+	 *
+	 * @param list the hosts
+	 * @pre $none
+	 * @post $none
+	 */
+	public VmAllocationPolicyDotProduct(List<? extends Host> list) {
+		super(list);
+	}
+
+	@Override
+	public Host findHostForVm(Vm vm) {
+		return getHostIndex().findBest(vm, DOT_PRODUCT);
+	}
+
+}
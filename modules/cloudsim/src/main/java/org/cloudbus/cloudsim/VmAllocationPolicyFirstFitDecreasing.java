@@ -0,0 +1,37 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.List;
+
+/**
+ * VmAllocationPolicyFirstFitDecreasing places each VM on the first host of the list with enough
+ * available MIPS, RAM and BW, and a batch of VMs in decreasing order of size.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public class VmAllocationPolicyFirstFitDecreasing extends VmAllocationPolicyBinPacking {
+
+	/**
+	 * Creates a new VmAllocationPolicyFirstFitDecreasing object.
+	 *
+	 * @param list the hosts
+	 * @pre $none
+	 * @post $none
+	 */
+	public VmAllocationPolicyFirstFitDecreasing(List<? extends Host> list) {
+		super(list);
+	}
+
+	@Override
+	public Host findHostForVm(Vm vm) {
+		return getHostIndex().findFirst(vm);
+	}
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.List;
+
+import org.cloudbus.cloudsim.HostCapacityIndex.Objective;
+
+/**
+ * VmAllocationPolicyNormBased places each VM on the host that minimizes the L2 norm of the
+ * normalized MIPS, RAM and BW left available after placing it, as in the norm-based greedy
+ * heuristic for vector bin packing. Unlike the sum used by {@link VmAllocationPolicyBestFit}, the
+ * norm favours the hosts whose residual capacity is balanced across the dimensions.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public class VmAllocationPolicyNormBased extends VmAllocationPolicyBinPacking {
+
+	/** The squared L2 norm of the residual capacity left by a VM on a host. */
+	private static final Objective RESIDUAL_NORM = new Objective() {
+
+		@Override
+		public double getScore(double[] available, double[] demand) {
+			double norm = 0;
+			for (int d = 0; d < demand.length; d++) {
+				double residual = available[d] - demand[d];
+				norm += residual * residual;
+			}
+			return norm;
+		}
+
+		@Override
+		public double getLowerBound(double[] minAvailable, double[] maxAvailable, double[] demand) {
+			double norm = 0;
+			for (int d = 0; d < demand.length; d++) {
+				double residual = Math.max(minAvailable[d], demand[d]) - demand[d];
+				norm += residual * residual;
+			}
+			return norm;
+		}
+
+	};
+
+	/**
+	 * Creates a new VmAllocationPolicyNormBased object.
+	 *
+	 * @param list the hosts
+	 * @pre $none
+	 * @post $none
+	 */
+	public VmAllocationPolicyNormBased(List<? extends Host> list) {
+		super(list);
+	}
+
+	@Override
+	public Host findHostForVm(Vm vm) {
+		return getHostIndex().findBest(vm, RESIDUAL_NORM);
+	}
+
+}
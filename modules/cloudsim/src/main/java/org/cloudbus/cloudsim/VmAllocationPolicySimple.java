@@ -9,15 +9,19 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.util.IndexedIntMaxHeap;
+import org.cloudbus.cloudsim.util.LongHashMap;
 
 /**
  * VmAllocationPolicySimple is an VmAllocationPolicy that chooses, as the host for a VM, the host
- * with less PEs in use.
+ * with less PEs in use. The free PEs of the hosts are indexed by a max-heap, so the host with the
+ * most free PEs is found in constant time and updated in O(log n) time, whatever the number of
+ * hosts.
  * 
  * @author Rodrigo N. Calheiros
  * @author Anton Beloglazov
@@ -25,15 +29,21 @@ import org.cloudbus.cloudsim.core.CloudSim;
  */
 public class VmAllocationPolicySimple extends VmAllocationPolicy {
 
-	/** The vm table. */
-	private Map<String, Host> vmTable;
+	/** The vm table, indexed by VM key. */
+	private LongHashMap<Host> vmTable;
 
-	/** The used pes. */
-	private Map<String, Integer> usedPes;
+	/** The used pes, indexed by VM key. */
+	private LongHashMap<Integer> usedPes;
 
 	/** The free pes. */
 	private List<Integer> freePes;
 
+	/** The free pes of the hosts, by index in the host list. */
+	private IndexedIntMaxHeap freePesIndex;
+
+	/** The index of each host in the host list. */
+	private Map<Host, Integer> hostIndices;
+
 	/**
 	 * Creates the new VmAllocationPolicySimple object.
 	 * 
@@ -50,8 +60,15 @@ public class VmAllocationPolicySimple extends VmAllocationPolicy {
 
 		}
 
-		setVmTable(new HashMap<String, Host>());
-		setUsedPes(new HashMap<String, Integer>());
+		freePesIndex = new IndexedIntMaxHeap(getHostList().size());
+		hostIndices = new IdentityHashMap<Host, Integer>();
+		for (int i = 0; i < getHostList().size(); i++) {
+			freePesIndex.set(i, getFreePes().get(i));
+			hostIndices.put(getHostList().get(i), i);
+		}
+
+		setVmTableByKey(new LongHashMap<Host>());
+		setUsedPes(new LongHashMap<Integer>());
 	}
 
 	/**
@@ -66,40 +83,30 @@ public class VmAllocationPolicySimple extends VmAllocationPolicy {
 	public boolean allocateHostForVm(Vm vm) {
 		int requiredPes = vm.getNumberOfPes();
 		boolean result = false;
-		int tries = 0;
-		List<Integer> freePesTmp = new ArrayList<Integer>();
-		for (Integer freePes : getFreePes()) {
-			freePesTmp.add(freePes);
-		}
-
-		if (!getVmTable().containsKey(vm.getUid())) { // if this vm was not created
-			do {// we still trying until we find a host or until we try all of them
-				int moreFree = Integer.MIN_VALUE;
-				int idx = -1;
 
+		if (!getVmTableByKey().containsKey(vm.getKey())) { // if this vm was not created
+			// the hosts tried in vain leave the index until the vm is allocated or all are tried
+			List<Integer> triedHosts = new ArrayList<Integer>();
+			while (!freePesIndex.isEmpty()) {
 				// we want the host with less pes in use
-				for (int i = 0; i < freePesTmp.size(); i++) {
-					if (freePesTmp.get(i) > moreFree) {
-						moreFree = freePesTmp.get(i);
-						idx = i;
-					}
-				}
+				int idx = freePesIndex.peek();
 
 				Host host = getHostList().get(idx);
 				result = host.vmCreate(vm);
 
 				if (result) { // if vm were succesfully created in the host
-					getVmTable().put(vm.getUid(), host);
-					getUsedPes().put(vm.getUid(), requiredPes);
-					getFreePes().set(idx, getFreePes().get(idx) - requiredPes);
-					result = true;
+					getVmTableByKey().put(vm.getKey(), host);
+					getUsedPes().put(vm.getKey(), requiredPes);
+					setFreePes(idx, getFreePes().get(idx) - requiredPes);
 					break;
-				} else {
-					freePesTmp.set(idx, Integer.MIN_VALUE);
 				}
-				tries++;
-			} while (!result && tries < getFreePes().size());
+				freePesIndex.remove(idx);
+				triedHosts.add(idx);
+			}
 
+			for (int idx : triedHosts) {
+				freePesIndex.set(idx, getFreePes().get(idx));
+			}
 		}
 
 		return result;
@@ -114,15 +121,37 @@ public class VmAllocationPolicySimple extends VmAllocationPolicy {
 	 */
 	@Override
 	public void deallocateHostForVm(Vm vm) {
-		Host host = getVmTable().remove(vm.getUid());
-		int idx = getHostList().indexOf(host);
-		int pes = getUsedPes().remove(vm.getUid());
+		Host host = getVmTableByKey().remove(vm.getKey());
+		int idx = getHostIndex(host);
+		int pes = getUsedPes().remove(vm.getKey());
 		if (host != null) {
 			host.vmDestroy(vm);
-			getFreePes().set(idx, getFreePes().get(idx) + pes);
+			setFreePes(idx, getFreePes().get(idx) + pes);
 		}
 	}
 
+	/**
+	 * Gets the index of a host in the host list.
+	 * 
+	 * @param host the host
+	 * @return the index, or -1 if the host is not in the list
+	 */
+	protected int getHostIndex(Host host) {
+		Integer idx = hostIndices.get(host);
+		return idx == null ? -1 : idx;
+	}
+
+	/**
+	 * Sets the free pes of a host, keeping the index of the free pes up to date.
+	 * 
+	 * @param idx the index of the host in the host list
+	 * @param pes the free pes
+	 */
+	protected void setFreePes(int idx, int pes) {
+		getFreePes().set(idx, pes);
+		freePesIndex.set(idx, pes);
+	}
+
 	/**
 	 * Gets the host that is executing the given VM belonging to the given user.
 	 * 
@@ -133,7 +162,7 @@ public class VmAllocationPolicySimple extends VmAllocationPolicy {
 	 */
 	@Override
 	public Host getHost(Vm vm) {
-		return getVmTable().get(vm.getUid());
+		return getVmTableByKey().get(vm.getKey());
 	}
 
 	/**
@@ -147,24 +176,24 @@ public class VmAllocationPolicySimple extends VmAllocationPolicy {
 	 */
 	@Override
 	public Host getHost(int vmId, int userId) {
-		return getVmTable().get(Vm.getUid(userId, vmId));
+		return getVmTableByKey().get(Vm.getKey(userId, vmId));
 	}
 
 	/**
-	 * Gets the vm table.
+	 * Gets the vm table, indexed by VM key.
 	 * 
 	 * @return the vm table
 	 */
-	public Map<String, Host> getVmTable() {
+	public LongHashMap<Host> getVmTableByKey() {
 		return vmTable;
 	}
 
 	/**
-	 * Sets the vm table.
+	 * Sets the vm table, indexed by VM key.
 	 * 
 	 * @param vmTable the vm table
 	 */
-	protected void setVmTable(Map<String, Host> vmTable) {
+	protected void setVmTableByKey(LongHashMap<Host> vmTable) {
 		this.vmTable = vmTable;
 	}
 
@@ -173,7 +202,7 @@ public class VmAllocationPolicySimple extends VmAllocationPolicy {
 	 * 
 	 * @return the used pes
 	 */
-	protected Map<String, Integer> getUsedPes() {
+	protected LongHashMap<Integer> getUsedPes() {
 		return usedPes;
 	}
 
@@ -182,7 +211,7 @@ public class VmAllocationPolicySimple extends VmAllocationPolicy {
 	 * 
 	 * @param usedPes the used pes
 	 */
-	protected void setUsedPes(Map<String, Integer> usedPes) {
+	protected void setUsedPes(LongHashMap<Integer> usedPes) {
 		this.usedPes = usedPes;
 	}
 
@@ -222,12 +251,12 @@ public class VmAllocationPolicySimple extends VmAllocationPolicy {
 	@Override
 	public boolean allocateHostForVm(Vm vm, Host host) {
 		if (host.vmCreate(vm)) { // if vm has been succesfully created in the host
-			getVmTable().put(vm.getUid(), host);
+			getVmTableByKey().put(vm.getKey(), host);
 
 			int requiredPes = vm.getNumberOfPes();
-			int idx = getHostList().indexOf(host);
-			getUsedPes().put(vm.getUid(), requiredPes);
-			getFreePes().set(idx, getFreePes().get(idx) - requiredPes);
+			int idx = getHostIndex(host);
+			getUsedPes().put(vm.getKey(), requiredPes);
+			setFreePes(idx, getFreePes().get(idx) - requiredPes);
 
 			Log.formatLine(
 					"%.2f: VM #" + vm.getId() + " has been allocated to the host #" + host.getId(),
@@ -7,12 +7,11 @@
 
 package org.cloudbus.cloudsim;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.cloudbus.cloudsim.lists.PeList;
+import org.cloudbus.cloudsim.util.LongHashMap;
+import org.cloudbus.cloudsim.util.LongHashSet;
 
 /**
  * VmScheduler is an abstract class that represents the policy used by a VMM to share processing
@@ -27,20 +26,20 @@ public abstract class VmScheduler {
 	/** The peList. */
 	private List<? extends Pe> peList;
 
-	/** The map of VMs to PEs. */
-	private Map<String, List<Pe>> peMap;
+	/** The map of VMs to PEs, indexed by VM key. */
+	private LongHashMap<List<Pe>> peMap;
 
-	/** The MIPS that are currently allocated to the VMs. */
-	private Map<String, List<Double>> mipsMap;
+	/** The MIPS that are currently allocated to the VMs, indexed by VM key. */
+	private LongHashMap<List<Double>> mipsMap;
 
 	/** The total available mips. */
 	private double availableMips;
 
-	/** The VMs migrating in. */
-	private List<String> vmsMigratingIn;
+	/** The keys of the VMs migrating in. */
+	private LongHashSet vmsMigratingIn;
 
-	/** The VMs migrating out. */
-	private List<String> vmsMigratingOut;
+	/** The keys of the VMs migrating out. */
+	private LongHashSet vmsMigratingOut;
 
 	/**
 	 * Creates a new HostAllocationPolicy.
@@ -51,11 +50,11 @@ public abstract class VmScheduler {
 	 */
 	public VmScheduler(List<? extends Pe> pelist) {
 		setPeList(pelist);
-		setPeMap(new HashMap<String, List<Pe>>());
-		setMipsMap(new HashMap<String, List<Double>>());
+		setPeMapByKey(new LongHashMap<List<Pe>>());
+		setMipsMapByKey(new LongHashMap<List<Double>>());
 		setAvailableMips(PeList.getTotalMips(getPeList()));
-		setVmsMigratingIn(new ArrayList<String>());
-		setVmsMigratingOut(new ArrayList<String>());
+		setVmKeysMigratingIn(new LongHashSet());
+		setVmKeysMigratingOut(new LongHashSet());
 	}
 
 	/**
@@ -78,6 +77,24 @@ public abstract class VmScheduler {
 	 */
 	public abstract void deallocatePesForVm(Vm vm);
 
+	/**
+	 * Reallocates PEs for VMs whose requested MIPS have changed, releasing the PEs allocated to them
+	 * and allocating PEs for their current requested MIPS. By default, this deallocates the VMs one
+	 * by one and then allocates them one by one; schedulers can override it to do it in one pass.
+	 * 
+	 * @param vms the vms, all allocated by this scheduler
+	 * @pre vms != $null
+	 * @post $none
+	 */
+	public void reallocatePesForVms(List<? extends Vm> vms) {
+		for (Vm vm : vms) {
+			deallocatePesForVm(vm);
+		}
+		for (Vm vm : vms) {
+			allocatePesForVm(vm, vm.getCurrentRequestedMips());
+		}
+	}
+
 	/**
 	 * Releases PEs allocated to all the VMs.
 	 * 
@@ -85,7 +102,7 @@ public abstract class VmScheduler {
 	 * @post $none
 	 */
 	public void deallocatePesForAllVms() {
-		getMipsMap().clear();
+		getMipsMapByKey().clear();
 		setAvailableMips(PeList.getTotalMips(getPeList()));
 		for (Pe pe : getPeList()) {
 			pe.getPeProvisioner().deallocateMipsForAllVms();
@@ -99,7 +116,7 @@ public abstract class VmScheduler {
 	 * @return the pes allocated for vm
 	 */
 	public List<Pe> getPesAllocatedForVM(Vm vm) {
-		return getPeMap().get(vm.getUid());
+		return getPeMapByKey().get(vm.getKey());
 	}
 
 	/**
@@ -111,7 +128,7 @@ public abstract class VmScheduler {
 	 * @post $none
 	 */
 	public List<Double> getAllocatedMipsForVm(Vm vm) {
-		return getMipsMap().get(vm.getUid());
+		return getMipsMapByKey().get(vm.getKey());
 	}
 
 	/**
@@ -188,20 +205,20 @@ public abstract class VmScheduler {
 	}
 
 	/**
-	 * Gets the mips map.
+	 * Gets the mips map, indexed by VM key.
 	 * 
 	 * @return the mips map
 	 */
-	protected Map<String, List<Double>> getMipsMap() {
+	protected LongHashMap<List<Double>> getMipsMapByKey() {
 		return mipsMap;
 	}
 
 	/**
-	 * Sets the mips map.
+	 * Sets the mips map, indexed by VM key.
 	 * 
 	 * @param mipsMap the mips map
 	 */
-	protected void setMipsMap(Map<String, List<Double>> mipsMap) {
+	protected void setMipsMapByKey(LongHashMap<List<Double>> mipsMap) {
 		this.mipsMap = mipsMap;
 	}
 
@@ -224,56 +241,56 @@ public abstract class VmScheduler {
 	}
 
 	/**
-	 * Gets the vms in migration.
+	 * Gets the keys of the vms in migration.
 	 * 
-	 * @return the vms in migration
+	 * @return the keys of the vms in migration
 	 */
-	public List<String> getVmsMigratingOut() {
+	public LongHashSet getVmKeysMigratingOut() {
 		return vmsMigratingOut;
 	}
 
 	/**
-	 * Sets the vms in migration.
+	 * Sets the keys of the vms in migration.
 	 * 
-	 * @param vmsInMigration the new vms migrating out
+	 * @param vmsInMigration the new keys of the vms migrating out
 	 */
-	protected void setVmsMigratingOut(List<String> vmsInMigration) {
+	protected void setVmKeysMigratingOut(LongHashSet vmsInMigration) {
 		vmsMigratingOut = vmsInMigration;
 	}
 
 	/**
-	 * Gets the vms migrating in.
+	 * Gets the keys of the vms migrating in.
 	 * 
-	 * @return the vms migrating in
+	 * @return the keys of the vms migrating in
 	 */
-	public List<String> getVmsMigratingIn() {
+	public LongHashSet getVmKeysMigratingIn() {
 		return vmsMigratingIn;
 	}
 
 	/**
-	 * Sets the vms migrating in.
+	 * Sets the keys of the vms migrating in.
 	 * 
-	 * @param vmsMigratingIn the new vms migrating in
+	 * @param vmsMigratingIn the new keys of the vms migrating in
 	 */
-	protected void setVmsMigratingIn(List<String> vmsMigratingIn) {
+	protected void setVmKeysMigratingIn(LongHashSet vmsMigratingIn) {
 		this.vmsMigratingIn = vmsMigratingIn;
 	}
 
 	/**
-	 * Gets the pe map.
+	 * Gets the pe map, indexed by VM key.
 	 * 
 	 * @return the pe map
 	 */
-	public Map<String, List<Pe>> getPeMap() {
+	public LongHashMap<List<Pe>> getPeMapByKey() {
 		return peMap;
 	}
 
 	/**
-	 * Sets the pe map.
+	 * Sets the pe map, indexed by VM key.
 	 * 
 	 * @param peMap the pe map
 	 */
-	protected void setPeMap(Map<String, List<Pe>> peMap) {
+	protected void setPeMapByKey(LongHashMap<List<Pe>> peMap) {
 		this.peMap = peMap;
 	}
 
@@ -9,10 +9,10 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+
+import org.cloudbus.cloudsim.util.LongHashMap;
 
 /**
  * VmSchedulerSpaceShared is a VMM allocation policy that allocates one or more Pe to a VM, and
@@ -25,8 +25,8 @@ import java.util.Map;
  */
 public class VmSchedulerSpaceShared extends VmScheduler {
 
-	/** Map containing VM ID and a vector of PEs allocated to this VM. */
-	private Map<String, List<Pe>> peAllocationMap;
+	/** Map containing VM key and a vector of PEs allocated to this VM. */
+	private LongHashMap<List<Pe>> peAllocationMap;
 
 	/** The free pes vector. */
 	private List<Pe> freePes;
@@ -38,7 +38,7 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 	 */
 	public VmSchedulerSpaceShared(List<? extends Pe> pelist) {
 		super(pelist);
-		setPeAllocationMap(new HashMap<String, List<Pe>>());
+		setPeAllocationMap(new LongHashMap<List<Pe>>());
 		setFreePes(new ArrayList<Pe>());
 		getFreePes().addAll(pelist);
 	}
@@ -75,8 +75,8 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 
 		getFreePes().removeAll(selectedPes);
 
-		getPeAllocationMap().put(vm.getUid(), selectedPes);
-		getMipsMap().put(vm.getUid(), mipsShare);
+		getPeAllocationMap().put(vm.getKey(), selectedPes);
+		getMipsMapByKey().put(vm.getKey(), mipsShare);
 		setAvailableMips(getAvailableMips() - totalMips);
 		return true;
 	}
@@ -87,16 +87,16 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 	 */
 	@Override
 	public void deallocatePesForVm(Vm vm) {
-		getFreePes().addAll(getPeAllocationMap().get(vm.getUid()));
-		getPeAllocationMap().remove(vm.getUid());
+		getFreePes().addAll(getPeAllocationMap().get(vm.getKey()));
+		getPeAllocationMap().remove(vm.getKey());
 
 		double totalMips = 0;
-		for (double mips : getMipsMap().get(vm.getUid())) {
+		for (double mips : getMipsMapByKey().get(vm.getKey())) {
 			totalMips += mips;
 		}
 		setAvailableMips(getAvailableMips() + totalMips);
 
-		getMipsMap().remove(vm.getUid());
+		getMipsMapByKey().remove(vm.getKey());
 	}
 
 	/**
@@ -104,7 +104,7 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 	 * 
 	 * @param peAllocationMap the pe allocation map
 	 */
-	protected void setPeAllocationMap(Map<String, List<Pe>> peAllocationMap) {
+	protected void setPeAllocationMap(LongHashMap<List<Pe>> peAllocationMap) {
 		this.peAllocationMap = peAllocationMap;
 	}
 
@@ -113,7 +113,7 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 	 * 
 	 * @return the pe allocation map
 	 */
-	protected Map<String, List<Pe>> getPeAllocationMap() {
+	protected LongHashMap<List<Pe>> getPeAllocationMap() {
 		return peAllocationMap;
 	}
 
@@ -8,19 +8,22 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 
 import org.cloudbus.cloudsim.lists.PeList;
 import org.cloudbus.cloudsim.provisioners.PeProvisioner;
+import org.cloudbus.cloudsim.util.LongHashMap;
 
 /**
  * VmSchedulerTimeShared is a VMM allocation policy that allocates one or more Pe to a VM, and
  * allows sharing of PEs by multiple VMs. This class also implements 10% performance degration due
  * to VM migration. This scheduler does not support over-subscription.
+ * <p>
+ * Allocating or releasing the PEs of a VM only changes the shares of the PEs of that VM, the other
+ * VMs keeping theirs, whereas {@link #reallocatePesForVms(List)} lays out the VMs on the PEs anew
+ * in one pass.
  * 
  * @author Rodrigo N. Calheiros
  * @author Anton Beloglazov
@@ -28,8 +31,8 @@ import org.cloudbus.cloudsim.provisioners.PeProvisioner;
  */
 public class VmSchedulerTimeShared extends VmScheduler {
 
-	/** The mips map requested. */
-	private Map<String, List<Double>> mipsMapRequested;
+	/** The mips map requested, indexed by VM key. */
+	private LongHashMap<List<Double>> mipsMapRequested;
 
 	/** The pes in use. */
 	private int pesInUse;
@@ -41,7 +44,7 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	 */
 	public VmSchedulerTimeShared(List<? extends Pe> pelist) {
 		super(pelist);
-		setMipsMapRequested(new HashMap<String, List<Double>>());
+		setMipsMapRequested(new LongHashMap<List<Double>>());
 	}
 
 	/*
@@ -50,31 +53,78 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	 */
 	@Override
 	public boolean allocatePesForVm(Vm vm, List<Double> mipsShareRequested) {
+		boolean result = allocatePesForVm(vm.getKey(), vm, mipsShareRequested);
+		updatePeProvisioning(vm);
+		return result;
+	}
+
+	/**
+	 * Allocate pes for vm, marking it as migrating out if it is in migration, but not laying it out
+	 * on the PEs.
+	 * 
+	 * @param vmKey the vm key
+	 * @param vm the vm
+	 * @param mipsShareRequested the mips share requested
+	 * @return true, if successful
+	 */
+	private boolean allocatePesForVm(long vmKey, Vm vm, List<Double> mipsShareRequested) {
 		/**
 		 * TODO: add the same to RAM and BW provisioners
 		 */
 		if (vm.isInMigration()) {
-			if (!getVmsMigratingIn().contains(vm.getUid()) && !getVmsMigratingOut().contains(vm.getUid())) {
-				getVmsMigratingOut().add(vm.getUid());
+			if (!getVmKeysMigratingIn().contains(vmKey)) {
+				getVmKeysMigratingOut().add(vmKey);
 			}
 		} else {
-			if (getVmsMigratingOut().contains(vm.getUid())) {
-				getVmsMigratingOut().remove(vm.getUid());
-			}
+			getVmKeysMigratingOut().remove(vmKey);
+		}
+		return allocatePesForVm(vmKey, mipsShareRequested);
+	}
+
+	/**
+	 * Reallocates PEs for VMs whose requested MIPS have changed in one pass: the VMs are removed
+	 * from the requested MIPS, the MIPS of the other VMs are allocated again, then the MIPS of the
+	 * VMs, and finally all the VMs are laid out on the PEs once.
+	 * 
+	 * @param vms the vms, all allocated by this scheduler
+	 * @pre vms != $null
+	 * @post $none
+	 */
+	@Override
+	public void reallocatePesForVms(List<? extends Vm> vms) {
+		for (Vm vm : vms) {
+			getMipsMapRequested().remove(vm.getKey());
+		}
+		reallocateRequestedMips();
+		for (Vm vm : vms) {
+			allocatePesForVm(vm.getKey(), vm, vm.getCurrentRequestedMips());
 		}
-		boolean result = allocatePesForVm(vm.getUid(), mipsShareRequested);
 		updatePeProvisioning();
-		return result;
+	}
+
+	/**
+	 * Allocates again the MIPS requested by all the VMs, in the order of the requested MIPS map,
+	 * starting from all the MIPS of the host.
+	 */
+	protected void reallocateRequestedMips() {
+		setPesInUse(0);
+		getMipsMapByKey().clear();
+		setAvailableMips(PeList.getTotalMips(getPeList()));
+
+		LongHashMap.Cursor<List<Double>> cursor = getMipsMapRequested().cursor();
+		while (cursor.next()) {
+			allocatePesForVm(cursor.key(), cursor.value());
+		}
 	}
 
 	/**
 	 * Allocate pes for vm.
 	 * 
-	 * @param vmUid the vm uid
+	 * @param vmKey the vm key
 	 * @param mipsShareRequested the mips share requested
 	 * @return true, if successful
 	 */
-	protected boolean allocatePesForVm(String vmUid, List<Double> mipsShareRequested) {
+	protected boolean allocatePesForVm(long vmKey, List<Double> mipsShareRequested) {
 		double totalRequestedMips = 0;
 		double peMips = getPeCapacity();
 		for (Double mips : mipsShareRequested) {
@@ -90,27 +140,27 @@ public class VmSchedulerTimeShared extends VmScheduler {
 			return false;
 		}
 
-		getMipsMapRequested().put(vmUid, mipsShareRequested);
+		getMipsMapRequested().put(vmKey, mipsShareRequested);
 		setPesInUse(getPesInUse() + mipsShareRequested.size());
 
-		if (getVmsMigratingIn().contains(vmUid)) {
+		if (getVmKeysMigratingIn().contains(vmKey)) {
 			// the destination host only experience 10% of the migrating VM's MIPS
 			totalRequestedMips *= 0.1;
 		}
 
 		List<Double> mipsShareAllocated = new ArrayList<Double>();
 		for (Double mipsRequested : mipsShareRequested) {
-			if (getVmsMigratingOut().contains(vmUid)) {
+			if (getVmKeysMigratingOut().contains(vmKey)) {
 				// performance degradation due to migration = 10% MIPS
 				mipsRequested *= 0.9;
-			} else if (getVmsMigratingIn().contains(vmUid)) {
+			} else if (getVmKeysMigratingIn().contains(vmKey)) {
 				// the destination host only experience 10% of the migrating VM's MIPS
 				mipsRequested *= 0.1;
 			}
 			mipsShareAllocated.add(mipsRequested);
 		}
 
-		getMipsMap().put(vmUid, mipsShareAllocated);
+		getMipsMapByKey().put(vmKey, mipsShareAllocated);
 		setAvailableMips(getAvailableMips() - totalRequestedMips);
 
 		return true;
@@ -120,7 +170,7 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	 * Update allocation of VMs on PEs.
 	 */
 	protected void updatePeProvisioning() {
-		getPeMap().clear();
+		getPeMapByKey().clear();
 		for (Pe pe : getPeList()) {
 			pe.getPeProvisioner().deallocateMipsForAllVms();
 		}
@@ -130,26 +180,28 @@ public class VmSchedulerTimeShared extends VmScheduler {
 		PeProvisioner peProvisioner = pe.getPeProvisioner();
 		double availableMips = peProvisioner.getAvailableMips();
 
-		for (Map.Entry<String, List<Double>> entry : getMipsMap().entrySet()) {
-			String vmUid = entry.getKey();
-			getPeMap().put(vmUid, new LinkedList<Pe>());
+		LongHashMap.Cursor<List<Double>> cursor = getMipsMapByKey().cursor();
+		while (cursor.next()) {
+			long vmKey = cursor.key();
+			List<Pe> vmPes = new LinkedList<Pe>();
+			getPeMapByKey().put(vmKey, vmPes);
 
-			for (double mips : entry.getValue()) {
+			for (double mips : cursor.value()) {
 				while (mips >= 0.1) {
 					if (availableMips >= mips) {
-						peProvisioner.allocateMipsForVm(vmUid, mips);
-						getPeMap().get(vmUid).add(pe);
+						peProvisioner.allocateMipsForVm(vmKey, mips);
+						vmPes.add(pe);
 						availableMips -= mips;
 						break;
 					} else {
-						peProvisioner.allocateMipsForVm(vmUid, availableMips);
-						getPeMap().get(vmUid).add(pe);
+						peProvisioner.allocateMipsForVm(vmKey, availableMips);
+						vmPes.add(pe);
 						mips -= availableMips;
 						if (mips <= 0.1) {
 							break;
 						}
 						if (!peIterator.hasNext()) {
-							Log.printConcatLine("There is no enough MIPS (", mips, ") to accommodate VM ", vmUid);
+							Log.printConcatLine("There is no enough MIPS (", mips, ") to accommodate VM ", Vm.getUid(vmKey));
 							// System.exit(0);
 						}
 						pe = peIterator.next();
@@ -161,26 +213,96 @@ public class VmSchedulerTimeShared extends VmScheduler {
 		}
 	}
 
+	/**
+	 * Update allocation of a VM on PEs, leaving the other VMs where they are. The MIPS of the VM are
+	 * released from its PEs and allocated again to the first PEs with available MIPS.
+	 * 
+	 * @param vm the vm
+	 */
+	protected void updatePeProvisioning(Vm vm) {
+		long vmKey = vm.getKey();
+		List<Pe> vmPes = getPeMapByKey().remove(vmKey);
+		if (vmPes != null) {
+			for (Pe pe : vmPes) {
+				pe.getPeProvisioner().deallocateMipsForVm(vm);
+			}
+		}
+
+		List<Double> mipsShare = getMipsMapByKey().get(vmKey);
+		if (mipsShare == null) {
+			return;
+		}
+		vmPes = new LinkedList<Pe>();
+		getPeMapByKey().put(vmKey, vmPes);
+
+		Iterator<Pe> peIterator = getPeList().iterator();
+		Pe pe = peIterator.next();
+		PeProvisioner peProvisioner = pe.getPeProvisioner();
+		double availableMips = peProvisioner.getAvailableMips();
+
+		for (double mips : mipsShare) {
+			while (mips >= 0.1) {
+				if (availableMips >= mips) {
+					peProvisioner.allocateMipsForVm(vmKey, mips);
+					vmPes.add(pe);
+					availableMips -= mips;
+					break;
+				}
+				if (availableMips >= 0.1) {
+					peProvisioner.allocateMipsForVm(vmKey, availableMips);
+					vmPes.add(pe);
+					mips -= availableMips;
+					if (mips <= 0.1) {
+						break;
+					}
+				}
+				if (!peIterator.hasNext()) {
+					Log.printConcatLine("There is no enough MIPS (", mips, ") to accommodate VM ", vm.getUid());
+					return;
+				}
+				pe = peIterator.next();
+				peProvisioner = pe.getPeProvisioner();
+				availableMips = peProvisioner.getAvailableMips();
+			}
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see cloudsim.VmScheduler#deallocatePesForVm(cloudsim.Vm)
 	 */
 	@Override
 	public void deallocatePesForVm(Vm vm) {
-		getMipsMapRequested().remove(vm.getUid());
-		setPesInUse(0);
-		getMipsMap().clear();
-		setAvailableMips(PeList.getTotalMips(getPeList()));
+		long vmKey = vm.getKey();
+		getMipsMapRequested().remove(vmKey);
+		getMipsMapByKey().remove(vmKey);
 
-		for (Pe pe : getPeList()) {
-			pe.getPeProvisioner().deallocateMipsForVm(vm);
+		List<Pe> vmPes = getPeMapByKey().remove(vmKey);
+		if (vmPes != null) {
+			for (Pe pe : vmPes) {
+				pe.getPeProvisioner().deallocateMipsForVm(vm);
+			}
 		}
 
-		for (Map.Entry<String, List<Double>> entry : getMipsMapRequested().entrySet()) {
-			allocatePesForVm(entry.getKey(), entry.getValue());
+		// the available MIPS are summed up again rather than increased by the MIPS of the VM, so
+		// that they do not drift away from the total MIPS of the host through rounding errors
+		int pesInUse = 0;
+		double availableMips = PeList.getTotalMips(getPeList());
+		LongHashMap.Cursor<List<Double>> cursor = getMipsMapRequested().cursor();
+		while (cursor.next()) {
+			double totalRequestedMips = 0;
+			for (Double mips : cursor.value()) {
+				totalRequestedMips += mips;
+			}
+			if (getVmKeysMigratingIn().contains(cursor.key())) {
+				// the destination host only experience 10% of the migrating VM's MIPS
+				totalRequestedMips *= 0.1;
+			}
+			pesInUse += cursor.value().size();
+			availableMips -= totalRequestedMips;
 		}
-
-		updatePeProvisioning();
+		setPesInUse(pesInUse);
+		setAvailableMips(availableMips);
 	}
 
 	/**
@@ -193,6 +315,7 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	public void deallocatePesForAllVms() {
 		super.deallocatePesForAllVms();
 		getMipsMapRequested().clear();
+		getPeMapByKey().clear();
 		setPesInUse(0);
 	}
 
@@ -230,7 +353,7 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	 * 
 	 * @return the mips map requested
 	 */
-	protected Map<String, List<Double>> getMipsMapRequested() {
+	protected LongHashMap<List<Double>> getMipsMapRequested() {
 		return mipsMapRequested;
 	}
 
@@ -239,7 +362,7 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	 * 
 	 * @param mipsMapRequested the mips map requested
 	 */
-	protected void setMipsMapRequested(Map<String, List<Double>> mipsMapRequested) {
+	protected void setMipsMapRequested(LongHashMap<List<Double>> mipsMapRequested) {
 		this.mipsMapRequested = mipsMapRequested;
 	}
 
@@ -8,17 +8,19 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 
 import org.cloudbus.cloudsim.lists.PeList;
+import org.cloudbus.cloudsim.util.LongHashMap;
 
 /**
  * This is a Time-Shared VM Scheduler, which allows over-subscription. In other words, the scheduler
  * still allows the allocation of VMs that require more CPU capacity that is available.
  * Oversubscription results in performance degradation.
+ * <p>
+ * As the MIPS of all the VMs are scaled down when the host is oversubscribed, releasing the PEs of
+ * a VM allocates again the MIPS of all the others and lays them out on the PEs anew, and so does
+ * allocating PEs for a VM when it oversubscribes the host.
  * 
  * @author Anton Beloglazov
  * @author Rodrigo N. Calheiros
@@ -26,6 +28,9 @@ import org.cloudbus.cloudsim.lists.PeList;
  */
 public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared {
 
+	/** Whether the MIPS of all the VMs have been redistributed since the PEs were last laid out. */
+	private boolean mipsRedistributed;
+
 	/**
 	 * Instantiates a new vm scheduler time shared over subscription.
 	 * 
@@ -35,18 +40,58 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 		super(pelist);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.VmSchedulerTimeShared#deallocatePesForVm(org.cloudbus.cloudsim.Vm)
+	 */
+	@Override
+	public void deallocatePesForVm(Vm vm) {
+		getMipsMapRequested().remove(vm.getKey());
+		reallocateRequestedMips();
+
+		for (Pe pe : getPeList()) {
+			pe.getPeProvisioner().deallocateMipsForVm(vm);
+		}
+
+		updatePeProvisioning();
+	}
+
+	/**
+	 * Update allocation of a VM on PEs, or of all the VMs if their MIPS have been redistributed.
+	 * 
+	 * @param vm the vm
+	 */
+	@Override
+	protected void updatePeProvisioning(Vm vm) {
+		if (mipsRedistributed) {
+			updatePeProvisioning();
+		} else {
+			super.updatePeProvisioning(vm);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.VmSchedulerTimeShared#updatePeProvisioning()
+	 */
+	@Override
+	protected void updatePeProvisioning() {
+		super.updatePeProvisioning();
+		mipsRedistributed = false;
+	}
+
 	/**
 	 * Allocate pes for vm. The policy allows over-subscription. In other words, the policy still
 	 * allows the allocation of VMs that require more CPU capacity that is available.
 	 * Oversubscription results in performance degradation. Each virtual PE cannot be allocated more
 	 * CPU capacity than MIPS of a single PE.
 	 * 
-	 * @param vmUid the vm uid
+	 * @param vmKey the vm key
 	 * @param mipsShareRequested the mips share requested
 	 * @return true, if successful
 	 */
 	@Override
-	protected boolean allocatePesForVm(String vmUid, List<Double> mipsShareRequested) {
+	protected boolean allocatePesForVm(long vmKey, List<Double> mipsShareRequested) {
 		double totalRequestedMips = 0;
 
 		// if the requested mips is bigger than the capacity of a single PE, we cap
@@ -63,10 +108,10 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 			}
 		}
 
-		getMipsMapRequested().put(vmUid, mipsShareRequested);
+		getMipsMapRequested().put(vmKey, mipsShareRequested);
 		setPesInUse(getPesInUse() + mipsShareRequested.size());
 
-		if (getVmsMigratingIn().contains(vmUid)) {
+		if (getVmKeysMigratingIn().contains(vmKey)) {
 			// the destination host only experience 10% of the migrating VM's MIPS
 			totalRequestedMips *= 0.1;
 		}
@@ -74,17 +119,17 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 		if (getAvailableMips() >= totalRequestedMips) {
 			List<Double> mipsShareAllocated = new ArrayList<Double>();
 			for (Double mipsRequested : mipsShareRequestedCapped) {
-				if (getVmsMigratingOut().contains(vmUid)) {
+				if (getVmKeysMigratingOut().contains(vmKey)) {
 					// performance degradation due to migration = 10% MIPS
 					mipsRequested *= 0.9;
-				} else if (getVmsMigratingIn().contains(vmUid)) {
+				} else if (getVmKeysMigratingIn().contains(vmKey)) {
 					// the destination host only experience 10% of the migrating VM's MIPS
 					mipsRequested *= 0.1;
 				}
 				mipsShareAllocated.add(mipsRequested);
 			}
 
-			getMipsMap().put(vmUid, mipsShareAllocated);
+			getMipsMapByKey().put(vmKey, mipsShareAllocated);
 			setAvailableMips(getAvailableMips() - totalRequestedMips);
 		} else {
 			redistributeMipsDueToOverSubscription();
@@ -102,12 +147,13 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 		// proportionally
 		double totalRequiredMipsByAllVms = 0;
 
-		Map<String, List<Double>> mipsMapCapped = new HashMap<String, List<Double>>();
-		for (Entry<String, List<Double>> entry : getMipsMapRequested().entrySet()) {
+		LongHashMap<List<Double>> mipsMapCapped = new LongHashMap<List<Double>>();
+		LongHashMap.Cursor<List<Double>> cursor = getMipsMapRequested().cursor();
+		while (cursor.next()) {
 
 			double requiredMipsByThisVm = 0.0;
-			String vmId = entry.getKey();
-			List<Double> mipsShareRequested = entry.getValue();
+			long vmKey = cursor.key();
+			List<Double> mipsShareRequested = cursor.value();
 			List<Double> mipsShareRequestedCapped = new ArrayList<Double>();
 			double peMips = getPeCapacity();
 			for (Double mips : mipsShareRequested) {
@@ -120,9 +166,9 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 				}
 			}
 
-			mipsMapCapped.put(vmId, mipsShareRequestedCapped);
+			mipsMapCapped.put(vmKey, mipsShareRequestedCapped);
 
-			if (getVmsMigratingIn().contains(entry.getKey())) {
+			if (getVmKeysMigratingIn().contains(vmKey)) {
 				// the destination host only experience 10% of the migrating VM's MIPS
 				requiredMipsByThisVm *= 0.1;
 			}
@@ -133,21 +179,22 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 		double scalingFactor = totalAvailableMips / totalRequiredMipsByAllVms;
 
 		// Clear the old MIPS allocation
-		getMipsMap().clear();
+		getMipsMapByKey().clear();
 
 		// Update the actual MIPS allocated to the VMs
-		for (Entry<String, List<Double>> entry : mipsMapCapped.entrySet()) {
-			String vmUid = entry.getKey();
-			List<Double> requestedMips = entry.getValue();
+		cursor = mipsMapCapped.cursor();
+		while (cursor.next()) {
+			long vmKey = cursor.key();
+			List<Double> requestedMips = cursor.value();
 
 			List<Double> updatedMipsAllocation = new ArrayList<Double>();
 			for (Double mips : requestedMips) {
-				if (getVmsMigratingOut().contains(vmUid)) {
+				if (getVmKeysMigratingOut().contains(vmKey)) {
 					// the original amount is scaled
 					mips *= scalingFactor;
 					// performance degradation due to migration = 10% MIPS
 					mips *= 0.9;
-				} else if (getVmsMigratingIn().contains(vmUid)) {
+				} else if (getVmKeysMigratingIn().contains(vmKey)) {
 					// the destination host only experiences 10% of the migrating VM's MIPS
 					mips *= 0.1;
 					// the final 10% of the requested MIPS are scaled
@@ -160,12 +207,13 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 			}
 
 			// add in the new map
-			getMipsMap().put(vmUid, updatedMipsAllocation);
+			getMipsMapByKey().put(vmKey, updatedMipsAllocation);
 
 		}
 
 		// As the host is oversubscribed, there no more available MIPS
 		setAvailableMips(0);
+		mipsRedistributed = true;
 	}
 
 }
@@ -265,6 +265,24 @@ public class CloudSimTags {
 
 	public static final int NextCycle = BASE + 48;
 
+	/**
+	 * Denotes a request to create a list of VMs in a Datacentre at once, acknowledged by a single
+	 * {@link #VM_CREATE_BATCH_ACK} to each owner of the VMs
+	 */
+	public static final int VM_CREATE_BATCH = BASE + 49;
+
+	/**
+	 * Denotes the acknowledgement of a {@link #VM_CREATE_BATCH} request, holding the id of the
+	 * Datacentre followed by the id and the result of the creation of each VM
+	 */
+	public static final int VM_CREATE_BATCH_ACK = BASE + 50;
+
+	/**
+	 * Denotes the submission of a list of Cloudlets to a Datacentre at once, which brings the
+	 * processing of the Datacentre up to date only once for the whole list
+	 */
+	public static final int CLOUDLET_SUBMIT_BATCH = BASE + 51;
+
 	/** Private Constructor */
 	private CloudSimTags() {
 		throw new UnsupportedOperationException("CloudSim Tags cannot be instantiated");
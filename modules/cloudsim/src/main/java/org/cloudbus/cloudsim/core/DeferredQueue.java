@@ -8,15 +8,24 @@
 
 package org.cloudbus.cloudsim.core;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
+
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+import org.cloudbus.cloudsim.core.predicates.PredicateAny;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
 
 /**
- * This class implements the deferred event queue used by {@link Simulation}. The event queue uses a
- * linked list to store the events.
- * 
+ * This class implements the deferred event queue used by {@link Simulation}. The events are
+ * partitioned into one inbox per destination entity, so that an entity only looks at its own
+ * events. Each inbox is a linked list that keeps the events in temporal order, and counts its
+ * events by tag, so that the events matching a {@link PredicateType} are counted without a scan.
+ *
  * @author Marcos Dias de Assuncao
  * @since CloudSim Toolkit 1.0
  * @see Simulation
@@ -24,65 +33,254 @@ import java.util.ListIterator;
  */
 public class DeferredQueue {
 
-	/** The list. */
-	private final List<SimEvent> list = new LinkedList<SimEvent>();
+	/** The inboxes, indexed by destination entity id. */
+	private final List<Inbox> inboxes = new ArrayList<Inbox>();
 
-	/** The max time. */
-	private double maxTime = -1;
+	/** The total number of events in the queue. */
+	private int size = 0;
 
 	/**
 	 * Adds a new event to the queue. Adding a new event to the queue preserves the temporal order
 	 * of the events.
-	 * 
+	 *
 	 * @param newEvent The event to be added to the queue.
 	 */
 	public void addEvent(SimEvent newEvent) {
-		// The event has to be inserted as the last of all events
-		// with the same event_time(). Yes, this matters.
-		double eventTime = newEvent.eventTime();
-		if (eventTime >= maxTime) {
-			list.add(newEvent);
-			maxTime = eventTime;
-			return;
+		getInbox(newEvent.getDestination(), true).add(newEvent);
+		size++;
+	}
+
+	/**
+	 * Counts the events for a given destination that match a predicate.
+	 *
+	 * @param destination the id of the destination entity
+	 * @param p the predicate
+	 * @return the number of matching events
+	 */
+	public int count(int destination, Predicate p) {
+		Inbox inbox = getInbox(destination, false);
+		if (inbox == null || inbox.events.isEmpty()) {
+			return 0;
+		}
+		if (p.getClass() == PredicateAny.class) {
+			return inbox.events.size();
+		}
+		if (p.getClass() == PredicateType.class) {
+			PredicateType predicate = (PredicateType) p;
+			int count = 0;
+			for (int i = 0; i < predicate.getNumberOfTags(); i++) {
+				// a tag listed twice still matches each event once
+				boolean listedBefore = false;
+				for (int j = 0; j < i && !listedBefore; j++) {
+					listedBefore = predicate.getTag(j) == predicate.getTag(i);
+				}
+				if (!listedBefore) {
+					count += inbox.count(predicate.getTag(i));
+				}
+			}
+			return count;
 		}
 
-		ListIterator<SimEvent> iterator = list.listIterator();
-		SimEvent event;
-		while (iterator.hasNext()) {
-			event = iterator.next();
-			if (event.eventTime() > eventTime) {
-				iterator.previous();
-				iterator.add(newEvent);
-				return;
+		int count = 0;
+		for (SimEvent event : inbox.events) {
+			if (p.match(event)) {
+				count++;
 			}
 		}
+		return count;
+	}
+
+	/**
+	 * Finds the first event for a given destination that matches a predicate.
+	 *
+	 * @param destination the id of the destination entity
+	 * @param p the predicate
+	 * @param remove whether the event found has to be removed from the queue
+	 * @return the event, or <tt>null</tt> if no event matches
+	 */
+	public SimEvent findFirst(int destination, Predicate p, boolean remove) {
+		Inbox inbox = getInbox(destination, false);
+		if (inbox == null || inbox.events.isEmpty()) {
+			return null;
+		}
+		if (p.getClass() == PredicateType.class && count(destination, p) == 0) {
+			return null;
+		}
 
-		list.add(newEvent);
+		Iterator<SimEvent> iterator = inbox.events.iterator();
+		while (iterator.hasNext()) {
+			SimEvent event = iterator.next();
+			if (p.match(event)) {
+				if (remove) {
+					iterator.remove();
+					inbox.decrement(event.getTag());
+					size--;
+				}
+				return event;
+			}
+		}
+		return null;
 	}
 
 	/**
-	 * Returns an iterator to the events in the queue.
-	 * 
+	 * Returns an iterator to the events in the queue. The events of each destination are returned
+	 * in temporal order, one destination after the other.
+	 *
 	 * @return the iterator
 	 */
 	public Iterator<SimEvent> iterator() {
-		return list.iterator();
+		List<SimEvent> events = new ArrayList<SimEvent>(size);
+		for (Inbox inbox : inboxes) {
+			if (inbox != null) {
+				events.addAll(inbox.events);
+			}
+		}
+		return events.iterator();
 	}
 
 	/**
 	 * Returns the size of this event queue.
-	 * 
+	 *
 	 * @return the number of events in the queue.
 	 */
 	public int size() {
-		return list.size();
+		return size;
+	}
+
+	/**
+	 * Returns the number of events for a given destination.
+	 *
+	 * @param destination the id of the destination entity
+	 * @return the number of events in the inbox of the destination.
+	 */
+	public int size(int destination) {
+		Inbox inbox = getInbox(destination, false);
+		if (inbox == null) {
+			return 0;
+		}
+		return inbox.events.size();
 	}
 
 	/**
 	 * Clears the queue.
 	 */
 	public void clear() {
-		list.clear();
+		inboxes.clear();
+		size = 0;
+	}
+
+	/**
+	 * Gets the inbox of a destination.
+	 *
+	 * @param destination the id of the destination entity
+	 * @param create whether the inbox has to be created if it does not exist
+	 * @return the inbox, or <tt>null</tt> if it does not exist and has not been created
+	 */
+	private Inbox getInbox(int destination, boolean create) {
+		if (destination < 0) {
+			throw new IllegalArgumentException("Attempt to send to a null entity detected.");
+		}
+		if (destination < inboxes.size()) {
+			Inbox inbox = inboxes.get(destination);
+			if (inbox == null && create) {
+				inbox = new Inbox();
+				inboxes.set(destination, inbox);
+			}
+			return inbox;
+		}
+		if (!create) {
+			return null;
+		}
+		while (inboxes.size() < destination) {
+			inboxes.add(null);
+		}
+		Inbox inbox = new Inbox();
+		inboxes.add(inbox);
+		return inbox;
+	}
+
+	/**
+	 * The events of one destination entity.
+	 */
+	private static class Inbox {
+
+		/** The events, in temporal order. */
+		private final LinkedList<SimEvent> events = new LinkedList<SimEvent>();
+
+		/** The number of events per tag. */
+		private final Map<Integer, int[]> tagCounts = new HashMap<Integer, int[]>();
+
+		/** The max time. */
+		private double maxTime = -1;
+
+		/**
+		 * Adds an event after all the events with the same or an earlier time.
+		 *
+		 * @param newEvent the event
+		 */
+		public void add(SimEvent newEvent) {
+			increment(newEvent.getTag());
+
+			// The event has to be inserted as the last of all events
+			// with the same event_time(). Yes, this matters.
+			double eventTime = newEvent.eventTime();
+			if (eventTime >= maxTime) {
+				events.add(newEvent);
+				maxTime = eventTime;
+				return;
+			}
+
+			ListIterator<SimEvent> iterator = events.listIterator();
+			SimEvent event;
+			while (iterator.hasNext()) {
+				event = iterator.next();
+				if (event.eventTime() > eventTime) {
+					iterator.previous();
+					iterator.add(newEvent);
+					return;
+				}
+			}
+
+			events.add(newEvent);
+		}
+
+		/**
+		 * Gets the number of events with a given tag.
+		 *
+		 * @param tag the tag
+		 * @return the number of events
+		 */
+		public int count(int tag) {
+			int[] count = tagCounts.get(tag);
+			if (count == null) {
+				return 0;
+			}
+			return count[0];
+		}
+
+		/**
+		 * Increments the number of events with a given tag.
+		 *
+		 * @param tag the tag
+		 */
+		private void increment(int tag) {
+			int[] count = tagCounts.get(tag);
+			if (count == null) {
+				count = new int[1];
+				tagCounts.put(tag, count);
+			}
+			count[0]++;
+		}
+
+		/**
+		 * Decrements the number of events with a given tag.
+		 *
+		 * @param tag the tag
+		 */
+		public void decrement(int tag) {
+			tagCounts.get(tag)[0]--;
+		}
+
 	}
 
-}
\ No newline at end of file
+}
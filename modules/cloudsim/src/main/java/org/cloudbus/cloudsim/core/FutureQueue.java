@@ -8,92 +8,345 @@
 
 package org.cloudbus.cloudsim.core;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.SortedSet;
-import java.util.TreeSet;
+import java.util.List;
+
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+import org.cloudbus.cloudsim.util.LongHashMap;
 
 /**
- * This class implements the future event queue used by {@link Simulation}. The event queue uses a
- * {@link TreeSet} in order to store the events.
- * 
+ * FutureQueue is an abstract class that represents the future event queue used by {@link CloudSim}.
+ * It has to be extended by the concrete event queue implementations. Events are kept in the order
+ * defined by {@link SimEvent#compareTo(SimEvent)}, i.e. by event time and then by the serial
+ * number assigned when the event is added to the queue.
+ * <p>
+ * The pending events are also indexed by source entity and tag, to remove the events selected by
+ * a {@link PredicateType} without scanning the queue. The events with the same source and tag are
+ * chained through links kept in the events themselves, and the first event of each chain is found
+ * through a map with primitive keys, so that adding or polling an event does not allocate any
+ * memory apart from the occasional growth of the map.
+ *
  * @author Marcos Dias de Assuncao
  * @since CloudSim Toolkit 1.0
- * @see Simulation
- * @see java.util.TreeSet
+ * @see CloudSim
+ * @see FutureQueueTreeSet
+ * @see FutureQueueBinaryHeap
+ * @see FutureQueueCalendar
  */
-public class FutureQueue {
-
-	/** The sorted set. */
-	private final SortedSet<SimEvent> sortedSet = new TreeSet<SimEvent>();
+public abstract class FutureQueue {
 
 	/** The serial. */
 	private long serial = 0;
 
+	/** The serial of the events added to the head of the queue. */
+	private long firstSerial = Long.MIN_VALUE;
+
+	/** The first of the pending events with each source entity and tag, by index key. */
+	private final LongHashMap<SimEvent> sourceTagIndex = new LongHashMap<SimEvent>();
+
 	/**
 	 * Add a new event to the queue. Adding a new event to the queue preserves the temporal order of
 	 * the events in the queue.
-	 * 
+	 *
 	 * @param newEvent The event to be put in the queue.
 	 */
 	public void addEvent(SimEvent newEvent) {
 		newEvent.setSerial(serial++);
-		sortedSet.add(newEvent);
+		insert(newEvent);
+		addToIndex(newEvent);
 	}
 
 	/**
-	 * Add a new event to the head of the queue.
-	 * 
+	 * Add a new event to the head of the queue. The event is placed before all the events with the
+	 * same time added by {@link #addEvent(SimEvent)}, and after the ones previously added by this
+	 * method.
+	 *
 	 * @param newEvent The event to be put in the queue.
 	 */
 	public void addEventFirst(SimEvent newEvent) {
-		newEvent.setSerial(0);
-		sortedSet.add(newEvent);
+		newEvent.setSerial(firstSerial++);
+		insert(newEvent);
+		addToIndex(newEvent);
 	}
 
 	/**
-	 * Returns an iterator to the queue.
-	 * 
-	 * @return the iterator
+	 * Removes and returns the first event of the queue.
+	 *
+	 * @return the first event, or <tt>null</tt> if the queue is empty
 	 */
-	public Iterator<SimEvent> iterator() {
-		return sortedSet.iterator();
+	public SimEvent poll() {
+		SimEvent first = pollFirst();
+		if (first != null) {
+			removeFromIndex(first);
+		}
+		return first;
 	}
 
 	/**
-	 * Returns the size of this event queue.
-	 * 
-	 * @return the size
+	 * Removes all the events of the head of the queue that happen at a given time, in temporal
+	 * order, and appends them to a buffer. The buffer is not cleared, so that the caller can reuse
+	 * it between calls.
+	 *
+	 * @param time the time of the events to be removed, usually the time of the first event
+	 * @param buffer the list to which the removed events are appended
+	 * @return the number of events removed
 	 */
-	public int size() {
-		return sortedSet.size();
+	public int pollAllAt(double time, List<SimEvent> buffer) {
+		int start = buffer.size();
+		int count = pollAllFirstAt(time, buffer);
+		for (int i = start; i < start + count; i++) {
+			removeFromIndex(buffer.get(i));
+		}
+		return count;
 	}
 
 	/**
 	 * Removes the event from the queue.
-	 * 
+	 *
 	 * @param event the event
 	 * @return true, if successful
 	 */
 	public boolean remove(SimEvent event) {
-		return sortedSet.remove(event);
+		if (!delete(event)) {
+			return false;
+		}
+		removeFromIndex(event);
+		return true;
 	}
 
 	/**
 	 * Removes all the events from the queue.
-	 * 
+	 *
 	 * @param events the events
 	 * @return true, if successful
 	 */
 	public boolean removeAll(Collection<SimEvent> events) {
-		return sortedSet.removeAll(events);
+		boolean result = false;
+		for (SimEvent event : events) {
+			result |= remove(event);
+		}
+		return result;
+	}
+
+	/**
+	 * Removes the first event sent by a given entity that matches a predicate. The events selected
+	 * by a {@link PredicateType} are found through an index by source and tag, without scanning the
+	 * queue.
+	 *
+	 * @param source the id of the entity that sent the event
+	 * @param p the predicate
+	 * @return the removed event, or <tt>null</tt> if no event matches
+	 */
+	public SimEvent removeFirst(int source, Predicate p) {
+		SimEvent first = null;
+		if (p.getClass() == PredicateType.class) {
+			PredicateType predicate = (PredicateType) p;
+			for (int i = 0; i < predicate.getNumberOfTags(); i++) {
+				SimEvent event = sourceTagIndex.get(getIndexKey(source, predicate.getTag(i)));
+				for (; event != null; event = event.getNextInIndex()) {
+					if (first == null || event.compareTo(first) < 0) {
+						first = event;
+					}
+				}
+			}
+		} else {
+			Iterator<SimEvent> iterator = iterator();
+			while (iterator.hasNext()) {
+				SimEvent event = iterator.next();
+				if (event.getSource() == source && p.match(event)
+						&& (first == null || event.compareTo(first) < 0)) {
+					first = event;
+				}
+			}
+		}
+
+		if (first != null) {
+			remove(first);
+		}
+		return first;
+	}
+
+	/**
+	 * Removes all the events sent by a given entity that match a predicate. The events selected by
+	 * a {@link PredicateType} are found through an index by source and tag, without scanning the
+	 * queue.
+	 *
+	 * @param source the id of the entity that sent the events
+	 * @param p the predicate
+	 * @return the number of removed events
+	 */
+	public int removeAll(int source, Predicate p) {
+		List<SimEvent> matching = new ArrayList<SimEvent>();
+		if (p.getClass() == PredicateType.class) {
+			PredicateType predicate = (PredicateType) p;
+			for (int i = 0; i < predicate.getNumberOfTags(); i++) {
+				SimEvent event = sourceTagIndex.get(getIndexKey(source, predicate.getTag(i)));
+				for (; event != null; event = event.getNextInIndex()) {
+					matching.add(event);
+				}
+			}
+		} else {
+			Iterator<SimEvent> iterator = iterator();
+			while (iterator.hasNext()) {
+				SimEvent event = iterator.next();
+				if (event.getSource() == source && p.match(event)) {
+					matching.add(event);
+				}
+			}
+		}
+
+		int count = 0;
+		for (SimEvent event : matching) {
+			if (remove(event)) {
+				count++;
+			}
+		}
+		return count;
 	}
 
 	/**
 	 * Clears the queue.
 	 */
 	public void clear() {
-		sortedSet.clear();
+		LongHashMap.Cursor<SimEvent> cursor = sourceTagIndex.cursor();
+		while (cursor.next()) {
+			SimEvent event = cursor.value();
+			while (event != null) {
+				SimEvent next = event.getNextInIndex();
+				event.setPreviousInIndex(null);
+				event.setNextInIndex(null);
+				event = next;
+			}
+		}
+		deleteAll();
+		sourceTagIndex.clear();
+	}
+
+	/**
+	 * Removes an event, taken from the queue by an implementation, from the index by source and
+	 * tag. It has to be called by the implementations that remove events without going through the
+	 * methods of this class, e.g. through an iterator.
+	 *
+	 * @param event the event
+	 */
+	protected void removeFromIndex(SimEvent event) {
+		SimEvent previous = event.getPreviousInIndex();
+		SimEvent next = event.getNextInIndex();
+		if (previous != null) {
+			previous.setNextInIndex(next);
+		} else {
+			long key = getIndexKey(event.getSource(), event.getTag());
+			if (sourceTagIndex.get(key) != event) {
+				// not in the index, e.g. already removed
+				return;
+			}
+			if (next != null) {
+				sourceTagIndex.put(key, next);
+			} else {
+				sourceTagIndex.remove(key);
+			}
+		}
+		if (next != null) {
+			next.setPreviousInIndex(previous);
+		}
+		event.setPreviousInIndex(null);
+		event.setNextInIndex(null);
+	}
+
+	/**
+	 * Adds an event to the index by source and tag.
+	 *
+	 * @param event the event
+	 */
+	private void addToIndex(SimEvent event) {
+		SimEvent next = sourceTagIndex.put(getIndexKey(event.getSource(), event.getTag()), event);
+		event.setPreviousInIndex(null);
+		event.setNextInIndex(next);
+		if (next != null) {
+			next.setPreviousInIndex(event);
+		}
+	}
+
+	/**
+	 * Gets the key of the index by source and tag.
+	 *
+	 * @param source the source entity id
+	 * @param tag the tag
+	 * @return the key
+	 */
+	private static long getIndexKey(int source, int tag) {
+		return ((long) source << 32) | (tag & 0xFFFFFFFFL);
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Removes all the events of the head of the queue that happen at a given time and appends them
+	 * to a buffer. Implementations may override it to take the events in a single pass.
+	 *
+	 * @param time the time of the events to be removed
+	 * @param buffer the list to which the removed events are appended
+	 * @return the number of events removed
+	 */
+	protected int pollAllFirstAt(double time, List<SimEvent> buffer) {
+		int count = 0;
+		SimEvent first = peek();
+		while (first != null && first.eventTime() == time) {
+			buffer.add(pollFirst());
+			count++;
+			first = peek();
+		}
+		return count;
+	}
+
+	/**
+	 * Inserts an event, whose serial has already been set, into the queue.
+	 *
+	 * @param event the event
+	 */
+	protected abstract void insert(SimEvent event);
+
+	/**
+	 * Removes and returns the first event of the queue.
+	 *
+	 * @return the first event, or <tt>null</tt> if the queue is empty
+	 */
+	protected abstract SimEvent pollFirst();
+
+	/**
+	 * Removes an event from the queue.
+	 *
+	 * @param event the event
+	 * @return true, if the event was in the queue
+	 */
+	protected abstract boolean delete(SimEvent event);
+
+	/**
+	 * Removes all the events from the queue.
+	 */
+	protected abstract void deleteAll();
+
+	/**
+	 * Returns the first event of the queue without removing it.
+	 *
+	 * @return the first event, or <tt>null</tt> if the queue is empty
+	 */
+	public abstract SimEvent peek();
+
+	/**
+	 * Returns an iterator to the queue. The order of the iteration is specific to the
+	 * implementation; events have to be taken in temporal order through {@link #poll()}.
+	 *
+	 * @return the iterator
+	 */
+	public abstract Iterator<SimEvent> iterator();
+
+	/**
+	 * Returns the size of this event queue.
+	 *
+	 * @return the size
+	 */
+	public abstract int size();
+
+}
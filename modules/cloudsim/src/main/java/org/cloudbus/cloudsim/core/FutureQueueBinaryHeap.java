@@ -0,0 +1,220 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This class implements the future event queue used by {@link CloudSim} as an array-based binary
+ * min-heap. Each event keeps its position in the heap, so that removing an arbitrary event does not
+ * require a search. Unlike {@link FutureQueueTreeSet}, adding an event does not allocate any
+ * memory apart from the occasional growth of the array and of the index by source and tag of
+ * {@link FutureQueue}.
+ *
+ * @since CloudSim Toolkit 3.1
+ * @see CloudSim
+ * @see FutureQueue
+ */
+public class FutureQueueBinaryHeap extends FutureQueue {
+
+	/** The default initial capacity of the heap. */
+	private static final int DEFAULT_CAPACITY = 64;
+
+	/** The heap. */
+	private SimEvent[] heap;
+
+	/** The number of events in the heap. */
+	private int size;
+
+	/**
+	 * Instantiates a new binary heap future queue.
+	 */
+	public FutureQueueBinaryHeap() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Instantiates a new binary heap future queue.
+	 *
+	 * @param initialCapacity the initial capacity of the heap
+	 */
+	public FutureQueueBinaryHeap(int initialCapacity) {
+		heap = new SimEvent[Math.max(1, initialCapacity)];
+		size = 0;
+	}
+
+	@Override
+	protected void insert(SimEvent event) {
+		if (size == heap.length) {
+			heap = Arrays.copyOf(heap, heap.length * 2);
+		}
+		siftUp(size++, event);
+	}
+
+	@Override
+	public SimEvent peek() {
+		if (size == 0) {
+			return null;
+		}
+		return heap[0];
+	}
+
+	@Override
+	protected SimEvent pollFirst() {
+		if (size == 0) {
+			return null;
+		}
+		SimEvent first = heap[0];
+		removeAt(0);
+		return first;
+	}
+
+	@Override
+	public Iterator<SimEvent> iterator() {
+		return new HeapIterator(Arrays.copyOf(heap, size));
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	protected boolean delete(SimEvent event) {
+		int index = event.getQueueIndex();
+		if (index < 0 || index >= size || heap[index] != event) {
+			return false;
+		}
+		removeAt(index);
+		return true;
+	}
+
+	@Override
+	protected void deleteAll() {
+		for (int i = 0; i < size; i++) {
+			heap[i].setQueueIndex(-1);
+			heap[i] = null;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Removes the event at a given position of the heap.
+	 *
+	 * @param index the position
+	 */
+	private void removeAt(int index) {
+		heap[index].setQueueIndex(-1);
+		int last = --size;
+		SimEvent moved = heap[last];
+		heap[last] = null;
+		if (index == last) {
+			return;
+		}
+		siftDown(index, moved);
+		if (heap[index] == moved) {
+			siftUp(index, moved);
+		}
+	}
+
+	/**
+	 * Moves an event up the heap, starting from a given position, until its parent precedes it.
+	 *
+	 * @param index the starting position
+	 * @param event the event
+	 */
+	private void siftUp(int index, SimEvent event) {
+		while (index > 0) {
+			int parent = (index - 1) >>> 1;
+			SimEvent parentEvent = heap[parent];
+			if (event.compareTo(parentEvent) >= 0) {
+				break;
+			}
+			heap[index] = parentEvent;
+			parentEvent.setQueueIndex(index);
+			index = parent;
+		}
+		heap[index] = event;
+		event.setQueueIndex(index);
+	}
+
+	/**
+	 * Moves an event down the heap, starting from a given position, until it precedes its children.
+	 *
+	 * @param index the starting position
+	 * @param event the event
+	 */
+	private void siftDown(int index, SimEvent event) {
+		int half = size >>> 1;
+		while (index < half) {
+			int child = 2 * index + 1;
+			SimEvent childEvent = heap[child];
+			int right = child + 1;
+			if (right < size && heap[right].compareTo(childEvent) < 0) {
+				child = right;
+				childEvent = heap[right];
+			}
+			if (event.compareTo(childEvent) <= 0) {
+				break;
+			}
+			heap[index] = childEvent;
+			childEvent.setQueueIndex(index);
+			index = child;
+		}
+		heap[index] = event;
+		event.setQueueIndex(index);
+	}
+
+	/**
+	 * An iterator over a snapshot of the heap. Removing an event through the iterator removes it
+	 * from the queue.
+	 */
+	private class HeapIterator implements Iterator<SimEvent> {
+
+		/** The snapshot. */
+		private final SimEvent[] events;
+
+		/** The position of the next event. */
+		private int cursor = 0;
+
+		/**
+		 * Instantiates a new heap iterator.
+		 *
+		 * @param events the snapshot of the heap
+		 */
+		public HeapIterator(SimEvent[] events) {
+			this.events = events;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return cursor < events.length;
+		}
+
+		@Override
+		public SimEvent next() {
+			if (cursor >= events.length) {
+				throw new NoSuchElementException();
+			}
+			return events[cursor++];
+		}
+
+		@Override
+		public void remove() {
+			if (cursor == 0) {
+				throw new IllegalStateException();
+			}
+			FutureQueueBinaryHeap.this.remove(events[cursor - 1]);
+		}
+
+	}
+
+}
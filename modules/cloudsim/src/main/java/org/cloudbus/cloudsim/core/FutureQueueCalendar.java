@@ -0,0 +1,509 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * This class implements the future event queue used by {@link CloudSim} as a calendar queue (R.
+ * Brown, "Calendar queues: a fast O(1) priority queue implementation for the simulation event set
+ * problem", Communications of the ACM, 1988). Events are hashed by time into an array of buckets
+ * ("days") of a fixed width; a bucket holds the events of all the "years" that fall into it, sorted.
+ * The number of buckets and their width are recomputed when the queue grows or shrinks, so that
+ * adding and taking an event cost O(1) on average.
+ * <p>
+ * The bucket of an event is derived from an integer day number, which is computed from the event
+ * time, so the temporal order of the events is never affected by rounding errors.
+ *
+ * @since CloudSim Toolkit 3.1
+ * @see CloudSim
+ * @see FutureQueue
+ */
+public class FutureQueueCalendar extends FutureQueue {
+
+	/** The minimum number of buckets. */
+	private static final int MIN_BUCKETS = 16;
+
+	/** The maximum number of events sampled to estimate the bucket width. */
+	private static final int WIDTH_SAMPLE_SIZE = 25;
+
+	/** The default bucket width. */
+	private static final double DEFAULT_WIDTH = 1.0;
+
+	/** The buckets. */
+	private Bucket[] buckets;
+
+	/** The mask used to map day numbers to buckets. */
+	private int mask;
+
+	/** The width of a bucket. */
+	private double width;
+
+	/** The day number of the first event; no event in the queue has a lower day number. */
+	private long currentDay;
+
+	/** The number of events in the queue. */
+	private int size;
+
+	/**
+	 * Instantiates a new calendar future queue.
+	 */
+	public FutureQueueCalendar() {
+		this(DEFAULT_WIDTH);
+	}
+
+	/**
+	 * Instantiates a new calendar future queue.
+	 *
+	 * @param initialWidth the initial width of a bucket, in simulation time units. It is adapted
+	 *            to the distribution of the event times as the queue is resized.
+	 */
+	public FutureQueueCalendar(double initialWidth) {
+		if (initialWidth <= 0) {
+			throw new IllegalArgumentException("The bucket width should be positive, but is:" + initialWidth);
+		}
+		width = initialWidth;
+		createBuckets(MIN_BUCKETS);
+		size = 0;
+		currentDay = 0;
+	}
+
+	@Override
+	protected void insert(SimEvent event) {
+		long day = getDay(event.eventTime());
+		if (size == 0 || day < currentDay) {
+			currentDay = day;
+		}
+		getBucket(day).add(event);
+		size++;
+		if (size > 2 * buckets.length) {
+			resize(2 * buckets.length);
+		}
+	}
+
+	@Override
+	public SimEvent peek() {
+		Bucket bucket = findFirstBucket();
+		if (bucket == null) {
+			return null;
+		}
+		return bucket.first();
+	}
+
+	@Override
+	protected SimEvent pollFirst() {
+		Bucket bucket = findFirstBucket();
+		if (bucket == null) {
+			return null;
+		}
+		SimEvent first = bucket.pollFirst();
+		size--;
+		shrinkIfNeeded();
+		return first;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * All the events that happen at the same time are in the same bucket, one after the other, so
+	 * they are removed in a single pass over the bucket.
+	 */
+	@Override
+	protected int pollAllFirstAt(double time, List<SimEvent> buffer) {
+		Bucket bucket = findFirstBucket();
+		int count = 0;
+		while (bucket != null && !bucket.isEmpty() && bucket.first().eventTime() == time) {
+			buffer.add(bucket.pollFirst());
+			count++;
+		}
+		if (count > 0) {
+			size -= count;
+			shrinkIfNeeded();
+		}
+		return count;
+	}
+
+	@Override
+	public Iterator<SimEvent> iterator() {
+		return new CalendarIterator(toArray());
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	protected boolean delete(SimEvent event) {
+		if (size == 0 || !getBucket(getDay(event.eventTime())).remove(event)) {
+			return false;
+		}
+		size--;
+		shrinkIfNeeded();
+		return true;
+	}
+
+	@Override
+	protected void deleteAll() {
+		createBuckets(MIN_BUCKETS);
+		size = 0;
+		currentDay = 0;
+	}
+
+	/**
+	 * Gets the day number of a given time.
+	 *
+	 * @param time the time
+	 * @return the day number
+	 */
+	private long getDay(double time) {
+		return (long) Math.floor(time / width);
+	}
+
+	/**
+	 * Gets the bucket of a given day.
+	 *
+	 * @param day the day number
+	 * @return the bucket
+	 */
+	private Bucket getBucket(long day) {
+		return buckets[(int) (day & mask)];
+	}
+
+	/**
+	 * Finds the bucket holding the first event of the queue, advancing the current day past the
+	 * days with no events.
+	 *
+	 * @return the bucket, or <tt>null</tt> if the queue is empty
+	 */
+	private Bucket findFirstBucket() {
+		if (size == 0) {
+			return null;
+		}
+
+		// Look for an event of the current day through one year of buckets
+		for (int i = 0; i < buckets.length; i++) {
+			Bucket bucket = getBucket(currentDay);
+			if (!bucket.isEmpty() && getDay(bucket.first().eventTime()) == currentDay) {
+				return bucket;
+			}
+			currentDay++;
+		}
+
+		// The next event is more than a year ahead: search all buckets directly
+		Bucket firstBucket = null;
+		for (Bucket bucket : buckets) {
+			if (!bucket.isEmpty()
+					&& (firstBucket == null || bucket.first().compareTo(firstBucket.first()) < 0)) {
+				firstBucket = bucket;
+			}
+		}
+		currentDay = getDay(firstBucket.first().eventTime());
+		return firstBucket;
+	}
+
+	/**
+	 * Halves the number of buckets if the queue holds less than half an event per bucket.
+	 */
+	private void shrinkIfNeeded() {
+		if (buckets.length > MIN_BUCKETS && size < buckets.length / 2) {
+			resize(buckets.length / 2);
+		}
+	}
+
+	/**
+	 * Creates empty buckets.
+	 *
+	 * @param numberOfBuckets the number of buckets, a power of 2
+	 */
+	private void createBuckets(int numberOfBuckets) {
+		buckets = new Bucket[numberOfBuckets];
+		for (int i = 0; i < numberOfBuckets; i++) {
+			buckets[i] = new Bucket();
+		}
+		mask = numberOfBuckets - 1;
+	}
+
+	/**
+	 * Changes the number of buckets, estimates a new bucket width from the first events of the
+	 * queue and redistributes the events among the new buckets.
+	 *
+	 * @param numberOfBuckets the new number of buckets, a power of 2
+	 */
+	private void resize(int numberOfBuckets) {
+		int sampleSize = Math.min(size, WIDTH_SAMPLE_SIZE);
+		double[] sampleTimes = new double[sampleSize];
+		SimEvent[] events = new SimEvent[size];
+		for (int i = 0; i < sampleSize; i++) {
+			SimEvent event = findFirstBucket().pollFirst();
+			sampleTimes[i] = event.eventTime();
+			events[i] = event;
+		}
+		int count = sampleSize;
+		for (Bucket bucket : buckets) {
+			count = bucket.drainTo(events, count);
+		}
+
+		width = estimateWidth(sampleTimes);
+		createBuckets(numberOfBuckets);
+		for (SimEvent event : events) {
+			getBucket(getDay(event.eventTime())).add(event);
+		}
+		if (size > 0) {
+			currentDay = getDay(events[0].eventTime());
+		}
+	}
+
+	/**
+	 * Estimates the bucket width as three times the average separation between consecutive sampled
+	 * event times, ignoring separations larger than twice the overall average.
+	 *
+	 * @param times the sorted times of the first events of the queue
+	 * @return the new width; the current one if the sample is too small or all times are equal
+	 */
+	private double estimateWidth(double[] times) {
+		if (times.length < 2) {
+			return width;
+		}
+		double average = (times[times.length - 1] - times[0]) / (times.length - 1);
+		if (average <= 0) {
+			return width;
+		}
+		double sum = 0;
+		int count = 0;
+		for (int i = 1; i < times.length; i++) {
+			double separation = times[i] - times[i - 1];
+			if (separation <= 2 * average) {
+				sum += separation;
+				count++;
+			}
+		}
+		if (count == 0 || sum <= 0) {
+			return 3 * average;
+		}
+		return 3 * sum / count;
+	}
+
+	/**
+	 * Copies the events of the queue to an array.
+	 *
+	 * @return the array of events, in no particular order
+	 */
+	private SimEvent[] toArray() {
+		SimEvent[] events = new SimEvent[size];
+		int count = 0;
+		for (Bucket bucket : buckets) {
+			count = bucket.copyTo(events, count);
+		}
+		return events;
+	}
+
+	/**
+	 * A bucket of the calendar. The events are kept sorted in a growable array with a movable
+	 * head, so that taking the first event and appending an event that comes after all the others,
+	 * which are the most frequent operations, cost O(1).
+	 */
+	private static class Bucket {
+
+		/** The events; the valid ones are in the range [head, tail). */
+		private SimEvent[] events = new SimEvent[4];
+
+		/** The position of the first event. */
+		private int head = 0;
+
+		/** The position after the last event. */
+		private int tail = 0;
+
+		/**
+		 * Checks if the bucket is empty.
+		 *
+		 * @return true, if it is empty
+		 */
+		public boolean isEmpty() {
+			return head == tail;
+		}
+
+		/**
+		 * Gets the first event of the bucket.
+		 *
+		 * @return the first event
+		 */
+		public SimEvent first() {
+			return events[head];
+		}
+
+		/**
+		 * Removes and returns the first event of the bucket.
+		 *
+		 * @return the first event
+		 */
+		public SimEvent pollFirst() {
+			SimEvent first = events[head];
+			events[head++] = null;
+			if (head == tail) {
+				head = 0;
+				tail = 0;
+			}
+			return first;
+		}
+
+		/**
+		 * Adds an event keeping the bucket sorted.
+		 *
+		 * @param event the event
+		 */
+		public void add(SimEvent event) {
+			if (tail == events.length) {
+				makeRoom();
+			}
+			if (head == tail || events[tail - 1].compareTo(event) < 0) {
+				events[tail++] = event;
+				return;
+			}
+			int position = search(event);
+			System.arraycopy(events, position, events, position + 1, tail - position);
+			events[position] = event;
+			tail++;
+		}
+
+		/**
+		 * Removes an event from the bucket.
+		 *
+		 * @param event the event
+		 * @return true, if the event was in the bucket
+		 */
+		public boolean remove(SimEvent event) {
+			int position = search(event);
+			if (position == tail || events[position] != event) {
+				return false;
+			}
+			if (position == head) {
+				pollFirst();
+				return true;
+			}
+			System.arraycopy(events, position + 1, events, position, tail - position - 1);
+			events[--tail] = null;
+			return true;
+		}
+
+		/**
+		 * Moves all the events of the bucket to an array.
+		 *
+		 * @param destination the array
+		 * @param offset the position of the array where the first event is put
+		 * @return the position after the last event put in the array
+		 */
+		public int drainTo(SimEvent[] destination, int offset) {
+			int end = copyTo(destination, offset);
+			Arrays.fill(events, head, tail, null);
+			head = 0;
+			tail = 0;
+			return end;
+		}
+
+		/**
+		 * Copies all the events of the bucket to an array.
+		 *
+		 * @param destination the array
+		 * @param offset the position of the array where the first event is put
+		 * @return the position after the last event put in the array
+		 */
+		public int copyTo(SimEvent[] destination, int offset) {
+			System.arraycopy(events, head, destination, offset, tail - head);
+			return offset + tail - head;
+		}
+
+		/**
+		 * Finds the position of the first event that does not precede a given one.
+		 *
+		 * @param event the event
+		 * @return the position, in the range [head, tail]
+		 */
+		private int search(SimEvent event) {
+			int low = head;
+			int high = tail;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (events[middle].compareTo(event) < 0) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			return low;
+		}
+
+		/**
+		 * Makes room for one more event at the end of the array, either by moving the events to the
+		 * beginning of the array or by growing it.
+		 */
+		private void makeRoom() {
+			int count = tail - head;
+			if (head > 0 && count < events.length / 2) {
+				System.arraycopy(events, head, events, 0, count);
+				Arrays.fill(events, count, tail, null);
+			} else {
+				SimEvent[] grown = new SimEvent[events.length * 2];
+				System.arraycopy(events, head, grown, 0, count);
+				events = grown;
+			}
+			head = 0;
+			tail = count;
+		}
+
+	}
+
+	/**
+	 * An iterator over a snapshot of the queue. Removing an event through the iterator removes it
+	 * from the queue.
+	 */
+	private class CalendarIterator implements Iterator<SimEvent> {
+
+		/** The snapshot. */
+		private final SimEvent[] events;
+
+		/** The position of the next event. */
+		private int cursor = 0;
+
+		/**
+		 * Instantiates a new calendar iterator.
+		 *
+		 * @param events the snapshot of the queue
+		 */
+		public CalendarIterator(SimEvent[] events) {
+			this.events = events;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return cursor < events.length;
+		}
+
+		@Override
+		public SimEvent next() {
+			if (cursor >= events.length) {
+				throw new NoSuchElementException();
+			}
+			return events[cursor++];
+		}
+
+		@Override
+		public void remove() {
+			if (cursor == 0) {
+				throw new IllegalStateException();
+			}
+			FutureQueueCalendar.this.remove(events[cursor - 1]);
+		}
+
+	}
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Iterator;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * This class implements the future event queue used by {@link CloudSim}. The event queue uses a
+ * {@link TreeSet} in order to store the events. It is the reference implementation of
+ * {@link FutureQueue}: its iterator returns the events in temporal order.
+ *
+ * @author Marcos Dias de Assuncao
+ * @since CloudSim Toolkit 1.0
+ * @see CloudSim
+ * @see java.util.TreeSet
+ */
+public class FutureQueueTreeSet extends FutureQueue {
+
+	/** The sorted set. */
+	private final SortedSet<SimEvent> sortedSet = new TreeSet<SimEvent>();
+
+	@Override
+	protected void insert(SimEvent event) {
+		sortedSet.add(event);
+	}
+
+	@Override
+	public SimEvent peek() {
+		if (sortedSet.isEmpty()) {
+			return null;
+		}
+		return sortedSet.first();
+	}
+
+	@Override
+	protected SimEvent pollFirst() {
+		if (sortedSet.isEmpty()) {
+			return null;
+		}
+		SimEvent first = sortedSet.first();
+		sortedSet.remove(first);
+		return first;
+	}
+
+	@Override
+	public Iterator<SimEvent> iterator() {
+		final Iterator<SimEvent> iterator = sortedSet.iterator();
+		return new Iterator<SimEvent>() {
+
+			/** The last event returned. */
+			private SimEvent last;
+
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			@Override
+			public SimEvent next() {
+				last = iterator.next();
+				return last;
+			}
+
+			@Override
+			public void remove() {
+				iterator.remove();
+				removeFromIndex(last);
+			}
+
+		};
+	}
+
+	@Override
+	public int size() {
+		return sortedSet.size();
+	}
+
+	@Override
+	protected boolean delete(SimEvent event) {
+		return sortedSet.remove(event);
+	}
+
+	@Override
+	protected void deleteAll() {
+		sortedSet.clear();
+	}
+
+}
@@ -40,6 +40,15 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 
 	private long serial = -1;
 
+	/** position of the event in the future queue, used by the array-based queues **/
+	private int queueIndex = -1;
+
+	/** previous pending event with the same source and tag, in the index of the future queue **/
+	private SimEvent previousInIndex;
+
+	/** next pending event with the same source and tag, in the index of the future queue **/
+	private SimEvent nextInIndex;
+
 	// Internal event types
 
 	public static final int ENULL = 0;
@@ -86,6 +95,62 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 		this.serial = serial;
 	}
 
+	/**
+	 * Gets the position of this event in the future queue.
+	 * 
+	 * @return the position, or -1 if the event is not in an array-based queue
+	 */
+	int getQueueIndex() {
+		return queueIndex;
+	}
+
+	/**
+	 * Sets the position of this event in the future queue.
+	 * 
+	 * @param queueIndex the position, or -1 if the event has been removed from the queue
+	 */
+	void setQueueIndex(int queueIndex) {
+		this.queueIndex = queueIndex;
+	}
+
+	/**
+	 * Gets the previous pending event with the same source and tag in the index of the future
+	 * queue.
+	 * 
+	 * @return the previous event, or null if this event is the first one or is not in the index
+	 */
+	SimEvent getPreviousInIndex() {
+		return previousInIndex;
+	}
+
+	/**
+	 * Sets the previous pending event with the same source and tag in the index of the future
+	 * queue.
+	 * 
+	 * @param previousInIndex the previous event, or null
+	 */
+	void setPreviousInIndex(SimEvent previousInIndex) {
+		this.previousInIndex = previousInIndex;
+	}
+
+	/**
+	 * Gets the next pending event with the same source and tag in the index of the future queue.
+	 * 
+	 * @return the next event, or null if this event is the last one or is not in the index
+	 */
+	SimEvent getNextInIndex() {
+		return nextInIndex;
+	}
+
+	/**
+	 * Sets the next pending event with the same source and tag in the index of the future queue.
+	 * 
+	 * @param nextInIndex the next event, or null
+	 */
+	void setNextInIndex(SimEvent nextInIndex) {
+		this.nextInIndex = nextInIndex;
+	}
+
 	/**
 	 * Used to set the time at which this event finished waiting in the event
 	 * 
@@ -41,6 +41,25 @@ public class PredicateType extends Predicate {
 		this.tags = tags.clone();
 	}
 
+	/**
+	 * Gets the number of tags selected by this predicate.
+	 * 
+	 * @return the number of tags
+	 */
+	public int getNumberOfTags() {
+		return tags.length;
+	}
+
+	/**
+	 * Gets one of the tags selected by this predicate.
+	 * 
+	 * @param index the index of the tag
+	 * @return the tag
+	 */
+	public int getTag(int index) {
+		return tags[index];
+	}
+
 	/**
 	 * The match function called by <code>Sim_system</code>, not used directly by the user.
 	 * 
@@ -30,6 +30,9 @@ public class CloudletList {
 	 * @return the by id
 	 */
 	public static <T extends Cloudlet> T getById(List<T> cloudletList, int id) {
+		if (cloudletList instanceof IndexedCloudletList) {
+			return ((IndexedCloudletList<T>) cloudletList).getById(id);
+		}
 		for (T cloudlet : cloudletList) {
 			if (cloudlet.getCloudletId() == id) {
 				return cloudlet;
@@ -45,6 +48,9 @@ public class CloudletList {
 	 * @return - the position of the cloudlet with that id, or -1 otherwise.
 	 */
 	public static <T extends Cloudlet> int getPositionById(List<T> cloudletList, int id) {
+		if (cloudletList instanceof IndexedCloudletList) {
+			return ((IndexedCloudletList<T>) cloudletList).getPositionById(id);
+		}
 		int i = 0 ;
 	        for (T cloudlet : cloudletList) {
 			if (cloudlet.getCloudletId() == id) {
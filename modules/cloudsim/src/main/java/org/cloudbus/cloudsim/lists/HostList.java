@@ -32,6 +32,9 @@ public class HostList {
 	 * @post $none
 	 */
 	public static <T extends Host> T getById(List<T> hostList, int id) {
+		if (hostList instanceof IndexedHostList) {
+			return ((IndexedHostList<T>) hostList).getById(id);
+		}
 		for (T host : hostList) {
 			if (host.getId() == id) {
 				return host;
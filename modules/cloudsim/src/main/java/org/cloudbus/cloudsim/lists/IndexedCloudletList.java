@@ -0,0 +1,34 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.lists;
+
+import org.cloudbus.cloudsim.Cloudlet;
+
+/**
+ * IndexedCloudletList is a list of cloudlets indexed by cloudlet id, which {@link CloudletList}
+ * searches in constant time.
+ *
+ * @param <T> the type of the cloudlets
+ * @since CloudSim Toolkit 3.1
+ */
+public class IndexedCloudletList<T extends Cloudlet> extends IndexedList<T> {
+
+	/**
+	 * Instantiates a new empty list of cloudlets.
+	 */
+	public IndexedCloudletList() {
+		super(Cloudlet.class);
+	}
+
+	@Override
+	protected int getId(T cloudlet) {
+		return cloudlet.getCloudletId();
+	}
+
+}
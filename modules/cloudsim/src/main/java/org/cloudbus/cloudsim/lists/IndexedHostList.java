@@ -0,0 +1,46 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.lists;
+
+import java.util.Collection;
+
+import org.cloudbus.cloudsim.Host;
+
+/**
+ * IndexedHostList is a list of hosts indexed by host id, which {@link HostList} searches in
+ * constant time.
+ *
+ * @param <T> the type of the hosts
+ * @since CloudSim Toolkit 3.1
+ */
+public class IndexedHostList<T extends Host> extends IndexedList<T> {
+
+	/**
+	 * Instantiates a new empty list of hosts.
+	 */
+	public IndexedHostList() {
+		super(Host.class);
+	}
+
+	/**
+	 * Instantiates a new list of hosts holding the hosts of a collection, in its order.
+	 *
+	 * @param hosts the hosts
+	 */
+	public IndexedHostList(Collection<? extends T> hosts) {
+		this();
+		addAll(hosts);
+	}
+
+	@Override
+	protected int getId(T host) {
+		return host.getId();
+	}
+
+}
@@ -0,0 +1,289 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.lists;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * IndexedList is an array list that keeps its elements indexed by id, so that finding an element
+ * by id takes constant time, as does checking whether the list contains an element. Accessing an
+ * element by position takes constant time too, and the position of an id or of an element is found
+ * in constant time as long as the list is only appended to; otherwise the positions are rebuilt in
+ * linear time when next needed. Removing an element takes linear time, as in an array list: the
+ * elements after it are shifted, as the list keeps its order, in which the VMs of a host are
+ * updated for instance. The elements are compared by identity. Several elements may have the same
+ * id, such as the VMs of different users, in which case finding them takes linear time.
+ *
+ * @param <T> the type of the elements
+ * @since CloudSim Toolkit 3.1
+ */
+public abstract class IndexedList<T> extends AbstractList<T> implements RandomAccess {
+
+	/** The type of the elements. */
+	private final Class<? super T> type;
+
+	/** The elements. */
+	private final List<T> elements = new ArrayList<T>();
+
+	/** The elements, indexed by id; the element of an id in {@link #duplicates} may be any. */
+	private final Map<Integer, T> elementsById = new HashMap<Integer, T>();
+
+	/**
+	 * The number of elements of the ids found more than once, or that have been and whose element
+	 * is not known yet.
+	 */
+	private final Map<Integer, Integer> duplicates = new HashMap<Integer, Integer>();
+
+	/** The position of the element of each id, or null if it needs to be rebuilt. */
+	private Map<Integer, Integer> positions;
+
+	/**
+	 * Instantiates a new indexed list.
+	 *
+	 * @param type the type of the elements
+	 */
+	protected IndexedList(Class<? super T> type) {
+		this.type = type;
+	}
+
+	/**
+	 * Gets the id of an element.
+	 *
+	 * @param element the element
+	 * @return the id
+	 */
+	protected abstract int getId(T element);
+
+	/**
+	 * Gets the first element with a given id.
+	 *
+	 * @param id the id
+	 * @return the element, or null if the list does not contain an element with this id
+	 */
+	public T getById(int id) {
+		Integer count = duplicates.get(id);
+		if (count == null) {
+			return elementsById.get(id);
+		}
+		for (T element : elements) {
+			if (getId(element) == id) {
+				if (count == 1) {
+					duplicates.remove(id);
+					elementsById.put(id, element);
+				}
+				return element;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the position of the first element with a given id.
+	 *
+	 * @param id the id
+	 * @return the position, or -1 if the list does not contain an element with this id
+	 */
+	public int getPositionById(int id) {
+		if (!elementsById.containsKey(id)) {
+			return -1;
+		}
+		if (duplicates.containsKey(id)) {
+			for (int i = 0; i < elements.size(); i++) {
+				if (getId(elements.get(i)) == id) {
+					return i;
+				}
+			}
+		}
+		if (positions == null) {
+			positions = new HashMap<Integer, Integer>();
+			for (int i = elements.size() - 1; i >= 0; i--) {
+				positions.put(getId(elements.get(i)), i);
+			}
+		}
+		return positions.get(id);
+	}
+
+	/**
+	 * Checks whether the list may contain several elements with a given id, in which case
+	 * {@link #getById(int)} searches for the first of them.
+	 *
+	 * @param id the id
+	 * @return true if the id may be shared
+	 */
+	protected boolean isDuplicate(int id) {
+		return duplicates.containsKey(id);
+	}
+
+	@Override
+	public T get(int index) {
+		return elements.get(index);
+	}
+
+	@Override
+	public int size() {
+		return elements.size();
+	}
+
+	@Override
+	public T set(int index, T element) {
+		T previous = elements.set(index, element);
+		unindex(previous);
+		index(element);
+		positions = null;
+		return previous;
+	}
+
+	@Override
+	public void add(int index, T element) {
+		elements.add(index, element);
+		index(element);
+		if (index < elements.size() - 1) {
+			positions = null;
+		} else if (positions != null) {
+			positions.put(getId(element), index);
+		}
+		modCount++;
+	}
+
+	@Override
+	public T remove(int index) {
+		T element = elements.remove(index);
+		unindex(element);
+		positions = null;
+		modCount++;
+		return element;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		if (!type.isInstance(o)) {
+			return false;
+		}
+		@SuppressWarnings("unchecked")
+		int id = getId((T) o);
+		Integer count = duplicates.get(id);
+		if (count != null && count > 1) {
+			return elements.contains(o);
+		}
+		return getById(id) == o;
+	}
+
+	@Override
+	public int indexOf(Object o) {
+		if (!contains(o)) {
+			return -1;
+		}
+		@SuppressWarnings("unchecked")
+		int id = getId((T) o);
+		if (!isDuplicate(id)) {
+			return getPositionById(id);
+		}
+		for (int i = 0; i < elements.size(); i++) {
+			if (elements.get(i) == o) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		int index = indexOf(o);
+		if (index < 0) {
+			return false;
+		}
+		remove(index);
+		return true;
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		return filter(c, false);
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		return filter(c, true);
+	}
+
+	@Override
+	public void clear() {
+		elements.clear();
+		elementsById.clear();
+		duplicates.clear();
+		positions = null;
+		modCount++;
+	}
+
+	/**
+	 * Keeps the elements that a collection contains, or those it does not contain, in a single
+	 * pass over the list.
+	 *
+	 * @param c the collection
+	 * @param retain true to keep the elements contained in the collection
+	 * @return true if the list has changed
+	 */
+	private boolean filter(Collection<?> c, boolean retain) {
+		List<T> kept = new ArrayList<T>(elements.size());
+		for (T element : elements) {
+			if (c.contains(element) == retain) {
+				kept.add(element);
+			}
+		}
+		if (kept.size() == elements.size()) {
+			return false;
+		}
+		clear();
+		for (T element : kept) {
+			elements.add(element);
+			index(element);
+		}
+		return true;
+	}
+
+	/**
+	 * Adds an element of the list to the index.
+	 *
+	 * @param element the element
+	 */
+	private void index(T element) {
+		int id = getId(element);
+		if (!elementsById.containsKey(id)) {
+			elementsById.put(id, element);
+			return;
+		}
+		Integer count = duplicates.get(id);
+		duplicates.put(id, count == null ? 2 : count + 1);
+	}
+
+	/**
+	 * Removes an element no longer in the list from the index. When a single element is left with
+	 * its id, it is only searched for when next needed, as setting the elements one by one, as in a
+	 * sort, shortly leaves many elements in two positions.
+	 *
+	 * @param element the element
+	 */
+	private void unindex(T element) {
+		int id = getId(element);
+		Integer count = duplicates.get(id);
+		if (count == null || count == 1) {
+			duplicates.remove(id);
+			elementsById.remove(id);
+		} else {
+			duplicates.put(id, count - 1);
+		}
+	}
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.lists;
+
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * IndexedVmList is a list of VMs indexed by VM id, which {@link VmList} searches in constant time.
+ *
+ * @param <T> the type of the VMs
+ * @since CloudSim Toolkit 3.1
+ */
+public class IndexedVmList<T extends Vm> extends IndexedList<T> {
+
+	/**
+	 * Instantiates a new empty list of VMs.
+	 */
+	public IndexedVmList() {
+		super(Vm.class);
+	}
+
+	/**
+	 * Gets the first VM with a given id and user id.
+	 *
+	 * @param id the VM id
+	 * @param userId the user id
+	 * @return the VM, or null if the list does not contain a VM with these ids
+	 */
+	public T getByIdAndUserId(int id, int userId) {
+		if (!isDuplicate(id)) {
+			T vm = getById(id);
+			return vm != null && vm.getUserId() == userId ? vm : null;
+		}
+		for (T vm : this) {
+			if (vm.getId() == id && vm.getUserId() == userId) {
+				return vm;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	protected int getId(T vm) {
+		return vm.getId();
+	}
+
+}
@@ -0,0 +1,508 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.lists;
+
+import java.util.AbstractSequentialList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.cloudbus.cloudsim.ResCloudlet;
+
+/**
+ * ResCloudletIndexedList is a linked list of ResCloudlets indexed by cloudlet and by cloudlet id,
+ * used for the lists of the cloudlet schedulers. Appending a cloudlet, removing a given cloudlet or
+ * the first one, checking whether the list contains a cloudlet and finding a cloudlet by id take
+ * constant time, whereas accessing a cloudlet by position takes linear time. A cloudlet can only be
+ * added once to the list; several cloudlets may have the same id, in which case the id leads to the
+ * first of them. Setting a cloudlet that the list already holds elsewhere through an iterator, as
+ * sorting the list does, is allowed: the indexes are then rebuilt in linear time when next needed,
+ * and a cloudlet left in several places leads to the first of them.
+ *
+ * @param <T> the type of the cloudlets
+ * @since CloudSim Toolkit 3.1
+ */
+public class ResCloudletIndexedList<T extends ResCloudlet> extends AbstractSequentialList<T> {
+
+	/** The first node. */
+	private Node<T> head;
+
+	/** The last node. */
+	private Node<T> tail;
+
+	/** The number of cloudlets. */
+	private int size;
+
+	/** The nodes, indexed by cloudlet. */
+	private final Map<ResCloudlet, Node<T>> nodes = new IdentityHashMap<ResCloudlet, Node<T>>();
+
+	/** The first node of each cloudlet id. */
+	private final Map<Integer, Node<T>> firstNodes = new HashMap<Integer, Node<T>>();
+
+	/** The number of nodes after the first one of the cloudlet ids found more than once. */
+	private final Map<Integer, Integer> duplicates = new HashMap<Integer, Integer>();
+
+	/** The number of nodes holding each cloudlet found in more than one node. */
+	private final Map<ResCloudlet, Integer> copies = new IdentityHashMap<ResCloudlet, Integer>();
+
+	/** Whether the indexes need to be rebuilt, as a cloudlet has been set in a second node. */
+	private boolean stale;
+
+	/** The iterator returned by {@link #reusableIterator()}, or null if not created yet. */
+	private Itr reusableIterator;
+
+	/**
+	 * Gets the first cloudlet with a given id.
+	 *
+	 * @param cloudletId the cloudlet id
+	 * @return the cloudlet, or null if the list does not contain a cloudlet with this id
+	 */
+	public T getById(int cloudletId) {
+		resolve();
+		Node<T> node = firstNodes.get(cloudletId);
+		if (node == null) {
+			return null;
+		}
+		return node.element;
+	}
+
+	/**
+	 * Gets the first cloudlet with a given id and user id.
+	 *
+	 * @param cloudletId the cloudlet id
+	 * @param userId the user id
+	 * @return the cloudlet, or null if the list does not contain a cloudlet with these ids
+	 */
+	public T getByIdAndUserId(int cloudletId, int userId) {
+		resolve();
+		Node<T> node = firstNodes.get(cloudletId);
+		if (node == null) {
+			return null;
+		}
+		if (node.element.getUserId() == userId) {
+			return node.element;
+		}
+		if (!duplicates.containsKey(cloudletId)) {
+			return null;
+		}
+		for (node = node.next; node != null; node = node.next) {
+			if (node.element.getCloudletId() == cloudletId && node.element.getUserId() == userId) {
+				return node.element;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		resolve();
+		return nodes.containsKey(o);
+	}
+
+	@Override
+	public boolean add(T cloudlet) {
+		linkBefore(cloudlet, null);
+		return true;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		resolve();
+		Node<T> node = nodes.get(o);
+		if (node == null) {
+			return false;
+		}
+		unlink(node);
+		return true;
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		if (c == this) {
+			boolean modified = !isEmpty();
+			clear();
+			return modified;
+		}
+		boolean modified = false;
+		for (Object o : c) {
+			if (remove(o)) {
+				modified = true;
+			}
+		}
+		return modified;
+	}
+
+	@Override
+	public void clear() {
+		head = null;
+		tail = null;
+		size = 0;
+		nodes.clear();
+		firstNodes.clear();
+		duplicates.clear();
+		copies.clear();
+		stale = false;
+		modCount++;
+	}
+
+	@Override
+	public ListIterator<T> listIterator(int index) {
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		return new Itr(index);
+	}
+
+	/**
+	 * Gets an iterator over the list, starting from the first cloudlet, that is reused from call to
+	 * call, so that a scheduler going through the list at each update does not allocate. Calling
+	 * this method again resets the iterator, so it must not be used in nested loops.
+	 *
+	 * @return the iterator, before the first cloudlet
+	 */
+	public ListIterator<T> reusableIterator() {
+		if (reusableIterator == null) {
+			reusableIterator = new Itr(0);
+		} else {
+			reusableIterator.reset();
+		}
+		return reusableIterator;
+	}
+
+	/**
+	 * Inserts a cloudlet before a node.
+	 *
+	 * @param cloudlet the cloudlet
+	 * @param successor the node, or null to append the cloudlet
+	 */
+	private void linkBefore(T cloudlet, Node<T> successor) {
+		resolve();
+		if (nodes.containsKey(cloudlet)) {
+			throw new IllegalArgumentException("The cloudlet #" + cloudlet.getCloudletId() + " is already in the list");
+		}
+		Node<T> node = new Node<T>(cloudlet);
+		if (successor == null) {
+			node.prev = tail;
+			if (tail == null) {
+				head = node;
+			} else {
+				tail.next = node;
+			}
+			tail = node;
+		} else {
+			node.next = successor;
+			node.prev = successor.prev;
+			if (successor.prev == null) {
+				head = node;
+			} else {
+				successor.prev.next = node;
+			}
+			successor.prev = node;
+		}
+		nodes.put(cloudlet, node);
+		index(node);
+		size++;
+		modCount++;
+	}
+
+	/**
+	 * Removes a node.
+	 *
+	 * @param node the node
+	 */
+	private void unlink(Node<T> node) {
+		resolve();
+		if (copies.containsKey(node.element)) {
+			// another node holds the cloudlet, which is found when the indexes are rebuilt
+			stale = true;
+		} else {
+			unindex(node);
+			nodes.remove(node.element);
+		}
+		if (node.prev == null) {
+			head = node.next;
+		} else {
+			node.prev.next = node.next;
+		}
+		if (node.next == null) {
+			tail = node.prev;
+		} else {
+			node.next.prev = node.prev;
+		}
+		size--;
+		modCount++;
+	}
+
+	/**
+	 * Rebuilds the indexes from the nodes, if a cloudlet has been set in a second node since they
+	 * were last built.
+	 */
+	private void resolve() {
+		if (!stale) {
+			return;
+		}
+		stale = false;
+		nodes.clear();
+		firstNodes.clear();
+		duplicates.clear();
+		copies.clear();
+		for (Node<T> node = head; node != null; node = node.next) {
+			if (nodes.containsKey(node.element)) {
+				Integer count = copies.get(node.element);
+				copies.put(node.element, count == null ? 2 : count + 1);
+			} else {
+				nodes.put(node.element, node);
+			}
+			int cloudletId = node.element.getCloudletId();
+			if (firstNodes.containsKey(cloudletId)) {
+				Integer count = duplicates.get(cloudletId);
+				duplicates.put(cloudletId, count == null ? 1 : count + 1);
+			} else {
+				firstNodes.put(cloudletId, node);
+			}
+		}
+	}
+
+	/**
+	 * Adds a linked node to the index of cloudlet ids.
+	 *
+	 * @param node the node
+	 */
+	private void index(Node<T> node) {
+		int cloudletId = node.element.getCloudletId();
+		Node<T> first = firstNodes.get(cloudletId);
+		if (first == null) {
+			firstNodes.put(cloudletId, node);
+			return;
+		}
+		Integer count = duplicates.get(cloudletId);
+		duplicates.put(cloudletId, count == null ? 1 : count + 1);
+		if (node != tail) {
+			// Only a node inserted in the middle of the list can come before the first one
+			for (Node<T> n = head; n != first; n = n.next) {
+				if (n == node) {
+					firstNodes.put(cloudletId, node);
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes a linked node from the index of cloudlet ids.
+	 *
+	 * @param node the node
+	 */
+	private void unindex(Node<T> node) {
+		int cloudletId = node.element.getCloudletId();
+		Integer count = duplicates.get(cloudletId);
+		if (count == null) {
+			firstNodes.remove(cloudletId);
+			return;
+		}
+		if (count == 1) {
+			duplicates.remove(cloudletId);
+		} else {
+			duplicates.put(cloudletId, count - 1);
+		}
+		if (firstNodes.get(cloudletId) == node) {
+			Node<T> next = node.next;
+			while (next.element.getCloudletId() != cloudletId) {
+				next = next.next;
+			}
+			firstNodes.put(cloudletId, next);
+		}
+	}
+
+	/**
+	 * A node of the list.
+	 *
+	 * @param <T> the type of the cloudlet
+	 */
+	private static class Node<T> {
+
+		/** The cloudlet. */
+		private T element;
+
+		/** The previous node. */
+		private Node<T> prev;
+
+		/** The next node. */
+		private Node<T> next;
+
+		/**
+		 * Instantiates a new node.
+		 *
+		 * @param element the cloudlet
+		 */
+		public Node(T element) {
+			this.element = element;
+		}
+
+	}
+
+	/**
+	 * The iterator of the list.
+	 */
+	private class Itr implements ListIterator<T> {
+
+		/** The node returned by next(), or null at the end of the list. */
+		private Node<T> next;
+
+		/** The index of the node returned by next(). */
+		private int nextIndex;
+
+		/** The node last returned, or null if it has been removed or a cloudlet has been added. */
+		private Node<T> lastReturned;
+
+		/** The modification count of the list expected by the iterator. */
+		private int expectedModCount = modCount;
+
+		/**
+		 * Instantiates a new iterator.
+		 *
+		 * @param index the index of the first cloudlet returned by next()
+		 */
+		public Itr(int index) {
+			if (index < size / 2) {
+				next = head;
+				for (int i = 0; i < index; i++) {
+					next = next.next;
+				}
+			} else {
+				next = null;
+				for (int i = size; i > index; i--) {
+					next = next == null ? tail : next.prev;
+				}
+			}
+			nextIndex = index;
+		}
+
+		/**
+		 * Moves the iterator back before the first cloudlet.
+		 */
+		private void reset() {
+			next = head;
+			nextIndex = 0;
+			lastReturned = null;
+			expectedModCount = modCount;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return nextIndex < size;
+		}
+
+		@Override
+		public T next() {
+			checkForComodification();
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			lastReturned = next;
+			next = next.next;
+			nextIndex++;
+			return lastReturned.element;
+		}
+
+		@Override
+		public boolean hasPrevious() {
+			return nextIndex > 0;
+		}
+
+		@Override
+		public T previous() {
+			checkForComodification();
+			if (!hasPrevious()) {
+				throw new NoSuchElementException();
+			}
+			next = next == null ? tail : next.prev;
+			lastReturned = next;
+			nextIndex--;
+			return lastReturned.element;
+		}
+
+		@Override
+		public int nextIndex() {
+			return nextIndex;
+		}
+
+		@Override
+		public int previousIndex() {
+			return nextIndex - 1;
+		}
+
+		@Override
+		public void remove() {
+			checkForComodification();
+			if (lastReturned == null) {
+				throw new IllegalStateException();
+			}
+			if (next == lastReturned) {
+				next = lastReturned.next;
+			} else {
+				nextIndex--;
+			}
+			unlink(lastReturned);
+			lastReturned = null;
+			expectedModCount = modCount;
+		}
+
+		@Override
+		public void set(T cloudlet) {
+			checkForComodification();
+			if (lastReturned == null) {
+				throw new IllegalStateException();
+			}
+			if (cloudlet == lastReturned.element) {
+				return;
+			}
+			if (stale || nodes.containsKey(cloudlet) || copies.containsKey(lastReturned.element)) {
+				// the cloudlet is shortly in two nodes, e.g. while the list is sorted
+				lastReturned.element = cloudlet;
+				stale = true;
+				return;
+			}
+			unindex(lastReturned);
+			nodes.remove(lastReturned.element);
+			lastReturned.element = cloudlet;
+			nodes.put(cloudlet, lastReturned);
+			index(lastReturned);
+		}
+
+		@Override
+		public void add(T cloudlet) {
+			checkForComodification();
+			lastReturned = null;
+			linkBefore(cloudlet, next);
+			nextIndex++;
+			expectedModCount = modCount;
+		}
+
+		/**
+		 * Checks that the list has not been modified other than through the iterator.
+		 */
+		private void checkForComodification() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+
+	}
+
+}
@@ -38,6 +38,9 @@ public class ResCloudletList {
 			List<T> list,
 			int cloudletId,
 			int userId) {
+		if (list instanceof ResCloudletIndexedList) {
+			return ((ResCloudletIndexedList<T>) list).getByIdAndUserId(cloudletId, userId);
+		}
 		for (T rcl : list) {
 			if (rcl.getCloudletId() == cloudletId && rcl.getUserId() == userId) {
 				return rcl;
@@ -46,6 +49,28 @@ public class ResCloudletList {
 		return null;
 	}
 
+	/**
+	 * Returns the first Cloudlet with a given Id. This method is meant for the lists of a cloudlet
+	 * scheduler, whose Cloudlets all belong to the user of the VM.
+	 * 
+	 * @param list the list
+	 * @param cloudletId a Cloudlet Id
+	 * @return the Cloudlet, or null if the list does not contain a Cloudlet with this Id
+	 * @pre cloudletId >= 0
+	 * @post $none
+	 */
+	public static <T extends ResCloudlet> T getById(List<T> list, int cloudletId) {
+		if (list instanceof ResCloudletIndexedList) {
+			return ((ResCloudletIndexedList<T>) list).getById(cloudletId);
+		}
+		for (T rcl : list) {
+			if (rcl.getCloudletId() == cloudletId) {
+				return rcl;
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * Finds the index of a Cloudlet inside the list. This method needs a combination of Cloudlet Id
 	 * and User Id because each Cloud User might have exactly the same Cloudlet Id.
@@ -60,6 +85,10 @@ public class ResCloudletList {
 	 * @post $none
 	 */
 	public static <T extends ResCloudlet> int indexOf(List<T> list, int cloudletId, int userId) {
+		if (list instanceof ResCloudletIndexedList
+				&& ((ResCloudletIndexedList<T>) list).getByIdAndUserId(cloudletId, userId) == null) {
+			return -1;
+		}
 		int i = 0;
 		for (T rcl : list) {
 			if (rcl.getCloudletId() == cloudletId && rcl.getUserId() == userId) {
@@ -96,6 +125,10 @@ public class ResCloudletList {
 	 * @return - the position of the cloudlet with that id, or -1 otherwise.
 	 */
 	public static <T extends ResCloudlet> int getPositionById(List<T> cloudletList, int id) {
+		if (cloudletList instanceof ResCloudletIndexedList
+				&& ((ResCloudletIndexedList<T>) cloudletList).getById(id) == null) {
+			return -1;
+		}
 		int i = 0 ;
 	        for (T cloudlet : cloudletList) {
 			if (cloudlet.getCloudletId() == id) {
@@ -30,6 +30,9 @@ public class VmList {
 	 * @post $none
 	 */
 	public static <T extends Vm> T getById(List<T> vmList, int id) {
+		if (vmList instanceof IndexedVmList) {
+			return ((IndexedVmList<T>) vmList).getById(id);
+		}
 		for (T vm : vmList) {
 			if (vm.getId() == id) {
 				return vm;
@@ -49,6 +52,9 @@ public class VmList {
 	 * @post $none
 	 */
 	public static <T extends Vm> T getByIdAndUserId(List<T> vmList, int id, int userId) {
+		if (vmList instanceof IndexedVmList) {
+			return ((IndexedVmList<T>) vmList).getByIdAndUserId(id, userId);
+		}
 		for (T vm : vmList) {
 			if (vm.getId() == id && vm.getUserId() == userId) {
 				return vm;
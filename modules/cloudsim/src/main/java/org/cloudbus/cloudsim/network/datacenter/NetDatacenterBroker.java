@@ -23,6 +23,8 @@ import org.cloudbus.cloudsim.core.CloudSimTags;
 import org.cloudbus.cloudsim.core.SimEntity;
 import org.cloudbus.cloudsim.core.SimEvent;
 import org.cloudbus.cloudsim.distributions.UniformDistr;
+import org.cloudbus.cloudsim.lists.IndexedCloudletList;
+import org.cloudbus.cloudsim.lists.IndexedVmList;
 import org.cloudbus.cloudsim.lists.VmList;
 
 /**
@@ -81,11 +83,10 @@ public class NetDatacenterBroker extends SimEntity {
 	/** The datacenter characteristics list. */
 	private Map<Integer, DatacenterCharacteristics> datacenterCharacteristicsList;
 
-	public static NetworkDatacenter linkDC;
-
 	public boolean createvmflag = true;
 
-	public static int cachedcloudlet = 0;
+	/** The number of cached cloudlets of this broker. */
+	private int cachedcloudlet = 0;
 
 	/**
 	 * Created a new DatacenterBroker object.
@@ -101,9 +102,9 @@ public class NetDatacenterBroker extends SimEntity {
 	public NetDatacenterBroker(String name) throws Exception {
 		super(name);
 
-		setVmList(new ArrayList<NetworkVm>());
-		setVmsCreatedList(new ArrayList<NetworkVm>());
-		setCloudletList(new ArrayList<NetworkCloudlet>());
+		setVmList(new IndexedVmList<NetworkVm>());
+		setVmsCreatedList(new IndexedVmList<NetworkVm>());
+		setCloudletList(new IndexedCloudletList<NetworkCloudlet>());
 		setAppCloudletList(new ArrayList<AppCloudlet>());
 		setCloudletSubmittedList(new ArrayList<Cloudlet>());
 		setCloudletReceivedList(new ArrayList<Cloudlet>());
@@ -146,8 +147,33 @@ public class NetDatacenterBroker extends SimEntity {
 		getCloudletList().addAll(list);
 	}
 
+	/**
+	 * Sets the datacenter in which the brokers of the simulation bound to the calling thread create
+	 * their VMs.
+	 * 
+	 * @param alinkDC the datacenter
+	 */
 	public static void setLinkDC(NetworkDatacenter alinkDC) {
-		linkDC = alinkDC;
+		CloudSim.getSimulation().setAttachment(NetworkDatacenter.class, alinkDC);
+	}
+
+	/**
+	 * Gets the datacenter in which the brokers of the simulation bound to the calling thread create
+	 * their VMs.
+	 * 
+	 * @return the datacenter
+	 */
+	public static NetworkDatacenter getLinkDC() {
+		return CloudSim.getSimulation().getAttachment(NetworkDatacenter.class);
+	}
+
+	/**
+	 * Gets the number of cached cloudlets of this broker.
+	 * 
+	 * @return the number of cached cloudlets
+	 */
+	public int getCachedcloudlet() {
+		return cachedcloudlet;
 	}
 
 	/**
@@ -181,7 +207,7 @@ public class NetDatacenterBroker extends SimEntity {
 				break;
 			case CloudSimTags.NextCycle:
 				if (NetworkConstants.BASE) {
-					createVmsInDatacenterBase(linkDC.getId());
+					createVmsInDatacenterBase(getLinkDC().getId());
 				}
 
 				break;
@@ -309,8 +335,7 @@ public class NetDatacenterBroker extends SimEntity {
 		// generate Application execution Requests
 		for (int i = 0; i < 100; i++) {
 			this.getAppCloudletList().add(
-					new WorkflowApp(AppCloudlet.APP_Workflow, NetworkConstants.currentAppId, 0, 0, getId()));
-			NetworkConstants.currentAppId++;
+					new WorkflowApp(AppCloudlet.APP_Workflow, NetworkConstants.nextAppId(), 0, 0, getId()));
 
 		}
 		int k = 0;
@@ -319,7 +344,7 @@ public class NetDatacenterBroker extends SimEntity {
 		for (AppCloudlet app : this.getAppCloudletList()) {
 
 			List<Integer> vmids = new ArrayList<Integer>();
-			int numVms = linkDC.getVmList().size();
+			int numVms = getLinkDC().getVmList().size();
 			UniformDistr ufrnd = new UniformDistr(0, numVms, 5);
 			for (int i = 0; i < app.numbervm; i++) {
 
@@ -362,7 +387,7 @@ public class NetDatacenterBroker extends SimEntity {
 
 	private void CreateVMs(int datacenterId) {
 		// two VMs per host
-		int numVM = linkDC.getHostList().size() * NetworkConstants.maxhostVM;
+		int numVM = getLinkDC().getHostList().size() * NetworkConstants.maxhostVM;
 		for (int i = 0; i < numVM; i++) {
 			int vmid = i;
 			int mips = 1;
@@ -383,7 +408,7 @@ public class NetDatacenterBroker extends SimEntity {
 					size,
 					vmm,
 					new NetworkCloudletSpaceSharedScheduler());
-			linkDC.processVmCreateNetwork(vm);
+			getLinkDC().processVmCreateNetwork(vm);
 			// add the VM to the vmList
 			getVmList().add(vm);
 			getVmsToDatacentersMap().put(vmid, datacenterId);
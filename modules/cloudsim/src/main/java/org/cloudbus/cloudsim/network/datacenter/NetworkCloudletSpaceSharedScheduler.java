@@ -143,13 +143,13 @@ public class NetworkCloudletSpaceSharedScheduler extends CloudletScheduler {
 				cl.timetostartStage = CloudSim.clock();
 
 				if (cl.stages.get(0).type == NetworkConstants.EXECUTION) {
-					NetDatacenterBroker.linkDC.schedule(
-							NetDatacenterBroker.linkDC.getId(),
+					NetDatacenterBroker.getLinkDC().schedule(
+							NetDatacenterBroker.getLinkDC().getId(),
 							cl.stages.get(0).time,
 							CloudSimTags.VM_DATACENTER_EVENT);
 				} else {
-					NetDatacenterBroker.linkDC.schedule(
-							NetDatacenterBroker.linkDC.getId(),
+					NetDatacenterBroker.getLinkDC().schedule(
+							NetDatacenterBroker.getLinkDC().getId(),
 							0.0001,
 							CloudSimTags.VM_DATACENTER_EVENT);
 					// /sendstage///
@@ -248,8 +248,8 @@ public class NetworkCloudletSpaceSharedScheduler extends CloudletScheduler {
 				}
 
 			}
-			NetDatacenterBroker.linkDC.schedule(
-					NetDatacenterBroker.linkDC.getId(),
+			NetDatacenterBroker.getLinkDC().schedule(
+					NetDatacenterBroker.getLinkDC().getId(),
 					0.0001,
 					CloudSimTags.VM_DATACENTER_EVENT);
 			if (i == cl.stages.size()) {
@@ -257,8 +257,8 @@ public class NetworkCloudletSpaceSharedScheduler extends CloudletScheduler {
 			} else {
 				cl.currStagenum = i;
 				if (cl.stages.get(i).type == NetworkConstants.EXECUTION) {
-					NetDatacenterBroker.linkDC.schedule(
-							NetDatacenterBroker.linkDC.getId(),
+					NetDatacenterBroker.getLinkDC().schedule(
+							NetDatacenterBroker.getLinkDC().getId(),
 							cl.stages.get(i).time,
 							CloudSimTags.VM_DATACENTER_EVENT);
 				}
@@ -8,6 +8,9 @@
 
 package org.cloudbus.cloudsim.network.datacenter;
 
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.Simulation;
+
 public class NetworkConstants {
 
 	public static int maxhostVM = 2;
@@ -15,9 +18,6 @@ public class NetworkConstants {
 
 	public static double maxMemperVM = 1024 * 1024;// kb
 
-	public static int currentCloudletId = 0;
-	public static int currentAppId = 0;
-
 	// stage type
 	public static final int EXECUTION = 0; 
 	public static final int WAIT_SEND = 1;
@@ -58,5 +58,80 @@ public class NetworkConstants {
 	public static int iteration = 10;
 	public static int nexttime = 1000;
 
-	public static int totaldatatransfer = 0;
+	/**
+	 * Gets the id that will be given to the next network cloudlet of the simulation bound to the
+	 * calling thread.
+	 * 
+	 * @return the id of the next cloudlet
+	 */
+	public static int getCurrentCloudletId() {
+		return getCounters().currentCloudletId;
+	}
+
+	/**
+	 * Takes a new network cloudlet id in the simulation bound to the calling thread.
+	 * 
+	 * @return the cloudlet id
+	 */
+	public static int nextCloudletId() {
+		return getCounters().currentCloudletId++;
+	}
+
+	/**
+	 * Takes a new application id in the simulation bound to the calling thread.
+	 * 
+	 * @return the application id
+	 */
+	public static int nextAppId() {
+		return getCounters().currentAppId++;
+	}
+
+	/**
+	 * Gets the amount of data transferred between hosts in the simulation bound to the calling
+	 * thread.
+	 * 
+	 * @return the amount of data transferred
+	 */
+	public static int getTotalDataTransfer() {
+		return getCounters().totaldatatransfer;
+	}
+
+	/**
+	 * Adds to the amount of data transferred between hosts in the simulation bound to the calling
+	 * thread.
+	 * 
+	 * @param data the data transferred
+	 */
+	public static void addDataTransfer(double data) {
+		getCounters().totaldatatransfer += data;
+	}
+
+	/**
+	 * Gets the counters of the simulation bound to the calling thread.
+	 * 
+	 * @return the counters
+	 */
+	private static Counters getCounters() {
+		Simulation simulation = CloudSim.getSimulation();
+		Counters counters = simulation.getAttachment(Counters.class);
+		if (counters == null) {
+			counters = new Counters();
+			simulation.setAttachment(Counters.class, counters);
+		}
+		return counters;
+	}
+
+	/**
+	 * The ids and the amount of data transferred, which are kept per simulation.
+	 */
+	private static class Counters {
+
+		private int currentCloudletId = 0;
+
+		private int currentAppId = 0;
+
+		private int totaldatatransfer = 0;
+
+	}
+
 }
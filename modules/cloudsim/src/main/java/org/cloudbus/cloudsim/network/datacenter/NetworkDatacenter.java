@@ -24,7 +24,6 @@ import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.VmAllocationPolicy;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.CloudSimTags;
-import org.cloudbus.cloudsim.core.SimEvent;
 
 /**
  * NetworkDatacenter class is a Datacenter whose hostList are virtualized and networked. It contains
@@ -128,22 +127,19 @@ public class NetworkDatacenter extends Datacenter {
 	}
 
 	/**
-	 * Processes a Cloudlet submission.
+	 * Submits a Cloudlet to its VM, and schedules an update of the stages of the network cloudlets.
 	 * 
-	 * @param ev a SimEvent object
+	 * @param cl the Cloudlet
 	 * @param ack an acknowledgement
+	 * @return false if the Cloudlet had already finished and is sent back to its owner, true
+	 *         otherwise
 	 * 
-	 * @pre ev != null
+	 * @pre cl != null
 	 * @post $none
 	 */
 	@Override
-	protected void processCloudletSubmit(SimEvent ev, boolean ack) {
-		updateCloudletProcessing();
-
+	protected boolean submitCloudlet(Cloudlet cl, boolean ack) {
 		try {
-			// gets the Cloudlet object
-			Cloudlet cl = (Cloudlet) ev.getData();
-
 			// checks whether this Cloudlet has finished or not
 			if (cl.isFinished()) {
 				String name = CloudSim.getEntityName(cl.getUserId());
@@ -170,7 +166,7 @@ public class NetworkDatacenter extends Datacenter {
 
 				sendNow(cl.getUserId(), CloudSimTags.CLOUDLET_RETURN, cl);
 
-				return;
+				return false;
 			}
 
 			// process this Cloudlet to this CloudResource
@@ -191,10 +187,10 @@ public class NetworkDatacenter extends Datacenter {
 			if (estimatedFinishTime > 0.0) { // if this cloudlet is in the exec
 				// time to process the cloudlet
 				estimatedFinishTime += fileTransferTime;
-				send(getId(), estimatedFinishTime, CloudSimTags.VM_DATACENTER_EVENT);
+				scheduleSubmissionEvent(estimatedFinishTime);
 
 				// event to update the stages
-				send(getId(), 0.0001, CloudSimTags.VM_DATACENTER_EVENT);
+				scheduleSubmissionEvent(0.0001);
 			}
 
 			if (ack) {
@@ -215,7 +211,54 @@ public class NetworkDatacenter extends Datacenter {
 			e.printStackTrace();
 		}
 
-		checkCloudletCompletion();
+		return true;
+	}
+
+	/**
+	 * Rejects the analytic mode: the network cloudlets move through their stages, and the hosts
+	 * exchange packets, on processing events scheduled at each submission.
+	 * 
+	 * @param analyticProcessing false
+	 * @throws IllegalStateException if the analytic mode is requested
+	 */
+	@Override
+	public void setAnalyticProcessing(boolean analyticProcessing) {
+		if (analyticProcessing) {
+			throw new IllegalStateException(getName()
+					+ ": the analytic mode is not supported by network datacenters");
+		}
+		super.setAnalyticProcessing(analyticProcessing);
+	}
+
+	/**
+	 * Rejects host tracking: the network hosts exchange packets on every update, so none of them
+	 * can be skipped.
+	 * 
+	 * @param hostTracking false
+	 * @throws IllegalStateException if host tracking is requested
+	 */
+	@Override
+	public void setHostTracking(boolean hostTracking) {
+		if (hostTracking) {
+			throw new IllegalStateException(getName() + ": host tracking is not supported by network datacenters");
+		}
+		super.setHostTracking(hostTracking);
+	}
+
+	/**
+	 * Rejects a parallelism above 1: the network hosts send their packets as events while they are
+	 * updated, and the events cannot be sent from several threads.
+	 * 
+	 * @param parallelism 1
+	 * @throws IllegalStateException if a parallelism above 1 is requested
+	 */
+	@Override
+	public void setHostUpdateParallelism(int parallelism) {
+		if (parallelism > 1) {
+			throw new IllegalStateException(getName()
+					+ ": updating the hosts in parallel is not supported by network datacenters");
+		}
+		super.setHostUpdateParallelism(parallelism);
 	}
 
 }
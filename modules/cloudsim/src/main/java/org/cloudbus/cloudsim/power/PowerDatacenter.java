@@ -13,6 +13,7 @@ import java.util.Map;
 
 import org.cloudbus.cloudsim.Datacenter;
 import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.HostUpdateExecutor.HostTask;
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.Storage;
 import org.cloudbus.cloudsim.Vm;
@@ -167,7 +168,7 @@ public class PowerDatacenter extends Datacenter {
 	 * @return the double
 	 */
 	protected double updateCloudetProcessingWithoutSchedulingFutureEventsForce() {
-		double currentTime = CloudSim.clock();
+		final double currentTime = CloudSim.clock();
 		double minTime = Double.MAX_VALUE;
 		double timeDiff = currentTime - getLastProcessTime();
 		double timeFrameDatacenterEnergy = 0.0;
@@ -175,19 +176,30 @@ public class PowerDatacenter extends Datacenter {
 		Log.printLine("\n\n--------------------------------------------------------------\n\n");
 		Log.formatLine("New resource usage for the time frame starting at %.2f:", currentTime);
 
-		for (PowerHost host : this.<PowerHost> getHostList()) {
-			Log.printLine();
+		final List<PowerHost> hostList = this.<PowerHost> getHostList();
+		final double[] times = new double[hostList.size()];
+		HostTask task = new HostTask() {
+
+			@Override
+			public void run(int index) {
+				PowerHost host = hostList.get(index);
+				Log.printLine();
+
+				times[index] = host.updateVmsProcessing(currentTime); // inform VMs to update processing
 
-			double time = host.updateVmsProcessing(currentTime); // inform VMs to update processing
+				Log.formatLine(
+						"%.2f: [Host #%d] utilization is %.2f%%",
+						currentTime,
+						host.getId(),
+						host.getUtilizationOfCpu() * 100);
+			}
+
+		};
+		updateHosts(hostList, task);
+		for (double time : times) {
 			if (time < minTime) {
 				minTime = time;
 			}
-
-			Log.formatLine(
-					"%.2f: [Host #%d] utilization is %.2f%%",
-					currentTime,
-					host.getId(),
-					host.getUtilizationOfCpu() * 100);
 		}
 
 		if (timeDiff > 0) {
@@ -270,6 +282,63 @@ public class PowerDatacenter extends Datacenter {
 		setCloudletSubmitted(CloudSim.clock());
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.Datacenter#processCloudletSubmitBatch(org.cloudbus.cloudsim.core.SimEvent,
+	 * boolean)
+	 */
+	@Override
+	protected void processCloudletSubmitBatch(SimEvent ev, boolean ack) {
+		super.processCloudletSubmitBatch(ev, ack);
+		setCloudletSubmitted(CloudSim.clock());
+	}
+
+	/**
+	 * Rejects the analytic mode: the power datacenter updates the processing at each scheduling
+	 * interval, from the utilization of the VMs over time.
+	 * 
+	 * @param analyticProcessing false
+	 * @throws IllegalStateException if the analytic mode is requested
+	 */
+	@Override
+	public void setAnalyticProcessing(boolean analyticProcessing) {
+		if (analyticProcessing) {
+			throw new IllegalStateException(getName() + ": the analytic mode is not supported by power datacenters");
+		}
+		super.setAnalyticProcessing(analyticProcessing);
+	}
+
+	/**
+	 * Rejects host tracking: the power datacenter updates all its hosts on its own events, and
+	 * migrations change the hosts outside of the tracked paths.
+	 * 
+	 * @param hostTracking false
+	 * @throws IllegalStateException if host tracking is requested
+	 */
+	@Override
+	public void setHostTracking(boolean hostTracking) {
+		if (hostTracking) {
+			throw new IllegalStateException(getName() + ": host tracking is not supported by power datacenters");
+		}
+		super.setHostTracking(hostTracking);
+	}
+
+	/**
+	 * Runs a task on each host, in parallel if the datacenter has a host update parallelism above 1.
+	 * 
+	 * @param hostList the hosts
+	 * @param task the task
+	 */
+	protected void updateHosts(List<PowerHost> hostList, HostTask task) {
+		if (getHostUpdateExecutor() != null) {
+			getHostUpdateExecutor().execute(hostList, task);
+		} else {
+			for (int i = 0; i < hostList.size(); i++) {
+				task.run(i);
+			}
+		}
+	}
+
 	/**
 	 * Gets the power.
 	 * 
@@ -11,7 +11,6 @@ package org.cloudbus.cloudsim.power;
 import org.cloudbus.cloudsim.DatacenterBroker;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.CloudSimTags;
-import org.cloudbus.cloudsim.core.SimEvent;
 
 /**
  * A broker for the power package.
@@ -41,22 +40,16 @@ public class PowerDatacenterBroker extends DatacenterBroker {
 
 	/*
 	 * (non-Javadoc)
-	 * @see
-	 * org.cloudbus.cloudsim.DatacenterBroker#processVmCreate(org.cloudbus.cloudsim.core.SimEvent)
+	 * @see org.cloudbus.cloudsim.DatacenterBroker#processVmCreate(int, int, int)
 	 */
 	@Override
-	protected void processVmCreate(SimEvent ev) {
-		int[] data = (int[]) ev.getData();
-		int result = data[2];
-
+	protected void processVmCreate(int datacenterId, int vmId, int result) {
 		if (result != CloudSimTags.TRUE) {
-			int datacenterId = data[0];
-			int vmId = data[1];
 			System.out.println(CloudSim.clock() + ": " + getName() + ": Creation of VM #" + vmId
 					+ " failed in Datacenter #" + datacenterId);
 			System.exit(0);
 		}
-		super.processVmCreate(ev);
+		super.processVmCreate(datacenterId, vmId, result);
 	}
 
 }
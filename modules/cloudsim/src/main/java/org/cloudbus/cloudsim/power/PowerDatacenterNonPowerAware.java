@@ -12,6 +12,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.HostUpdateExecutor.HostTask;
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.Storage;
 import org.cloudbus.cloudsim.Vm;
@@ -73,7 +74,7 @@ public class PowerDatacenterNonPowerAware extends PowerDatacenter {
 			schedule(getId(), getSchedulingInterval(), CloudSimTags.VM_DATACENTER_EVENT);
 			return;
 		}
-		double currentTime = CloudSim.clock();
+		final double currentTime = CloudSim.clock();
 		double timeframePower = 0.0;
 
 		if (currentTime > getLastProcessTime()) {
@@ -110,11 +111,21 @@ public class PowerDatacenterNonPowerAware extends PowerDatacenter {
 
 			Log.printLine("\n\n--------------------------------------------------------------\n\n");
 
-			for (PowerHost host : this.<PowerHost> getHostList()) {
-				Log.formatLine("\n%.2f: Host #%d", CloudSim.clock(), host.getId());
+			final List<PowerHost> hostList = this.<PowerHost> getHostList();
+			final double[] times = new double[hostList.size()];
+			updateHosts(hostList, new HostTask() {
+
+				@Override
+				public void run(int index) {
+					PowerHost host = hostList.get(index);
+					Log.formatLine("\n%.2f: Host #%d", CloudSim.clock(), host.getId());
+
+					times[index] = host.updateVmsProcessing(currentTime); // inform VMs to update
+																			// processing
+				}
 
-				double time = host.updateVmsProcessing(currentTime); // inform VMs to update
-																		// processing
+			});
+			for (double time : times) {
 				if (time < minTime) {
 					minTime = time;
 				}
@@ -52,6 +52,19 @@ public abstract class PeProvisioner {
 	 */
 	public abstract boolean allocateMipsForVm(Vm vm, double mips);
 
+	/**
+	 * Allocates MIPS for a given VM.
+	 * 
+	 * @param vmKey the vm key
+	 * @param mips the mips
+	 * 
+	 * @return $true if the MIPS could be allocated; $false otherwise
+	 * 
+	 * @pre $none
+	 * @post $none
+	 */
+	public abstract boolean allocateMipsForVm(long vmKey, double mips);
+
 	/**
 	 * Allocates MIPS for a given VM.
 	 * 
@@ -62,8 +75,12 @@ public abstract class PeProvisioner {
 	 * 
 	 * @pre $none
 	 * @post $none
+	 * @deprecated the VMs are identified by their key, use {@link #allocateMipsForVm(long, double)}
 	 */
-	public abstract boolean allocateMipsForVm(String vmUid, double mips);
+	@Deprecated
+	public boolean allocateMipsForVm(String vmUid, double mips) {
+		return allocateMipsForVm(Vm.getKey(vmUid), mips);
+	}
 
 	/**
 	 * Allocates MIPS for a given VM.
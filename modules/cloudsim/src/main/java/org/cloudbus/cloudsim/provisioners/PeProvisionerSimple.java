@@ -9,11 +9,10 @@
 package org.cloudbus.cloudsim.provisioners;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.util.LongHashMap;
 
 /**
  * The Class PeProvisionerSimple.
@@ -23,8 +22,8 @@ import org.cloudbus.cloudsim.Vm;
  */
 public class PeProvisionerSimple extends PeProvisioner {
 
-	/** The pe table. */
-	private Map<String, List<Double>> peTable;
+	/** The pe table, indexed by VM key. */
+	private LongHashMap<List<Double>> peTable;
 
 	/**
 	 * Creates the PeProvisionerSimple object.
@@ -36,7 +35,7 @@ public class PeProvisionerSimple extends PeProvisioner {
 	 */
 	public PeProvisionerSimple(double availableMips) {
 		super(availableMips);
-		setPeTable(new HashMap<String, ArrayList<Double>>());
+		setPeTable(new LongHashMap<List<Double>>());
 	}
 
 	/*
@@ -45,31 +44,28 @@ public class PeProvisionerSimple extends PeProvisioner {
 	 */
 	@Override
 	public boolean allocateMipsForVm(Vm vm, double mips) {
-		return allocateMipsForVm(vm.getUid(), mips);
+		return allocateMipsForVm(vm.getKey(), mips);
 	}
 
 	/*
 	 * (non-Javadoc)
-	 * @see cloudsim.provisioners.PeProvisioner#allocateMipsForVm(java.lang.String, double)
+	 * @see cloudsim.provisioners.PeProvisioner#allocateMipsForVm(long, double)
 	 */
 	@Override
-	public boolean allocateMipsForVm(String vmUid, double mips) {
+	public boolean allocateMipsForVm(long vmKey, double mips) {
 		if (getAvailableMips() < mips) {
 			return false;
 		}
 
-		List<Double> allocatedMips;
-
-		if (getPeTable().containsKey(vmUid)) {
-			allocatedMips = getPeTable().get(vmUid);
-		} else {
+		List<Double> allocatedMips = getPeTable().get(vmKey);
+		if (allocatedMips == null) {
 			allocatedMips = new ArrayList<Double>();
+			getPeTable().put(vmKey, allocatedMips);
 		}
 
 		allocatedMips.add(mips);
 
 		setAvailableMips(getAvailableMips() - mips);
-		getPeTable().put(vmUid, allocatedMips);
 
 		return true;
 	}
@@ -92,7 +88,7 @@ public class PeProvisionerSimple extends PeProvisioner {
 
 		setAvailableMips(getAvailableMips() + getTotalAllocatedMipsForVm(vm) - totalMipsToAllocate);
 
-		getPeTable().put(vm.getUid(), mips);
+		getPeTable().put(vm.getKey(), mips);
 
 		return true;
 	}
@@ -115,9 +111,10 @@ public class PeProvisionerSimple extends PeProvisioner {
 	 */
 	@Override
 	public double getAllocatedMipsForVmByVirtualPeId(Vm vm, int peId) {
-		if (getPeTable().containsKey(vm.getUid())) {
+		List<Double> allocatedMips = getPeTable().get(vm.getKey());
+		if (allocatedMips != null) {
 			try {
-				return getPeTable().get(vm.getUid()).get(peId);
+				return allocatedMips.get(peId);
 			} catch (Exception e) {
 			}
 		}
@@ -130,10 +127,7 @@ public class PeProvisionerSimple extends PeProvisioner {
 	 */
 	@Override
 	public List<Double> getAllocatedMipsForVm(Vm vm) {
-		if (getPeTable().containsKey(vm.getUid())) {
-			return getPeTable().get(vm.getUid());
-		}
-		return null;
+		return getPeTable().get(vm.getKey());
 	}
 
 	/*
@@ -142,9 +136,10 @@ public class PeProvisionerSimple extends PeProvisioner {
 	 */
 	@Override
 	public double getTotalAllocatedMipsForVm(Vm vm) {
-		if (getPeTable().containsKey(vm.getUid())) {
+		List<Double> allocatedMips = getPeTable().get(vm.getKey());
+		if (allocatedMips != null) {
 			double totalAllocatedMips = 0.0;
-			for (double mips : getPeTable().get(vm.getUid())) {
+			for (double mips : allocatedMips) {
 				totalAllocatedMips += mips;
 			}
 			return totalAllocatedMips;
@@ -158,11 +153,11 @@ public class PeProvisionerSimple extends PeProvisioner {
 	 */
 	@Override
 	public void deallocateMipsForVm(Vm vm) {
-		if (getPeTable().containsKey(vm.getUid())) {
-			for (double mips : getPeTable().get(vm.getUid())) {
+		List<Double> allocatedMips = getPeTable().remove(vm.getKey());
+		if (allocatedMips != null) {
+			for (double mips : allocatedMips) {
 				setAvailableMips(getAvailableMips() + mips);
 			}
-			getPeTable().remove(vm.getUid());
 		}
 	}
 
@@ -171,7 +166,7 @@ public class PeProvisionerSimple extends PeProvisioner {
 	 * 
 	 * @return the peTable
 	 */
-	protected Map<String, List<Double>> getPeTable() {
+	protected LongHashMap<List<Double>> getPeTable() {
 		return peTable;
 	}
 
@@ -180,9 +175,8 @@ public class PeProvisionerSimple extends PeProvisioner {
 	 * 
 	 * @param peTable the peTable to set
 	 */
-	@SuppressWarnings("unchecked")
-	protected void setPeTable(Map<String, ? extends List<Double>> peTable) {
-		this.peTable = (Map<String, List<Double>>) peTable;
+	protected void setPeTable(LongHashMap<List<Double>> peTable) {
+		this.peTable = peTable;
 	}
 
 }
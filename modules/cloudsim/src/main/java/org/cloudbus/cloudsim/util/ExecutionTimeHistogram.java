@@ -0,0 +1,194 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of execution times in nanoseconds, in the style of HdrHistogram. The times are
+ * counted in buckets whose width grows with the time: below 64 ns each nanosecond has its own
+ * bucket, and above it each power of two is split into 32 buckets, so that a percentile is reported
+ * with a relative error under 1/32. The histogram takes a fixed amount of memory whatever the
+ * number of recorded times, and can be recorded to and read from several threads at once.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public class ExecutionTimeHistogram {
+
+	/** The number of bits of the buckets within a power of two. */
+	private static final int SUB_BUCKET_BITS = 5;
+
+	/** The number of buckets within a power of two. */
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	/** The times below this one have a bucket each. */
+	private static final int EXACT_LIMIT = 2 * SUB_BUCKETS;
+
+	/** The number of buckets, enough for any positive long. */
+	private static final int BUCKETS = EXACT_LIMIT + (63 - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+
+	/** The name. */
+	private final String name;
+
+	/** The number of times in each bucket. */
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+	/** The number of recorded times. */
+	private final AtomicLong count = new AtomicLong();
+
+	/** The sum of the recorded times. */
+	private final AtomicLong total = new AtomicLong();
+
+	/** The maximum recorded time. */
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Instantiates a new histogram.
+	 *
+	 * @param name the name of the measured code
+	 */
+	public ExecutionTimeHistogram(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Records an execution time. Negative times, which the clock of some systems can produce for
+	 * very short executions, are recorded as zero.
+	 *
+	 * @param nanos the execution time in nanoseconds
+	 */
+	public void record(long nanos) {
+		if (nanos < 0) {
+			nanos = 0;
+		}
+		counts.incrementAndGet(getBucket(nanos));
+		count.incrementAndGet();
+		total.addAndGet(nanos);
+		long currentMax = max.get();
+		while (nanos > currentMax && !max.compareAndSet(currentMax, nanos)) {
+			currentMax = max.get();
+		}
+	}
+
+	/**
+	 * Gets the name of the measured code.
+	 *
+	 * @return the name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the number of recorded times.
+	 *
+	 * @return the count
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * Gets the mean of the recorded times.
+	 *
+	 * @return the mean in nanoseconds, or 0 if no time has been recorded
+	 */
+	public double getMean() {
+		long n = count.get();
+		if (n == 0) {
+			return 0;
+		}
+		return (double) total.get() / n;
+	}
+
+	/**
+	 * Gets the maximum recorded time.
+	 *
+	 * @return the maximum in nanoseconds
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Gets a percentile of the recorded times, i.e. the time under which the given percentage of
+	 * the times fall. The result is the upper bound of the bucket in which the percentile falls,
+	 * so it is exact for times under 64 ns and slightly above the exact percentile otherwise.
+	 *
+	 * @param percentile the percentile, between 0 and 100
+	 * @return the percentile in nanoseconds, or 0 if no time has been recorded
+	 */
+	public long getPercentile(double percentile) {
+		long n = count.get();
+		if (n == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(percentile / 100 * n);
+		if (rank < 1) {
+			rank = 1;
+		}
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts.get(i);
+			if (seen >= rank) {
+				return Math.min(getBucketUpperBound(i), getMax());
+			}
+		}
+		return getMax();
+	}
+
+	/**
+	 * Removes all the recorded times.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			counts.set(i, 0);
+		}
+		count.set(0);
+		total.set(0);
+		max.set(0);
+	}
+
+	/**
+	 * Gets the bucket of a time.
+	 *
+	 * @param nanos the time, not negative
+	 * @return the index of the bucket
+	 */
+	protected static int getBucket(long nanos) {
+		if (nanos < EXACT_LIMIT) {
+			return (int) nanos;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+		int shift = exponent - SUB_BUCKET_BITS;
+		int subBucket = (int) (nanos >>> shift) - SUB_BUCKETS;
+		return EXACT_LIMIT + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + subBucket;
+	}
+
+	/**
+	 * Gets the largest time counted in a bucket.
+	 *
+	 * @param bucket the index of the bucket
+	 * @return the upper bound of the bucket
+	 */
+	protected static long getBucketUpperBound(int bucket) {
+		if (bucket < EXACT_LIMIT) {
+			return bucket;
+		}
+		int exponent = (bucket - EXACT_LIMIT) / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+		long subBucket = (bucket - EXACT_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+		int shift = exponent - SUB_BUCKET_BITS;
+		if (exponent == 62 && subBucket == 2 * SUB_BUCKETS - 1) {
+			return Long.MAX_VALUE;
+		}
+		return ((subBucket + 1) << shift) - 1;
+	}
+
+}
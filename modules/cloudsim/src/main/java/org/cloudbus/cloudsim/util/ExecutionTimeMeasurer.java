@@ -8,48 +8,134 @@
 
 package org.cloudbus.cloudsim.util;
 
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- * The class for measuring the execution time.
+ * The class for measuring the execution time. The time between {@link #start(String)} and
+ * {@link #end(String)} is measured with {@link System#nanoTime()}, and recorded in the
+ * {@link ExecutionTimeHistogram} of the given name. The measurements of each thread are
+ * independent, and the histograms are shared by all the threads, so parallel simulations can
+ * measure the same code. The histograms can be written to a CSV file at the end of a simulation
+ * with {@link #writeCsv(String)}.
  * 
  * @author Anton Beloglazov
  * @since CloudSim Toolkit 3.0
  */
 public class ExecutionTimeMeasurer {
 
-	/** The execution times. */
-	private final static Map<String, Long> executionTimes = new HashMap<String, Long>();
+	/** The start times, one map per thread so that parallel simulations do not interfere. */
+	private final static ThreadLocal<Map<String, Long>> executionTimes = new ThreadLocal<Map<String, Long>>() {
+
+		@Override
+		protected Map<String, Long> initialValue() {
+			return new HashMap<String, Long>();
+		}
+
+	};
+
+	/** The histograms of the execution times, by name. */
+	private final static ConcurrentMap<String, ExecutionTimeHistogram> histograms = new ConcurrentHashMap<String, ExecutionTimeHistogram>();
 
 	/**
-	 * Start.
+	 * Starts measuring the execution time of the code with the given name.
 	 * 
 	 * @param name the name
 	 */
 	public static void start(String name) {
-		getExecutionTimes().put(name, System.currentTimeMillis());
+		getExecutionTimes().put(name, System.nanoTime());
 	}
 
 	/**
-	 * End.
+	 * Ends measuring the execution time of the code with the given name, and records it in the
+	 * histogram of the name.
 	 * 
 	 * @param name the name
-	 * @return the double
+	 * @return the execution time in seconds
 	 */
 	public static double end(String name) {
-		double time = (System.currentTimeMillis() - getExecutionTimes().get(name)) / 1000.0;
-		getExecutionTimes().remove(name);
-		return time;
+		long nanos = System.nanoTime() - getExecutionTimes().remove(name);
+		getHistogram(name).record(nanos);
+		return nanos / 1000000000.0;
 	}
 
 	/**
-	 * Gets the execution times.
+	 * Gets the execution times started by the calling thread.
 	 * 
-	 * @return the execution times
+	 * @return the start times in nanoseconds, as returned by {@link System#nanoTime()}
 	 */
 	public static Map<String, Long> getExecutionTimes() {
-		return executionTimes;
+		return executionTimes.get();
+	}
+
+	/**
+	 * Gets the histogram of the execution times of the code with the given name, creating it if
+	 * there is none.
+	 * 
+	 * @param name the name
+	 * @return the histogram
+	 */
+	public static ExecutionTimeHistogram getHistogram(String name) {
+		ExecutionTimeHistogram histogram = histograms.get(name);
+		if (histogram == null) {
+			histogram = new ExecutionTimeHistogram(name);
+			ExecutionTimeHistogram existing = histograms.putIfAbsent(name, histogram);
+			if (existing != null) {
+				histogram = existing;
+			}
+		}
+		return histogram;
+	}
+
+	/**
+	 * Gets the histograms of the execution times, sorted by name.
+	 * 
+	 * @return the histograms
+	 */
+	public static SortedMap<String, ExecutionTimeHistogram> getHistograms() {
+		return new TreeMap<String, ExecutionTimeHistogram>(histograms);
+	}
+
+	/**
+	 * Removes all the histograms.
+	 */
+	public static void reset() {
+		histograms.clear();
+	}
+
+	/**
+	 * Writes the histograms to a CSV file, with a row per name. The columns are the name, the
+	 * number of measurements, and the mean, median, 99th percentile and maximum of the execution
+	 * times in seconds.
+	 * 
+	 * @param outputPath the path of the CSV file
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public static void writeCsv(String outputPath) throws IOException {
+		StringBuilder data = new StringBuilder();
+		data.append("name,count,mean,p50,p99,max\n");
+		for (ExecutionTimeHistogram histogram : getHistograms().values()) {
+			data.append(histogram.getName()).append(',');
+			data.append(histogram.getCount()).append(',');
+			data.append(histogram.getMean() / 1000000000.0).append(',');
+			data.append(histogram.getPercentile(50) / 1000000000.0).append(',');
+			data.append(histogram.getPercentile(99) / 1000000000.0).append(',');
+			data.append(histogram.getMax() / 1000000000.0).append('\n');
+		}
+
+		BufferedWriter writer = new BufferedWriter(new FileWriter(outputPath));
+		try {
+			writer.write(data.toString());
+		} finally {
+			writer.close();
+		}
 	}
 
 }
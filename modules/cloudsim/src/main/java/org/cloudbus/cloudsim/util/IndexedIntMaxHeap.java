@@ -0,0 +1,202 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.util.Arrays;
+
+/**
+ * A max-heap of the indices 0 to capacity - 1, each with an int value, used to find the host with
+ * the most free resources. The heap knows the position of each index, so setting the value of an
+ * index, adding or removing it take O(log n) time, and finding the index with the greatest value
+ * takes constant time. Among the indices with the greatest value, the lowest one comes first, as
+ * with a linear scan for the first maximum.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public class IndexedIntMaxHeap {
+
+	/** The indices in the heap, by position. */
+	private final int[] heap;
+
+	/** The position of each index in the heap, or -1 if it is not in the heap. */
+	private final int[] positions;
+
+	/** The value of each index. */
+	private final int[] values;
+
+	/** The number of indices in the heap. */
+	private int size;
+
+	/**
+	 * Creates an empty heap for the indices 0 to capacity - 1.
+	 *
+	 * @param capacity the number of indices
+	 */
+	public IndexedIntMaxHeap(int capacity) {
+		heap = new int[capacity];
+		positions = new int[capacity];
+		values = new int[capacity];
+		Arrays.fill(positions, -1);
+	}
+
+	/**
+	 * Gets the number of indices in the heap.
+	 *
+	 * @return the number of indices
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks whether the heap is empty.
+	 *
+	 * @return true if the heap is empty
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Checks whether the heap contains an index.
+	 *
+	 * @param index the index
+	 * @return true if the heap contains the index
+	 */
+	public boolean contains(int index) {
+		return positions[index] >= 0;
+	}
+
+	/**
+	 * Gets the value of an index in the heap.
+	 *
+	 * @param index the index
+	 * @return the value
+	 */
+	public int getValue(int index) {
+		return values[index];
+	}
+
+	/**
+	 * Gets the index with the greatest value, the lowest one on ties.
+	 *
+	 * @return the index, or -1 if the heap is empty
+	 */
+	public int peek() {
+		return size == 0 ? -1 : heap[0];
+	}
+
+	/**
+	 * Sets the value of an index, adding the index if it is not in the heap.
+	 *
+	 * @param index the index
+	 * @param value the value
+	 */
+	public void set(int index, int value) {
+		int position = positions[index];
+		if (position < 0) {
+			values[index] = value;
+			heap[size] = index;
+			positions[index] = size;
+			siftUp(size++);
+			return;
+		}
+		int oldValue = values[index];
+		values[index] = value;
+		if (value > oldValue) {
+			siftUp(position);
+		} else if (value < oldValue) {
+			siftDown(position);
+		}
+	}
+
+	/**
+	 * Removes an index.
+	 *
+	 * @param index the index
+	 * @return true if the heap contained the index
+	 */
+	public boolean remove(int index) {
+		int position = positions[index];
+		if (position < 0) {
+			return false;
+		}
+		positions[index] = -1;
+		size--;
+		if (position < size) {
+			int last = heap[size];
+			heap[position] = last;
+			positions[last] = position;
+			siftDown(position);
+			siftUp(positions[last]);
+		}
+		return true;
+	}
+
+	/**
+	 * Checks whether an index comes before another one, i.e. has a greater value, or the same value
+	 * and a lower index.
+	 *
+	 * @param index the index
+	 * @param other the other index
+	 * @return true if the index comes first
+	 */
+	private boolean before(int index, int other) {
+		return values[index] > values[other] || (values[index] == values[other] && index < other);
+	}
+
+	/**
+	 * Moves the index at a position up until its parent comes before it.
+	 *
+	 * @param position the position
+	 */
+	private void siftUp(int position) {
+		int index = heap[position];
+		while (position > 0) {
+			int parentPosition = (position - 1) >>> 1;
+			int parent = heap[parentPosition];
+			if (!before(index, parent)) {
+				break;
+			}
+			heap[position] = parent;
+			positions[parent] = position;
+			position = parentPosition;
+		}
+		heap[position] = index;
+		positions[index] = position;
+	}
+
+	/**
+	 * Moves the index at a position down until it comes before its children.
+	 *
+	 * @param position the position
+	 */
+	private void siftDown(int position) {
+		int index = heap[position];
+		int half = size >>> 1;
+		while (position < half) {
+			int childPosition = 2 * position + 1;
+			int child = heap[childPosition];
+			int rightPosition = childPosition + 1;
+			if (rightPosition < size && before(heap[rightPosition], child)) {
+				childPosition = rightPosition;
+				child = heap[childPosition];
+			}
+			if (!before(child, index)) {
+				break;
+			}
+			heap[position] = child;
+			positions[child] = position;
+			position = childPosition;
+		}
+		heap[position] = index;
+		positions[index] = position;
+	}
+
+}
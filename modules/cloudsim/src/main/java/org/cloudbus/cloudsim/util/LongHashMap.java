@@ -0,0 +1,306 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.util.ConcurrentModificationException;
+
+/**
+ * A hash map with primitive long keys, used to index VMs by their key (see
+ * {@link org.cloudbus.cloudsim.Vm#getKey()}) and the future events by source and tag, without
+ * boxing the keys or building strings. The
+ * entries are kept in open-addressing arrays with linear probing, so looking up a key does not
+ * allocate. Null values are not allowed, so that {@link #get(long)} returning null means that the
+ * key is absent.
+ * <p>
+ * The entries are iterated with a {@link Cursor}, in an order that only depends on the keys and on
+ * the order of the operations on the map. Adding or removing a key while iterating over the map
+ * is not allowed, but replacing the value of a key is.
+ * 
+ * @param <V> the type of the values
+ * @since CloudSim Toolkit 3.1
+ */
+public class LongHashMap<V> {
+
+	/** The initial number of slots, a power of 2. */
+	private static final int INITIAL_CAPACITY = 16;
+
+	/** The keys, indexed by slot. */
+	private long[] keys;
+
+	/** The values, indexed by slot; null for the free slots. */
+	private Object[] values;
+
+	/** The number of entries. */
+	private int size;
+
+	/** The number of structural modifications, to detect modifications during an iteration. */
+	private int modCount;
+
+	/**
+	 * Creates an empty map.
+	 */
+	public LongHashMap() {
+		keys = new long[INITIAL_CAPACITY];
+		values = new Object[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Gets the value of a key.
+	 * 
+	 * @param key the key
+	 * @return the value, or null if the map does not contain the key
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		int slot = find(key);
+		return slot < 0 ? null : (V) values[slot];
+	}
+
+	/**
+	 * Checks whether the map contains a key.
+	 * 
+	 * @param key the key
+	 * @return true if the map contains the key
+	 */
+	public boolean containsKey(long key) {
+		return find(key) >= 0;
+	}
+
+	/**
+	 * Sets the value of a key.
+	 * 
+	 * @param key the key
+	 * @param value the value
+	 * @return the previous value, or null if the map did not contain the key
+	 * @throws NullPointerException if the value is null
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(long key, V value) {
+		if (value == null) {
+			throw new NullPointerException("Null values are not allowed");
+		}
+		int mask = values.length - 1;
+		int slot = hash(key) & mask;
+		while (values[slot] != null) {
+			if (keys[slot] == key) {
+				V previous = (V) values[slot];
+				values[slot] = value;
+				return previous;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		values[slot] = value;
+		size++;
+		modCount++;
+		if (size * 2 > values.length) {
+			resize(values.length * 2);
+		}
+		return null;
+	}
+
+	/**
+	 * Removes a key.
+	 * 
+	 * @param key the key
+	 * @return the value of the key, or null if the map did not contain the key
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(long key) {
+		int slot = find(key);
+		if (slot < 0) {
+			return null;
+		}
+		V value = (V) values[slot];
+		int mask = values.length - 1;
+		// shift back the entries that follow in the same probe sequence, to fill the slot
+		int next = slot;
+		while (true) {
+			next = (next + 1) & mask;
+			if (values[next] == null) {
+				break;
+			}
+			int home = hash(keys[next]) & mask;
+			boolean reachable = slot <= next ? (slot < home && home <= next) : (slot < home || home <= next);
+			if (!reachable) {
+				keys[slot] = keys[next];
+				values[slot] = values[next];
+				slot = next;
+			}
+		}
+		values[slot] = null;
+		size--;
+		modCount++;
+		return value;
+	}
+
+	/**
+	 * Gets the number of entries.
+	 * 
+	 * @return the number of entries
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks whether the map is empty.
+	 * 
+	 * @return true if the map is empty
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Removes all the entries.
+	 */
+	public void clear() {
+		if (size > 0) {
+			for (int i = 0; i < values.length; i++) {
+				values[i] = null;
+			}
+			size = 0;
+			modCount++;
+		}
+	}
+
+	/**
+	 * Gets a cursor over the entries of the map.
+	 * 
+	 * @return the cursor, before the first entry
+	 */
+	public Cursor<V> cursor() {
+		return new Cursor<V>(this);
+	}
+
+	/**
+	 * Finds the slot of a key.
+	 * 
+	 * @param key the key
+	 * @return the slot, or -1 if the map does not contain the key
+	 */
+	private int find(long key) {
+		int mask = values.length - 1;
+		int slot = hash(key) & mask;
+		while (values[slot] != null) {
+			if (keys[slot] == key) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Moves the entries to new arrays.
+	 * 
+	 * @param capacity the number of slots of the new arrays, a power of 2
+	 */
+	private void resize(int capacity) {
+		long[] oldKeys = keys;
+		Object[] oldValues = values;
+		keys = new long[capacity];
+		values = new Object[capacity];
+		int mask = capacity - 1;
+		for (int i = 0; i < oldValues.length; i++) {
+			if (oldValues[i] != null) {
+				int slot = hash(oldKeys[i]) & mask;
+				while (values[slot] != null) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+
+	/**
+	 * Hashes a key, spreading its bits so that consecutive user and VM ids do not collide.
+	 * 
+	 * @param key the key
+	 * @return the hash
+	 */
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	/**
+	 * A cursor over the entries of a map.
+	 * 
+	 * <pre>
+	 * LongHashMap.Cursor&lt;V&gt; cursor = map.cursor();
+	 * while (cursor.next()) {
+	 * 	process(cursor.key(), cursor.value());
+	 * }
+	 * </pre>
+	 * 
+	 * @param <V> the type of the values
+	 */
+	public static class Cursor<V> {
+
+		/** The map. */
+		private final LongHashMap<V> map;
+
+		/** The current slot. */
+		private int slot = -1;
+
+		/** The modification count of the map expected by the cursor. */
+		private final int expectedModCount;
+
+		/**
+		 * Instantiates a new cursor.
+		 * 
+		 * @param map the map
+		 */
+		private Cursor(LongHashMap<V> map) {
+			this.map = map;
+			expectedModCount = map.modCount;
+		}
+
+		/**
+		 * Moves to the next entry.
+		 * 
+		 * @return true if there is a next entry, false at the end of the map
+		 * @throws ConcurrentModificationException if a key has been added or removed
+		 */
+		public boolean next() {
+			if (map.modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			Object[] values = map.values;
+			do {
+				slot++;
+			} while (slot < values.length && values[slot] == null);
+			return slot < values.length;
+		}
+
+		/**
+		 * Gets the key of the current entry.
+		 * 
+		 * @return the key
+		 */
+		public long key() {
+			return map.keys[slot];
+		}
+
+		/**
+		 * Gets the value of the current entry.
+		 * 
+		 * @return the value
+		 */
+		@SuppressWarnings("unchecked")
+		public V value() {
+			return (V) map.values[slot];
+		}
+
+	}
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+/**
+ * A hash set of primitive longs, backed by a {@link LongHashMap}, used for sets of VM keys.
+ * Adding, removing and looking up a key take constant time and do not box the key.
+ * 
+ * @since CloudSim Toolkit 3.1
+ */
+public class LongHashSet {
+
+	/** The value of the keys in the backing map. */
+	private static final Object PRESENT = new Object();
+
+	/** The backing map. */
+	private final LongHashMap<Object> map = new LongHashMap<Object>();
+
+	/**
+	 * Adds a key.
+	 * 
+	 * @param key the key
+	 * @return true if the set did not contain the key
+	 */
+	public boolean add(long key) {
+		return map.put(key, PRESENT) == null;
+	}
+
+	/**
+	 * Removes a key.
+	 * 
+	 * @param key the key
+	 * @return true if the set contained the key
+	 */
+	public boolean remove(long key) {
+		return map.remove(key) != null;
+	}
+
+	/**
+	 * Checks whether the set contains a key.
+	 * 
+	 * @param key the key
+	 * @return true if the set contains the key
+	 */
+	public boolean contains(long key) {
+		return map.containsKey(key);
+	}
+
+	/**
+	 * Gets the number of keys.
+	 * 
+	 * @return the number of keys
+	 */
+	public int size() {
+		return map.size();
+	}
+
+	/**
+	 * Checks whether the set is empty.
+	 * 
+	 * @return true if the set is empty
+	 */
+	public boolean isEmpty() {
+		return map.isEmpty();
+	}
+
+	/**
+	 * Removes all the keys.
+	 */
+	public void clear() {
+		map.clear();
+	}
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 3.1
+ */
+public class CloudletCompletionTrackerTest {
+
+	private static final int CLOUDLETS = 50;
+
+	private static final double SECOND_SUBMISSION_TIME = 5;
+
+	private List<Double> mipsShare;
+
+	@Before
+	public void setUp() throws Exception {
+		CloudSim.init(1, Calendar.getInstance(), false);
+		mipsShare = new ArrayList<Double>();
+		for (int i = 0; i < 4; i++) {
+			mipsShare.add(1000.0);
+		}
+	}
+
+	@Test
+	public void testTimeSharedMatchesDefault() {
+		assertFinishTimesEqual(
+				run(new CloudletSchedulerTimeShared()),
+				run(new CloudletSchedulerTimeShared(true)));
+	}
+
+	@Test
+	public void testSpaceSharedMatchesDefault() {
+		assertFinishTimesEqual(
+				run(new CloudletSchedulerSpaceShared()),
+				run(new CloudletSchedulerSpaceShared(true)));
+	}
+
+	@Test
+	public void testRemoveKeepsFinishOrder() {
+		Random random = new Random(3);
+		UtilizationModel utilizationModel = new UtilizationModelFull();
+		CloudletCompletionTracker tracker = new CloudletCompletionTracker();
+		List<ResCloudlet> expected = new ArrayList<ResCloudlet>();
+		for (int id = 0; id < CLOUDLETS * 10; id++) {
+			// Lengths in steps of 10 MI, shared by some cloudlets, which finish in the order added
+			Cloudlet cloudlet = new Cloudlet(
+					id,
+					10 * (1 + random.nextInt(CLOUDLETS)),
+					1,
+					0,
+					0,
+					utilizationModel,
+					utilizationModel,
+					utilizationModel);
+			cloudlet.setResourceParameter(0, 0);
+			ResCloudlet rcl = new ResCloudlet(cloudlet);
+			tracker.add(rcl);
+			expected.add(rcl);
+		}
+		for (int i = 0; i < CLOUDLETS * 5; i++) {
+			ResCloudlet rcl = expected.remove(random.nextInt(expected.size()));
+			assertTrue(tracker.remove(rcl));
+			assertFalse(tracker.remove(rcl));
+		}
+		assertEquals(expected.size(), tracker.size());
+
+		Collections.sort(expected, new Comparator<ResCloudlet>() {
+
+			@Override
+			public int compare(ResCloudlet a, ResCloudlet b) {
+				long difference = a.getCloudletLength() - b.getCloudletLength();
+				if (difference == 0) {
+					return a.getCloudletId() - b.getCloudletId();
+				}
+				return difference < 0 ? -1 : 1;
+			}
+
+		});
+		List<ResCloudlet> finished = new ArrayList<ResCloudlet>();
+		for (int step = 0; step < CLOUDLETS; step++) {
+			tracker.advance(10);
+			tracker.pollFinished(finished);
+		}
+		assertEquals(expected, finished);
+		assertEquals(0, tracker.size());
+	}
+
+	private void assertFinishTimesEqual(Map<Integer, Double> expected, Map<Integer, Double> actual) {
+		assertEquals(CLOUDLETS, expected.size());
+		assertEquals(expected.keySet(), actual.keySet());
+		// The default mode estimates finish times from whole MI, so it can finish a cloudlet up to
+		// the time of 1 MI earlier, i.e. 0.02 s with up to 75 PEs in use sharing 4000 MIPS
+		for (Integer id : expected.keySet()) {
+			assertEquals(expected.get(id), actual.get(id), 0.05);
+		}
+	}
+
+	/**
+	 * Runs random cloudlets, submitted in two batches, until they all finish.
+	 */
+	private Map<Integer, Double> run(CloudletScheduler scheduler) {
+		Random random = new Random(1);
+		Map<Integer, Double> finishTimes = new HashMap<Integer, Double>();
+		double time = 0;
+		scheduler.updateVmProcessing(time, mipsShare);
+		submit(scheduler, random, 0, CLOUDLETS / 2);
+		double nextEvent = scheduler.updateVmProcessing(time, mipsShare);
+		boolean submitted = false;
+		while (finishTimes.size() < CLOUDLETS) {
+			if (!submitted && (nextEvent == 0 || nextEvent > SECOND_SUBMISSION_TIME)) {
+				time = SECOND_SUBMISSION_TIME;
+			} else {
+				assertTrue(nextEvent > time && nextEvent < Double.MAX_VALUE);
+				time = nextEvent;
+			}
+			nextEvent = scheduler.updateVmProcessing(time, mipsShare);
+			while (scheduler.isFinishedCloudlets()) {
+				finishTimes.put(scheduler.getNextFinishedCloudlet().getCloudletId(), time);
+			}
+			if (!submitted && time == SECOND_SUBMISSION_TIME) {
+				submit(scheduler, random, CLOUDLETS / 2, CLOUDLETS);
+				nextEvent = scheduler.updateVmProcessing(time, mipsShare);
+				submitted = true;
+			}
+		}
+		return finishTimes;
+	}
+
+	private void submit(CloudletScheduler scheduler, Random random, int from, int to) {
+		UtilizationModel utilizationModel = new UtilizationModelFull();
+		for (int id = from; id < to; id++) {
+			Cloudlet cloudlet = new Cloudlet(
+					id,
+					1000 + random.nextInt(20000),
+					1 + random.nextInt(2),
+					300,
+					300,
+					utilizationModel,
+					utilizationModel,
+					utilizationModel);
+			cloudlet.setResourceParameter(0, 0);
+			scheduler.cloudletSubmit(cloudlet);
+		}
+	}
+
+}
@@ -0,0 +1,163 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 3.1
+ */
+public class CloudletSchedulerEasyBackfillingTest {
+
+	private List<Double> mipsShare;
+
+	@Before
+	public void setUp() throws Exception {
+		CloudSim.init(1, Calendar.getInstance(), false);
+		mipsShare = new ArrayList<Double>();
+		for (int i = 0; i < 4; i++) {
+			mipsShare.add(1000.0);
+		}
+	}
+
+	@Test
+	public void testShortCloudletIsBackfilled() {
+		CloudletScheduler scheduler = new CloudletSchedulerEasyBackfilling();
+		scheduler.updateVmProcessing(0, mipsShare);
+		assertEquals(10, scheduler.cloudletSubmit(createCloudlet(0, 10000, 3)), 0);
+		assertEquals(0, scheduler.cloudletSubmit(createCloudlet(1, 1000, 4)), 0);
+		// finishes before the reservation of the 4-PE cloudlet at 10 s
+		assertEquals(5, scheduler.cloudletSubmit(createCloudlet(2, 5000, 1)), 0);
+		// would delay the 4-PE cloudlet
+		assertEquals(0, scheduler.cloudletSubmit(createCloudlet(3, 20000, 1)), 0);
+		assertEquals(Cloudlet.INEXEC, scheduler.getCloudletStatus(2));
+		assertEquals(Cloudlet.QUEUED, scheduler.getCloudletStatus(3));
+
+		assertEquals(5, scheduler.updateVmProcessing(0, mipsShare), 0);
+		assertEquals(10, scheduler.updateVmProcessing(5, mipsShare), 0);
+		assertEquals(Cloudlet.QUEUED, scheduler.getCloudletStatus(3));
+
+		assertEquals(11, scheduler.updateVmProcessing(10, mipsShare), 0);
+		assertEquals(Cloudlet.INEXEC, scheduler.getCloudletStatus(1));
+		assertEquals(31, scheduler.updateVmProcessing(11, mipsShare), 0);
+		assertEquals(Cloudlet.INEXEC, scheduler.getCloudletStatus(3));
+	}
+
+	@Test
+	public void testCloudletIsBackfilledOnExtraPes() {
+		CloudletScheduler scheduler = new CloudletSchedulerEasyBackfilling();
+		scheduler.updateVmProcessing(0, mipsShare);
+		scheduler.cloudletSubmit(createCloudlet(0, 10000, 2));
+		scheduler.cloudletSubmit(createCloudlet(1, 1000, 3));
+		// the 3-PE cloudlet leaves 1 PE free at 10 s
+		assertEquals(20, scheduler.cloudletSubmit(createCloudlet(2, 20000, 1)), 0);
+		assertEquals(0, scheduler.cloudletSubmit(createCloudlet(3, 20000, 1)), 0);
+		assertEquals(Cloudlet.INEXEC, scheduler.getCloudletStatus(2));
+		assertEquals(Cloudlet.QUEUED, scheduler.getCloudletStatus(3));
+
+		scheduler.updateVmProcessing(0, mipsShare);
+		scheduler.updateVmProcessing(10, mipsShare);
+		assertEquals(Cloudlet.INEXEC, scheduler.getCloudletStatus(1));
+		assertEquals(Cloudlet.QUEUED, scheduler.getCloudletStatus(3));
+	}
+
+	@Test
+	public void testShortestCloudletIsBackfilledFirst() {
+		CloudletScheduler scheduler = new CloudletSchedulerEasyBackfilling();
+		// submitted before the PEs of the VM are known, so nothing starts yet
+		scheduler.cloudletSubmit(createCloudlet(0, 10000, 2));
+		scheduler.cloudletSubmit(createCloudlet(1, 1000, 4));
+		scheduler.cloudletSubmit(createCloudlet(2, 8000, 1));
+		scheduler.cloudletSubmit(createCloudlet(3, 2000, 1));
+		scheduler.cloudletSubmit(createCloudlet(4, 3000, 1));
+
+		assertEquals(2, scheduler.updateVmProcessing(0, mipsShare), 0);
+		assertEquals(Cloudlet.INEXEC, scheduler.getCloudletStatus(0));
+		assertEquals(Cloudlet.QUEUED, scheduler.getCloudletStatus(1));
+		assertEquals(Cloudlet.QUEUED, scheduler.getCloudletStatus(2));
+		assertEquals(Cloudlet.INEXEC, scheduler.getCloudletStatus(3));
+		assertEquals(Cloudlet.INEXEC, scheduler.getCloudletStatus(4));
+
+		// the 8000 MI cloudlet still finishes before the reservation at 10 s
+		assertEquals(3, scheduler.updateVmProcessing(2, mipsShare), 0);
+		assertEquals(Cloudlet.INEXEC, scheduler.getCloudletStatus(2));
+	}
+
+	@Test
+	public void testCanceledCloudletIsNotBackfilled() {
+		CloudletScheduler scheduler = new CloudletSchedulerEasyBackfilling();
+		scheduler.updateVmProcessing(0, mipsShare);
+		scheduler.cloudletSubmit(createCloudlet(0, 10000, 3));
+		scheduler.cloudletSubmit(createCloudlet(1, 1000, 4));
+		scheduler.cloudletSubmit(createCloudlet(2, 20000, 1));
+		scheduler.cloudletCancel(2);
+		scheduler.cloudletSubmit(createCloudlet(3, 1000, 1));
+		assertEquals(Cloudlet.INEXEC, scheduler.getCloudletStatus(3));
+	}
+
+	@Test
+	public void testAllCloudletsFinish() {
+		Random random = new Random(1);
+		CloudletScheduler backfilling = new CloudletSchedulerEasyBackfilling();
+		CloudletScheduler spaceShared = new CloudletSchedulerSpaceShared();
+		Map<Integer, Double> backfillingTimes = run(backfilling, new Random(1));
+		Map<Integer, Double> spaceSharedTimes = run(spaceShared, random);
+		assertEquals(spaceSharedTimes.keySet(), backfillingTimes.keySet());
+	}
+
+	/**
+	 * Runs random cloudlets until they all finish.
+	 */
+	private Map<Integer, Double> run(CloudletScheduler scheduler, Random random) {
+		Map<Integer, Double> finishTimes = new HashMap<Integer, Double>();
+		scheduler.updateVmProcessing(0, mipsShare);
+		for (int id = 0; id < 100; id++) {
+			scheduler.cloudletSubmit(createCloudlet(id, 1000 + random.nextInt(20000), 1 + random.nextInt(4)));
+		}
+		double time = 0;
+		double nextEvent = scheduler.updateVmProcessing(time, mipsShare);
+		while (finishTimes.size() < 100) {
+			assertTrue(nextEvent > time && nextEvent < Double.MAX_VALUE);
+			time = nextEvent;
+			nextEvent = scheduler.updateVmProcessing(time, mipsShare);
+			while (scheduler.isFinishedCloudlets()) {
+				finishTimes.put(scheduler.getNextFinishedCloudlet().getCloudletId(), time);
+			}
+		}
+		return finishTimes;
+	}
+
+	private Cloudlet createCloudlet(int id, long length, int pes) {
+		UtilizationModel utilizationModel = new UtilizationModelFull();
+		Cloudlet cloudlet = new Cloudlet(
+				id,
+				length,
+				pes,
+				0,
+				0,
+				utilizationModel,
+				utilizationModel,
+				utilizationModel);
+		cloudlet.setResourceParameter(0, 0);
+		return cloudlet;
+	}
+
+}
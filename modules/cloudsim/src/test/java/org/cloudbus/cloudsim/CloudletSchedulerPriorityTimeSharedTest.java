@@ -0,0 +1,177 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 3.1
+ */
+public class CloudletSchedulerPriorityTimeSharedTest {
+
+	private static final double MIPS = 1000;
+
+	private List<Double> mipsShare;
+
+	@Before
+	public void setUp() throws Exception {
+		CloudSim.init(1, Calendar.getInstance(), false);
+		mipsShare = new ArrayList<Double>();
+		mipsShare.add(MIPS);
+	}
+
+	@Test
+	public void testWeightedSharing() {
+		CloudletSchedulerPriorityTimeShared scheduler = new CloudletSchedulerPriorityTimeShared();
+		scheduler.updateVmProcessing(0, mipsShare);
+		Cloudlet heavy = createCloudlet(0, 3000, 3);
+		Cloudlet light = createCloudlet(1, 3000, 1);
+		scheduler.cloudletSubmit(heavy);
+		scheduler.cloudletSubmit(light);
+
+		// 750 MIPS for the heavy cloudlet, 250 MIPS for the light one
+		assertEquals(4, scheduler.updateVmProcessing(0, mipsShare), 0);
+		assertEquals(6, scheduler.updateVmProcessing(4, mipsShare), 0);
+		assertTrue(scheduler.isFinishedCloudlets());
+		assertSame(heavy, scheduler.getNextFinishedCloudlet());
+		assertFalse(scheduler.isFinishedCloudlets());
+
+		scheduler.updateVmProcessing(6, mipsShare);
+		assertSame(light, scheduler.getNextFinishedCloudlet());
+	}
+
+	@Test
+	public void testEqualWeightsMatchTimeShared() {
+		CloudletSchedulerTimeShared timeShared = new CloudletSchedulerTimeShared();
+		CloudletSchedulerPriorityTimeShared priority = new CloudletSchedulerPriorityTimeShared();
+		timeShared.updateVmProcessing(0, mipsShare);
+		priority.updateVmProcessing(0, mipsShare);
+		for (int id = 0; id < 3; id++) {
+			timeShared.cloudletSubmit(createCloudlet(id, 1000 * (id + 1), 0));
+			priority.cloudletSubmit(createCloudlet(id, 1000 * (id + 1), 0));
+		}
+
+		double time = 0;
+		for (int i = 0; i < 3; i++) {
+			double next = timeShared.updateVmProcessing(time, mipsShare);
+			assertEquals(next, priority.updateVmProcessing(time, mipsShare), 0);
+			time = next;
+		}
+	}
+
+	@Test
+	public void testWaitingCloudletsStartByWeight() {
+		CloudletSchedulerPriorityTimeShared scheduler = new CloudletSchedulerPriorityTimeShared(1);
+		scheduler.updateVmProcessing(0, mipsShare);
+		Cloudlet first = createCloudlet(0, 1000, 1);
+		Cloudlet light = createCloudlet(1, 1000, 1);
+		Cloudlet heavy = createCloudlet(2, 1000, 5);
+		assertTrue(scheduler.cloudletSubmit(first) > 0);
+		assertEquals(0, scheduler.cloudletSubmit(light), 0);
+		assertEquals(0, scheduler.cloudletSubmit(heavy), 0);
+		assertEquals(Cloudlet.INEXEC, scheduler.getCloudletStatus(0));
+		assertEquals(Cloudlet.QUEUED, scheduler.getCloudletStatus(1));
+		assertEquals(Cloudlet.QUEUED, scheduler.getCloudletStatus(2));
+
+		assertEquals(1, scheduler.updateVmProcessing(0, mipsShare), 0);
+		assertEquals(2, scheduler.updateVmProcessing(1, mipsShare), 0);
+		assertSame(first, scheduler.getNextFinishedCloudlet());
+		assertEquals(Cloudlet.INEXEC, scheduler.getCloudletStatus(2));
+		assertEquals(Cloudlet.QUEUED, scheduler.getCloudletStatus(1));
+
+		assertEquals(3, scheduler.updateVmProcessing(2, mipsShare), 0);
+		assertSame(heavy, scheduler.getNextFinishedCloudlet());
+		scheduler.updateVmProcessing(3, mipsShare);
+		assertSame(light, scheduler.getNextFinishedCloudlet());
+	}
+
+	@Test
+	public void testCancelAndPauseWaitingCloudlet() {
+		CloudletSchedulerPriorityTimeShared scheduler = new CloudletSchedulerPriorityTimeShared(1);
+		scheduler.updateVmProcessing(0, mipsShare);
+		scheduler.cloudletSubmit(createCloudlet(0, 1000, 1));
+		Cloudlet canceled = createCloudlet(1, 1000, 3);
+		Cloudlet paused = createCloudlet(2, 1000, 2);
+		Cloudlet last = createCloudlet(3, 1000, 1);
+		scheduler.cloudletSubmit(canceled);
+		scheduler.cloudletSubmit(paused);
+		scheduler.cloudletSubmit(last);
+
+		assertSame(canceled, scheduler.cloudletCancel(1));
+		assertTrue(scheduler.cloudletPause(2));
+		assertEquals(Cloudlet.PAUSED, scheduler.getCloudletStatus(2));
+
+		scheduler.updateVmProcessing(0, mipsShare);
+		scheduler.updateVmProcessing(1, mipsShare);
+		assertEquals(Cloudlet.INEXEC, scheduler.getCloudletStatus(3));
+
+		// The resumed cloudlet waits for the running one
+		assertEquals(0, scheduler.cloudletResume(2), 0);
+		assertEquals(Cloudlet.QUEUED, scheduler.getCloudletStatus(2));
+		assertEquals(2, scheduler.updateVmProcessing(1, mipsShare), 0);
+		scheduler.updateVmProcessing(2, mipsShare);
+		assertEquals(Cloudlet.INEXEC, scheduler.getCloudletStatus(2));
+	}
+
+	@Test
+	public void testWeightInUseFollowsRunningCloudlets() {
+		CloudletSchedulerPriorityTimeShared scheduler = new CloudletSchedulerPriorityTimeShared(2);
+		scheduler.updateVmProcessing(0, mipsShare);
+		scheduler.cloudletSubmit(createCloudlet(0, 1000, 3));
+		scheduler.cloudletSubmit(createCloudlet(1, 2000, 1));
+		scheduler.cloudletSubmit(createCloudlet(2, 5000, 2));
+		assertEquals(4, scheduler.getWeightInUse(), 0);
+
+		scheduler.cloudletPause(1);
+		assertEquals(3, scheduler.getWeightInUse(), 0);
+		scheduler.cloudletResume(1);
+		assertEquals(4, scheduler.getWeightInUse(), 0);
+		scheduler.cloudletCancel(1);
+		assertEquals(3, scheduler.getWeightInUse(), 0);
+
+		// the waiting cloudlet starts when the first one finishes
+		scheduler.updateVmProcessing(1, mipsShare);
+		assertEquals(2, scheduler.getWeightInUse(), 0);
+		scheduler.migrateCloudlet();
+		assertEquals(0, scheduler.getWeightInUse(), 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidMaxRunningCloudlets() {
+		new CloudletSchedulerPriorityTimeShared(0);
+	}
+
+	private Cloudlet createCloudlet(int id, long length, int weight) {
+		UtilizationModel utilizationModel = new UtilizationModelFull();
+		Cloudlet cloudlet = new Cloudlet(
+				id,
+				length,
+				1,
+				0,
+				0,
+				utilizationModel,
+				utilizationModel,
+				utilizationModel);
+		cloudlet.setClassType(weight);
+		cloudlet.setResourceParameter(0, 0);
+		return cloudlet;
+	}
+
+}
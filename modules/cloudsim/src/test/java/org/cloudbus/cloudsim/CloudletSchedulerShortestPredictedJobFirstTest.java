@@ -0,0 +1,128 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 3.1
+ */
+public class CloudletSchedulerShortestPredictedJobFirstTest {
+
+	private List<Double> mipsShare;
+
+	@Before
+	public void setUp() throws Exception {
+		CloudSim.init(1, Calendar.getInstance(), false);
+		mipsShare = new ArrayList<Double>();
+		mipsShare.add(1000.0);
+		mipsShare.add(1000.0);
+	}
+
+	@Test
+	public void testShortestWaitingCloudletStartsFirst() {
+		CloudletScheduler scheduler = new CloudletSchedulerShortestPredictedJobFirst();
+		List<Integer> order = run(scheduler, new long[] { 5000, 5000, 3000, 1000, 2000 }, new int[] { 1, 1, 1, 1, 1 });
+		assertEquals(5, order.size());
+		assertEquals(Integer.valueOf(3), order.get(2));
+		assertEquals(Integer.valueOf(4), order.get(3));
+		assertEquals(Integer.valueOf(2), order.get(4));
+	}
+
+	@Test
+	public void testWideCloudletIsNotOvertaken() {
+		CloudletScheduler scheduler = new CloudletSchedulerShortestPredictedJobFirst();
+		// The wide cloudlet waits for both PEs, and the narrower but longer one waits behind it
+		List<Integer> order = run(scheduler, new long[] { 1000, 4000, 1000, 3000 }, new int[] { 1, 1, 2, 1 });
+		assertEquals(4, order.size());
+		assertEquals(Integer.valueOf(0), order.get(0));
+		assertEquals(Integer.valueOf(1), order.get(1));
+		assertEquals(Integer.valueOf(2), order.get(2));
+		assertEquals(Integer.valueOf(3), order.get(3));
+	}
+
+	@Test
+	public void testPredictedLength() {
+		CloudletScheduler scheduler = new CloudletSchedulerShortestPredictedJobFirst() {
+
+			@Override
+			protected double getPredictedLength(Cloudlet cloudlet) {
+				// Predicts the opposite order of the actual lengths
+				return -cloudlet.getCloudletLength();
+			}
+
+		};
+		List<Integer> order = run(scheduler, new long[] { 5000, 20000, 1000, 2000, 3000 }, new int[] { 1, 1, 1, 1, 1 });
+		assertEquals(Integer.valueOf(4), order.get(1));
+		assertEquals(Integer.valueOf(3), order.get(2));
+		assertEquals(Integer.valueOf(2), order.get(3));
+		assertEquals(Integer.valueOf(1), order.get(4));
+	}
+
+	@Test
+	public void testCanceledCloudletIsNotStarted() {
+		CloudletScheduler scheduler = new CloudletSchedulerShortestPredictedJobFirst();
+		scheduler.updateVmProcessing(0, mipsShare);
+		submit(scheduler, new long[] { 1000, 1000, 500, 2000 }, new int[] { 1, 1, 1, 1 });
+		assertEquals(Cloudlet.QUEUED, scheduler.getCloudletStatus(2));
+		scheduler.cloudletCancel(2);
+		scheduler.updateVmProcessing(0, mipsShare);
+		scheduler.updateVmProcessing(1, mipsShare);
+		assertEquals(Cloudlet.INEXEC, scheduler.getCloudletStatus(3));
+	}
+
+	/**
+	 * Runs cloudlets until they all finish.
+	 * 
+	 * @return the ids of the cloudlets, in the order they finished
+	 */
+	private List<Integer> run(CloudletScheduler scheduler, long[] lengths, int[] pes) {
+		scheduler.updateVmProcessing(0, mipsShare);
+		submit(scheduler, lengths, pes);
+		List<Integer> order = new ArrayList<Integer>();
+		double time = 0;
+		double nextEvent = scheduler.updateVmProcessing(time, mipsShare);
+		while (order.size() < lengths.length) {
+			assertTrue(nextEvent > time && nextEvent < Double.MAX_VALUE);
+			time = nextEvent;
+			nextEvent = scheduler.updateVmProcessing(time, mipsShare);
+			while (scheduler.isFinishedCloudlets()) {
+				order.add(scheduler.getNextFinishedCloudlet().getCloudletId());
+			}
+		}
+		return order;
+	}
+
+	private void submit(CloudletScheduler scheduler, long[] lengths, int[] pes) {
+		UtilizationModel utilizationModel = new UtilizationModelFull();
+		for (int id = 0; id < lengths.length; id++) {
+			Cloudlet cloudlet = new Cloudlet(
+					id,
+					lengths[id],
+					pes[id],
+					0,
+					0,
+					utilizationModel,
+					utilizationModel,
+					utilizationModel);
+			cloudlet.setResourceParameter(0, 0);
+			scheduler.cloudletSubmit(cloudlet);
+		}
+	}
+
+}
@@ -0,0 +1,168 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 3.1
+ */
+public class CloudletSchedulerTimeSharedTest {
+
+	private static final long CLOUDLET_LENGTH = 1000;
+
+	private static final double MIPS = 1000;
+
+	private static final int PES_NUMBER = 2;
+
+	private CloudletSchedulerTimeShared scheduler;
+
+	private List<Double> mipsShare;
+
+	@Before
+	public void setUp() throws Exception {
+		CloudSim.init(1, Calendar.getInstance(), false);
+		scheduler = new CloudletSchedulerTimeShared();
+		mipsShare = new ArrayList<Double>();
+		for (int i = 0; i < PES_NUMBER; i++) {
+			mipsShare.add(MIPS);
+		}
+		scheduler.updateVmProcessing(0, mipsShare);
+	}
+
+	private Cloudlet createCloudlet(int id, long length, int pes) {
+		UtilizationModel utilizationModel = new UtilizationModelFull();
+		Cloudlet cloudlet = new Cloudlet(id, length, pes, 300, 300, utilizationModel, utilizationModel, utilizationModel);
+		cloudlet.setResourceParameter(0, 0);
+		return cloudlet;
+	}
+
+	private double getCapacity() {
+		return scheduler.getTotalCurrentAvailableMipsForCloudlet(null, mipsShare);
+	}
+
+	@Test
+	public void testCapacityFollowsPesInUse() {
+		assertEquals(MIPS, getCapacity(), 0);
+
+		scheduler.cloudletSubmit(createCloudlet(0, CLOUDLET_LENGTH, 1));
+		scheduler.cloudletSubmit(createCloudlet(1, CLOUDLET_LENGTH, 2));
+		scheduler.cloudletSubmit(createCloudlet(2, CLOUDLET_LENGTH, 1));
+		assertEquals(MIPS * PES_NUMBER / 4, getCapacity(), 0);
+
+		scheduler.cloudletPause(1);
+		assertEquals(MIPS, getCapacity(), 0);
+
+		scheduler.cloudletResume(1);
+		assertEquals(MIPS * PES_NUMBER / 4, getCapacity(), 0);
+
+		scheduler.cloudletCancel(0);
+		assertEquals(MIPS * PES_NUMBER / 3, getCapacity(), 0);
+
+		scheduler.migrateCloudlet();
+		assertEquals(MIPS * PES_NUMBER / 2, getCapacity(), 0);
+	}
+
+	@Test
+	public void testUpdateVmProcessing() {
+		scheduler.cloudletSubmit(createCloudlet(0, CLOUDLET_LENGTH, 1));
+		scheduler.cloudletSubmit(createCloudlet(1, 2 * CLOUDLET_LENGTH, 1));
+		scheduler.cloudletSubmit(createCloudlet(2, CLOUDLET_LENGTH, 2));
+
+		// 4 PEs share 2000 MIPS, so the first and the last cloudlets finish after 2 seconds
+		assertEquals(2, scheduler.updateVmProcessing(1, mipsShare), 0);
+		assertEquals(3, scheduler.updateVmProcessing(2, mipsShare), 0);
+		assertEquals(2, scheduler.getCloudletFinishedList().size());
+
+		// The remaining cloudlet has a whole PE
+		assertEquals(MIPS, getCapacity(), 0);
+		scheduler.updateVmProcessing(3, mipsShare);
+		assertEquals(0, scheduler.runningCloudlets());
+		assertEquals(3, scheduler.getCloudletFinishedList().size());
+	}
+
+	@Test
+	public void testUpdateVmProcessingWithCompletionTracking() {
+		scheduler = new CloudletSchedulerTimeShared(true);
+		scheduler.updateVmProcessing(0, mipsShare);
+		testUpdateVmProcessing();
+	}
+
+	@Test
+	public void testPauseWithCompletionTracking() {
+		scheduler = new CloudletSchedulerTimeShared(true);
+		scheduler.updateVmProcessing(0, mipsShare);
+		scheduler.cloudletSubmit(createCloudlet(0, CLOUDLET_LENGTH, 1));
+		scheduler.cloudletSubmit(createCloudlet(1, CLOUDLET_LENGTH, 1));
+
+		// The progress of the paused cloudlet is brought up to date
+		scheduler.updateVmProcessing(0.5, mipsShare);
+		scheduler.cloudletPause(0);
+		assertEquals(CLOUDLET_LENGTH / 2, scheduler.getCloudletPausedList().get(0).getRemainingCloudletLength());
+
+		scheduler.cloudletResume(0);
+		assertEquals(1, scheduler.updateVmProcessing(0.5, mipsShare), 0);
+		assertEquals(Double.MAX_VALUE, scheduler.updateVmProcessing(1, mipsShare), 0);
+		assertEquals(2, scheduler.getCloudletFinishedList().size());
+	}
+
+	@Test
+	public void testSteadyStateUpdateDoesNotAllocate() {
+		checkSteadyStateUpdateDoesNotAllocate();
+	}
+
+	@Test
+	public void testSteadyStateUpdateWithCompletionTrackingDoesNotAllocate() {
+		scheduler = new CloudletSchedulerTimeShared(true);
+		scheduler.updateVmProcessing(0, mipsShare);
+		checkSteadyStateUpdateDoesNotAllocate();
+	}
+
+	/**
+	 * Checks that updating the processing of running cloudlets, none of which finishes, does not
+	 * allocate any memory once the scheduler has been warmed up.
+	 */
+	private void checkSteadyStateUpdateDoesNotAllocate() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+		assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+		long threadId = Thread.currentThread().getId();
+
+		for (int id = 0; id < 100; id++) {
+			scheduler.cloudletSubmit(createCloudlet(id, 1000000000000L, 1 + id % 2));
+		}
+		double time = 0;
+		for (int i = 0; i < 1000; i++) {
+			scheduler.updateVmProcessing(++time, mipsShare);
+		}
+
+		// the bytes allocated by the measurement itself, if any
+		long overhead = -threadBean.getThreadAllocatedBytes(threadId) + threadBean.getThreadAllocatedBytes(threadId);
+		long before = threadBean.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < 10000; i++) {
+			scheduler.updateVmProcessing(++time, mipsShare);
+		}
+		long allocated = threadBean.getThreadAllocatedBytes(threadId) - before - overhead;
+		assertEquals(100, scheduler.runningCloudlets());
+		assertEquals(0, allocated);
+	}
+
+}
@@ -0,0 +1,376 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.core.SimEvent;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 3.1
+ */
+public class DatacenterTest {
+
+	private static final int HOSTS = 4;
+
+	private static final int VMS = 8;
+
+	private static final int CLOUDLETS = 60;
+
+	private static final int ARRIVALS = 3;
+
+	private static final double ARRIVAL_INTERVAL = 20;
+
+	private static final double MIPS = 1000;
+
+	private boolean logDisabled;
+
+	@Before
+	public void setUp() throws Exception {
+		logDisabled = Log.isDisabled();
+		Log.disable();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		Log.setDisabled(logDisabled);
+	}
+
+	@Test
+	public void testAnalyticProcessingMatchesStepped() throws Exception {
+		RunResult stepped = run(new RunConfig(false, false));
+		RunResult analytic = run(new RunConfig(true, false));
+
+		assertEquals(CLOUDLETS, stepped.finishTimes.size());
+		// The stepped mode pads the time between processing events, so it processes departures a
+		// little late, which delays the cloudlets that speed up when others leave: the lags add up
+		// to a few tenths of a second over the run
+		assertFinishTimesEqual(stepped, analytic, 0.25);
+
+		// at most one event per arrival instant and per departure
+		assertTrue(analytic.processingEvents <= ARRIVALS + CLOUDLETS);
+		assertTrue(analytic.processingEvents < stepped.processingEvents);
+	}
+
+	@Test
+	public void testHostTrackingMatchesFullUpdate() throws Exception {
+		// updating a host shortly before its next event defers the event to the minimum time between
+		// events from then, which only the full update does, so that time is kept small
+		RunConfig config = new RunConfig(true, false);
+		config.minTimeBetweenEvents = 1e-9;
+		RunResult full = run(config);
+		config.hostTracking = true;
+		RunResult tracked = run(config);
+
+		assertFinishTimesEqual(full, tracked, 1e-6);
+		assertTrue(tracked.hostUpdates < full.hostUpdates / 2);
+	}
+
+	@Test
+	public void testHostTrackingInSteppedMode() throws Exception {
+		RunResult full = run(new RunConfig(false, false));
+		RunResult tracked = run(new RunConfig(false, true));
+
+		// the tracked hosts are brought up to date before each submission, whereas the stepped mode
+		// skips updates less than the minimum time between events apart
+		assertFinishTimesEqual(full, tracked, 0.25);
+	}
+
+	@Test
+	public void testParallelHostUpdateMatchesSequential() throws Exception {
+		RunConfig config = new RunConfig(false, false);
+		RunResult sequential = run(config);
+		config.hostUpdateParallelism = 3;
+		RunResult parallel = run(config);
+
+		assertEquals(sequential.finishTimes, parallel.finishTimes);
+	}
+
+	@Test
+	public void testBatchedVmCreationMatchesPerVm() throws Exception {
+		RunConfig config = new RunConfig(false, false);
+		config.vmCreationBatched = false;
+		RunResult perVm = run(config);
+		assertEquals(VMS, perVm.vmCreationRequests);
+
+		config.vmCreationBatched = true;
+		RunResult batched = run(config);
+		assertEquals(1, batched.vmCreationRequests);
+
+		assertEquals(VMS, batched.vmHosts.size());
+		assertEquals(perVm.vmHosts, batched.vmHosts);
+		assertEquals(perVm.finishTimes, batched.finishTimes);
+	}
+
+	@Test
+	public void testBatchedCloudletSubmissionMatchesPerCloudlet() throws Exception {
+		RunConfig config = new RunConfig(false, false);
+		RunResult perCloudlet = run(config);
+		config.cloudletSubmissionBatched = true;
+		RunResult batched = run(config);
+
+		// a batch only schedules the earliest of the processing events of its cloudlets, so the
+		// stepped mode pads the time between events from other instants, within the same lag as in
+		// the other comparisons with the stepped mode
+		assertFinishTimesEqual(perCloudlet, batched, 0.25);
+		assertTrue(batched.hostUpdates < perCloudlet.hostUpdates);
+		assertTrue(batched.processingEvents < perCloudlet.processingEvents);
+	}
+
+	@Test
+	public void testEventDrivenActivationMatchesClassicLoop() throws Exception {
+		RunConfig config = new RunConfig(false, false);
+		config.eventDrivenActivation = false;
+		RunResult classic = run(config);
+		config.eventDrivenActivation = true;
+		RunResult eventDriven = run(config);
+
+		assertTrue(classic.events.size() > CLOUDLETS);
+		assertEquals(classic.events, eventDriven.events);
+		assertEquals(classic.finishTimes, eventDriven.finishTimes);
+	}
+
+	private void assertFinishTimesEqual(RunResult expected, RunResult actual, double delta) {
+		assertEquals(expected.finishTimes.keySet(), actual.finishTimes.keySet());
+		for (Integer id : expected.finishTimes.keySet()) {
+			assertEquals(expected.finishTimes.get(id), actual.finishTimes.get(id), delta);
+		}
+	}
+
+	/**
+	 * Runs random cloudlets, arriving at several instants, until they all finish.
+	 */
+	private RunResult run(RunConfig config) throws Exception {
+		CloudSim.init(1, Calendar.getInstance(), false, config.minTimeBetweenEvents);
+		CloudSim.setEventDrivenActivation(config.eventDrivenActivation);
+		RunResult result = new RunResult();
+		Datacenter datacenter = createDatacenter(result);
+		datacenter.setAnalyticProcessing(config.analytic);
+		datacenter.setHostTracking(config.hostTracking);
+		datacenter.setHostUpdateParallelism(config.hostUpdateParallelism);
+		DelayedBroker broker = new DelayedBroker("Broker", result.events);
+		broker.setVmCreationBatched(config.vmCreationBatched);
+		broker.setCloudletSubmissionBatched(config.cloudletSubmissionBatched);
+
+		List<Vm> vms = new ArrayList<Vm>();
+		for (int id = 0; id < VMS; id++) {
+			vms.add(new Vm(id, broker.getId(), MIPS, 2, 512, 1000, 1000, "Xen", new CloudletSchedulerTimeShared(
+					config.analytic)));
+		}
+		broker.submitVmList(vms);
+
+		Random random = new Random(1);
+		UtilizationModel utilizationModel = new UtilizationModelFull();
+		List<Cloudlet> cloudlets = new ArrayList<Cloudlet>();
+		for (int id = 0; id < CLOUDLETS; id++) {
+			Cloudlet cloudlet = new Cloudlet(
+					id,
+					1000 + random.nextInt(20000),
+					1 + random.nextInt(2),
+					300,
+					300,
+					utilizationModel,
+					utilizationModel,
+					utilizationModel);
+			cloudlet.setUserId(broker.getId());
+			cloudlets.add(cloudlet);
+		}
+		broker.submitCloudletList(cloudlets);
+
+		CloudSim.startSimulation();
+
+		result.vmHosts = broker.vmHosts;
+		for (Cloudlet cloudlet : broker.<Cloudlet> getCloudletReceivedList()) {
+			assertEquals(Cloudlet.SUCCESS, cloudlet.getCloudletStatus());
+			result.finishTimes.put(cloudlet.getCloudletId(), cloudlet.getFinishTime());
+		}
+		return result;
+	}
+
+	private Datacenter createDatacenter(final RunResult result) throws Exception {
+		List<Host> hostList = new ArrayList<Host>();
+		for (int id = 0; id < HOSTS; id++) {
+			List<Pe> peList = new ArrayList<Pe>();
+			for (int i = 0; i < 4; i++) {
+				peList.add(new Pe(i, new PeProvisionerSimple(MIPS)));
+			}
+			hostList.add(new Host(
+					id,
+					new RamProvisionerSimple(2048),
+					new BwProvisionerSimple(10000),
+					Consts.MILLION,
+					peList,
+					new VmSchedulerTimeShared(peList)) {
+
+				@Override
+				public double updateVmsProcessing(double currentTime) {
+					result.hostUpdates++;
+					return super.updateVmsProcessing(currentTime);
+				}
+
+			});
+		}
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+				"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+		return new Datacenter("Datacenter", characteristics, new VmAllocationPolicySimple(hostList),
+				new LinkedList<Storage>(), 0) {
+
+			@Override
+			public void processEvent(SimEvent ev) {
+				result.events.add(describe(ev));
+				if (ev.getTag() == CloudSimTags.VM_DATACENTER_EVENT) {
+					result.processingEvents++;
+				} else if (ev.getTag() == CloudSimTags.VM_CREATE_ACK
+						|| ev.getTag() == CloudSimTags.VM_CREATE_BATCH) {
+					result.vmCreationRequests++;
+				}
+				super.processEvent(ev);
+			}
+
+		};
+	}
+
+	/**
+	 * Describes an event as it is processed, for the comparison of the event traces of two runs.
+	 */
+	private static String describe(SimEvent ev) {
+		return CloudSim.clock() + " " + ev.getSource() + " -> " + ev.getDestination() + " " + ev.getTag();
+	}
+
+	/**
+	 * The options of a run.
+	 */
+	private static class RunConfig {
+
+		/** Whether the processing is updated in analytic mode. */
+		private boolean analytic;
+
+		/** Whether the datacenter tracks the hosts that need an update. */
+		private boolean hostTracking;
+
+		/** The minimum time between events. */
+		private double minTimeBetweenEvents = 0.1;
+
+		/** The number of threads updating the hosts. */
+		private int hostUpdateParallelism = 1;
+
+		/** Whether the broker batches the VM creation requests. */
+		private boolean vmCreationBatched = true;
+
+		/** Whether the broker batches the cloudlet submissions. */
+		private boolean cloudletSubmissionBatched = false;
+
+		/** Whether the simulation only runs the entities activated by events. */
+		private boolean eventDrivenActivation = true;
+
+		public RunConfig(boolean analytic, boolean hostTracking) {
+			this.analytic = analytic;
+			this.hostTracking = hostTracking;
+		}
+
+	}
+
+	/**
+	 * The outcome of a run.
+	 */
+	private static class RunResult {
+
+		/** The finish times of the cloudlets, by cloudlet id. */
+		private final Map<Integer, Double> finishTimes = new HashMap<Integer, Double>();
+
+		/** The number of processing events. */
+		private int processingEvents;
+
+		/** The number of host updates. */
+		private int hostUpdates;
+
+		/** The number of VM creation requests. */
+		private int vmCreationRequests;
+
+		/** The ids of the hosts of the VMs, by VM id. */
+		private Map<Integer, Integer> vmHosts;
+
+		/** The events processed by the datacenter and the broker, in order. */
+		private final List<String> events = new ArrayList<String>();
+
+	}
+
+	/**
+	 * A broker that submits the cloudlets at several instants, ARRIVAL_INTERVAL apart, one by one or
+	 * in a batch per instant.
+	 */
+	private static class DelayedBroker extends DatacenterBroker {
+
+		/** The ids of the hosts of the created VMs. */
+		private final Map<Integer, Integer> vmHosts = new HashMap<Integer, Integer>();
+
+		/** The trace of the processed events. */
+		private final List<String> events;
+
+		public DelayedBroker(String name, List<String> events) throws Exception {
+			super(name);
+			this.events = events;
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+			events.add(describe(ev));
+			super.processEvent(ev);
+		}
+
+		@Override
+		protected void submitCloudlets() {
+			for (Vm vm : getVmsCreatedList()) {
+				vmHosts.put(vm.getId(), vm.getHost().getId());
+			}
+			List<List<Cloudlet>> batches = new ArrayList<List<Cloudlet>>();
+			for (int i = 0; i < ARRIVALS; i++) {
+				batches.add(new ArrayList<Cloudlet>());
+			}
+			int datacenterId = getVmsToDatacentersMap().get(getVmsCreatedList().get(0).getId());
+			for (Cloudlet cloudlet : getCloudletList()) {
+				Vm vm = getVmsCreatedList().get(cloudlet.getCloudletId() % getVmsCreatedList().size());
+				cloudlet.setVmId(vm.getId());
+				int arrival = cloudlet.getCloudletId() % ARRIVALS;
+				if (isCloudletSubmissionBatched()) {
+					batches.get(arrival).add(cloudlet);
+				} else {
+					send(datacenterId, ARRIVAL_INTERVAL * arrival, CloudSimTags.CLOUDLET_SUBMIT, cloudlet);
+				}
+				cloudletsSubmitted++;
+				getCloudletSubmittedList().add(cloudlet);
+			}
+			for (int i = 0; i < ARRIVALS; i++) {
+				if (!batches.get(i).isEmpty()) {
+					send(datacenterId, ARRIVAL_INTERVAL * i, CloudSimTags.CLOUDLET_SUBMIT_BATCH, batches.get(i));
+				}
+			}
+			getCloudletList().clear();
+		}
+
+	}
+
+}
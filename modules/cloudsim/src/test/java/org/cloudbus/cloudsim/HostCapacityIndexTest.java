@@ -0,0 +1,168 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.HostCapacityIndex.Objective;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 3.1
+ */
+public class HostCapacityIndexTest {
+
+	private static final int HOSTS = 37;
+
+	/** The residual capacity, summed over the dimensions. */
+	private static final Objective RESIDUAL = new Objective() {
+
+		@Override
+		public double getScore(double[] available, double[] demand) {
+			double residual = 0;
+			for (int d = 0; d < demand.length; d++) {
+				residual += available[d] - demand[d];
+			}
+			return residual;
+		}
+
+		@Override
+		public double getLowerBound(double[] minAvailable, double[] maxAvailable, double[] demand) {
+			double residual = 0;
+			for (int d = 0; d < demand.length; d++) {
+				residual += Math.max(minAvailable[d], demand[d]) - demand[d];
+			}
+			return residual;
+		}
+
+	};
+
+	private List<Host> hostList;
+
+	private HostCapacityIndex index;
+
+	private Random random;
+
+	private int vmId;
+
+	@Before
+	public void setUp() throws Exception {
+		random = new Random(3);
+		hostList = new ArrayList<Host>();
+		for (int id = 0; id < HOSTS; id++) {
+			List<Pe> peList = new ArrayList<Pe>();
+			int pes = 1 + random.nextInt(8);
+			for (int i = 0; i < pes; i++) {
+				peList.add(new Pe(i, new PeProvisionerSimple(1000)));
+			}
+			hostList.add(new Host(
+					id,
+					new RamProvisionerSimple(1024 * (1 + random.nextInt(16))),
+					new BwProvisionerSimple(1000 * (1 + random.nextInt(10))),
+					Consts.MILLION,
+					peList,
+					new VmSchedulerTimeShared(peList)));
+		}
+		index = new HostCapacityIndex(hostList);
+	}
+
+	@Test
+	public void testFindFirstMatchesLinearScan() {
+		for (int i = 0; i < 300; i++) {
+			Vm vm = createVm();
+			Host expected = null;
+			for (Host host : hostList) {
+				if (host.isSuitableForVm(vm)) {
+					expected = host;
+					break;
+				}
+			}
+			Host host = index.findFirst(vm);
+			assertSame(expected, host);
+			place(vm, host);
+		}
+	}
+
+	@Test
+	public void testFindBestMatchesLinearScan() {
+		for (int i = 0; i < 300; i++) {
+			Vm vm = createVm();
+			double[] demand = index.getDemand(vm);
+			Host expected = null;
+			double bestScore = Double.POSITIVE_INFINITY;
+			for (Host host : hostList) {
+				double score = RESIDUAL.getScore(getAvailable(host), demand);
+				if (score < bestScore && host.isSuitableForVm(vm)) {
+					expected = host;
+					bestScore = score;
+				}
+			}
+			Host host = index.findBest(vm, RESIDUAL);
+			assertSame(expected, host);
+			place(vm, host);
+		}
+	}
+
+	@Test
+	public void testExclude() {
+		Vm vm = new Vm(vmId++, 0, 100, 1, 128, 100, 100, "Xen", new CloudletSchedulerTimeShared());
+		Host first = index.findFirst(vm);
+		index.exclude(first);
+		Host second = index.findFirst(vm);
+		assertSame(hostList.get(hostList.indexOf(first) + 1), second);
+		index.update(first);
+		assertSame(first, index.findFirst(vm));
+
+		for (Host host : hostList) {
+			index.exclude(host);
+		}
+		assertNull(index.findFirst(vm));
+		assertNull(index.findBest(vm, RESIDUAL));
+	}
+
+	/**
+	 * Gets the normalized available capacities of a host, as in the index.
+	 */
+	private double[] getAvailable(Host host) {
+		double mips = 0;
+		double ram = 0;
+		double bw = 0;
+		for (Host h : hostList) {
+			mips = Math.max(mips, h.getTotalMips());
+			ram = Math.max(ram, h.getRam());
+			bw = Math.max(bw, h.getBw());
+		}
+		return new double[] {
+				host.getAvailableMips() / mips,
+				host.getRamProvisioner().getAvailableRam() / ram,
+				host.getBwProvisioner().getAvailableBw() / bw };
+	}
+
+	private Vm createVm() {
+		return new Vm(vmId++, 0, 250 * (1 + random.nextInt(4)), 1 + random.nextInt(4),
+				128 * (1 + random.nextInt(16)), 100 * (1 + random.nextInt(20)), 100, "Xen",
+				new CloudletSchedulerTimeShared());
+	}
+
+	private void place(Vm vm, Host host) {
+		if (host != null && host.vmCreate(vm)) {
+			index.update(host);
+		}
+	}
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.HostUpdateExecutor.HostTask;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 3.1
+ */
+public class HostUpdateExecutorTest {
+
+	private static final int HOSTS = 50;
+
+	private HostUpdateExecutor executor;
+
+	private List<Host> hostList;
+
+	private OutputStream logOutput;
+
+	private boolean logDisabled;
+
+	@Before
+	public void setUp() throws Exception {
+		executor = new HostUpdateExecutor(4);
+		hostList = new ArrayList<Host>();
+		for (int id = 0; id < HOSTS; id++) {
+			List<Pe> peList = new ArrayList<Pe>();
+			peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+			hostList.add(new Host(
+					id,
+					new RamProvisionerSimple(1024),
+					new BwProvisionerSimple(10000),
+					Consts.MILLION,
+					peList,
+					new VmSchedulerTimeShared(peList)));
+		}
+		logOutput = Log.getOutput();
+		logDisabled = Log.isDisabled();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		executor.shutdown();
+		Log.setOutput(logOutput);
+		Log.setDisabled(logDisabled);
+	}
+
+	@Test
+	public void testExecuteLogsInHostOrder() {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		Log.setOutput(output);
+		Log.enable();
+
+		final int[] runs = new int[HOSTS];
+		executor.execute(hostList, new HostTask() {
+
+			@Override
+			public void run(int index) {
+				runs[index]++;
+				Log.printLine("Host #" + hostList.get(index).getId() + " begins");
+				Log.printLine("Host #" + hostList.get(index).getId() + " ends");
+			}
+
+		});
+
+		StringBuilder expected = new StringBuilder();
+		for (int id = 0; id < HOSTS; id++) {
+			assertEquals(1, runs[id]);
+			expected.append("Host #" + id + " begins" + System.getProperty("line.separator"));
+			expected.append("Host #" + id + " ends" + System.getProperty("line.separator"));
+		}
+		assertEquals(expected.toString(), output.toString());
+	}
+
+	@Test
+	public void testExecuteRunsHostsInMigrationOnCallingThread() {
+		Vm vm = new Vm(0, 0, 500, 1, 128, 1000, 1000, "Xen", new CloudletSchedulerTimeShared());
+		hostList.get(10).vmCreate(vm);
+		vm.setInMigration(true);
+		hostList.get(20).getVmsMigratingIn().add(vm);
+
+		final Thread[] threads = new Thread[HOSTS];
+		executor.execute(hostList, new HostTask() {
+
+			@Override
+			public void run(int index) {
+				threads[index] = Thread.currentThread();
+			}
+
+		});
+
+		assertSame(Thread.currentThread(), threads[10]);
+		assertSame(Thread.currentThread(), threads[20]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testExecuteThrowsFailure() {
+		executor.execute(hostList, new HostTask() {
+
+			@Override
+			public void run(int index) {
+				if (index == 30) {
+					throw new IllegalArgumentException();
+				}
+			}
+
+		});
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNonPositiveParallelism() {
+		new HostUpdateExecutor(0);
+	}
+
+}
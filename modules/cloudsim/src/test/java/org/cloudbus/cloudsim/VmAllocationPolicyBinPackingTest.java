@@ -0,0 +1,152 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 3.1
+ */
+public class VmAllocationPolicyBinPackingTest {
+
+	private static final double MIPS = 1000;
+
+	private List<Host> hostList;
+
+	private boolean logDisabled;
+
+	@Before
+	public void setUp() throws Exception {
+		logDisabled = Log.isDisabled();
+		Log.disable();
+		hostList = new ArrayList<Host>();
+		hostList.add(createHost(0, 4, 4096, 4000));
+		hostList.add(createHost(1, 2, 2048, 2000));
+		hostList.add(createHost(2, 2, 4096, 1000));
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		Log.setDisabled(logDisabled);
+	}
+
+	@Test
+	public void testFirstFitDecreasing() {
+		VmAllocationPolicyBinPacking policy = new VmAllocationPolicyFirstFitDecreasing(hostList);
+		assertTrue(policy.isBatchPlacedAsWhole());
+		assertFalse(new VmAllocationPolicySimple(hostList).isBatchPlacedAsWhole());
+		Vm small = createVm(0, 1, 512, 500);
+		Vm large = createVm(1, 4, 2048, 2000);
+		Vm medium = createVm(2, 2, 1024, 1000);
+
+		// the large VM is placed first, so it gets the only host that can run it, then the medium
+		// VM fills the first host with room left, and the small VM the next one
+		List<Boolean> results = policy.allocateHostsForVms(Arrays.asList(small, large, medium));
+		assertEquals(Arrays.asList(true, true, true), results);
+		assertSame(hostList.get(0), policy.getHost(large));
+		assertSame(hostList.get(1), policy.getHost(medium));
+		assertSame(hostList.get(2), policy.getHost(small));
+
+		Vm wide = createVm(3, 3, 1024, 1000);
+		assertFalse(policy.allocateHostForVm(wide));
+		assertNull(policy.getHost(wide));
+
+		policy.deallocateHostForVm(large);
+		assertNull(policy.getHost(large));
+		assertTrue(policy.allocateHostForVm(wide));
+		assertSame(hostList.get(0), policy.getHost(wide));
+	}
+
+	@Test
+	public void testBestFit() {
+		VmAllocationPolicyBinPacking policy = new VmAllocationPolicyBestFit(hostList);
+		Vm vm = createVm(0, 1, 1024, 500);
+		assertTrue(policy.allocateHostForVm(vm));
+		assertSame(hostList.get(1), policy.getHost(vm)); // the smallest host
+
+		assertFalse(policy.allocateHostForVm(vm)); // already allocated
+	}
+
+	@Test
+	public void testDotProduct() {
+		VmAllocationPolicyBinPacking policy = new VmAllocationPolicyDotProduct(hostList);
+		Vm vm = createVm(0, 1, 2048, 100);
+		assertTrue(policy.allocateHostForVm(vm));
+		assertSame(hostList.get(0), policy.getHost(vm)); // the host with the most room
+
+		// a memory-bound VM goes where memory is left rather than where MIPS and BW are
+		Vm memoryBound = createVm(1, 1, 1536, 100);
+		assertTrue(policy.allocateHostForVm(memoryBound));
+		assertSame(hostList.get(2), policy.getHost(memoryBound));
+	}
+
+	@Test
+	public void testNormBased() {
+		VmAllocationPolicyBinPacking policy = new VmAllocationPolicyNormBased(hostList);
+		Vm vm = createVm(0, 2, 2048, 1000);
+		assertTrue(policy.allocateHostForVm(vm));
+		assertSame(hostList.get(1), policy.getHost(vm)); // the host it fills exactly
+	}
+
+	@Test
+	public void testSkipsHostThatFailsToCreateVm() {
+		// host 1 has little storage, which the index does not track
+		List<Pe> peList = createPes(2);
+		hostList.set(1, new Host(
+				1,
+				new RamProvisionerSimple(2048),
+				new BwProvisionerSimple(2000),
+				10,
+				peList,
+				new VmSchedulerTimeShared(peList)));
+		VmAllocationPolicyBinPacking policy = new VmAllocationPolicyBestFit(hostList);
+		Vm vm = createVm(0, 1, 1024, 500);
+		assertTrue(policy.allocateHostForVm(vm));
+		assertSame(hostList.get(2), policy.getHost(vm));
+	}
+
+	private Host createHost(int id, int pes, int ram, long bw) {
+		List<Pe> peList = createPes(pes);
+		return new Host(
+				id,
+				new RamProvisionerSimple(ram),
+				new BwProvisionerSimple(bw),
+				Consts.MILLION,
+				peList,
+				new VmSchedulerTimeShared(peList));
+	}
+
+	private List<Pe> createPes(int pes) {
+		List<Pe> peList = new ArrayList<Pe>();
+		for (int i = 0; i < pes; i++) {
+			peList.add(new Pe(i, new PeProvisionerSimple(MIPS)));
+		}
+		return peList;
+	}
+
+	private Vm createVm(int id, int pes, int ram, long bw) {
+		return new Vm(id, 0, MIPS, pes, ram, bw, 1000, "Xen", new CloudletSchedulerTimeShared());
+	}
+
+}
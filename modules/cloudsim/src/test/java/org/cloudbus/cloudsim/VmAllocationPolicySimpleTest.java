@@ -0,0 +1,125 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 3.1
+ */
+public class VmAllocationPolicySimpleTest {
+
+	private static final double MIPS = 1000;
+
+	private List<Host> hostList;
+
+	private VmAllocationPolicySimple policy;
+
+	@Before
+	public void setUp() throws Exception {
+		hostList = new ArrayList<Host>();
+		hostList.add(createHost(0, 2, 1024));
+		hostList.add(createHost(1, 4, 256)); // the most PEs, but little RAM
+		hostList.add(createHost(2, 4, 1024));
+		hostList.add(createHost(3, 3, 1024));
+		policy = new VmAllocationPolicySimple(hostList);
+	}
+
+	@Test
+	public void testAllocateHostWithMostFreePes() {
+		Vm vm0 = createVm(0, 1, 128);
+		assertTrue(policy.allocateHostForVm(vm0));
+		assertSame(hostList.get(1), policy.getHost(vm0)); // the first of the hosts with 4 free PEs
+
+		Vm vm1 = createVm(1, 1, 128);
+		assertTrue(policy.allocateHostForVm(vm1));
+		assertSame(hostList.get(2), policy.getHost(vm1));
+
+		Vm vm2 = createVm(2, 1, 128);
+		assertTrue(policy.allocateHostForVm(vm2));
+		assertSame(hostList.get(1), policy.getHost(vm2));
+
+		assertFalse(policy.allocateHostForVm(vm2)); // already allocated
+	}
+
+	@Test
+	public void testAllocateSkipsHostsThatCannotCreateVm() {
+		Vm large = createVm(0, 1, 512);
+		assertTrue(policy.allocateHostForVm(large));
+		assertSame(hostList.get(2), policy.getHost(large));
+
+		// the host tried in vain is still a candidate for the next VM
+		Vm small = createVm(1, 1, 128);
+		assertTrue(policy.allocateHostForVm(small));
+		assertSame(hostList.get(1), policy.getHost(small));
+
+		Vm huge = createVm(2, 1, 4096);
+		assertFalse(policy.allocateHostForVm(huge));
+		assertNull(policy.getHost(huge));
+
+		Vm next = createVm(3, 1, 128);
+		assertTrue(policy.allocateHostForVm(next));
+		assertSame(hostList.get(1), policy.getHost(next));
+	}
+
+	@Test
+	public void testDeallocateFreesPes() {
+		Vm vm0 = createVm(0, 3, 128);
+		assertTrue(policy.allocateHostForVm(vm0));
+		assertSame(hostList.get(1), policy.getHost(vm0));
+		assertEquals(1, (int) policy.getFreePes().get(1));
+
+		policy.deallocateHostForVm(vm0);
+		assertNull(policy.getHost(vm0));
+		assertEquals(4, (int) policy.getFreePes().get(1));
+
+		Vm vm1 = createVm(1, 1, 128);
+		assertTrue(policy.allocateHostForVm(vm1));
+		assertSame(hostList.get(1), policy.getHost(vm1));
+	}
+
+	@Test
+	public void testAllocateOnGivenHost() {
+		Vm vm = createVm(0, 2, 128);
+		assertTrue(policy.allocateHostForVm(vm, hostList.get(3)));
+		assertEquals(1, (int) policy.getFreePes().get(3));
+	}
+
+	private Host createHost(int id, int pes, int ram) {
+		List<Pe> peList = new ArrayList<Pe>();
+		for (int i = 0; i < pes; i++) {
+			peList.add(new Pe(i, new PeProvisionerSimple(MIPS)));
+		}
+		return new Host(
+				id,
+				new RamProvisionerSimple(ram),
+				new BwProvisionerSimple(10000),
+				Consts.MILLION,
+				peList,
+				new VmSchedulerTimeShared(peList));
+	}
+
+	private Vm createVm(int id, int pes, int ram) {
+		return new Vm(id, 0, MIPS, pes, ram, 100, 1000, "Xen", new CloudletSchedulerTimeShared());
+	}
+
+}
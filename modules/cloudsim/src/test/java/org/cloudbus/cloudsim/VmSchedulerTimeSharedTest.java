@@ -159,4 +159,71 @@ public class VmSchedulerTimeSharedTest {
 		assertEquals(0, vmScheduler.getTotalAllocatedMipsForVm(vm2), 0);
 	}
 
+	@Test
+	public void testDeallocatePesForVmKeepsOtherVms() {
+		Vm vm3 = new Vm(2, 0, MIPS / 2, 1, 0, 0, 0, "", null);
+
+		List<Double> mipsShare1 = new ArrayList<Double>();
+		mipsShare1.add(MIPS * 3 / 4);
+		List<Double> mipsShare2 = new ArrayList<Double>();
+		mipsShare2.add(MIPS / 2);
+		mipsShare2.add(MIPS / 2);
+		List<Double> mipsShare3 = new ArrayList<Double>();
+		mipsShare3.add(MIPS / 4);
+
+		assertTrue(vmScheduler.allocatePesForVm(vm1, mipsShare1));
+		assertTrue(vmScheduler.allocatePesForVm(vm2, mipsShare2));
+		assertTrue(vmScheduler.allocatePesForVm(vm3, mipsShare3));
+
+		List<Pe> pes3 = new ArrayList<Pe>(vmScheduler.getPesAllocatedForVM(vm3));
+		assertEquals(MIPS / 4, peList.get(1).getPeProvisioner().getTotalAllocatedMipsForVm(vm3), 0);
+
+		vmScheduler.deallocatePesForVm(vm2);
+
+		assertEquals(PeList.getTotalMips(peList) - MIPS, vmScheduler.getAvailableMips(), 0);
+		assertEquals(0, vmScheduler.getTotalAllocatedMipsForVm(vm2), 0);
+		assertEquals(pes3, vmScheduler.getPesAllocatedForVM(vm3));
+		assertEquals(MIPS / 4, peList.get(1).getPeProvisioner().getTotalAllocatedMipsForVm(vm3), 0);
+		assertEquals(MIPS / 4, peList.get(0).getPeProvisioner().getAvailableMips(), 0);
+		assertEquals(MIPS * 3 / 4, peList.get(1).getPeProvisioner().getAvailableMips(), 0);
+
+		assertTrue(vmScheduler.allocatePesForVm(vm2, mipsShare2));
+
+		assertEquals(0, vmScheduler.getAvailableMips(), 0);
+		assertEquals(pes3, vmScheduler.getPesAllocatedForVM(vm3));
+		assertEquals(MIPS, vmScheduler.getTotalAllocatedMipsForVm(vm2), 0);
+		assertEquals(0, peList.get(0).getPeProvisioner().getAvailableMips(), 0);
+		assertEquals(0, peList.get(1).getPeProvisioner().getAvailableMips(), 0);
+	}
+
+	@Test
+	public void testReallocatePesForVms() {
+		Vm vm3 = new Vm(2, 0, MIPS / 4, 1, 0, 0, 0, "", new CloudletSchedulerTimeShared());
+		Vm vm4 = new Vm(3, 0, MIPS / 2, 2, 0, 0, 0, "", new CloudletSchedulerTimeShared());
+
+		List<Double> mipsShare3 = new ArrayList<Double>();
+		mipsShare3.add(MIPS / 4);
+		List<Double> mipsShare4 = new ArrayList<Double>();
+		mipsShare4.add(MIPS / 2);
+		mipsShare4.add(MIPS / 2);
+
+		assertTrue(vmScheduler.allocatePesForVm(vm3, mipsShare3));
+		assertTrue(vmScheduler.allocatePesForVm(vm4, mipsShare4));
+
+		List<Vm> vms = new ArrayList<Vm>();
+		vms.add(vm3);
+		vms.add(vm4);
+		vmScheduler.reallocatePesForVms(vms);
+
+		// the current requested MIPS of the VMs are their full MIPS
+		assertEquals(PeList.getTotalMips(peList) - MIPS / 4 - MIPS, vmScheduler.getAvailableMips(), 0);
+		assertEquals(MIPS / 4, vmScheduler.getTotalAllocatedMipsForVm(vm3), 0);
+		assertEquals(MIPS, vmScheduler.getTotalAllocatedMipsForVm(vm4), 0);
+		assertEquals(
+				MIPS / 4 + MIPS,
+				peList.get(0).getPeProvisioner().getTotalAllocatedMips()
+						+ peList.get(1).getPeProvisioner().getTotalAllocatedMips(),
+				0);
+	}
+
 }
@@ -120,6 +120,21 @@ public class VmTest {
 		assertEquals(USER_ID + "-" + ID, vm.getUid());
 	}
 
+	@Test
+	public void testGetKey() {
+		assertEquals(Vm.getKey(USER_ID, ID), vm.getKey());
+		assertEquals(vm.getUid(), Vm.getUid(vm.getKey()));
+		assertFalse(Vm.getKey(1, 2) == Vm.getKey(2, 1));
+		assertEquals(vm.getKey(), Vm.getKey(vm.getUid()));
+		assertEquals(Vm.getKey(-1, 2), Vm.getKey(Vm.getUid(-1, 2)));
+		assertEquals(Vm.getKey(1, -2), Vm.getKey(Vm.getUid(1, -2)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGetKeyOfInvalidUid() {
+		Vm.getKey("1:2");
+	}
+
 	@Test
 	public void testUpdateVmProcessing() {
 		assertEquals(0, vm.updateVmProcessing(0, null), 0);
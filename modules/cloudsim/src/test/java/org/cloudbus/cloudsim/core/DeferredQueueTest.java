@@ -0,0 +1,81 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.cloudbus.cloudsim.core.predicates.PredicateAny;
+import org.cloudbus.cloudsim.core.predicates.PredicateFrom;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 3.1
+ */
+public class DeferredQueueTest {
+
+	private DeferredQueue queue;
+
+	@Before
+	public void setUp() throws Exception {
+		queue = new DeferredQueue();
+	}
+
+	@Test
+	public void testOrderPerDestination() {
+		SimEvent e1 = new SimEvent(SimEvent.SEND, 2.0, 0, 1, 10, null);
+		SimEvent e2 = new SimEvent(SimEvent.SEND, 3.0, 0, 2, 10, null);
+		SimEvent e3 = new SimEvent(SimEvent.SEND, 1.0, 0, 1, 20, null);
+		SimEvent e4 = new SimEvent(SimEvent.SEND, 2.0, 0, 1, 10, null);
+
+		queue.addEvent(e1);
+		queue.addEvent(e2);
+		queue.addEvent(e3);
+		queue.addEvent(e4);
+
+		assertEquals(4, queue.size());
+		assertEquals(3, queue.size(1));
+		assertEquals(1, queue.size(2));
+		assertEquals(0, queue.size(5));
+
+		assertSame(e3, queue.findFirst(1, new PredicateAny(), false));
+		assertSame(e3, queue.findFirst(1, new PredicateAny(), true));
+		assertSame(e1, queue.findFirst(1, new PredicateAny(), true));
+		assertSame(e4, queue.findFirst(1, new PredicateAny(), true));
+		assertNull(queue.findFirst(1, new PredicateAny(), true));
+		assertSame(e2, queue.findFirst(2, new PredicateAny(), true));
+		assertEquals(0, queue.size());
+	}
+
+	@Test
+	public void testCount() {
+		queue.addEvent(new SimEvent(SimEvent.SEND, 1.0, 3, 1, 10, null));
+		queue.addEvent(new SimEvent(SimEvent.SEND, 1.0, 4, 1, 20, null));
+		queue.addEvent(new SimEvent(SimEvent.SEND, 1.0, 3, 1, 10, null));
+		queue.addEvent(new SimEvent(SimEvent.SEND, 1.0, 3, 2, 10, null));
+
+		assertEquals(3, queue.count(1, new PredicateAny()));
+		assertEquals(2, queue.count(1, new PredicateType(10)));
+		assertEquals(3, queue.count(1, new PredicateType(new int[] { 10, 20 })));
+		assertEquals(3, queue.count(1, new PredicateType(new int[] { 10, 20, 10 })));
+		assertEquals(0, queue.count(1, new PredicateType(30)));
+		assertEquals(2, queue.count(1, new PredicateFrom(3)));
+		assertEquals(0, queue.count(7, new PredicateAny()));
+
+		SimEvent selected = queue.findFirst(1, new PredicateType(20), true);
+		assertEquals(20, selected.getTag());
+		assertEquals(0, queue.count(1, new PredicateType(20)));
+		assertNull(queue.findFirst(1, new PredicateType(20), true));
+		assertEquals(1, queue.count(2, new PredicateType(10)));
+	}
+
+}
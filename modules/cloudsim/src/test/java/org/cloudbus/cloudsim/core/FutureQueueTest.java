@@ -0,0 +1,284 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.core.predicates.PredicateAny;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+import org.junit.Test;
+
+/**
+ * Checks the implementations of {@link FutureQueue} against the reference
+ * {@link FutureQueueTreeSet}.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public class FutureQueueTest {
+
+	private static final long SEED = 1234;
+
+	private static final int OPERATIONS = 20000;
+
+	private int tag = 0;
+
+	@Test
+	public void testBinaryHeapOrder() {
+		checkOrder(new FutureQueueBinaryHeap());
+	}
+
+	@Test
+	public void testCalendarOrder() {
+		checkOrder(new FutureQueueCalendar());
+	}
+
+	@Test
+	public void testBinaryHeapEquivalence() {
+		checkEquivalence(new FutureQueueBinaryHeap(1));
+	}
+
+	@Test
+	public void testCalendarEquivalence() {
+		checkEquivalence(new FutureQueueCalendar());
+		checkEquivalence(new FutureQueueCalendar(0.001));
+		checkEquivalence(new FutureQueueCalendar(1000));
+	}
+
+	@Test
+	public void testBinaryHeapIteratorRemove() {
+		checkIteratorRemove(new FutureQueueBinaryHeap());
+	}
+
+	@Test
+	public void testCalendarIteratorRemove() {
+		checkIteratorRemove(new FutureQueueCalendar());
+	}
+
+	@Test
+	public void testPollAllAt() {
+		checkPollAllAt(new FutureQueueTreeSet());
+		checkPollAllAt(new FutureQueueBinaryHeap());
+		checkPollAllAt(new FutureQueueCalendar());
+		checkPollAllAt(new FutureQueueCalendar(0.001));
+	}
+
+	@Test
+	public void testRemoveBySourceAndTag() {
+		checkRemoveBySourceAndTag(new FutureQueueTreeSet());
+		checkRemoveBySourceAndTag(new FutureQueueBinaryHeap());
+		checkRemoveBySourceAndTag(new FutureQueueCalendar());
+	}
+
+	private void checkOrder(FutureQueue queue) {
+		SimEvent e1 = newEvent(5.0);
+		SimEvent e2 = newEvent(1.0);
+		SimEvent e3 = newEvent(5.0);
+		SimEvent e4 = newEvent(5.0);
+		SimEvent e5 = newEvent(3.0);
+
+		assertNull(queue.peek());
+		assertNull(queue.poll());
+
+		queue.addEvent(e1);
+		queue.addEvent(e2);
+		queue.addEvent(e3);
+		queue.addEventFirst(e4);
+		queue.addEvent(e5);
+		assertEquals(5, queue.size());
+
+		assertSame(e2, queue.peek());
+		assertSame(e2, queue.poll());
+		assertSame(e5, queue.poll());
+		assertSame(e4, queue.poll());
+		assertTrue(queue.remove(e3));
+		assertFalse(queue.remove(e3));
+		assertSame(e1, queue.poll());
+		assertNull(queue.poll());
+		assertEquals(0, queue.size());
+	}
+
+	private void checkEquivalence(FutureQueue queue) {
+		FutureQueue reference = new FutureQueueTreeSet();
+		Random random = new Random(SEED);
+		List<SimEvent> pending = new ArrayList<SimEvent>();
+		double clock = 0;
+
+		for (int i = 0; i < OPERATIONS; i++) {
+			// Grow the queue during the first half of the run and drain it during the second
+			int operation = random.nextInt(i < OPERATIONS / 2 ? 8 : 12);
+			if (operation < 5) {
+				SimEvent event = newEvent(clock + nextDelay(random));
+				pending.add(event);
+				reference.addEvent(event);
+				queue.addEvent(event);
+			} else if (operation == 5) {
+				SimEvent event = newEvent(clock + nextDelay(random));
+				pending.add(event);
+				reference.addEventFirst(event);
+				queue.addEventFirst(event);
+			} else if (operation == 6 && !pending.isEmpty()) {
+				SimEvent event = pending.remove(random.nextInt(pending.size()));
+				assertTrue(reference.remove(event));
+				assertTrue(queue.remove(event));
+			} else {
+				SimEvent expected = reference.poll();
+				assertSame(expected, queue.poll());
+				if (expected != null) {
+					pending.remove(expected);
+					clock = expected.eventTime();
+				}
+			}
+			assertEquals(reference.size(), queue.size());
+			assertSame(reference.peek(), queue.peek());
+		}
+
+		SimEvent expected;
+		while ((expected = reference.poll()) != null) {
+			assertSame(expected, queue.poll());
+		}
+		assertEquals(0, queue.size());
+	}
+
+	private void checkPollAllAt(FutureQueue queue) {
+		FutureQueue reference = new FutureQueueTreeSet();
+		Random random = new Random(SEED);
+		for (int i = 0; i < 5000; i++) {
+			SimEvent event = newEvent(random.nextInt(50) * 5.0);
+			if (random.nextInt(10) == 0) {
+				reference.addEventFirst(event);
+				queue.addEventFirst(event);
+			} else {
+				reference.addEvent(event);
+				queue.addEvent(event);
+			}
+		}
+
+		List<SimEvent> batch = new ArrayList<SimEvent>();
+		while (reference.size() > 0) {
+			double time = reference.peek().eventTime();
+			batch.clear();
+			int count = queue.pollAllAt(time, batch);
+			assertEquals(batch.size(), count);
+			assertTrue(count > 0);
+			for (SimEvent event : batch) {
+				assertSame(reference.poll(), event);
+			}
+			assertTrue(reference.size() == 0 || reference.peek().eventTime() > time);
+			assertEquals(reference.size(), queue.size());
+		}
+		assertEquals(0, queue.pollAllAt(0, batch));
+	}
+
+	private void checkRemoveBySourceAndTag(FutureQueue queue) {
+		SimEvent e1 = new SimEvent(SimEvent.SEND, 5.0, 1, 2, 10, null);
+		SimEvent e2 = new SimEvent(SimEvent.SEND, 3.0, 1, 2, 10, null);
+		SimEvent e3 = new SimEvent(SimEvent.SEND, 1.0, 1, 2, 20, null);
+		SimEvent e4 = new SimEvent(SimEvent.SEND, 1.0, 2, 1, 10, null);
+		SimEvent e5 = new SimEvent(SimEvent.SEND, 4.0, 1, 2, 10, null);
+		queue.addEvent(e1);
+		queue.addEvent(e2);
+		queue.addEvent(e3);
+		queue.addEvent(e4);
+		queue.addEvent(e5);
+
+		assertSame(e2, queue.removeFirst(1, new PredicateType(10)));
+		assertNull(queue.removeFirst(3, new PredicateType(10)));
+		assertNull(queue.removeFirst(1, new PredicateType(30)));
+		assertEquals(4, queue.size());
+
+		// Polled events are no longer found through the index
+		assertSame(e3, queue.poll());
+		assertEquals(0, queue.removeAll(1, new PredicateType(20)));
+
+		assertEquals(2, queue.removeAll(1, new PredicateType(new int[] { 10, 20 })));
+		assertEquals(0, queue.removeAll(1, new PredicateType(10)));
+		assertEquals(1, queue.size());
+		assertSame(e4, queue.removeFirst(2, new PredicateAny()));
+		assertEquals(0, queue.size());
+
+		queue.addEvent(e1);
+		queue.addEvent(e5);
+		Iterator<SimEvent> iterator = queue.iterator();
+		iterator.next();
+		iterator.remove();
+		assertEquals(1, queue.removeAll(1, new PredicateType(10)));
+		queue.addEvent(e2);
+		queue.clear();
+		assertNull(queue.removeFirst(1, new PredicateType(10)));
+
+		// Events leave the chain of their source and tag from its middle, its head and its end
+		queue.addEvent(e1);
+		queue.addEvent(e2);
+		queue.addEvent(e5);
+		assertTrue(queue.remove(e2));
+		assertFalse(queue.remove(e2));
+		assertSame(e5, queue.removeFirst(1, new PredicateType(10)));
+		assertSame(e1, queue.removeFirst(1, new PredicateType(10)));
+		assertNull(queue.removeFirst(1, new PredicateType(10)));
+		assertEquals(0, queue.size());
+	}
+
+	private void checkIteratorRemove(FutureQueue queue) {
+		List<SimEvent> events = new ArrayList<SimEvent>();
+		for (int i = 0; i < 100; i++) {
+			SimEvent event = newEvent(i % 10);
+			events.add(event);
+			queue.addEvent(event);
+		}
+
+		int count = 0;
+		Iterator<SimEvent> iterator = queue.iterator();
+		while (iterator.hasNext()) {
+			SimEvent event = iterator.next();
+			count++;
+			if (event.getTag() % 2 == 0) {
+				iterator.remove();
+			}
+		}
+		assertEquals(100, count);
+		assertEquals(50, queue.size());
+
+		SimEvent previous = null;
+		SimEvent event;
+		while ((event = queue.poll()) != null) {
+			assertEquals(1, event.getTag() % 2);
+			if (previous != null) {
+				assertTrue(previous.compareTo(event) < 0);
+			}
+			previous = event;
+		}
+	}
+
+	private static double nextDelay(Random random) {
+		switch (random.nextInt(4)) {
+			case 0:
+				return 0;
+			case 1:
+				return random.nextInt(5) * 300.0;
+			case 2:
+				return random.nextDouble() * 0.01;
+			default:
+				return random.nextDouble() * 100;
+		}
+	}
+
+	private SimEvent newEvent(double time) {
+		return new SimEvent(SimEvent.SEND, time, 0, 0, tag++, null);
+	}
+
+}
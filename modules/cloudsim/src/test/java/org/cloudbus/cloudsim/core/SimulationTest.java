@@ -0,0 +1,133 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.Calendar;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.cloudbus.cloudsim.Log;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 3.1
+ */
+public class SimulationTest {
+
+	private boolean logDisabled;
+
+	@Before
+	public void setUp() throws Exception {
+		logDisabled = Log.isDisabled();
+		Log.disable();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		Log.setDisabled(logDisabled);
+	}
+
+	@Test
+	public void testEntitiesJoinTheSimulationOfTheirThread() {
+		CloudSim.init(0, Calendar.getInstance(), false);
+		Simulation simulation = CloudSim.getSimulation();
+		TickEntity entity = new TickEntity("Tick", 5, 1.5);
+		assertSame(simulation, entity.getSimulation());
+		assertSame(entity, simulation.getEntity("Tick"));
+
+		Simulation other = new Simulation();
+		other.init(0, Calendar.getInstance(), false);
+		assertSame(other, CloudSim.getSimulation());
+		assertNotSame(simulation, CloudSim.getSimulation());
+		assertEquals(2, other.getNumEntities());
+
+		CloudSim.setSimulation(simulation);
+		assertEquals(3, CloudSim.getNumEntities());
+		assertEquals(7.5, CloudSim.startSimulation(), 0);
+		assertEquals(5, entity.getTicks());
+	}
+
+	@Test
+	public void testParallelSimulations() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Future<?>[] results = new Future<?>[8];
+			for (int i = 0; i < results.length; i++) {
+				final int ticks = 100 + i;
+				results[i] = executor.submit(new Callable<Double>() {
+
+					@Override
+					public Double call() throws Exception {
+						CloudSim.init(0, Calendar.getInstance(), false);
+						TickEntity entity = new TickEntity("Tick", ticks, 1.0);
+						double clock = CloudSim.startSimulation();
+						assertEquals(ticks, entity.getTicks());
+						return clock;
+					}
+
+				});
+			}
+			for (int i = 0; i < results.length; i++) {
+				assertEquals(100.0 + i, (Double) results[i].get(), 0);
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * An entity that sends itself a given number of events.
+	 */
+	private static class TickEntity extends SimEntity {
+
+		private static final int TICK = 12345;
+
+		private final int maxTicks;
+
+		private final double delay;
+
+		private int ticks;
+
+		public TickEntity(String name, int maxTicks, double delay) {
+			super(name);
+			this.maxTicks = maxTicks;
+			this.delay = delay;
+		}
+
+		@Override
+		public void startEntity() {
+			schedule(getId(), delay, TICK);
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+			if (ev.getTag() == TICK && ++ticks < maxTicks) {
+				schedule(getId(), delay, TICK);
+			}
+		}
+
+		@Override
+		public void shutdownEntity() {
+		}
+
+		public int getTicks() {
+			return ticks;
+		}
+
+	}
+
+}
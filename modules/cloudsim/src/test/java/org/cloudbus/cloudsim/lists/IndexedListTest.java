@@ -0,0 +1,141 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.lists;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.Vm;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 3.1
+ */
+public class IndexedListTest {
+
+	private static final int IDS = 20;
+
+	@Test
+	public void testVmListMatchesLinearScan() {
+		Random random = new Random(7);
+		List<Vm> expected = new ArrayList<Vm>();
+		List<Vm> actual = new IndexedVmList<Vm>();
+		for (int i = 0; i < 2000; i++) {
+			int op = random.nextInt(10);
+			if (op < 4 || expected.isEmpty()) {
+				// VMs of two users, so that some ids are shared
+				Vm vm = new Vm(random.nextInt(IDS), random.nextInt(2), 0, 1, 0, 0, 0, "", null);
+				int index = op == 0 ? random.nextInt(expected.size() + 1) : expected.size();
+				expected.add(index, vm);
+				actual.add(index, vm);
+			} else if (op < 6) {
+				int index = random.nextInt(expected.size());
+				assertSame(expected.remove(index), actual.remove(index));
+			} else if (op < 7) {
+				Vm vm = expected.get(random.nextInt(expected.size()));
+				assertTrue(expected.remove(vm));
+				assertTrue(actual.remove(vm));
+				assertEquals(expected.contains(vm), actual.contains(vm));
+			} else if (op < 8) {
+				int index = random.nextInt(expected.size());
+				Vm vm = expected.get(random.nextInt(expected.size()));
+				assertSame(expected.set(index, vm), actual.set(index, vm));
+			} else if (op < 9) {
+				Comparator<Vm> byId = new Comparator<Vm>() {
+
+					@Override
+					public int compare(Vm a, Vm b) {
+						return a.getId() - b.getId();
+					}
+
+				};
+				Collections.sort(expected, byId);
+				Collections.sort(actual, byId);
+			} else {
+				List<Vm> removed = new ArrayList<Vm>();
+				for (Vm vm : expected) {
+					if (random.nextInt(4) == 0) {
+						removed.add(vm);
+					}
+				}
+				expected.removeAll(removed);
+				actual.removeAll(removed);
+			}
+
+			assertEquals(expected, actual);
+			for (int id = 0; id < IDS; id++) {
+				assertSame(VmList.getById(expected, id), VmList.getById(actual, id));
+				for (int userId = 0; userId < 2; userId++) {
+					assertSame(
+							VmList.getByIdAndUserId(expected, id, userId),
+							VmList.getByIdAndUserId(actual, id, userId));
+				}
+			}
+			for (Vm vm : expected) {
+				assertTrue(actual.contains(vm));
+				assertEquals(expected.indexOf(vm), actual.indexOf(vm));
+			}
+		}
+	}
+
+	@Test
+	public void testCloudletListPositions() {
+		List<Cloudlet> list = new IndexedCloudletList<Cloudlet>();
+		for (int id = 0; id < IDS; id++) {
+			list.add(createCloudlet(id));
+			assertEquals(id, CloudletList.getPositionById(list, id));
+		}
+		assertEquals(-1, CloudletList.getPositionById(list, IDS));
+		assertNull(CloudletList.getById(list, IDS));
+
+		list.remove(0);
+		list.add(0, createCloudlet(IDS));
+		for (int id = 1; id < IDS; id++) {
+			assertEquals(id, CloudletList.getPositionById(list, id));
+			assertSame(list.get(id), CloudletList.getById(list, id));
+		}
+		assertEquals(0, CloudletList.getPositionById(list, IDS));
+		assertEquals(-1, CloudletList.getPositionById(list, 0));
+
+		for (Iterator<Cloudlet> it = list.iterator(); it.hasNext();) {
+			if (it.next().getCloudletId() % 2 == 0) {
+				it.remove();
+			}
+		}
+		for (int id = 0; id <= IDS; id++) {
+			int position = CloudletList.getPositionById(list, id);
+			if (id % 2 == 0) {
+				assertEquals(-1, position);
+			} else {
+				assertEquals(id, list.get(position).getCloudletId());
+			}
+		}
+
+		list.clear();
+		assertTrue(list.isEmpty());
+		assertNull(CloudletList.getById(list, 1));
+	}
+
+	private Cloudlet createCloudlet(int id) {
+		UtilizationModelFull utilizationModel = new UtilizationModelFull();
+		return new Cloudlet(id, 1000, 1, 0, 0, utilizationModel, utilizationModel, utilizationModel);
+	}
+
+}
@@ -0,0 +1,240 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.lists;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.ResCloudlet;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 3.1
+ */
+public class ResCloudletIndexedListTest {
+
+	private ResCloudletIndexedList<ResCloudlet> list;
+
+	@Before
+	public void setUp() throws Exception {
+		list = new ResCloudletIndexedList<ResCloudlet>();
+	}
+
+	private ResCloudlet createResCloudlet(int id, int userId) {
+		UtilizationModelFull utilizationModel = new UtilizationModelFull();
+		Cloudlet cloudlet = new Cloudlet(id, 1000, 1, 0, 0, utilizationModel, utilizationModel, utilizationModel);
+		cloudlet.setUserId(userId);
+		return new ResCloudlet(cloudlet);
+	}
+
+	@Test
+	public void testGetById() {
+		ResCloudlet rcl0 = createResCloudlet(0, 0);
+		ResCloudlet rcl1 = createResCloudlet(1, 0);
+		ResCloudlet rcl2 = createResCloudlet(1, 1);
+		assertNull(list.getById(0));
+
+		list.add(rcl0);
+		list.add(rcl1);
+		list.add(rcl2);
+		assertSame(rcl0, list.getById(0));
+		assertSame(rcl1, list.getById(1));
+		assertSame(rcl1, ResCloudletList.getByIdAndUserId(list, 1, 0));
+		assertSame(rcl2, ResCloudletList.getByIdAndUserId(list, 1, 1));
+		assertNull(ResCloudletList.getByIdAndUserId(list, 0, 1));
+		assertEquals(1, ResCloudletList.getPositionById(list, 1));
+		assertEquals(2, ResCloudletList.indexOf(list, 1, 1));
+
+		// The id leads to the next cloudlet with the id when the first one is removed
+		assertTrue(list.remove(rcl1));
+		assertFalse(list.remove(rcl1));
+		assertSame(rcl2, list.getById(1));
+		list.remove(rcl2);
+		assertNull(list.getById(1));
+		assertEquals(-1, ResCloudletList.getPositionById(list, 1));
+	}
+
+	@Test
+	public void testInsertBeforeFirstWithId() {
+		ResCloudlet rcl1 = createResCloudlet(1, 0);
+		ResCloudlet rcl2 = createResCloudlet(1, 1);
+		list.add(createResCloudlet(0, 0));
+		list.add(rcl1);
+		list.add(0, rcl2);
+		assertSame(rcl2, list.getById(1));
+		assertSame(rcl1, ResCloudletList.getByIdAndUserId(list, 1, 0));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testAddTwice() {
+		ResCloudlet rcl = createResCloudlet(0, 0);
+		list.add(rcl);
+		list.add(rcl);
+	}
+
+	@Test
+	public void testSort() {
+		List<ResCloudlet> expected = new ArrayList<ResCloudlet>();
+		Random random = new Random(1);
+		for (int i = 0; i < 200; i++) {
+			ResCloudlet rcl = createResCloudlet(random.nextInt(50), random.nextInt(2));
+			expected.add(rcl);
+			list.add(rcl);
+		}
+		Comparator<ResCloudlet> byId = new Comparator<ResCloudlet>() {
+
+			@Override
+			public int compare(ResCloudlet a, ResCloudlet b) {
+				return a.getCloudletId() - b.getCloudletId();
+			}
+
+		};
+		Collections.sort(expected, byId);
+		Collections.sort(list, byId);
+
+		assertEquals(expected, list);
+		for (int id = 0; id < 50; id++) {
+			assertSame(ResCloudletList.getById(expected, id), list.getById(id));
+			for (int userId = 0; userId < 2; userId++) {
+				assertSame(
+						ResCloudletList.getByIdAndUserId(expected, id, userId),
+						list.getByIdAndUserId(id, userId));
+			}
+		}
+		for (ResCloudlet rcl : expected) {
+			assertTrue(list.contains(rcl));
+		}
+		while (!expected.isEmpty()) {
+			ResCloudlet removed = expected.remove(random.nextInt(expected.size()));
+			assertTrue(list.remove(removed));
+			assertFalse(list.contains(removed));
+			assertEquals(expected, list);
+		}
+	}
+
+	@Test
+	public void testReusableIterator() {
+		ResCloudlet a = createResCloudlet(0, 0);
+		ResCloudlet b = createResCloudlet(1, 0);
+		ResCloudlet c = createResCloudlet(2, 0);
+		list.add(a);
+		list.add(b);
+		list.add(c);
+
+		Iterator<ResCloudlet> iterator = list.reusableIterator();
+		assertSame(a, iterator.next());
+		assertSame(b, iterator.next());
+		iterator.remove();
+
+		// the same iterator starts again from the first cloudlet
+		assertSame(iterator, list.reusableIterator());
+		assertSame(a, iterator.next());
+		assertSame(c, iterator.next());
+		assertFalse(iterator.hasNext());
+		list.add(b);
+		assertSame(iterator, list.reusableIterator());
+		assertSame(a, iterator.next());
+		assertSame(c, iterator.next());
+		assertSame(b, iterator.next());
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void testSetCloudletHeldElsewhere() {
+		ResCloudlet rcl0 = createResCloudlet(0, 0);
+		ResCloudlet rcl1 = createResCloudlet(1, 0);
+		list.add(rcl0);
+		list.add(rcl1);
+
+		ListIterator<ResCloudlet> iterator = list.listIterator();
+		iterator.next();
+		iterator.set(rcl1);
+		assertEquals(2, list.size());
+		assertFalse(list.contains(rcl0));
+		assertNull(list.getById(0));
+		assertSame(rcl1, list.getById(1));
+
+		// the cloudlet is removed from the first of its places
+		assertTrue(list.remove(rcl1));
+		assertTrue(list.contains(rcl1));
+		assertTrue(list.remove(rcl1));
+		assertFalse(list.contains(rcl1));
+		assertTrue(list.isEmpty());
+
+		list.add(rcl0);
+		assertSame(rcl0, list.getById(0));
+	}
+
+	@Test
+	public void testBehavesAsArrayList() {
+		List<ResCloudlet> expected = new ArrayList<ResCloudlet>();
+		Random random = new Random(1);
+		for (int i = 0; i < 10000; i++) {
+			switch (random.nextInt(6)) {
+				case 0:
+				case 1:
+					ResCloudlet rcl = createResCloudlet(random.nextInt(20), 0);
+					expected.add(rcl);
+					list.add(rcl);
+					break;
+				case 2:
+					if (!expected.isEmpty()) {
+						int index = random.nextInt(expected.size());
+						assertSame(expected.remove(index), list.remove(index));
+					}
+					break;
+				case 3:
+					if (!expected.isEmpty()) {
+						ResCloudlet removed = expected.get(random.nextInt(expected.size()));
+						expected.remove(removed);
+						assertTrue(list.remove(removed));
+					}
+					break;
+				case 4:
+					ResCloudlet inserted = createResCloudlet(random.nextInt(20), 0);
+					int index = random.nextInt(expected.size() + 1);
+					expected.add(index, inserted);
+					list.add(index, inserted);
+					break;
+				default:
+					// Removes the cloudlets with an even id through the iterator
+					Iterator<ResCloudlet> expectedIterator = expected.iterator();
+					ListIterator<ResCloudlet> iterator = list.listIterator();
+					while (iterator.hasNext()) {
+						ResCloudlet next = iterator.next();
+						assertSame(expectedIterator.next(), next);
+						if (next.getCloudletId() % 2 == 0 && random.nextBoolean()) {
+							expectedIterator.remove();
+							iterator.remove();
+						}
+					}
+					break;
+			}
+			assertEquals(expected, list);
+			for (int id = 0; id < 20; id++) {
+				assertSame(ResCloudletList.getById(expected, id), list.getById(id));
+			}
+		}
+	}
+
+}
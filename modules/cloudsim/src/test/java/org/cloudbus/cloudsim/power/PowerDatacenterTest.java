@@ -0,0 +1,76 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.Storage;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.power.models.PowerModelLinear;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 3.1
+ */
+public class PowerDatacenterTest {
+
+	private PowerDatacenter datacenter;
+
+	@Before
+	public void setUp() throws Exception {
+		CloudSim.init(1, Calendar.getInstance(), false);
+		List<Host> hostList = new ArrayList<Host>();
+		List<Pe> peList = new ArrayList<Pe>();
+		peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+		hostList.add(new PowerHost(
+				0,
+				new RamProvisionerSimple(2048),
+				new BwProvisionerSimple(10000),
+				1000000,
+				peList,
+				new VmSchedulerTimeShared(peList),
+				new PowerModelLinear(200, 0.3)));
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+				"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+		datacenter = new PowerDatacenter("Datacenter", characteristics, new PowerVmAllocationPolicySimple(
+				hostList), new LinkedList<Storage>(), 300);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testRejectsAnalyticProcessing() {
+		datacenter.setAnalyticProcessing(true);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testRejectsHostTracking() {
+		datacenter.setHostTracking(true);
+	}
+
+	@Test
+	public void testAcceptsDefaults() {
+		datacenter.setAnalyticProcessing(false);
+		datacenter.setHostTracking(false);
+		assertFalse(datacenter.isAnalyticProcessing());
+		assertFalse(datacenter.isHostTracking());
+	}
+
+}
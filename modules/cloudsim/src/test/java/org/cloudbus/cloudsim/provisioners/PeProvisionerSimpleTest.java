@@ -173,6 +173,16 @@ public class PeProvisionerSimpleTest {
 		assertEquals(MIPS, peProvisioner.getAvailableMips(), 0);
 	}
 
+	@Test
+	@SuppressWarnings("deprecation")
+	public void testAllocateMipsForVmUid() {
+		Vm vm = new Vm(1, 2, MIPS / 2, 1, 0, 0, 0, "", null);
+
+		assertTrue(peProvisioner.allocateMipsForVm(vm.getUid(), MIPS / 2));
+		assertEquals(MIPS / 2, peProvisioner.getTotalAllocatedMipsForVm(vm), 0);
+		assertFalse(peProvisioner.allocateMipsForVm(vm.getUid(), MIPS));
+	}
+
 	@Test
 	public void testDeallocateMipsForVM() {
 		Vm vm1 = new Vm(0, 0, MIPS / 2, 1, 0, 0, 0, "", null);
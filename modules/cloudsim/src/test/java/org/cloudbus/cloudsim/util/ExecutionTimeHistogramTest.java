@@ -0,0 +1,95 @@
+package org.cloudbus.cloudsim.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class ExecutionTimeHistogramTest {
+
+	@Test
+	public void testBuckets() {
+		for (long nanos = 0; nanos < 64; nanos++) {
+			assertEquals(nanos, ExecutionTimeHistogram.getBucketUpperBound(ExecutionTimeHistogram.getBucket(nanos)));
+		}
+		long[] times = { 64, 65, 100, 1000, 123456, 999999999, 1L << 40, Long.MAX_VALUE };
+		for (long nanos : times) {
+			long upperBound = ExecutionTimeHistogram.getBucketUpperBound(ExecutionTimeHistogram.getBucket(nanos));
+			assertTrue(upperBound >= nanos);
+			assertTrue(upperBound - nanos <= nanos / 32);
+		}
+		assertEquals(
+				ExecutionTimeHistogram.getBucket(Long.MAX_VALUE - 1),
+				ExecutionTimeHistogram.getBucket(Long.MAX_VALUE));
+	}
+
+	@Test
+	public void testPercentiles() {
+		ExecutionTimeHistogram histogram = new ExecutionTimeHistogram("test");
+		assertEquals(0, histogram.getPercentile(50));
+		assertEquals(0, histogram.getMean(), 0);
+
+		for (int i = 1; i <= 100; i++) {
+			histogram.record(i * 1000);
+		}
+		histogram.record(-5);
+
+		assertEquals(101, histogram.getCount());
+		assertEquals(100000, histogram.getMax());
+		assertEquals(5050000 / 101.0, histogram.getMean(), 1e-9);
+		assertEquals(0, histogram.getPercentile(0));
+		assertEquals(50000, histogram.getPercentile(50), 50000 / 32);
+		assertEquals(99000, histogram.getPercentile(99), 99000 / 32);
+		assertEquals(100000, histogram.getPercentile(100));
+
+		histogram.reset();
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getMax());
+	}
+
+	@Test
+	public void testConcurrentRecording() throws Exception {
+		final ExecutionTimeHistogram histogram = new ExecutionTimeHistogram("test");
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Future<?>[] results = new Future<?>[4];
+			for (int i = 0; i < results.length; i++) {
+				final int thread = i;
+				results[i] = executor.submit(new Runnable() {
+
+					@Override
+					public void run() {
+						for (int j = 0; j < 10000; j++) {
+							histogram.record(thread * 10000 + j);
+						}
+					}
+
+				});
+			}
+			for (Future<?> result : results) {
+				result.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(40000, histogram.getCount());
+		assertEquals(39999, histogram.getMax());
+		assertEquals(39999 / 2.0, histogram.getMean(), 1e-9);
+	}
+
+	@Test
+	public void testMeasurer() {
+		ExecutionTimeMeasurer.start("testMeasurer");
+		double time = ExecutionTimeMeasurer.end("testMeasurer");
+		assertTrue(time >= 0);
+		assertTrue(ExecutionTimeMeasurer.getExecutionTimes().isEmpty());
+		ExecutionTimeHistogram histogram = ExecutionTimeMeasurer.getHistograms().get("testMeasurer");
+		assertEquals(1, histogram.getCount());
+		assertEquals(Math.round(time * 1000000000.0), histogram.getMax());
+	}
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 3.1
+ */
+public class IndexedIntMaxHeapTest {
+
+	@Test
+	public void testSetPeekRemove() {
+		IndexedIntMaxHeap heap = new IndexedIntMaxHeap(4);
+		assertTrue(heap.isEmpty());
+		assertEquals(-1, heap.peek());
+
+		heap.set(0, 2);
+		heap.set(1, 4);
+		heap.set(2, 4);
+		heap.set(3, 1);
+		assertEquals(4, heap.size());
+		assertEquals(1, heap.peek()); // the lowest index on ties
+
+		heap.set(1, 0);
+		assertEquals(2, heap.peek());
+		assertEquals(0, heap.getValue(1));
+
+		assertTrue(heap.remove(2));
+		assertFalse(heap.remove(2));
+		assertFalse(heap.contains(2));
+		assertEquals(0, heap.peek());
+
+		heap.set(2, 3);
+		assertEquals(2, heap.peek());
+	}
+
+	@Test
+	public void testMatchesLinearScan() {
+		int capacity = 200;
+		IndexedIntMaxHeap heap = new IndexedIntMaxHeap(capacity);
+		int[] values = new int[capacity];
+		boolean[] contained = new boolean[capacity];
+		Random random = new Random(7);
+
+		for (int i = 0; i < 20000; i++) {
+			int index = random.nextInt(capacity);
+			if (random.nextInt(4) == 0) {
+				assertEquals(contained[index], heap.remove(index));
+				contained[index] = false;
+			} else {
+				values[index] = random.nextInt(10) - 5;
+				contained[index] = true;
+				heap.set(index, values[index]);
+			}
+
+			int expected = -1;
+			int size = 0;
+			for (int j = 0; j < capacity; j++) {
+				if (contained[j]) {
+					size++;
+					if (expected < 0 || values[j] > values[expected]) {
+						expected = j;
+					}
+				}
+			}
+			assertEquals(size, heap.size());
+			assertEquals(expected, heap.peek());
+		}
+	}
+
+}
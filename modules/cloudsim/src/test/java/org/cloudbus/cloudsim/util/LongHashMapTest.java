@@ -0,0 +1,125 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.Vm;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 3.1
+ */
+public class LongHashMapTest {
+
+	@Test
+	public void testPutGetRemove() {
+		LongHashMap<String> map = new LongHashMap<String>();
+		assertTrue(map.isEmpty());
+		assertNull(map.put(Vm.getKey(1, 2), "1-2"));
+		assertNull(map.put(Vm.getKey(2, 1), "2-1"));
+		assertEquals("1-2", map.put(Vm.getKey(1, 2), "one-two"));
+		assertEquals(2, map.size());
+		assertEquals("one-two", map.get(Vm.getKey(1, 2)));
+		assertTrue(map.containsKey(Vm.getKey(2, 1)));
+		assertFalse(map.containsKey(Vm.getKey(2, 2)));
+
+		assertEquals("2-1", map.remove(Vm.getKey(2, 1)));
+		assertNull(map.remove(Vm.getKey(2, 1)));
+		assertNull(map.get(Vm.getKey(2, 1)));
+		assertEquals(1, map.size());
+
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertNull(map.get(Vm.getKey(1, 2)));
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNullValue() {
+		new LongHashMap<String>().put(0, null);
+	}
+
+	@Test
+	public void testMatchesHashMap() {
+		Random random = new Random(1);
+		LongHashMap<Integer> map = new LongHashMap<Integer>();
+		Map<Long, Integer> expected = new HashMap<Long, Integer>();
+		for (int i = 0; i < 100000; i++) {
+			// few distinct keys, so that removals hit and probe sequences collide
+			long key = Vm.getKey(random.nextInt(8), random.nextInt(64));
+			switch (random.nextInt(3)) {
+				case 0:
+					assertEquals(expected.put(key, i), map.put(key, i));
+					break;
+				case 1:
+					assertEquals(expected.remove(key), map.remove(key));
+					break;
+				default:
+					assertEquals(expected.get(key), map.get(key));
+					assertEquals(expected.containsKey(key), map.containsKey(key));
+			}
+			assertEquals(expected.size(), map.size());
+		}
+
+		Map<Long, Integer> iterated = new HashMap<Long, Integer>();
+		LongHashMap.Cursor<Integer> cursor = map.cursor();
+		while (cursor.next()) {
+			assertNull(iterated.put(cursor.key(), cursor.value()));
+		}
+		assertEquals(expected, iterated);
+	}
+
+	@Test
+	public void testCursorAllowsReplacingValues() {
+		LongHashMap<Integer> map = new LongHashMap<Integer>();
+		for (int i = 0; i < 100; i++) {
+			map.put(i, i);
+		}
+		LongHashMap.Cursor<Integer> cursor = map.cursor();
+		while (cursor.next()) {
+			map.put(cursor.key(), cursor.value() + 1);
+		}
+		for (int i = 0; i < 100; i++) {
+			assertEquals(Integer.valueOf(i + 1), map.get(i));
+		}
+	}
+
+	@Test(expected = ConcurrentModificationException.class)
+	public void testCursorFailsOnRemoval() {
+		LongHashMap<Integer> map = new LongHashMap<Integer>();
+		map.put(1, 1);
+		map.put(2, 2);
+		LongHashMap.Cursor<Integer> cursor = map.cursor();
+		cursor.next();
+		map.remove(cursor.key());
+		cursor.next();
+	}
+
+	@Test
+	public void testSet() {
+		LongHashSet set = new LongHashSet();
+		assertTrue(set.add(Vm.getKey(0, 1)));
+		assertFalse(set.add(Vm.getKey(0, 1)));
+		assertTrue(set.contains(Vm.getKey(0, 1)));
+		assertFalse(set.contains(Vm.getKey(1, 0)));
+		assertEquals(1, set.size());
+		assertTrue(set.remove(Vm.getKey(0, 1)));
+		assertFalse(set.remove(Vm.getKey(0, 1)));
+		assertTrue(set.isEmpty());
+	}
+
+}